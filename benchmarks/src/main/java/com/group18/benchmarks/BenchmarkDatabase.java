@@ -0,0 +1,477 @@
+package com.group18.benchmarks;
+
+import com.group18.model.SeatMap;
+import org.h2.api.Trigger;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.stream.Stream;
+
+/**
+ * An embedded, in-process stand-in for the cinema database, for benchmarking the DAOs
+ * without a MySQL server.
+ *
+ * The database is an in-memory H2 database in MySQL mode. Its tables are created from the
+ * CREATE TABLE statements of the dump in sql/Dump20250111, rewritten where H2 needs it, and
+ * the reference data of the dump (users, halls, ticket prices and discounts) is loaded as is.
+ * Movies, schedules, products and a year of orders are then generated from a fixed seed, so
+ * every run sees the same data, and finally the scripts in sql/migrations are applied.
+ *
+ * Statements H2 cannot run as written are translated to H2 equivalents: enum columns become
+ * varchar columns with the same CHECK, the MySQL functions, multi-table UPDATE and IF of the
+ * migrations are rewritten, the pricing triggers call {@link PricingVersionTrigger}, and the
+ * seat map backfill is computed in Java. A statement that still fails stops the setup, so the
+ * benchmarks never measure a schema that differs from the production one.
+ *
+ * One difference remains: H2 ignores the OF clause of SELECT ... FOR UPDATE, so the DAOs use a
+ * plain FOR UPDATE on it, which also locks the schedule and hall rows a seat map is read with.
+ * Tills selling the same hall therefore wait for each other more than on MySQL; measure lock
+ * contention with {@link TillLoadGenerator} against a MySQL copy, not with --embedded.
+ *
+ * {@link #start()} must be called before the first DAO is used, since it points
+ * {@link com.group18.dao.DBConnection} at the embedded database through system properties.
+ * The sql directory is looked up as sql or ../sql from the working directory, or wherever the
+ * cinema.sql.dir system property says.
+ */
+public final class BenchmarkDatabase {
+    /** The URL of the embedded database; kept open until the JVM exits. */
+    public static final String URL = "jdbc:h2:mem:cinemadb;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "NON_KEYWORDS=VALUE,HOUR,MINUTE;DB_CLOSE_DELAY=-1";
+
+    /** The first and last day orders are generated for. */
+    public static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    public static final LocalDate LAST_DAY = LocalDate.of(2024, 12, 31);
+
+    /** The ID of the cashier every generated order is sold by, from the dump's users. */
+    public static final int CASHIER_ID = 1;
+
+    /** The number of orders generated, overridable with the cinema.bench.orders system property. */
+    public static final int ORDER_COUNT = Integer.getInteger("cinema.bench.orders", 20_000);
+
+    public static final int MOVIE_COUNT = 20;
+    public static final int PRODUCT_COUNT = 12;
+
+    /** The dump tables, in an order that satisfies their foreign keys. */
+    private static final String[] DUMP_TABLES = {
+            "users", "movies", "halls", "schedules", "products", "orders", "order_items",
+            "ticket_prices", "age_discounts", "price_history"
+    };
+    /** The dump tables whose rows are loaded; the others are generated. */
+    private static final String[] DUMP_DATA = {"users", "halls", "ticket_prices", "age_discounts"};
+
+    /** Sessions per day in each hall. */
+    private static final LocalTime[] SESSION_TIMES = {
+            LocalTime.of(12, 0), LocalTime.of(15, 0), LocalTime.of(18, 0), LocalTime.of(21, 0)
+    };
+    /** Hall IDs, names, capacities and ticket prices, as in the dump. */
+    private static final int[] HALL_IDS = {1, 2};
+    private static final int[] HALL_CAPACITIES = {16, 48};
+    private static final BigDecimal[] HALL_PRICES = {new BigDecimal("25.00"), new BigDecimal("50.00")};
+    private static final String[] PRODUCT_TYPES = {"beverage", "biscuit", "toy"};
+
+    private static final BigDecimal TICKET_VAT_RATE = new BigDecimal("0.20");
+    private static final BigDecimal PRODUCT_VAT_RATE = new BigDecimal("0.10");
+
+    private static boolean started;
+
+    private BenchmarkDatabase() {}
+
+    /**
+     * Creates and seeds the database, once per JVM, and points the application at it.
+     */
+    public static synchronized void start() {
+        if (started) {
+            return;
+        }
+        System.setProperty("cinema.db.url", URL);
+        System.setProperty("cinema.db.username", "sa");
+        System.setProperty("cinema.db.password", "");
+
+        Path sqlDir = findSqlDir();
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "")) {
+            createSchema(connection, sqlDir.resolve("Dump20250111"));
+            seed(connection);
+            applyMigrations(connection, sqlDir.resolve("migrations"));
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("Could not set up the benchmark database", e);
+        }
+        started = true;
+    }
+
+    private static Path findSqlDir() {
+        String configured = System.getProperty("cinema.sql.dir");
+        if (configured != null) {
+            return Path.of(configured);
+        }
+        for (Path candidate : List.of(Path.of("sql"), Path.of("..", "sql"))) {
+            if (Files.isDirectory(candidate.resolve("Dump20250111"))) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("sql directory not found; run from the repository root or set -Dcinema.sql.dir");
+    }
+
+    /**
+     * Creates the dump's tables and loads its reference data.
+     */
+    private static void createSchema(Connection connection, Path dumpDir) throws SQLException, IOException {
+        try (Statement stmt = connection.createStatement()) {
+            for (String table : DUMP_TABLES) {
+                for (String sql : statements(dumpDir.resolve("cinemadb_" + table + ".sql"))) {
+                    if (sql.startsWith("CREATE TABLE")) {
+                        stmt.execute(toH2(sql));
+                    }
+                }
+            }
+            for (String table : DUMP_DATA) {
+                for (String sql : statements(dumpDir.resolve("cinemadb_" + table + ".sql"))) {
+                    if (sql.startsWith("INSERT INTO")) {
+                        stmt.execute(toH2(sql));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the migrations in numeric order, translating the statements H2 cannot run as written.
+     */
+    private static void applyMigrations(Connection connection, Path migrationsDir) throws SQLException, IOException {
+        List<Path> migrations;
+        try (Stream<Path> files = Files.list(migrationsDir)) {
+            migrations = files.filter(file -> file.toString().endsWith(".sql")).sorted().toList();
+        }
+        try (Statement stmt = connection.createStatement()) {
+            for (Path migration : migrations) {
+                for (String sql : statements(migration)) {
+                    for (String part : splitAlterTable(sql)) {
+                        try {
+                            if (part.startsWith("INSERT INTO `schedule_seats`")) {
+                                backfillSeatMaps(connection);
+                            } else {
+                                stmt.execute(toH2(part));
+                            }
+                        } catch (SQLException e) {
+                            throw new SQLException("Could not apply " + migration.getFileName() + ": "
+                                    + part.lines().findFirst().orElse(""), e);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Fills schedule_seats from the tickets that have not been refunded, as the backfill of
+     * 002_schedule_seats.sql does with MySQL's bit functions.
+     */
+    private static void backfillSeatMaps(Connection connection) throws SQLException {
+        String ticketsQuery = """
+            SELECT s.schedule_id, h.capacity, oi.seat_number
+            FROM schedules s
+            JOIN halls h ON s.hall_id = h.hall_id
+            LEFT JOIN order_items oi ON s.schedule_id = oi.schedule_id
+                AND oi.item_type = 'ticket'
+                AND oi.order_id IN (
+                    SELECT order_id FROM orders WHERE status NOT IN ('PROCESSED_FULL', 'PROCESSED_TICKETS')
+                )
+            WHERE h.capacity <= 64
+            ORDER BY s.schedule_id
+            """;
+        String insertQuery = "INSERT INTO schedule_seats (schedule_id, seat_bits, occupied_count) VALUES (?, ?, ?)";
+
+        try (Statement query = connection.createStatement();
+             ResultSet rs = query.executeQuery(ticketsQuery);
+             PreparedStatement insert = connection.prepareStatement(insertQuery)) {
+            int scheduleId = 0;
+            SeatMap seatMap = null;
+            while (rs.next()) {
+                if (seatMap == null || rs.getInt("schedule_id") != scheduleId) {
+                    addSeatMap(insert, scheduleId, seatMap);
+                    scheduleId = rs.getInt("schedule_id");
+                    seatMap = new SeatMap(rs.getInt("capacity"));
+                }
+                int seatNumber = rs.getInt("seat_number");
+                if (!rs.wasNull()) {
+                    seatMap.occupy(seatNumber);
+                }
+            }
+            addSeatMap(insert, scheduleId, seatMap);
+            insert.executeBatch();
+        }
+    }
+
+    private static void addSeatMap(PreparedStatement insert, int scheduleId, SeatMap seatMap) throws SQLException {
+        if (seatMap == null) {
+            return;
+        }
+        insert.setInt(1, scheduleId);
+        insert.setBytes(2, seatMap.toBytes());
+        insert.setInt(3, seatMap.getOccupiedCount());
+        insert.addBatch();
+    }
+
+    /**
+     * Reads the statements of a script, without comments and MySQL's versioned comments.
+     */
+    private static List<String> statements(Path script) throws IOException {
+        // The dump's INSERTs of PDF and image BLOBs are not valid UTF-8; decoding them
+        // leniently is fine since those rows are never loaded
+        StringBuilder text = new StringBuilder();
+        for (String line : new String(Files.readAllBytes(script), StandardCharsets.UTF_8).split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("--") || trimmed.startsWith("/*!") || trimmed.startsWith("LOCK TABLES")
+                    || trimmed.startsWith("UNLOCK TABLES") || trimmed.startsWith("DROP TABLE")) {
+                continue;
+            }
+            text.append(line).append('\n');
+        }
+        List<String> statements = new ArrayList<>();
+        for (String statement : text.toString().split(";\\s*\n")) {
+            if (!statement.isBlank()) {
+                statements.add(statement.trim());
+            }
+        }
+        return statements;
+    }
+
+    /**
+     * Rewrites the MySQL-only parts of a statement that H2 rejects even in MySQL mode.
+     */
+    private static String toH2(String sql) {
+        return sql
+                // Charset introducers on string literals
+                .replace("_utf8mb4'", "'")
+                // Table options after the column list
+                .replaceAll("\\)\\s*ENGINE=[^;]*$", ")")
+                // Column character sets and collations
+                .replaceAll("\\s+CHARACTER SET \\w+", "")
+                .replaceAll("\\s+COLLATE \\w+", "")
+                // Plain secondary indexes inside CREATE TABLE; their names clash with the
+                // foreign key constraints of the same name in H2
+                .replaceAll(",\\s*\n\\s*KEY `\\w+` \\([^)]*\\)", "")
+                // Secondary indexes added by ALTER TABLE
+                .replaceAll("^ALTER TABLE (`\\w+`)\\s+ADD (UNIQUE )?KEY (`\\w+`) (\\([^)]*\\))$",
+                        "CREATE $2INDEX $3 ON $1 $4")
+                // Enum columns, whose values H2 keeps as an ENUM type that COALESCE(column, '')
+                // cannot produce; MySQL treats such an expression as a string
+                .replaceAll("(`\\w+`) enum\\(([^)]*)\\)([^,\n]*)", "$1 varchar(32)$3 CHECK ($1 IN ($2))")
+                .replace("SHA2(`poster_data`, 256)", "LOWER(RAWTOHEX(HASH('SHA-256', `poster_data`)))")
+                // Multi-table UPDATE, as a correlated subquery
+                .replaceAll("(?s)^UPDATE (`\\w+`) (\\w+)\\s+JOIN (`\\w+`) (\\w+) ON (.*?)\\s+SET \\w+\\.(.*?)\\s+WHERE (.*)$",
+                        "UPDATE $1 $2 SET $6 WHERE EXISTS (SELECT 1 FROM $3 $4 WHERE $5 AND $7)")
+                // Generated columns: IF as CASE, and H2 always stores them
+                .replaceAll("(?s)GENERATED ALWAYS AS\\s+\\(IF\\((.*), (`\\w+`), NULL\\)\\) STORED",
+                        "GENERATED ALWAYS AS (CASE WHEN $1 THEN $2 END)")
+                // Triggers with a statement body; H2 triggers are Java classes
+                .replaceAll("(?s)FOR EACH ROW UPDATE `pricing_version` SET `version` = `version` \\+ 1 WHERE `id` = 1$",
+                        Matcher.quoteReplacement("FOR EACH ROW CALL '" + PricingVersionTrigger.class.getName() + "'"));
+    }
+
+    /**
+     * Splits an ALTER TABLE statement with several clauses into one statement per clause,
+     * so that a clause H2 cannot run does not take the others with it.
+     */
+    private static List<String> splitAlterTable(String sql) {
+        if (!sql.startsWith("ALTER TABLE")) {
+            return List.of(sql);
+        }
+        int tableEnd = sql.indexOf('`', sql.indexOf('`') + 1) + 1;
+        String head = sql.substring(0, tableEnd);
+
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        boolean quoted = false;
+        int start = tableEnd;
+        for (int i = tableEnd; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && c == '(') {
+                depth++;
+            } else if (!quoted && c == ')') {
+                depth--;
+            } else if (!quoted && depth == 0 && c == ',') {
+                parts.add(head + " " + sql.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        parts.add(head + " " + sql.substring(start).trim());
+        return parts;
+    }
+
+    /**
+     * Generates movies, schedules, products and a year of orders from a fixed seed.
+     */
+    private static void seed(Connection connection) throws SQLException {
+        Random random = new Random(18);
+        connection.setAutoCommit(false);
+
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO movies (movie_id, title, summary, duration, genre) VALUES (?, ?, ?, ?, ?)")) {
+            for (int movieId = 1; movieId <= MOVIE_COUNT; movieId++) {
+                stmt.setInt(1, movieId);
+                stmt.setString(2, "Benchmark Movie " + movieId);
+                stmt.setString(3, "A generated movie for the benchmarks.");
+                stmt.setInt(4, 90 + random.nextInt(60));
+                stmt.setString(5, "Drama");
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        BigDecimal[] productPrices = new BigDecimal[PRODUCT_COUNT + 1];
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO products (product_id, product_name, product_type, price, stock) VALUES (?, ?, ?, ?, ?)")) {
+            for (int productId = 1; productId <= PRODUCT_COUNT; productId++) {
+                productPrices[productId] = BigDecimal.valueOf(500 + random.nextInt(2500), 2);
+                stmt.setInt(1, productId);
+                stmt.setString(2, "Benchmark Product " + productId);
+                stmt.setString(3, PRODUCT_TYPES[productId % PRODUCT_TYPES.length]);
+                stmt.setBigDecimal(4, productPrices[productId]);
+                stmt.setInt(5, 100_000_000);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        // One schedule per day, hall and session time; schedule IDs follow that order
+        int days = (int) (LAST_DAY.toEpochDay() - FIRST_DAY.toEpochDay()) + 1;
+        int schedulesPerDay = HALL_IDS.length * SESSION_TIMES.length;
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO schedules (schedule_id, movie_id, hall_id, session_date, session_time) VALUES (?, ?, ?, ?, ?)")) {
+            for (int day = 0; day < days; day++) {
+                for (int slot = 0; slot < schedulesPerDay; slot++) {
+                    stmt.setInt(1, day * schedulesPerDay + slot + 1);
+                    stmt.setInt(2, 1 + random.nextInt(MOVIE_COUNT));
+                    stmt.setInt(3, HALL_IDS[slot / SESSION_TIMES.length]);
+                    stmt.setObject(4, FIRST_DAY.plusDays(day));
+                    stmt.setObject(5, SESSION_TIMES[slot % SESSION_TIMES.length]);
+                    stmt.addBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+
+        int[] seatsSold = new int[days * schedulesPerDay + 1];
+        try (PreparedStatement orderStmt = connection.prepareStatement(
+                "INSERT INTO orders (order_id, cashier_id, order_date, total_price, status) VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement itemStmt = connection.prepareStatement(
+                "INSERT INTO order_items (order_id, item_type, schedule_id, seat_number, discount_applied, " +
+                "occupant_first_name, occupant_last_name, product_id, quantity, item_price) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+
+            for (int orderId = 1; orderId <= ORDER_COUNT; orderId++) {
+                int day = random.nextInt(days);
+                LocalDateTime orderDate = FIRST_DAY.plusDays(day).atTime(10 + random.nextInt(13), random.nextInt(60));
+                BigDecimal subtotal = BigDecimal.ZERO;
+                BigDecimal tax = BigDecimal.ZERO;
+
+                int slot = random.nextInt(schedulesPerDay);
+                int scheduleId = day * schedulesPerDay + slot + 1;
+                int hall = slot / SESSION_TIMES.length;
+                int tickets = Math.min(random.nextInt(4), HALL_CAPACITIES[hall] - seatsSold[scheduleId]);
+                for (int i = 0; i < tickets; i++) {
+                    boolean discounted = random.nextInt(5) == 0;
+                    BigDecimal price = discounted ? HALL_PRICES[hall].divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP)
+                            : HALL_PRICES[hall];
+                    addItem(itemStmt, orderId, "ticket", scheduleId, ++seatsSold[scheduleId], discounted, null, 1, price);
+                    subtotal = subtotal.add(price);
+                    tax = tax.add(price.multiply(TICKET_VAT_RATE));
+                }
+
+                int products = random.nextInt(tickets == 0 ? 3 : 4) + (tickets == 0 ? 1 : 0);
+                for (int i = 0; i < products; i++) {
+                    int productId = 1 + random.nextInt(PRODUCT_COUNT);
+                    int quantity = 1 + random.nextInt(3);
+                    BigDecimal amount = productPrices[productId].multiply(BigDecimal.valueOf(quantity));
+                    addItem(itemStmt, orderId, "product", null, null, false, productId, quantity, productPrices[productId]);
+                    subtotal = subtotal.add(amount);
+                    tax = tax.add(amount.multiply(PRODUCT_VAT_RATE));
+                }
+
+                orderStmt.setInt(1, orderId);
+                orderStmt.setInt(2, CASHIER_ID);
+                orderStmt.setTimestamp(3, Timestamp.valueOf(orderDate));
+                orderStmt.setBigDecimal(4, subtotal.add(tax).setScale(2, RoundingMode.HALF_UP));
+                orderStmt.setString(5, status(random));
+                orderStmt.addBatch();
+
+                if (orderId % 1000 == 0) {
+                    orderStmt.executeBatch();
+                    itemStmt.executeBatch();
+                }
+            }
+            orderStmt.executeBatch();
+            itemStmt.executeBatch();
+        }
+
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    private static void addItem(PreparedStatement stmt, int orderId, String itemType, Integer scheduleId,
+                                Integer seatNumber, boolean discounted, Integer productId, int quantity,
+                                BigDecimal price) throws SQLException {
+        stmt.setInt(1, orderId);
+        stmt.setString(2, itemType);
+        stmt.setObject(3, scheduleId, Types.INTEGER);
+        stmt.setObject(4, seatNumber, Types.INTEGER);
+        stmt.setBoolean(5, discounted);
+        stmt.setString(6, scheduleId == null ? null : "Guest");
+        stmt.setString(7, scheduleId == null ? null : "Number " + seatNumber);
+        stmt.setObject(8, productId, Types.INTEGER);
+        stmt.setInt(9, quantity);
+        stmt.setBigDecimal(10, price);
+        stmt.addBatch();
+    }
+
+    /**
+     * The body of the pricing triggers of 005_pricing_version.sql: any change to the ticket
+     * prices or age discounts moves the pricing version on.
+     */
+    public static class PricingVersionTrigger implements Trigger {
+        @Override
+        public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("UPDATE pricing_version SET version = version + 1 WHERE id = 1");
+            }
+        }
+    }
+
+    /**
+     * Picks an order status; most orders are never cancelled.
+     */
+    private static String status(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 4) {
+            return "PROCESSED_FULL";
+        } else if (roll < 6) {
+            return "PROCESSED_TICKETS";
+        } else if (roll < 8) {
+            return "PROCESSED_PRODUCTS";
+        } else if (roll < 9) {
+            return "REJECTED";
+        }
+        return "PENDING";
+    }
+}
@@ -0,0 +1,74 @@
+package com.group18.benchmarks;
+
+import com.group18.model.Order;
+import com.group18.model.OrderItem;
+import com.group18.model.ShoppingCart;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the totals and order creation of {@link ShoppingCart}, which run every time a
+ * cashier changes the cart or checks out. Needs no database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartBenchmark {
+    /** The number of items in the cart, half tickets and half products. */
+    @Param({"4", "16", "64"})
+    public int itemCount;
+
+    private ShoppingCart cart;
+
+    @Setup
+    public void fillCart() {
+        cart = ShoppingCart.getInstance();
+        cart.clear();
+        cart.setCashierId(BenchmarkDatabase.CASHIER_ID);
+        for (int i = 0; i < itemCount; i++) {
+            OrderItem item = new OrderItem();
+            if (i % 2 == 0) {
+                item.setItemType("ticket");
+                item.setScheduleId(1);
+                item.setSeatNumber(i / 2 + 1);
+                item.setDiscountApplied(i % 3 == 0);
+                item.setOccupantFirstName("Guest");
+                item.setOccupantLastName("Number " + i);
+                item.setQuantity(1);
+                item.setItemPrice(new BigDecimal("50.00"));
+            } else {
+                item.setItemType("product");
+                item.setProductId(i % BenchmarkDatabase.PRODUCT_COUNT + 1);
+                item.setDiscountApplied(false);
+                item.setQuantity(1 + i % 3);
+                item.setItemPrice(new BigDecimal("12.50"));
+            }
+            cart.addItem(item);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal getTotal() {
+        return cart.getTotal();
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        return cart.createOrder();
+    }
+}
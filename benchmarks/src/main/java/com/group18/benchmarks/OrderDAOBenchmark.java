@@ -0,0 +1,143 @@
+package com.group18.benchmarks;
+
+import com.group18.dao.OrderDAO;
+import com.group18.dao.SeatConflictException;
+import com.group18.dao.StockShortfallException;
+import com.group18.model.Order;
+import com.group18.model.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the order checkout and history reads of {@link OrderDAO} against the embedded
+ * database.
+ *
+ * Every checkout sells two new seats, so the setup adds schedules in Hall_B after the
+ * generated year with room for far more checkouts than a run makes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderDAOBenchmark {
+    /** The number of days of orders read by the history benchmark. */
+    @Param({"7", "31"})
+    public int rangeDays;
+
+    private static final int CHECKOUT_SCHEDULES = 5_000;
+    private static final int HALL_B_ID = 2;
+    private static final int HALL_B_CAPACITY = 48;
+
+    private OrderDAO orderDAO;
+    private int firstCheckoutSchedule;
+    private int checkouts;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.start();
+        orderDAO = new OrderDAO();
+        firstCheckoutSchedule = addCheckoutSchedules();
+    }
+
+    private int addCheckoutSchedules() throws SQLException {
+        String maxQuery = "SELECT MAX(schedule_id) FROM schedules";
+        String insertQuery = "INSERT INTO schedules (schedule_id, movie_id, hall_id, session_date, session_time) " +
+                "VALUES (?, 1, ?, ?, ?)";
+        try (Connection connection = DriverManager.getConnection(BenchmarkDatabase.URL, "sa", "")) {
+            int first;
+            try (PreparedStatement stmt = connection.prepareStatement(maxQuery);
+                 var rs = stmt.executeQuery()) {
+                rs.next();
+                first = rs.getInt(1) + 1;
+            }
+            LocalDate day = BenchmarkDatabase.LAST_DAY.plusDays(1);
+            try (PreparedStatement stmt = connection.prepareStatement(insertQuery)) {
+                for (int i = 0; i < CHECKOUT_SCHEDULES; i++) {
+                    stmt.setInt(1, first + i);
+                    stmt.setInt(2, HALL_B_ID);
+                    stmt.setObject(3, day.plusDays(i / 24));
+                    stmt.setObject(4, LocalTime.of(i % 24, 0));
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            return first;
+        }
+    }
+
+    /**
+     * Checks out two tickets and a product, as a typical till order does.
+     */
+    @Benchmark
+    public boolean createOrder() throws SeatConflictException, StockShortfallException {
+        int seatsPerOrder = 2;
+        int ordersPerSchedule = HALL_B_CAPACITY / seatsPerOrder;
+        int scheduleIndex = checkouts / ordersPerSchedule;
+        if (scheduleIndex >= CHECKOUT_SCHEDULES) {
+            throw new IllegalStateException("Out of seats for checkouts; raise CHECKOUT_SCHEDULES");
+        }
+        int firstSeat = (checkouts % ordersPerSchedule) * seatsPerOrder + 1;
+        checkouts++;
+
+        List<OrderItem> items = new ArrayList<>();
+        for (int seat = firstSeat; seat < firstSeat + seatsPerOrder; seat++) {
+            OrderItem ticket = new OrderItem();
+            ticket.setItemType("ticket");
+            ticket.setScheduleId(firstCheckoutSchedule + scheduleIndex);
+            ticket.setSeatNumber(seat);
+            ticket.setDiscountApplied(false);
+            ticket.setOccupantFirstName("Guest");
+            ticket.setOccupantLastName("Number " + seat);
+            ticket.setQuantity(1);
+            ticket.setItemPrice(new BigDecimal("50.00"));
+            items.add(ticket);
+        }
+        OrderItem product = new OrderItem();
+        product.setItemType("product");
+        product.setProductId(1);
+        product.setDiscountApplied(false);
+        product.setQuantity(2);
+        product.setItemPrice(new BigDecimal("12.50"));
+        items.add(product);
+
+        Order order = new Order();
+        order.setCashierId(BenchmarkDatabase.CASHIER_ID);
+        order.setOrderDate(LocalDateTime.now());
+        order.setOrderItems(items);
+        order.setTotalPrice(new BigDecimal("147.50"));
+        // A failed checkout is much faster than a real one, so it must not be measured
+        if (!orderDAO.createOrder(order)) {
+            throw new IllegalStateException("Checkout failed; see the log");
+        }
+        return true;
+    }
+
+    @Benchmark
+    public List<Order> getOrdersByDateRange() {
+        LocalDateTime start = BenchmarkDatabase.FIRST_DAY.plusMonths(6).atStartOfDay();
+        return orderDAO.getOrdersByDateRange(start, start.plusDays(rangeDays));
+    }
+}
@@ -0,0 +1,66 @@
+package com.group18.benchmarks;
+
+import com.group18.dao.OrderDAO;
+import com.group18.model.Order;
+import com.group18.util.OrderPdfRenderer;
+import com.itextpdf.text.DocumentException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks rendering the receipt and tickets PDFs of an order, which the background
+ * render queue does after every checkout. The order is one of the generated orders with
+ * both tickets and products; the session and product lookups go to the embedded database.
+ *
+ * Rendering needs the font the application embeds, which is not part of the repository: put
+ * it at src/main/resources/fonts/arial-unicode.ttf and run from the repository root. Any
+ * TrueType font with Turkish characters, such as DejaVu Sans, will do for timing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PdfRenderBenchmark {
+    private OrderPdfRenderer renderer;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        BenchmarkDatabase.start();
+        renderer = new OrderPdfRenderer();
+        OrderDAO orderDAO = new OrderDAO();
+        for (int orderId = 1; orderId <= BenchmarkDatabase.ORDER_COUNT; orderId++) {
+            Order candidate = orderDAO.findOrderById(orderId);
+            if (candidate != null
+                    && candidate.getOrderItems().stream().anyMatch(item -> "ticket".equals(item.getItemType()))
+                    && candidate.getOrderItems().stream().anyMatch(item -> "product".equals(item.getItemType()))) {
+                order = candidate;
+                return;
+            }
+        }
+        throw new IllegalStateException("No generated order has both tickets and products");
+    }
+
+    @Benchmark
+    public byte[] renderReceipt() throws DocumentException, IOException {
+        return renderer.renderReceipt(order);
+    }
+
+    @Benchmark
+    public byte[] renderTickets() throws DocumentException, IOException {
+        return renderer.renderTickets(order);
+    }
+}
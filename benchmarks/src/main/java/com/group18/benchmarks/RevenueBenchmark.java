@@ -0,0 +1,69 @@
+package com.group18.benchmarks;
+
+import com.group18.analytics.SalesColumns;
+import com.group18.analytics.SalesDimension;
+import com.group18.analytics.SalesGroup;
+import com.group18.analytics.SalesQuery;
+import com.group18.dao.RevenueDAO;
+import com.group18.dao.SalesHistoryDAO;
+import com.group18.model.DailyRevenue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the revenue aggregation behind the manager's revenue view: the two months of
+ * the daily rollup the statistics are calculated from, and the in-memory sales breakdown
+ * over a year of order items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RevenueBenchmark {
+    @Param({"HOUR_OF_DAY", "DATE", "MOVIE", "PRODUCT"})
+    public SalesDimension dimension;
+
+    private RevenueDAO revenueDAO;
+    private SalesColumns salesHistory;
+
+    @Setup
+    public void loadHistory() {
+        BenchmarkDatabase.start();
+        revenueDAO = new RevenueDAO();
+        salesHistory = new SalesHistoryDAO().loadSalesColumns(
+                BenchmarkDatabase.FIRST_DAY.atStartOfDay(), BenchmarkDatabase.LAST_DAY.plusDays(1).atStartOfDay());
+        // The DAO answers an SQL error with empty columns, which would make the breakdown trivial
+        if (salesHistory.size() == 0) {
+            throw new IllegalStateException("No sales history loaded; see the log");
+        }
+    }
+
+    /**
+     * Reads the previous and current month from the rollup, as the revenue view does on opening.
+     */
+    @Benchmark
+    public List<DailyRevenue> dailyRevenueTwoMonths() {
+        LocalDate currentMonth = BenchmarkDatabase.LAST_DAY.withDayOfMonth(1);
+        return revenueDAO.getDailyRevenue(currentMonth.minusMonths(1), currentMonth.plusMonths(1));
+    }
+
+    @Benchmark
+    public List<SalesGroup> salesBreakdownYear() {
+        return SalesQuery.over(salesHistory).groupBy(dimension);
+    }
+}
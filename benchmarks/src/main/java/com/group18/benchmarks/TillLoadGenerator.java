@@ -0,0 +1,658 @@
+package com.group18.benchmarks;
+
+import com.group18.dao.DBConnection;
+import com.group18.dao.InventoryService;
+import com.group18.dao.MovieDAO;
+import com.group18.dao.OrderDAO;
+import com.group18.dao.PriceDAO;
+import com.group18.dao.ProductDAO;
+import com.group18.dao.ScheduleDAO;
+import com.group18.dao.SeatConflictException;
+import com.group18.dao.StockShortfallException;
+import com.group18.dao.SeatHoldDAO;
+import com.group18.dao.SeatMapDAO;
+import com.group18.model.Order;
+import com.group18.model.OrderItem;
+import com.group18.model.Product;
+import com.group18.model.Schedule;
+import com.group18.model.ScheduleOverview;
+import com.group18.model.SeatMap;
+import com.group18.util.OrderPdfRenderer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * A headless load driver that simulates several cashiers selling at the same time, to
+ * reproduce the contention of a busy evening and to size hardware.
+ *
+ * Each simulated till runs the checkout flow of the application in a loop, through the same
+ * DAOs and models: it looks up the movies, the sessions of a movie and the products, holds
+ * seats, checks out with {@link OrderDAO#createOrder}, stores the order's documents, and
+ * cancels a fraction of its orders with {@link OrderDAO#processCancellation}. A share of the
+ * checkouts goes to a few "hot" sessions so that tills compete for the same seats.
+ *
+ * At the end it reports the throughput, the p50/p99/p99.9 latency of every step, the deadlocks
+ * the server detected, and checks the data the run touched for seats sold twice, seat maps that
+ * disagree with the tickets, and product stock that does not add up.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.group18.benchmarks.TillLoadGenerator \
+ *      --tills 16 --duration 60 --cancel-rate 0.05 [--embedded] [--render]
+ * </pre>
+ *
+ * Without --embedded the driver uses the database configured for the application (see the
+ * cinema.db.* system properties of {@link DBConnection}) and sells seats of the sessions of
+ * the next seven days, so point it at a local copy, never at the live database. With
+ * --embedded it runs against {@link BenchmarkDatabase} and creates those sessions itself.
+ * That checks the flow end to end, but its contention figures are H2's: checkouts lock the
+ * schedule and hall rows too, so some end in deadlocks MySQL would not have, and a seat map
+ * read after waiting for its lock can be the one from before the wait, so the uq_live_seat key
+ * rejects some checkouts. Both are reported as failed checkouts.
+ *
+ * All tills of one driver share this process's seat hold token, so they only meet each other
+ * at the database's guarantee against double-selling; run several drivers side by side to
+ * exercise seat holds between tills as well.
+ */
+public class TillLoadGenerator {
+    /** The steps of a checkout whose latency is reported. */
+    enum Step {
+        LOOKUP, SEAT_HOLD, CHECKOUT, DOCUMENTS, CANCELLATION, END_TO_END
+    }
+
+    /** Typical sizes of the stored receipt and tickets PDFs, used unless --render is given. */
+    private static final int RECEIPT_BYTES = 40 * 1024;
+    private static final int TICKETS_BYTES = 60 * 1024;
+
+    private static final BigDecimal TICKET_VAT_RATE = new BigDecimal("0.20");
+    private static final BigDecimal PRODUCT_VAT_RATE = new BigDecimal("0.10");
+
+    private final int tillCount;
+    private final long durationNanos;
+    private final double cancelRate;
+    private final int hotSessionCount;
+    private final boolean render;
+
+    private final MovieDAO movieDAO = new MovieDAO();
+    private final ScheduleDAO scheduleDAO = new ScheduleDAO();
+    private final SeatMapDAO seatMapDAO = new SeatMapDAO();
+    private final SeatHoldDAO seatHoldDAO = SeatHoldDAO.getInstance();
+    private final ProductDAO productDAO = new ProductDAO();
+    private final PriceDAO priceDAO = new PriceDAO();
+    private final OrderDAO orderDAO = new OrderDAO();
+
+    /** The sessions tills sell seats of; the first {@link #hotSessionCount} are the hot ones. */
+    private List<Schedule> sessions;
+
+    // Outcome counters, shared by all tills
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder failedCheckouts = new LongAdder();
+    private final LongAdder seatConflicts = new LongAdder();
+    private final LongAdder holdConflicts = new LongAdder();
+    private final LongAdder soldOut = new LongAdder();
+    private final LongAdder documentFailures = new LongAdder();
+    private final LongAdder cancellations = new LongAdder();
+    private final LongAdder failedCancellations = new LongAdder();
+
+    /** The change in stock of each product the run should have caused. */
+    private final Map<Integer, AtomicLong> expectedStockChange = new ConcurrentHashMap<>();
+
+    public TillLoadGenerator(int tillCount, long durationSeconds, double cancelRate, int hotSessionCount, boolean render) {
+        this.tillCount = tillCount;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.cancelRate = cancelRate;
+        this.hotSessionCount = hotSessionCount;
+        this.render = render;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int tills = 8;
+        long duration = 60;
+        double cancelRate = 0.05;
+        int hotSessions = 2;
+        boolean embedded = false;
+        boolean render = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--tills" -> tills = Integer.parseInt(args[++i]);
+                case "--duration" -> duration = Long.parseLong(args[++i]);
+                case "--cancel-rate" -> cancelRate = Double.parseDouble(args[++i]);
+                case "--hot-sessions" -> hotSessions = Integer.parseInt(args[++i]);
+                case "--embedded" -> embedded = true;
+                case "--render" -> render = true;
+                default -> {
+                    System.err.println("Unknown option " + args[i]);
+                    System.err.println("Options: --tills N --duration SECONDS --cancel-rate FRACTION "
+                            + "--hot-sessions N --embedded --render");
+                    System.exit(2);
+                }
+            }
+        }
+
+        if (embedded) {
+            BenchmarkDatabase.start();
+        }
+        TillLoadGenerator generator = new TillLoadGenerator(tills, duration, cancelRate, hotSessions, render);
+        try {
+            generator.run(embedded);
+        } finally {
+            SeatHoldDAO.getInstance().shutdown();
+            InventoryService.getInstance().shutdown();
+            DBConnection.shutdown();
+        }
+    }
+
+    /**
+     * Runs the tills for the configured duration and prints the report.
+     *
+     * @param createSessions whether to create the week's sessions first
+     */
+    public void run(boolean createSessions) throws InterruptedException, SQLException {
+        if (createSessions) {
+            createSessions();
+        }
+        LocalDate today = LocalDate.now();
+        sessions = scheduleDAO.getAllSchedules().stream()
+                .filter(s -> !s.getSessionDate().isBefore(today) && s.getSessionDate().isBefore(today.plusDays(7)))
+                .sorted((a, b) -> Integer.compare(a.getScheduleId(), b.getScheduleId()))
+                .collect(Collectors.toList());
+        if (sessions.isEmpty()) {
+            throw new IllegalStateException("No sessions in the next seven days to sell seats of");
+        }
+
+        Map<Integer, Integer> stockBefore = readStock();
+        long deadlocksBefore = readDeadlockCount();
+
+        List<Till> tills = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(tillCount);
+        long deadline = System.nanoTime() + durationNanos;
+        long started = System.nanoTime();
+        for (int i = 0; i < tillCount; i++) {
+            Till till = new Till(i, deadline, done);
+            tills.add(till);
+            Thread thread = new Thread(till, "till-" + (i + 1));
+            thread.start();
+        }
+        done.await();
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        long deadlocksAfter = readDeadlockCount();
+        report(tills, seconds, deadlocksBefore, deadlocksAfter, stockBefore);
+    }
+
+    /**
+     * Creates sessions of every movie for the coming week in both halls, through the
+     * application's DAO.
+     */
+    private void createSessions() {
+        LocalTime[] times = {LocalTime.of(13, 0), LocalTime.of(16, 0), LocalTime.of(19, 0), LocalTime.of(22, 0)};
+        int movieCount = movieDAO.getAllMovies().size();
+        int movieId = 0;
+        for (int day = 0; day < 7; day++) {
+            for (int hallId = 1; hallId <= 2; hallId++) {
+                for (LocalTime time : times) {
+                    movieId = movieId % movieCount + 1;
+                    scheduleDAO.createSchedule(new Schedule(movieId, hallId, LocalDate.now().plusDays(day), time));
+                }
+            }
+        }
+    }
+
+    /**
+     * One simulated cashier.
+     */
+    private class Till implements Runnable {
+        private final Random random;
+        private final long deadline;
+        private final CountDownLatch done;
+        private final OrderPdfRenderer renderer = render ? new OrderPdfRenderer() : null;
+        /** Latencies in nanoseconds, per step; only this till writes them. */
+        private final Map<Step, LatencyLog> latencies = new EnumMap<>(Step.class);
+
+        Till(int index, long deadline, CountDownLatch done) {
+            this.random = new Random(1000 + index);
+            this.deadline = deadline;
+            this.done = done;
+            for (Step step : Step.values()) {
+                latencies.put(step, new LatencyLog());
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        sell();
+                    } catch (RuntimeException e) {
+                        failedCheckouts.increment();
+                        e.printStackTrace();
+                    }
+                }
+            } finally {
+                done.countDown();
+            }
+        }
+
+        /**
+         * Goes through one checkout, from looking up the movies to storing the documents.
+         */
+        private void sell() {
+            long start = System.nanoTime();
+
+            // Movie lookup, session select and the product list
+            long t = System.nanoTime();
+            Schedule session = pickSession();
+            movieDAO.getAllMovies();
+            scheduleDAO.getSchedulesBetweenDates(session.getMovieId(), LocalDate.now(), LocalDate.now().plusDays(7));
+            ScheduleOverview overview = scheduleDAO.getScheduleOverview(session.getScheduleId());
+            List<Product> products = productDAO.getAllProducts();
+            record(Step.LOOKUP, t);
+            if (overview == null) {
+                soldOut.increment();
+                return;
+            }
+
+            // Seat select
+            t = System.nanoTime();
+            List<Integer> seats = pickSeats(session.getScheduleId(), 1 + random.nextInt(4));
+            if (seats.isEmpty()) {
+                soldOut.increment();
+                return;
+            }
+            List<Integer> notHeld = seatHoldDAO.hold(session.getScheduleId(), seats);
+            record(Step.SEAT_HOLD, t);
+            if (!notHeld.isEmpty()) {
+                holdConflicts.increment();
+                seatHoldDAO.release(session.getScheduleId(), seats);
+                return;
+            }
+
+            Order order = buildOrder(session, overview, seats, products);
+
+            // Checkout
+            t = System.nanoTime();
+            boolean created;
+            try {
+                created = orderDAO.createOrder(order);
+            } catch (SeatConflictException e) {
+                record(Step.CHECKOUT, t);
+                seatConflicts.increment();
+                seatHoldDAO.release(session.getScheduleId(), seats);
+                return;
+            } catch (StockShortfallException e) {
+                record(Step.CHECKOUT, t);
+                soldOut.increment();
+                seatHoldDAO.release(session.getScheduleId(), seats);
+                return;
+            }
+            record(Step.CHECKOUT, t);
+            if (!created) {
+                failedCheckouts.increment();
+                seatHoldDAO.release(session.getScheduleId(), seats);
+                return;
+            }
+            checkouts.increment();
+            for (OrderItem item : order.getOrderItems()) {
+                if ("product".equals(item.getItemType())) {
+                    stockChange(item.getProductId()).addAndGet(-item.getQuantity());
+                }
+            }
+
+            // Document storage
+            t = System.nanoTime();
+            if (!storeDocuments(order)) {
+                documentFailures.increment();
+            }
+            record(Step.DOCUMENTS, t);
+            record(Step.END_TO_END, start);
+
+            // A share of the orders come back for a refund
+            if (random.nextDouble() < cancelRate) {
+                cancel(order);
+            }
+        }
+
+        /**
+         * Picks a session, half of the time one of the hot ones.
+         */
+        private Schedule pickSession() {
+            int hot = Math.min(hotSessionCount, sessions.size());
+            if (hot > 0 && random.nextBoolean()) {
+                return sessions.get(random.nextInt(hot));
+            }
+            return sessions.get(random.nextInt(sessions.size()));
+        }
+
+        /**
+         * Picks free seats next to each other, as customers do, starting at a random free seat.
+         */
+        private List<Integer> pickSeats(int scheduleId, int count) {
+            SeatMap seatMap = seatMapDAO.getSeatMap(scheduleId);
+            if (seatMap == null) {
+                return List.of();
+            }
+            Set<Integer> heldByOthers = seatHoldDAO.getSeatsHeldByOthers(scheduleId);
+            List<Integer> free = new ArrayList<>();
+            for (int seat = 1; seat <= seatMap.getCapacity(); seat++) {
+                if (!seatMap.isOccupied(seat) && !heldByOthers.contains(seat)) {
+                    free.add(seat);
+                }
+            }
+            if (free.isEmpty()) {
+                return List.of();
+            }
+            int first = random.nextInt(free.size());
+            return new ArrayList<>(free.subList(first, Math.min(free.size(), first + count)));
+        }
+
+        private Order buildOrder(Schedule session, ScheduleOverview overview, List<Integer> seats, List<Product> products) {
+            BigDecimal ticketPrice = BigDecimal.valueOf(priceDAO.getTicketPrice(overview.getHallName()));
+            BigDecimal discountRate = BigDecimal.valueOf(priceDAO.getAgeDiscount()).movePointLeft(2);
+            List<OrderItem> items = new ArrayList<>();
+            BigDecimal subtotal = BigDecimal.ZERO;
+            BigDecimal tax = BigDecimal.ZERO;
+
+            for (int seat : seats) {
+                boolean discounted = random.nextInt(5) == 0;
+                BigDecimal price = discounted
+                        ? ticketPrice.subtract(ticketPrice.multiply(discountRate)).setScale(2, RoundingMode.HALF_UP)
+                        : ticketPrice.setScale(2, RoundingMode.HALF_UP);
+                OrderItem ticket = new OrderItem();
+                ticket.setItemType("ticket");
+                ticket.setScheduleId(session.getScheduleId());
+                ticket.setSeatNumber(seat);
+                ticket.setDiscountApplied(discounted);
+                ticket.setOccupantFirstName("Load");
+                ticket.setOccupantLastName("Test " + seat);
+                ticket.setQuantity(1);
+                ticket.setItemPrice(price);
+                items.add(ticket);
+                subtotal = subtotal.add(price);
+                tax = tax.add(price.multiply(TICKET_VAT_RATE));
+            }
+
+            int productLines = products.isEmpty() ? 0 : random.nextInt(3);
+            for (int i = 0; i < productLines; i++) {
+                Product product = products.get(random.nextInt(products.size()));
+                int quantity = 1 + random.nextInt(2);
+                if (product.getStock() < quantity
+                        || items.stream().anyMatch(item -> Integer.valueOf(product.getProductId()).equals(item.getProductId()))) {
+                    continue;
+                }
+                OrderItem item = new OrderItem();
+                item.setItemType("product");
+                item.setProductId(product.getProductId());
+                item.setDiscountApplied(false);
+                item.setQuantity(quantity);
+                item.setItemPrice(product.getPrice());
+                items.add(item);
+                BigDecimal amount = product.getPrice().multiply(BigDecimal.valueOf(quantity));
+                subtotal = subtotal.add(amount);
+                tax = tax.add(amount.multiply(PRODUCT_VAT_RATE));
+            }
+
+            Order order = new Order();
+            order.setCashierId(BenchmarkDatabase.CASHIER_ID);
+            order.setOrderDate(LocalDateTime.now());
+            order.setOrderItems(items);
+            order.setTotalPrice(subtotal.add(tax).setScale(2, RoundingMode.HALF_UP));
+            return order;
+        }
+
+        private boolean storeDocuments(Order order) {
+            byte[] receipt;
+            byte[] tickets;
+            if (renderer != null) {
+                try {
+                    receipt = renderer.renderReceipt(order);
+                    tickets = renderer.renderTickets(order);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    return false;
+                }
+            } else {
+                receipt = new byte[RECEIPT_BYTES];
+                tickets = new byte[TICKETS_BYTES];
+                random.nextBytes(receipt);
+                random.nextBytes(tickets);
+            }
+            return orderDAO.storeDocuments(order.getOrderId(), receipt, tickets);
+        }
+
+        /**
+         * Refunds the tickets, the products or the whole order, at random.
+         */
+        private void cancel(Order order) {
+            boolean hasProducts = order.getOrderItems().stream().anyMatch(item -> "product".equals(item.getItemType()));
+            int choice = random.nextInt(3);
+            boolean cancelTickets = choice != 1 || !hasProducts;
+            boolean cancelProducts = hasProducts && choice != 0;
+
+            long t = System.nanoTime();
+            boolean cancelled = orderDAO.processCancellation(order.getOrderId(), cancelProducts, cancelTickets);
+            record(Step.CANCELLATION, t);
+            if (!cancelled) {
+                failedCancellations.increment();
+                return;
+            }
+            cancellations.increment();
+            if (cancelProducts) {
+                for (OrderItem item : order.getOrderItems()) {
+                    if ("product".equals(item.getItemType())) {
+                        stockChange(item.getProductId()).addAndGet(item.getQuantity());
+                    }
+                }
+            }
+        }
+
+        private void record(Step step, long startNanos) {
+            latencies.get(step).add(System.nanoTime() - startNanos);
+        }
+    }
+
+    private AtomicLong stockChange(int productId) {
+        return expectedStockChange.computeIfAbsent(productId, id -> new AtomicLong());
+    }
+
+    /**
+     * A growable list of latencies, owned by one thread.
+     */
+    private static final class LatencyLog {
+        private long[] nanos = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+        }
+    }
+
+    /**
+     * Reads the stock of every product, after applying the inventory journal so it is the true stock.
+     */
+    private Map<Integer, Integer> readStock() {
+        InventoryService.getInstance().flush();
+        Map<Integer, Integer> stock = new HashMap<>();
+        for (Product product : productDAO.getAllProducts()) {
+            stock.put(product.getProductId(), product.getStock());
+        }
+        return stock;
+    }
+
+    /**
+     * Reads the number of deadlocks the server has detected since it started.
+     *
+     * @return the count, or -1 if the database does not report it (only MySQL does)
+     */
+    private long readDeadlockCount() {
+        String query = "SELECT `count` FROM information_schema.INNODB_METRICS WHERE name = 'lock_deadlocks'";
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : -1;
+        } catch (SQLException e) {
+            return -1;
+        }
+    }
+
+    private void report(List<Till> tills, double seconds, long deadlocksBefore, long deadlocksAfter,
+                        Map<Integer, Integer> stockBefore) throws SQLException {
+        System.out.printf("%n%d tills for %.1f s against %s%n", tillCount, seconds,
+                System.getProperty("cinema.db.url", "the application database"));
+        System.out.printf("Checkouts: %d (%.1f/s)%n", checkouts.sum(), checkouts.sum() / seconds);
+        System.out.printf("Lost seats: %d at checkout, %d at hold; sold out: %d%n",
+                seatConflicts.sum(), holdConflicts.sum(), soldOut.sum());
+        System.out.printf("Failed: %d checkouts, %d document stores, %d cancellations (%d succeeded)%n",
+                failedCheckouts.sum(), documentFailures.sum(), failedCancellations.sum(), cancellations.sum());
+        System.out.println("Deadlocks: " + (deadlocksBefore < 0 || deadlocksAfter < 0
+                ? "not reported by this database" : String.valueOf(deadlocksAfter - deadlocksBefore)));
+
+        System.out.printf("%n%-13s %9s %10s %10s %10s %10s%n", "Step (ms)", "count", "p50", "p99", "p99.9", "max");
+        for (Step step : Step.values()) {
+            long[] all = merge(tills, step);
+            if (all.length == 0) {
+                continue;
+            }
+            System.out.printf("%-13s %9d %10.2f %10.2f %10.2f %10.2f%n", step, all.length,
+                    percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999), all[all.length - 1] / 1e6);
+        }
+
+        System.out.println();
+        checkDoubleBookings();
+        checkSeatMaps();
+        checkStock(stockBefore);
+    }
+
+    private long[] merge(List<Till> tills, Step step) {
+        int total = 0;
+        for (Till till : tills) {
+            total += till.latencies.get(step).size;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (Till till : tills) {
+            LatencyLog log = till.latencies.get(step);
+            System.arraycopy(log.nanos, 0, all, offset, log.size);
+            offset += log.size;
+        }
+        Arrays.sort(all);
+        return all;
+    }
+
+    private double percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * Looks for seats of the run's sessions with more than one live ticket.
+     */
+    private void checkDoubleBookings() throws SQLException {
+        String query = """
+            SELECT schedule_id, seat_number, COUNT(*) AS tickets
+            FROM order_items
+            WHERE item_type = 'ticket' AND seat_released = 0 AND schedule_id = ?
+            GROUP BY schedule_id, seat_number
+            HAVING COUNT(*) > 1
+        """;
+        int doubleBooked = 0;
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            for (Schedule session : sessions) {
+                stmt.setInt(1, session.getScheduleId());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        doubleBooked++;
+                        System.out.printf("  seat %d of schedule %d sold %d times%n",
+                                rs.getInt("seat_number"), rs.getInt("schedule_id"), rs.getInt("tickets"));
+                    }
+                }
+            }
+        }
+        System.out.println("Seat double-bookings: " + doubleBooked);
+    }
+
+    /**
+     * Compares the seat map of every session of the run with its live tickets.
+     */
+    private void checkSeatMaps() throws SQLException {
+        String query = """
+            SELECT seat_number
+            FROM order_items
+            WHERE item_type = 'ticket' AND seat_released = 0 AND schedule_id = ?
+        """;
+        int drifted = 0;
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            for (Schedule session : sessions) {
+                SeatMap seatMap = seatMapDAO.getSeatMap(session.getScheduleId());
+                if (seatMap == null) {
+                    continue;
+                }
+                Set<Integer> sold = new HashSet<>();
+                stmt.setInt(1, session.getScheduleId());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        sold.add(rs.getInt(1));
+                    }
+                }
+                for (int seat = 1; seat <= seatMap.getCapacity(); seat++) {
+                    if (seatMap.isOccupied(seat) != sold.contains(seat)) {
+                        drifted++;
+                        System.out.printf("  seat %d of schedule %d is %s in the seat map%n", seat,
+                                session.getScheduleId(), seatMap.isOccupied(seat) ? "occupied" : "free");
+                    }
+                }
+            }
+        }
+        System.out.println("Seat map mismatches: " + drifted);
+    }
+
+    /**
+     * Compares the stock of every product with its stock before the run and the sales
+     * and refunds the tills made.
+     */
+    private void checkStock(Map<Integer, Integer> stockBefore) {
+        int anomalies = 0;
+        Map<Integer, Integer> stockAfter = readStock();
+        List<Integer> productIds = new ArrayList<>(stockAfter.keySet());
+        Collections.sort(productIds);
+        for (int productId : productIds) {
+            int before = stockBefore.getOrDefault(productId, 0);
+            int after = stockAfter.get(productId);
+            long expected = before + expectedStockChange.getOrDefault(productId, new AtomicLong()).get();
+            if (after != expected || after < 0) {
+                anomalies++;
+                System.out.printf("  product %d: stock %d, expected %d%n", productId, after, expected);
+            }
+        }
+        System.out.println("Stock anomalies: " + anomalies);
+    }
+}
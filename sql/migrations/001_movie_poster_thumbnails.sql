@@ -0,0 +1,12 @@
+--
+-- Pre-scaled poster thumbnails for the movie grids.
+-- poster_thumb holds a small JPEG rendition of poster_data and poster_hash the
+-- SHA-256 of the original, which the client uses as its image cache key.
+-- Thumbnails for existing rows are generated by the application on first use.
+--
+
+ALTER TABLE `movies`
+  ADD COLUMN `poster_thumb` mediumblob AFTER `poster_data`,
+  ADD COLUMN `poster_hash` char(64) DEFAULT NULL AFTER `poster_thumb`;
+
+UPDATE `movies` SET `poster_hash` = SHA2(`poster_data`, 256) WHERE `poster_data` IS NOT NULL;
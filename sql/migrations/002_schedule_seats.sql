@@ -0,0 +1,33 @@
+--
+-- Materialized seat occupancy per schedule.
+-- seat_bits holds one bit per seat (seat n in bit n - 1, bytes little-endian, as
+-- written by java.util.BitSet.toByteArray) and occupied_count its population count.
+-- Rows are maintained by the application when tickets are sold and refunded.
+--
+
+CREATE TABLE `schedule_seats` (
+  `schedule_id` int NOT NULL,
+  `seat_bits` varbinary(256) NOT NULL,
+  `occupied_count` int NOT NULL DEFAULT '0',
+  PRIMARY KEY (`schedule_id`),
+  CONSTRAINT `fk_sseats_schedule` FOREIGN KEY (`schedule_id`) REFERENCES `schedules` (`schedule_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- Backfill from the tickets that have not been refunded. The bitmap is built as a
+-- 64-bit mask, which covers both halls; schedules left out here are rebuilt by the
+-- application the first time they are used.
+INSERT INTO `schedule_seats` (`schedule_id`, `seat_bits`, `occupied_count`)
+SELECT s.`schedule_id`,
+       REVERSE(UNHEX(LPAD(HEX(BIT_OR(IF(oi.`seat_number` BETWEEN 1 AND 64, 1 << (oi.`seat_number` - 1), 0))), 16, '0'))),
+       COUNT(DISTINCT oi.`seat_number`)
+FROM `schedules` s
+JOIN `halls` h ON s.`hall_id` = h.`hall_id`
+LEFT JOIN `order_items` oi ON s.`schedule_id` = oi.`schedule_id`
+    AND oi.`item_type` = 'ticket'
+    AND oi.`order_id` IN (
+        SELECT `order_id`
+        FROM `orders`
+        WHERE `status` NOT IN ('PROCESSED_FULL', 'PROCESSED_TICKETS')
+    )
+WHERE h.`capacity` <= 64
+GROUP BY s.`schedule_id`;
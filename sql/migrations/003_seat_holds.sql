@@ -0,0 +1,38 @@
+--
+-- Seat holds and a uniqueness guarantee for sold seats.
+-- seat_holds records the seats a till has selected but not sold yet. Each hold
+-- belongs to one till (hold_token) and lapses at expires_at unless renewed.
+-- uq_live_seat makes the database reject a second live ticket for the same seat.
+-- A ticket stops being live once seat_released is set, which happens when it is
+-- refunded.
+--
+
+CREATE TABLE `seat_holds` (
+  `schedule_id` int NOT NULL,
+  `seat_number` int NOT NULL,
+  `hold_token` char(36) NOT NULL,
+  `expires_at` datetime(3) NOT NULL,
+  PRIMARY KEY (`schedule_id`, `seat_number`),
+  KEY `idx_holds_token` (`hold_token`),
+  KEY `idx_holds_expiry` (`expires_at`),
+  CONSTRAINT `fk_holds_schedule` FOREIGN KEY (`schedule_id`) REFERENCES `schedules` (`schedule_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+ALTER TABLE `order_items`
+  ADD COLUMN `seat_released` tinyint(1) NOT NULL DEFAULT '0' AFTER `seat_number`;
+
+UPDATE `order_items` oi
+JOIN `orders` o ON oi.`order_id` = o.`order_id`
+SET oi.`seat_released` = 1
+WHERE oi.`item_type` = 'ticket'
+  AND o.`status` IN ('PROCESSED_FULL', 'PROCESSED_TICKETS');
+
+-- This fails if the existing data already holds two live tickets for one seat.
+-- Find them first with:
+--   SELECT schedule_id, seat_number, COUNT(*) FROM order_items
+--   WHERE item_type = 'ticket' AND seat_released = 0
+--   GROUP BY schedule_id, seat_number HAVING COUNT(*) > 1;
+ALTER TABLE `order_items`
+  ADD COLUMN `live_schedule_id` int GENERATED ALWAYS AS
+      (IF(`item_type` = 'ticket' AND `seat_released` = 0, `schedule_id`, NULL)) STORED,
+  ADD UNIQUE KEY `uq_live_seat` (`live_schedule_id`, `seat_number`);
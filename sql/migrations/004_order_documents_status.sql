@@ -0,0 +1,13 @@
+--
+-- Background rendering state of the receipt and tickets PDFs of an order.
+-- Orders are stored as PENDING and their documents are rendered after checkout;
+-- the renderer sets READY once both PDFs are stored, or FAILED after its last
+-- retry. Orders left PENDING by a till that closed mid-render are picked up
+-- again the next time a till starts.
+--
+
+ALTER TABLE `orders`
+  ADD COLUMN `documents_status` varchar(10) NOT NULL DEFAULT 'READY' AFTER `tickets_pdf`,
+  ADD CONSTRAINT `orders_chk_documents_status`
+      CHECK (`documents_status` in ('PENDING', 'READY', 'FAILED')),
+  ADD KEY `idx_orders_documents_status` (`documents_status`);
@@ -0,0 +1,30 @@
+--
+-- Version counter for ticket prices and discounts.
+-- Tills keep the current prices in memory and only compare this counter to
+-- notice a change made elsewhere. The triggers bump it on every change to
+-- ticket_prices or age_discounts, including changes made outside the
+-- application, so no writer can forget to.
+--
+
+CREATE TABLE `pricing_version` (
+  `id` tinyint NOT NULL,
+  `version` bigint NOT NULL DEFAULT '1',
+  PRIMARY KEY (`id`),
+  CONSTRAINT `pricing_version_single_row` CHECK (`id` = 1)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+INSERT INTO `pricing_version` (`id`, `version`) VALUES (1, 1);
+
+CREATE TRIGGER `trg_ticket_prices_insert` AFTER INSERT ON `ticket_prices`
+  FOR EACH ROW UPDATE `pricing_version` SET `version` = `version` + 1 WHERE `id` = 1;
+CREATE TRIGGER `trg_ticket_prices_update` AFTER UPDATE ON `ticket_prices`
+  FOR EACH ROW UPDATE `pricing_version` SET `version` = `version` + 1 WHERE `id` = 1;
+CREATE TRIGGER `trg_ticket_prices_delete` AFTER DELETE ON `ticket_prices`
+  FOR EACH ROW UPDATE `pricing_version` SET `version` = `version` + 1 WHERE `id` = 1;
+
+CREATE TRIGGER `trg_age_discounts_insert` AFTER INSERT ON `age_discounts`
+  FOR EACH ROW UPDATE `pricing_version` SET `version` = `version` + 1 WHERE `id` = 1;
+CREATE TRIGGER `trg_age_discounts_update` AFTER UPDATE ON `age_discounts`
+  FOR EACH ROW UPDATE `pricing_version` SET `version` = `version` + 1 WHERE `id` = 1;
+CREATE TRIGGER `trg_age_discounts_delete` AFTER DELETE ON `age_discounts`
+  FOR EACH ROW UPDATE `pricing_version` SET `version` = `version` + 1 WHERE `id` = 1;
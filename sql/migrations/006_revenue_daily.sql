@@ -0,0 +1,29 @@
+--
+-- Daily revenue rollup for the manager dashboard.
+-- One row per day, item type, hall (0 for products) and product type ('' for
+-- tickets) holding the items sold and their revenue before tax, counting only
+-- items that have not been refunded. Rows are maintained by the application
+-- in the transactions that create and cancel orders.
+--
+
+CREATE TABLE `revenue_daily` (
+  `revenue_date` date NOT NULL,
+  `item_type` varchar(10) NOT NULL,
+  `hall_id` int NOT NULL DEFAULT '0',
+  `product_type` varchar(20) NOT NULL DEFAULT '',
+  `item_count` int NOT NULL DEFAULT '0',
+  `revenue` decimal(12,2) NOT NULL DEFAULT '0.00',
+  PRIMARY KEY (`revenue_date`, `item_type`, `hall_id`, `product_type`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+INSERT INTO `revenue_daily` (`revenue_date`, `item_type`, `hall_id`, `product_type`, `item_count`, `revenue`)
+SELECT DATE(o.`order_date`), oi.`item_type`, COALESCE(s.`hall_id`, 0), COALESCE(p.`product_type`, ''),
+       SUM(oi.`quantity`), SUM(oi.`item_price` * oi.`quantity`)
+FROM `orders` o
+JOIN `order_items` oi ON oi.`order_id` = o.`order_id`
+LEFT JOIN `schedules` s ON oi.`schedule_id` = s.`schedule_id`
+LEFT JOIN `products` p ON oi.`product_id` = p.`product_id`
+WHERE o.`status` <> 'PROCESSED_FULL'
+  AND NOT (o.`status` = 'PROCESSED_TICKETS' AND oi.`item_type` = 'ticket')
+  AND NOT (o.`status` = 'PROCESSED_PRODUCTS' AND oi.`item_type` = 'product')
+GROUP BY DATE(o.`order_date`), oi.`item_type`, COALESCE(s.`hall_id`, 0), COALESCE(p.`product_type`, '');
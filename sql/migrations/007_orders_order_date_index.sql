@@ -0,0 +1,7 @@
+--
+-- Index on the order date, so the sales history of a period can be read in
+-- date order without scanning and sorting the whole orders table.
+--
+
+ALTER TABLE `orders`
+  ADD KEY `idx_orders_order_date` (`order_date`, `order_id`);
@@ -0,0 +1,8 @@
+--
+-- Index on the order status and date, so the cancellations screen can page
+-- through the orders of one status newest first, and count the pending and
+-- today's processed cancellations, without scanning the whole orders table.
+--
+
+ALTER TABLE `orders`
+  ADD KEY `idx_orders_status_date` (`status`, `order_date`, `order_id`);
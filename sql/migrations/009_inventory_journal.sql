@@ -0,0 +1,18 @@
+--
+-- Journal of concession stock changes not yet applied to products.stock.
+-- Checkouts and refunds insert a row per product in their own transaction
+-- instead of updating the product rows, and a background flusher applies the
+-- rows to products.stock in batches, deleting them in the same transaction.
+-- The true stock of a product is its stock plus the sum of its journal rows.
+-- There is deliberately no foreign key to products: checking it would lock
+-- the product rows on every insert, which the journal exists to avoid.
+--
+
+CREATE TABLE `inventory_journal` (
+  `journal_id` bigint NOT NULL AUTO_INCREMENT,
+  `product_id` int NOT NULL,
+  `delta` int NOT NULL,
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`journal_id`),
+  KEY `idx_inventory_journal_product` (`product_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,17 @@
+--
+-- Log of changes to products, users, movies, orders and schedules, written by
+-- the DAOs alongside each change. Every running instance polls it by change_id
+-- so its open screens can update the changed rows instead of reloading whole
+-- tables, including after edits made at other tills. Rows older than a day
+-- are pruned by the pollers.
+--
+
+CREATE TABLE `change_log` (
+  `change_id` bigint NOT NULL AUTO_INCREMENT,
+  `entity` varchar(20) NOT NULL,
+  `entity_id` int NOT NULL,
+  `change_type` varchar(10) NOT NULL,
+  `changed_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`change_id`),
+  KEY `idx_change_log_changed_at` (`changed_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
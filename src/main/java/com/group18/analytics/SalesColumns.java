@@ -0,0 +1,299 @@
+package com.group18.analytics;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sold order items held column by column in primitive arrays, for scanning many of them quickly.
+ *
+ * Each row is one order item together with the order it belongs to. Times are stored as
+ * minutes since 1970-01-01T00:00 in local wall-clock time, amounts as cents, and the item
+ * type and order status as small codes into a dictionary, so a year of sales takes a few
+ * dozen bytes per item and no objects per row. Rows are kept in order of their time, which
+ * lets a query find the rows of a period by binary search.
+ *
+ * A SalesColumns object is immutable once built and may be scanned by several threads at once.
+ */
+public final class SalesColumns {
+    /** Minutes in a day. */
+    static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final int size;
+    private final int[] orderIds;
+    private final int[] cashierIds;
+    private final int[] minutes;
+    private final byte[] itemTypes;
+    private final byte[] statuses;
+    private final int[] hallIds;
+    private final int[] movieIds;
+    private final int[] productIds;
+    private final int[] quantities;
+    private final long[] cents;
+
+    private final List<String> itemTypeDictionary;
+    private final List<String> statusDictionary;
+    /** Whether an item is refunded, by status code and item type code. */
+    private final boolean[][] refunded;
+
+    /** The largest value of each id column, by dimension, for sizing group tables. */
+    private final int maxHallId;
+    private final int maxMovieId;
+    private final int maxCashierId;
+    private final int maxProductId;
+
+    private final Map<Integer, String> hallNames;
+    private final Map<Integer, String> movieTitles;
+    private final Map<Integer, String> cashierNames;
+    private final Map<Integer, String> productNames;
+
+    private SalesColumns(Builder builder, Map<Integer, String> hallNames, Map<Integer, String> movieTitles,
+                         Map<Integer, String> cashierNames, Map<Integer, String> productNames) {
+        size = builder.size;
+        orderIds = Arrays.copyOf(builder.orderIds, size);
+        cashierIds = Arrays.copyOf(builder.cashierIds, size);
+        minutes = Arrays.copyOf(builder.minutes, size);
+        itemTypes = Arrays.copyOf(builder.itemTypes, size);
+        statuses = Arrays.copyOf(builder.statuses, size);
+        hallIds = Arrays.copyOf(builder.hallIds, size);
+        movieIds = Arrays.copyOf(builder.movieIds, size);
+        productIds = Arrays.copyOf(builder.productIds, size);
+        quantities = Arrays.copyOf(builder.quantities, size);
+        cents = Arrays.copyOf(builder.cents, size);
+
+        itemTypeDictionary = Collections.unmodifiableList(new ArrayList<>(builder.itemTypeCodes.keySet()));
+        statusDictionary = Collections.unmodifiableList(new ArrayList<>(builder.statusCodes.keySet()));
+        refunded = new boolean[statusDictionary.size()][itemTypeDictionary.size()];
+        for (int status = 0; status < statusDictionary.size(); status++) {
+            for (int type = 0; type < itemTypeDictionary.size(); type++) {
+                refunded[status][type] = isRefunded(statusDictionary.get(status), itemTypeDictionary.get(type));
+            }
+        }
+
+        maxHallId = max(hallIds);
+        maxMovieId = max(movieIds);
+        maxCashierId = max(cashierIds);
+        maxProductId = max(productIds);
+
+        this.hallNames = Collections.unmodifiableMap(new HashMap<>(hallNames));
+        this.movieTitles = Collections.unmodifiableMap(new HashMap<>(movieTitles));
+        this.cashierNames = Collections.unmodifiableMap(new HashMap<>(cashierNames));
+        this.productNames = Collections.unmodifiableMap(new HashMap<>(productNames));
+    }
+
+    /**
+     * Converts a date and time to the minute representation used by the columns.
+     *
+     * @param dateTime the local date and time
+     * @return the minutes since 1970-01-01T00:00
+     */
+    public static int toMinute(LocalDateTime dateTime) {
+        return (int) (dateTime.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    /**
+     * Decides whether an item of an order with the given status has been refunded:
+     * every item of a fully cancelled order, and the tickets or the products of a partly
+     * cancelled one.
+     */
+    private static boolean isRefunded(String status, String itemType) {
+        return "PROCESSED_FULL".equals(status)
+                || ("PROCESSED_TICKETS".equals(status) && "ticket".equals(itemType))
+                || ("PROCESSED_PRODUCTS".equals(status) && "product".equals(itemType));
+    }
+
+    /**
+     * Retrieves the number of rows.
+     *
+     * @return the number of order items held
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the first row at or after a minute.
+     *
+     * @param minute the minute, as returned by {@link #toMinute}
+     * @return the index of the first row whose time is not before the minute, or {@link #size()} if there is none
+     */
+    int firstRowAtOrAfter(int minute) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (minutes[mid] < minute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Retrieves the code of an item type, for comparing with {@link #itemType(int)}.
+     *
+     * @param itemType the item type, e.g. "ticket"
+     * @return the code, or -1 if no row has that item type
+     */
+    public int itemTypeCode(String itemType) {
+        return itemTypeDictionary.indexOf(itemType);
+    }
+
+    int orderId(int row) { return orderIds[row]; }
+    int cashierId(int row) { return cashierIds[row]; }
+    int minute(int row) { return minutes[row]; }
+    int itemType(int row) { return itemTypes[row]; }
+    int hallId(int row) { return hallIds[row]; }
+    int movieId(int row) { return movieIds[row]; }
+    int productId(int row) { return productIds[row]; }
+    int quantity(int row) { return quantities[row]; }
+    long cents(int row) { return cents[row]; }
+
+    /**
+     * Checks whether the item in a row has been refunded.
+     */
+    boolean isRefunded(int row) {
+        return refunded[statuses[row]][itemTypes[row]];
+    }
+
+    /**
+     * Retrieves the largest value in an id column, for sizing group tables.
+     */
+    int maxValue(SalesDimension dimension) {
+        return switch (dimension) {
+            case HALL -> maxHallId;
+            case MOVIE -> maxMovieId;
+            case CASHIER -> maxCashierId;
+            case PRODUCT -> maxProductId;
+            default -> throw new IllegalArgumentException(dimension + " is not an id column");
+        };
+    }
+
+    private int max(int[] column) {
+        int max = 0;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, column[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Retrieves the earliest and latest minute held, or zeros if there are no rows.
+     */
+    int firstMinute() { return size == 0 ? 0 : minutes[0]; }
+    int lastMinute() { return size == 0 ? 0 : minutes[size - 1]; }
+
+    String itemTypeName(int code) { return itemTypeDictionary.get(code); }
+    int itemTypeCount() { return itemTypeDictionary.size(); }
+    String hallName(int hallId) { return hallNames.getOrDefault(hallId, "Hall " + hallId); }
+    String movieTitle(int movieId) { return movieTitles.getOrDefault(movieId, "Movie " + movieId); }
+    String cashierName(int cashierId) { return cashierNames.getOrDefault(cashierId, "User " + cashierId); }
+    String productName(int productId) { return productNames.getOrDefault(productId, "Product " + productId); }
+
+    /**
+     * Collects rows for a SalesColumns object. Rows must be added in order of their time.
+     */
+    public static final class Builder {
+        private int size;
+        private int[] orderIds = new int[1024];
+        private int[] cashierIds = new int[1024];
+        private int[] minutes = new int[1024];
+        private byte[] itemTypes = new byte[1024];
+        private byte[] statuses = new byte[1024];
+        private int[] hallIds = new int[1024];
+        private int[] movieIds = new int[1024];
+        private int[] productIds = new int[1024];
+        private int[] quantities = new int[1024];
+        private long[] cents = new long[1024];
+
+        /** Dictionary codes in order of first appearance. */
+        private final Map<String, Integer> itemTypeCodes = new LinkedHashMap<>();
+        private final Map<String, Integer> statusCodes = new LinkedHashMap<>();
+
+        /**
+         * Adds a sold order item.
+         *
+         * @param orderId   the ID of the order
+         * @param cashierId the ID of the cashier who sold it
+         * @param minute    the time of the order, as returned by {@link #toMinute}
+         * @param itemType  the type of the item, "ticket" or "product"
+         * @param status    the status of the order
+         * @param hallId    the hall of a ticket, or 0 for a product
+         * @param movieId   the movie of a ticket, or 0 for a product
+         * @param productId the product, or 0 for a ticket
+         * @param quantity  the number of items
+         * @param cents     the price of all items together, in cents, before tax
+         * @return this builder
+         * @throws IllegalArgumentException if the row is older than the previous one
+         */
+        public Builder add(int orderId, int cashierId, int minute, String itemType, String status,
+                           int hallId, int movieId, int productId, int quantity, long cents) {
+            if (size > 0 && minute < minutes[size - 1]) {
+                throw new IllegalArgumentException("Rows must be added in order of their time");
+            }
+            if (size == orderIds.length) {
+                grow();
+            }
+            orderIds[size] = orderId;
+            cashierIds[size] = cashierId;
+            minutes[size] = minute;
+            itemTypes[size] = code(itemTypeCodes, itemType);
+            statuses[size] = code(statusCodes, status);
+            hallIds[size] = hallId;
+            movieIds[size] = movieId;
+            productIds[size] = productId;
+            quantities[size] = quantity;
+            this.cents[size] = cents;
+            size++;
+            return this;
+        }
+
+        /**
+         * Builds the columns.
+         *
+         * @param hallNames    the hall names, by hall ID
+         * @param movieTitles  the movie titles, by movie ID
+         * @param cashierNames the cashier names, by user ID
+         * @param productNames the product names, by product ID
+         * @return the columns, trimmed to the rows added
+         */
+        public SalesColumns build(Map<Integer, String> hallNames, Map<Integer, String> movieTitles,
+                                  Map<Integer, String> cashierNames, Map<Integer, String> productNames) {
+            return new SalesColumns(this, hallNames, movieTitles, cashierNames, productNames);
+        }
+
+        private static byte code(Map<String, Integer> dictionary, String value) {
+            Integer code = dictionary.get(value);
+            if (code == null) {
+                if (dictionary.size() == Byte.MAX_VALUE) {
+                    throw new IllegalStateException("Too many distinct values for a byte dictionary");
+                }
+                code = dictionary.size();
+                dictionary.put(value, code);
+            }
+            return code.byteValue();
+        }
+
+        private void grow() {
+            int capacity = orderIds.length * 2;
+            orderIds = Arrays.copyOf(orderIds, capacity);
+            cashierIds = Arrays.copyOf(cashierIds, capacity);
+            minutes = Arrays.copyOf(minutes, capacity);
+            itemTypes = Arrays.copyOf(itemTypes, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            hallIds = Arrays.copyOf(hallIds, capacity);
+            movieIds = Arrays.copyOf(movieIds, capacity);
+            productIds = Arrays.copyOf(productIds, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            cents = Arrays.copyOf(cents, capacity);
+        }
+    }
+}
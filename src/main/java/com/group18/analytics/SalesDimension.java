@@ -0,0 +1,164 @@
+package com.group18.analytics;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+/**
+ * A way of grouping sales. Each dimension maps a row of {@link SalesColumns} to a small,
+ * dense integer key, so the totals of a group can live in a plain array slot.
+ */
+public enum SalesDimension {
+    /** The hour of the day the order was placed, 0 to 23. */
+    HOUR_OF_DAY("Hour of Day") {
+        @Override
+        int key(SalesColumns columns, int row) {
+            return Math.floorMod(columns.minute(row), SalesColumns.MINUTES_PER_DAY) / 60;
+        }
+
+        @Override
+        int keyCount(SalesColumns columns) {
+            return 24;
+        }
+
+        @Override
+        String label(SalesColumns columns, int key) {
+            return String.format("%02d:00", key);
+        }
+    },
+    /** The day of the week the order was placed, Monday first. */
+    DAY_OF_WEEK("Day of Week") {
+        @Override
+        int key(SalesColumns columns, int row) {
+            // 1970-01-01 was a Thursday, three days after a Monday
+            return Math.floorMod(Math.floorDiv(columns.minute(row), SalesColumns.MINUTES_PER_DAY) + 3, 7);
+        }
+
+        @Override
+        int keyCount(SalesColumns columns) {
+            return 7;
+        }
+
+        @Override
+        String label(SalesColumns columns, int key) {
+            return DayOfWeek.of(key + 1).getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+        }
+    },
+    /** The day the order was placed. */
+    DATE("Date") {
+        @Override
+        int key(SalesColumns columns, int row) {
+            return Math.floorDiv(columns.minute(row), SalesColumns.MINUTES_PER_DAY) - firstDay(columns);
+        }
+
+        @Override
+        int keyCount(SalesColumns columns) {
+            return Math.floorDiv(columns.lastMinute(), SalesColumns.MINUTES_PER_DAY) - firstDay(columns) + 1;
+        }
+
+        @Override
+        String label(SalesColumns columns, int key) {
+            return LocalDate.ofEpochDay(firstDay(columns) + key).toString();
+        }
+
+        private int firstDay(SalesColumns columns) {
+            return Math.floorDiv(columns.firstMinute(), SalesColumns.MINUTES_PER_DAY);
+        }
+    },
+    /** The item type, ticket or product. */
+    ITEM_TYPE("Item Type") {
+        @Override
+        int key(SalesColumns columns, int row) {
+            return columns.itemType(row);
+        }
+
+        @Override
+        int keyCount(SalesColumns columns) {
+            return columns.itemTypeCount();
+        }
+
+        @Override
+        String label(SalesColumns columns, int key) {
+            return columns.itemTypeName(key);
+        }
+    },
+    /** The movie of a ticket; products are left out. */
+    MOVIE("Movie") {
+        @Override
+        int key(SalesColumns columns, int row) {
+            return columns.movieId(row) > 0 ? columns.movieId(row) : -1;
+        }
+
+        @Override
+        String label(SalesColumns columns, int key) {
+            return columns.movieTitle(key);
+        }
+    },
+    /** The hall of a ticket; products are left out. */
+    HALL("Hall") {
+        @Override
+        int key(SalesColumns columns, int row) {
+            return columns.hallId(row) > 0 ? columns.hallId(row) : -1;
+        }
+
+        @Override
+        String label(SalesColumns columns, int key) {
+            return columns.hallName(key);
+        }
+    },
+    /** The cashier who sold the item. */
+    CASHIER("Cashier") {
+        @Override
+        int key(SalesColumns columns, int row) {
+            return columns.cashierId(row);
+        }
+
+        @Override
+        String label(SalesColumns columns, int key) {
+            return columns.cashierName(key);
+        }
+    },
+    /** The product sold; tickets are left out. */
+    PRODUCT("Product") {
+        @Override
+        int key(SalesColumns columns, int row) {
+            return columns.productId(row) > 0 ? columns.productId(row) : -1;
+        }
+
+        @Override
+        String label(SalesColumns columns, int key) {
+            return columns.productName(key);
+        }
+    };
+
+    private final String displayName;
+
+    SalesDimension(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Maps a row to its group.
+     *
+     * @return the key of the row's group, from 0 to {@link #keyCount} - 1, or -1 if the row has no group
+     */
+    abstract int key(SalesColumns columns, int row);
+
+    /**
+     * Retrieves the number of possible keys. Dimensions over an id column use the id itself as key.
+     */
+    int keyCount(SalesColumns columns) {
+        return columns.maxValue(this) + 1;
+    }
+
+    /**
+     * Describes a group for display.
+     */
+    abstract String label(SalesColumns columns, int key);
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,39 @@
+package com.group18.analytics;
+
+import java.math.BigDecimal;
+
+/**
+ * The sales of one group in a breakdown: the items sold and the revenue they brought in
+ * before tax.
+ */
+public class SalesGroup {
+    /**
+     * The description of the group, e.g. a movie title or an hour of the day.
+     */
+    private final String label;
+    /**
+     * The number of items sold.
+     */
+    private final long itemCount;
+    /**
+     * The revenue of the items, before tax.
+     */
+    private final BigDecimal revenue;
+
+    /**
+     * Constructs a SalesGroup object.
+     *
+     * @param label     the description of the group
+     * @param itemCount the number of items sold
+     * @param revenue   the revenue of the items, before tax
+     */
+    public SalesGroup(String label, long itemCount, BigDecimal revenue) {
+        this.label = label;
+        this.itemCount = itemCount;
+        this.revenue = revenue;
+    }
+
+    public String getLabel() { return label; }
+    public long getItemCount() { return itemCount; }
+    public BigDecimal getRevenue() { return revenue; }
+}
@@ -0,0 +1,189 @@
+package com.group18.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A breakdown of sales over {@link SalesColumns}, answered by scanning the columns in memory.
+ *
+ * The rows of the requested period are found by binary search on the time column, and the
+ * scan over them is split across the common fork/join pool. Each leaf adds the quantity and
+ * amount of its rows into two primitive arrays indexed by group key, and the arrays of two
+ * halves are summed when they join, so a scan allocates a handful of arrays however many rows
+ * it reads. Refunded items are left out unless asked for, the same way the revenue dashboard
+ * counts them.
+ *
+ * <pre>
+ * List&lt;SalesGroup&gt; byHour = SalesQuery.over(columns)
+ *         .between(from, to)
+ *         .itemType("ticket")
+ *         .groupBy(SalesDimension.HOUR_OF_DAY);
+ * </pre>
+ */
+public final class SalesQuery {
+    /** Rows scanned by one task before it stops splitting. */
+    private static final int SPLIT_THRESHOLD = 16 * 1024;
+
+    private final SalesColumns columns;
+    private int fromMinute = Integer.MIN_VALUE;
+    private int toMinute = Integer.MAX_VALUE;
+    private int itemTypeCode = -1;
+    private boolean includeRefunded;
+
+    private SalesQuery(SalesColumns columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Starts a query over every row of the given columns.
+     *
+     * @param columns the sales to query
+     * @return a new query
+     */
+    public static SalesQuery over(SalesColumns columns) {
+        return new SalesQuery(columns);
+    }
+
+    /**
+     * Limits the query to a period.
+     *
+     * @param from the start of the period, inclusive
+     * @param to   the end of the period, exclusive
+     * @return this query
+     */
+    public SalesQuery between(LocalDateTime from, LocalDateTime to) {
+        fromMinute = SalesColumns.toMinute(from);
+        toMinute = SalesColumns.toMinute(to);
+        return this;
+    }
+
+    /**
+     * Limits the query to one item type.
+     *
+     * @param itemType the item type, "ticket" or "product", or null for both
+     * @return this query
+     */
+    public SalesQuery itemType(String itemType) {
+        if (itemType == null) {
+            itemTypeCode = -1;
+        } else {
+            // A type no row has can never match
+            int code = columns.itemTypeCode(itemType);
+            itemTypeCode = code < 0 ? Integer.MIN_VALUE : code;
+        }
+        return this;
+    }
+
+    /**
+     * Sets whether refunded items are counted.
+     *
+     * @param includeRefunded true to count refunded items as well, false to leave them out (the default)
+     * @return this query
+     */
+    public SalesQuery includeRefunded(boolean includeRefunded) {
+        this.includeRefunded = includeRefunded;
+        return this;
+    }
+
+    /**
+     * Runs the query, totalling the matching items by a dimension.
+     *
+     * @param dimension the dimension to group by
+     * @return the groups that had any sales, in key order (hour, day or id)
+     */
+    public List<SalesGroup> groupBy(SalesDimension dimension) {
+        List<SalesGroup> groups = new ArrayList<>();
+        if (columns.size() == 0 || fromMinute >= toMinute) {
+            return groups;
+        }
+
+        int firstRow = columns.firstRowAtOrAfter(fromMinute);
+        int endRow = toMinute == Integer.MAX_VALUE ? columns.size() : columns.firstRowAtOrAfter(toMinute);
+        int keyCount = dimension.keyCount(columns);
+        Totals totals = firstRow < endRow
+                ? ForkJoinPool.commonPool().invoke(new ScanTask(dimension, keyCount, firstRow, endRow))
+                : new Totals(keyCount);
+
+        for (int key = 0; key < keyCount; key++) {
+            if (totals.items[key] != 0 || totals.cents[key] != 0) {
+                groups.add(new SalesGroup(dimension.label(columns, key), totals.items[key],
+                        BigDecimal.valueOf(totals.cents[key], 2)));
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Items and cents per group key.
+     */
+    private static final class Totals {
+        final long[] items;
+        final long[] cents;
+
+        Totals(int keyCount) {
+            items = new long[keyCount];
+            cents = new long[keyCount];
+        }
+
+        Totals add(Totals other) {
+            for (int key = 0; key < items.length; key++) {
+                items[key] += other.items[key];
+                cents[key] += other.cents[key];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Scans a range of rows, splitting it in halves until it is small enough to scan directly.
+     */
+    private final class ScanTask extends RecursiveTask<Totals> {
+        private static final long serialVersionUID = 1L;
+
+        private final SalesDimension dimension;
+        private final int keyCount;
+        private final int from;
+        private final int to;
+
+        ScanTask(SalesDimension dimension, int keyCount, int from, int to) {
+            this.dimension = dimension;
+            this.keyCount = keyCount;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                return scan();
+            }
+            int mid = (from + to) >>> 1;
+            ScanTask left = new ScanTask(dimension, keyCount, from, mid);
+            left.fork();
+            Totals right = new ScanTask(dimension, keyCount, mid, to).compute();
+            return left.join().add(right);
+        }
+
+        private Totals scan() {
+            Totals totals = new Totals(keyCount);
+            for (int row = from; row < to; row++) {
+                if (itemTypeCode != -1 && columns.itemType(row) != itemTypeCode) {
+                    continue;
+                }
+                if (!includeRefunded && columns.isRefunded(row)) {
+                    continue;
+                }
+                int key = dimension.key(columns, row);
+                if (key >= 0) {
+                    totals.items[key] += columns.quantity(row);
+                    totals.cents[key] += columns.cents(row);
+                }
+            }
+            return totals;
+        }
+    }
+}
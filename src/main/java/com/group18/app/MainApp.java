@@ -1,7 +1,15 @@
 package com.group18.app;
 
+import com.group18.dao.ChangeBus;
+import com.group18.dao.DBConnection;
+import com.group18.dao.InventoryService;
+import com.group18.dao.PriceCache;
+import com.group18.dao.SeatHoldDAO;
+import com.group18.dao.SlowQueryLog;
+import com.group18.util.DocumentRenderQueue;
+import com.group18.util.FxStallMonitor;
+import com.group18.util.ViewCache;
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
@@ -38,9 +46,8 @@ public class MainApp extends Application {
     @Override
     public void start(Stage primaryStage) throws IOException {
         stg = primaryStage;
-        // Load the FXML file
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/LoginView.fxml"));
-        Parent root = loader.load();
+        // Load the FXML file, keeping the view for the next logout
+        Parent root = ViewCache.getInstance().load("/fxml/LoginView.fxml").getRoot();
 
         // Create the scene with desired dimensions
         Scene scene = new Scene(root);
@@ -72,6 +79,30 @@ public class MainApp extends Application {
         primaryStage.centerOnScreen();
 
         primaryStage.show();
+
+        // Render the documents of orders this or another till did not get to before closing
+        DocumentRenderQueue.getInstance().resumePending();
+
+        // Measure JavaFX thread stalls for the admin Performance view
+        FxStallMonitor.getInstance();
+    }
+
+    /**
+     * Releases application-wide resources when the JavaFX runtime shuts down,
+     * giving up this till's seat holds, letting queued documents finish rendering, applying
+     * the inventory journal, stopping the change log poller and the stall monitor, writing out
+     * the slow query journal and closing every pooled database connection.
+     */
+    @Override
+    public void stop() {
+        SeatHoldDAO.getInstance().shutdown();
+        DocumentRenderQueue.getInstance().shutdown();
+        PriceCache.getInstance().shutdown();
+        InventoryService.getInstance().shutdown();
+        ChangeBus.getInstance().shutdown();
+        FxStallMonitor.getInstance().shutdown();
+        SlowQueryLog.getInstance().shutdown();
+        DBConnection.shutdown();
     }
 
     /**
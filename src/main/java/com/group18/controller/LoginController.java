@@ -4,6 +4,7 @@ import com.group18.controller.admin.AdminSidebarController;
 import com.group18.controller.cashier.CashierController;
 import com.group18.dao.UserDAO;
 import com.group18.model.User;
+import com.group18.util.ReusableController;
 import com.group18.util.SceneSwitcher;
 import com.group18.controller.manager.ManagerSidebarController;
 import javafx.animation.KeyFrame;
@@ -24,7 +25,7 @@ import java.io.IOException;
  * This class interacts with the user interface to validate login credentials,
  * manage error messages, and navigate to appropriate views based on the user's role.
  */
-public class LoginController {
+public class LoginController implements ReusableController {
     /**
      * Represents a Button element in the LoginController JavaFX class.
      *
@@ -106,6 +107,17 @@ public class LoginController {
         addHoverAnimation(loginButton);
     }
 
+    /**
+     * Clears the credentials of the previous user and hides the error message, so the login
+     * view can be shown again after a logout without being loaded again.
+     */
+    @Override
+    public void resetForReuse() {
+        usernameField.clear();
+        passwordField.clear();
+        wrongLoginLabel.setVisible(false);
+    }
+
     /**
      * Handles the login process when the login button is clicked. Validates user credentials
      * and navigates to the appropriate view based on the user's role. If credentials are invalid,
@@ -1,14 +1,18 @@
 package com.group18.controller.admin;
 
+import com.group18.dao.AsyncDAO;
+import com.group18.dao.ChangeBus;
+import com.group18.dao.ChangeEvent;
 import com.group18.dao.MovieDAO;
 import com.group18.dao.OrderDAO;
+import com.group18.dao.OrderDocument;
 import com.group18.dao.ProductDAO;
 import com.group18.dao.ScheduleDAO;
 import com.group18.model.Order;
 import com.group18.model.OrderItem;
+import javafx.animation.PauseTransition;
 import javafx.animation.ScaleTransition;
 import javafx.beans.property.SimpleStringProperty;
-import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
@@ -31,7 +35,6 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * The AdminCancellationsController class manages the administrative functions related
@@ -285,6 +288,19 @@ public class AdminCancellationsController {
      * Utilized by AdminCancellationsController for handling schedule-related functionality.
      */
     private ScheduleDAO scheduleDAO;
+    /**
+     * Runs the queries of this screen in the background.
+     */
+    private AsyncDAO asyncDAO;
+    /**
+     * Fills the requests table page by page as it is scrolled, reading only the orders
+     * that match the current filters.
+     */
+    private OrderPageLoader orderPageLoader;
+    /**
+     * Delays reloading while the search text is still being typed.
+     */
+    private final PauseTransition searchDelay = new PauseTransition(Duration.millis(300));
 
     /**
      * Initializes the controller by setting up DAOs, configuring UI components, and loading initial data.
@@ -294,6 +310,8 @@ public class AdminCancellationsController {
      * - Configuring combo boxes and adding hover animations to buttons.
      * - Setting up table columns for displaying data related to cancellations.
      * - Loading initial orders to populate the user interface.
+     * - Following order changes made here or at other tills, so the listed orders and the
+     *   statistics stay current without reloading the table.
      * - Setting up event handlers for user interactions.
      *
      * This method is executed automatically when the FXML file is loaded, ensuring
@@ -306,6 +324,13 @@ public class AdminCancellationsController {
         productDAO = new ProductDAO();
         movieDAO = new MovieDAO();
         scheduleDAO = new ScheduleDAO();
+        asyncDAO = new AsyncDAO();
+        asyncDAO.cancelWhenRemoved(requestsTable);
+        orderPageLoader = new OrderPageLoader(requestsTable, asyncDAO);
+        ChangeBus.getInstance().subscribeUntilRemoved(requestsTable, ChangeEvent.Entity.ORDER, changes -> {
+            orderPageLoader.applyChanges(changes);
+            updateStats();
+        });
 
         // Setup combo boxes
         setupComboBoxes();
@@ -325,8 +350,8 @@ public class AdminCancellationsController {
      * This includes updating the displayed counts for pending cancellations,
      * processed cancellations, and the refunded amount for the current day.
      *
-     * The method retrieves the cancellation statistics from the OrderDAO and updates
-     * the corresponding labels if they are not null.
+     * The method retrieves the cancellation statistics from the OrderDAO in the background
+     * and updates the corresponding labels, if they are not null, once they arrive.
      *
      * Updates:
      * - Pending cancellations count.
@@ -334,19 +359,19 @@ public class AdminCancellationsController {
      * - Total refunded amount for the day.
      */
     private void updateStats() {
-        OrderDAO.CancellationStats stats = orderDAO.getCancellationStats();
-
-        if (pendingCountLabel != null) {
-            pendingCountLabel.setText(String.valueOf(stats.getPendingCount()));
-        }
+        AsyncDAO.onFxThread(asyncDAO.orders(OrderDAO::getCancellationStats), stats -> {
+            if (pendingCountLabel != null) {
+                pendingCountLabel.setText(String.valueOf(stats.getPendingCount()));
+            }
 
-        if (processedCountLabel != null) {
-            processedCountLabel.setText(String.valueOf(stats.getProcessedToday()));
-        }
+            if (processedCountLabel != null) {
+                processedCountLabel.setText(String.valueOf(stats.getProcessedToday()));
+            }
 
-        if (refundedAmountLabel != null) {
-            refundedAmountLabel.setText(String.format("₺%.2f", stats.getRefundedToday()));
-        }
+            if (refundedAmountLabel != null) {
+                refundedAmountLabel.setText(String.format("₺%.2f", stats.getRefundedToday()));
+            }
+        });
     }
 
     /**
@@ -512,8 +537,7 @@ public class AdminCancellationsController {
                     setGraphic(null);
                 } else {
                     // Check if receipt exists before showing button
-                    byte[] receipt = orderDAO.retrieveReceipt(getTableView().getItems().get(getIndex()).getOrderId());
-                    if (receipt != null && receipt.length > 0) {
+                    if (getTableView().getItems().get(getIndex()).hasReceipt()) {
                         setGraphic(viewReceiptButton);
                     } else {
                         setGraphic(null);
@@ -551,8 +575,7 @@ public class AdminCancellationsController {
                     setGraphic(null);
                 } else {
                     // Check if tickets exist before showing button
-                    byte[] tickets = orderDAO.retrieveTickets(getTableView().getItems().get(getIndex()).getOrderId());
-                    if (tickets != null && tickets.length > 0) {
+                    if (getTableView().getItems().get(getIndex()).hasTickets()) {
                         setGraphic(viewTicketsButton);
                     } else {
                         setGraphic(null);
@@ -572,36 +595,38 @@ public class AdminCancellationsController {
      * @param orderId The unique identifier of the order for which the tickets need to be viewed.
      */
     private void viewTickets(int orderId) {
-        byte[] ticketsPdf = orderDAO.retrieveTickets(orderId);
-
-        if (ticketsPdf != null) {
-            try {
-                // Create a temporary file
-                File tempFile = File.createTempFile("tickets_" + orderId, ".pdf");
-                tempFile.deleteOnExit(); // Ensure file is deleted when JVM exits
+        OrderDocument tickets = orderDAO.getTicketsDocument(orderId);
 
-                // Write PDF content to temp file
-                try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-                    fos.write(ticketsPdf);
-                }
+        try {
+            // Create a temporary file
+            File tempFile = File.createTempFile("tickets_" + orderId, ".pdf");
+            tempFile.deleteOnExit(); // Ensure file is deleted when JVM exits
 
-                // Open the PDF in default browser
-                Desktop.getDesktop().browse(tempFile.toURI());
+            // Stream PDF content straight from the database into the temp file
+            boolean found;
+            try (FileOutputStream fos = new FileOutputStream(tempFile)) {
+                found = tickets.writeTo(fos);
+            }
 
-            } catch (IOException e) {
-                // Show error if opening fails
+            if (!found) {
+                // Show error if no tickets found
                 Alert errorAlert = new Alert(Alert.AlertType.ERROR);
-                errorAlert.setTitle("Tickets View Error");
+                errorAlert.setTitle("Tickets Not Found");
                 errorAlert.setHeaderText(null);
-                errorAlert.setContentText("Could not open tickets: " + e.getMessage());
+                errorAlert.setContentText("No tickets found for this order.");
                 errorAlert.showAndWait();
+                return;
             }
-        } else {
-            // Show error if no tickets found
+
+            // Open the PDF in default browser
+            Desktop.getDesktop().browse(tempFile.toURI());
+
+        } catch (IOException e) {
+            // Show error if opening fails
             Alert errorAlert = new Alert(Alert.AlertType.ERROR);
-            errorAlert.setTitle("Tickets Not Found");
+            errorAlert.setTitle("Tickets View Error");
             errorAlert.setHeaderText(null);
-            errorAlert.setContentText("No tickets found for this order.");
+            errorAlert.setContentText("Could not open tickets: " + e.getMessage());
             errorAlert.showAndWait();
         }
     }
@@ -617,36 +642,38 @@ public class AdminCancellationsController {
      * @param orderId The ID of the order for which the receipt will be displayed.
      */
     private void viewReceipt(int orderId) {
-        byte[] receiptPdf = orderDAO.retrieveReceipt(orderId);
+        OrderDocument receipt = orderDAO.getReceiptDocument(orderId);
 
-        if (receiptPdf != null) {
-            try {
-                // Create a temporary file
-                File tempFile = File.createTempFile("receipt_" + orderId, ".pdf");
-                tempFile.deleteOnExit(); // Ensure file is deleted when JVM exits
-
-                // Write PDF content to temp file
-                try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-                    fos.write(receiptPdf);
-                }
+        try {
+            // Create a temporary file
+            File tempFile = File.createTempFile("receipt_" + orderId, ".pdf");
+            tempFile.deleteOnExit(); // Ensure file is deleted when JVM exits
 
-                // Open the PDF in default browser
-                Desktop.getDesktop().browse(tempFile.toURI());
+            // Stream PDF content straight from the database into the temp file
+            boolean found;
+            try (FileOutputStream fos = new FileOutputStream(tempFile)) {
+                found = receipt.writeTo(fos);
+            }
 
-            } catch (IOException e) {
-                // Show error if opening fails
+            if (!found) {
+                // Show error if no receipt found
                 Alert errorAlert = new Alert(Alert.AlertType.ERROR);
-                errorAlert.setTitle("Receipt View Error");
+                errorAlert.setTitle("Receipt Not Found");
                 errorAlert.setHeaderText(null);
-                errorAlert.setContentText("Could not open receipt: " + e.getMessage());
+                errorAlert.setContentText("No receipt found for this order.");
                 errorAlert.showAndWait();
+                return;
             }
-        } else {
-            // Show error if no receipt found
+
+            // Open the PDF in default browser
+            Desktop.getDesktop().browse(tempFile.toURI());
+
+        } catch (IOException e) {
+            // Show error if opening fails
             Alert errorAlert = new Alert(Alert.AlertType.ERROR);
-            errorAlert.setTitle("Receipt Not Found");
+            errorAlert.setTitle("Receipt View Error");
             errorAlert.setHeaderText(null);
-            errorAlert.setContentText("No receipt found for this order.");
+            errorAlert.setContentText("Could not open receipt: " + e.getMessage());
             errorAlert.showAndWait();
         }
     }
@@ -712,66 +739,43 @@ public class AdminCancellationsController {
      *
      * The method sets up an action handler for the refresh button to reload the list of orders
      * by invoking the {@code loadOrders} method. It also adds a listener to the text property
-     * of the search field, so that the displayed orders are filtered in real-time based on
-     * the search input by invoking the {@code filterOrders} method.
+     * of the search field, so that the displayed orders are filtered by invoking the
+     * {@code filterOrders} method once the user pauses typing.
      */
     private void setupEventHandlers() {
         refreshButton.setOnAction(e -> loadOrders());
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> filterOrders());
+        searchDelay.setOnFinished(e -> filterOrders());
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> searchDelay.playFromStart());
     }
 
     /**
-     * Loads all orders from the database and updates the user interface with the retrieved data.
+     * Reloads the orders shown in the requests table and the cancellation statistics.
      * <p>
-     * This method performs the following steps:
-     * - Retrieves a list of all orders from the `orderDAO`.
-     * - Updates the `requestsTable` in the user interface with the list of orders
-     *   as an observable list.
-     * - Applies necessary filtering to the orders using the `filterOrders` method.
-     * - Updates relevant statistics related to the loaded orders by invoking `updateStats`.
-     * <p>
-     * This method is typically invoked to refresh and display the most recent order data
-     * in the application interface.
+     * The table is refilled from the newest order matching the current filters, one page
+     * at a time, so this takes the same time however many orders are in the database.
      */
     private void loadOrders() {
-        List<Order> orders = orderDAO.getAllOrders();
-        requestsTable.setItems(FXCollections.observableArrayList(orders));
         filterOrders();
         updateStats();
     }
 
     /**
-     * Filters the list of orders displayed in the request table based on the search text,
+     * Filters the orders displayed in the request table based on the search text,
      * request type, and status filters provided by the user.
      *
-     * The method performs the following:
-     * 1. Retrieves the user input from the search text field, request type combo box,
-     *    and status combo box.
-     * 2. Maps the user-selected status values to corresponding backend status values.
-     * 3. Filters the list of orders using the following conditions:
-     *    - The order ID or occupant's name contains the search text.
-     *    - The order type matches the selected request type (or "All" is selected).
-     *    - The order status matches the selected status (or "All" is selected).
-     * 4. Updates the items in the request table with the filtered results.
-     *
-     * This method assumes that `requestsTable`, `searchField`, `requestTypeCombo`,
-     * `statusCombo`, and `orderDAO` are properly initialized.
-     *
-     * Note:
-     * - If the table items are null, the method exits early without applying any filters.
-     * - If the status mapping does not contain a user-selected status,
-     *   it defaults to "All".
+     * The filters are passed to the database, which only returns matching orders:
+     * - The order ID or an occupant's name contains the search text.
+     * - The order type matches the selected request type (or "All" is selected).
+     * - The order status matches the selected status (or "All" is selected).
+     * The table is then refilled from the first page of the results.
      */
     private void filterOrders() {
-        if (requestsTable.getItems() == null) return;
-
-        String searchText = searchField.getText().toLowerCase();
+        String searchText = searchField.getText().trim();
         String typeFilter = requestTypeCombo.getValue();
         String statusFilter = statusCombo.getValue();
 
         // Map of display values to backend values
         Map<String, String> statusMapping = Map.of(
-                "All", "All",
                 "Pending", "PENDING",
                 "Rejected", "REJECTED",
                 "Processed (Full)", "PROCESSED_FULL",
@@ -779,50 +783,10 @@ public class AdminCancellationsController {
                 "Processed (Tickets)", "PROCESSED_TICKETS"
         );
 
-        // Get the backend status value
-        String backendStatusFilter = statusMapping.getOrDefault(statusFilter, "All");
-
-        List<Order> filteredOrders = orderDAO.getAllOrders().stream()
-                .filter(order -> {
-                    boolean matchesSearch = String.valueOf(order.getOrderId()).contains(searchText) ||
-                            order.getOrderItems().stream()
-                                    .anyMatch(item -> (item.getOccupantFirstName() + " " + item.getOccupantLastName())
-                                            .toLowerCase().contains(searchText));
-
-                    boolean matchesType = "All".equals(typeFilter) || matchesOrderType(order, typeFilter);
-                    boolean matchesStatus = "All".equals(backendStatusFilter) ||
-                            (order.getStatus() != null && order.getStatus().equalsIgnoreCase(backendStatusFilter));
-
-                    return matchesSearch && matchesType && matchesStatus;
-                })
-                .collect(Collectors.toList());
-
-        requestsTable.setItems(FXCollections.observableArrayList(filteredOrders));
-    }
-
-
-    /**
-     * Determines if the given order matches the specified type filter.
-     * The method checks the types of items in the order (e.g., tickets, products)
-     * and evaluates whether they correspond to the filter criteria.
-     *
-     * @param order the order to evaluate, containing the list of items and related details
-     * @param typeFilter the filter type to match against; valid values are "Ticket" (only tickets),
-     *                   "Product" (only products), "Mixed" (both ticket and product), and
-     *                   other values which default to allowing all orders
-     * @return true if the order matches the specified type filter, false otherwise
-     */
-    private boolean matchesOrderType(Order order, String typeFilter) {
-        List<OrderItem> items = order.getOrderItems();
-        boolean hasTickets = items.stream().anyMatch(item -> "ticket".equals(item.getItemType()));
-        boolean hasProducts = items.stream().anyMatch(item -> "product".equals(item.getItemType()));
-
-        return switch (typeFilter) {
-            case "Ticket" -> hasTickets && !hasProducts;
-            case "Product" -> !hasTickets && hasProducts;
-            case "Mixed" -> hasTickets && hasProducts;
-            default -> true;
-        };
+        orderPageLoader.reset(new OrderDAO.OrderFilter(
+                statusMapping.get(statusFilter),
+                "All".equals(typeFilter) ? null : typeFilter,
+                searchText.isEmpty() ? null : searchText));
     }
 
     /**
@@ -944,8 +908,8 @@ public class AdminCancellationsController {
             );
 
             if (success) {
+                // The order's new status arrives through the change bus
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Cancellation processed successfully");
-                loadOrders();
             } else {
                 showAlert(Alert.AlertType.ERROR, "Error", "Failed to process cancellation");
             }
@@ -977,7 +941,6 @@ public class AdminCancellationsController {
                 if (success) {
                     showAlert(Alert.AlertType.INFORMATION, "Success",
                             "Cancellation request rejected");
-                    loadOrders();
                 } else {
                     showAlert(Alert.AlertType.ERROR, "Error",
                             "Failed to reject cancellation");
@@ -1,8 +1,13 @@
 package com.group18.controller.admin;
 
+import com.group18.dao.AsyncDAO;
+import com.group18.dao.ChangeBus;
+import com.group18.dao.ChangeEvent;
 import com.group18.dao.MovieDAO;
 import com.group18.dao.ScheduleDAO;
 import com.group18.model.Movie;
+import com.group18.util.PosterCache;
+import com.group18.util.RowDeltas;
 import javafx.animation.ScaleTransition;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.fxml.FXML;
@@ -55,6 +60,9 @@ public class AdminMoviesController {
     @FXML private TextField searchField;
 
     private MovieDAO movieDAO;
+    private AsyncDAO asyncDAO;
+    /** Every movie, loaded once and kept current from the change bus; the table shows it filtered. */
+    private final ObservableList<Movie> allMovies = FXCollections.observableArrayList();
     private Movie selectedMovie;
     private byte[] currentPosterData;
     private Set<String> selectedGenres;
@@ -62,11 +70,15 @@ public class AdminMoviesController {
 
     /**
      * Initializes the controller by setting up genre checkboxes, filtering menu, table columns, and loading movies.
+     * Movies changed here or at other tills are then applied to the table as they change.
      */
     @FXML
     private void initialize() {
         movieDAO = new MovieDAO();
+        asyncDAO = new AsyncDAO();
+        asyncDAO.cancelWhenRemoved(moviesTable);
         selectedGenres = new HashSet<>();
+        ChangeBus.getInstance().subscribeUntilRemoved(moviesTable, ChangeEvent.Entity.MOVIE, this::applyMovieChanges);
 
         setupGenreCheckboxes();
         setupFilterGenreMenuButton();
@@ -160,7 +172,6 @@ public class AdminMoviesController {
                 .map(MenuItem::getText)
                 .collect(Collectors.toList());
 
-        ObservableList<Movie> allMovies = FXCollections.observableArrayList(movieDAO.getAllMovies());
         ObservableList<Movie> filteredMovies = allMovies.filtered(movie -> {
             boolean matchesSearch = searchText.isEmpty() ||
                     movie.getTitle().toLowerCase().contains(searchText);
@@ -199,9 +210,19 @@ public class AdminMoviesController {
      * Loads movies from the database into the table.
      */
     private void loadMovies() {
-        List<Movie> movies = movieDAO.getAllMovies();
-        ObservableList<Movie> movieList = FXCollections.observableArrayList(movies);
-        moviesTable.setItems(movieList);
+        allMovies.setAll(movieDAO.getAllMovies());
+        filterMovies();
+    }
+
+    /**
+     * Reads the movies that changed again in the background and puts them in place in the
+     * loaded list, which the filtered table follows.
+     *
+     * @param changes the movie changes published on the change bus
+     */
+    private void applyMovieChanges(List<ChangeEvent> changes) {
+        AsyncDAO.onFxThread(asyncDAO.movies(dao -> RowDeltas.read(changes, dao::findById)),
+                changed -> RowDeltas.apply(allMovies, changed, Movie::getMovieId));
     }
 
     /**
@@ -225,28 +246,9 @@ public class AdminMoviesController {
 
         selectedGenres = new HashSet<>(movie.getGenres());
 
-        // Load poster image from byte array
-        byte[] posterData = movie.getPosterData();
-        if (posterData != null && posterData.length > 0) {
-            try {
-                Image image = new Image(new ByteArrayInputStream(posterData));
-                if (!image.isError()) {
-                    posterImageView.setImage(image);
-                    currentPosterData = posterData;
-                } else {
-                    System.err.println("Error loading image from byte array");
-                    posterImageView.setImage(null);
-                    currentPosterData = null;
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-                posterImageView.setImage(null);
-                currentPosterData = null;
-            }
-        } else {
-            posterImageView.setImage(null);
-            currentPosterData = null;
-        }
+        // The stored poster is kept unless a new one is selected, so only display it here
+        currentPosterData = null;
+        PosterCache.getInstance().loadPoster(movie, posterImageView, () -> posterImageView.setImage(null));
     }
 
     /**
@@ -305,9 +307,8 @@ public class AdminMoviesController {
 
             Scene scene = new Scene(root);
             dialogStage.setScene(scene);
+            // A movie added by the dialog arrives through the change bus
             dialogStage.showAndWait();
-
-            loadMovies();
         } catch (IOException e) {
             Alert alert = new Alert(Alert.AlertType.ERROR);
             alert.setTitle("Error");
@@ -355,7 +356,7 @@ public class AdminMoviesController {
         selectedMovie.setPosterData(currentPosterData);
 
         if (movieDAO.updateMovie(selectedMovie)) {
-            loadMovies();
+            moviesTable.refresh();
             clearFields();
             showAlert(Alert.AlertType.INFORMATION, "Success", "Movie updated successfully");
         } else {
@@ -409,7 +410,7 @@ public class AdminMoviesController {
 
         if (confirmation.showAndWait().get() == ButtonType.OK) {
             if (movieDAO.removeMovie(movie.getMovieId())) {
-                moviesTable.getItems().remove(movie);
+                allMovies.remove(movie);
             } else {
                 Alert error = new Alert(Alert.AlertType.ERROR);
                 error.setTitle("Error");
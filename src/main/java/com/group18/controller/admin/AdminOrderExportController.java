@@ -0,0 +1,226 @@
+package com.group18.controller.admin;
+
+import com.group18.dao.AsyncDAO;
+import com.group18.export.ExportFormat;
+import com.group18.export.ExportProgress;
+import com.group18.export.OrderExporter;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.DatePicker;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.stage.FileChooser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Controller for the order export view, where the admin exports the order history of a
+ * period to a CSV or compressed columnar file for accounting.
+ *
+ * The export runs in the background and streams the orders straight from the database to
+ * the file, so it can cover years of orders without holding them in memory. Its progress and
+ * throughput are shown as it goes, and it can be cancelled.
+ */
+public class AdminOrderExportController {
+    @FXML
+    private DatePicker fromDatePicker;
+    @FXML
+    private DatePicker toDatePicker;
+    @FXML
+    private CheckBox pendingCheck;
+    @FXML
+    private CheckBox processedFullCheck;
+    @FXML
+    private CheckBox processedTicketsCheck;
+    @FXML
+    private CheckBox processedProductsCheck;
+    @FXML
+    private CheckBox rejectedCheck;
+    @FXML
+    private ComboBox<ExportFormat> formatCombo;
+    @FXML
+    private Button exportButton;
+    @FXML
+    private Button cancelButton;
+    @FXML
+    private ProgressBar exportProgressBar;
+    @FXML
+    private Label progressLabel;
+    @FXML
+    private Label throughputLabel;
+
+    private AsyncDAO asyncDAO;
+    /** Set to stop the running export; replaced for every export. */
+    private AtomicBoolean cancelled = new AtomicBoolean();
+
+    @FXML
+    public void initialize() {
+        asyncDAO = new AsyncDAO();
+        asyncDAO.cancelWhenRemoved(exportButton);
+        // Stop a running export when the admin leaves the view
+        exportButton.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene == null) {
+                cancelled.set(true);
+            }
+        });
+
+        formatCombo.setItems(FXCollections.observableArrayList(ExportFormat.values()));
+        formatCombo.setValue(ExportFormat.CSV);
+        fromDatePicker.setValue(LocalDate.now().withDayOfMonth(1));
+        toDatePicker.setValue(LocalDate.now());
+    }
+
+    /**
+     * Asks where to save the export and starts it.
+     */
+    @FXML
+    private void handleExport() {
+        LocalDate from = fromDatePicker.getValue();
+        LocalDate to = toDatePicker.getValue();
+        List<String> statuses = getSelectedStatuses();
+        ExportFormat format = formatCombo.getValue();
+
+        if (from == null || to == null || to.isBefore(from)) {
+            showAlert(Alert.AlertType.WARNING, "Invalid Period", "Please choose a first day on or before the last day.");
+            return;
+        }
+        if (statuses.isEmpty()) {
+            showAlert(Alert.AlertType.WARNING, "No Status Selected", "Please select at least one order status.");
+            return;
+        }
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Orders");
+        fileChooser.setInitialFileName(String.format("orders_%s_%s.%s", from, to, format.getExtension()));
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter(format.toString(), "*." + format.getExtension()));
+        File file = fileChooser.showSaveDialog(exportButton.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        startExport(from, to, statuses, format, file);
+    }
+
+    private void startExport(LocalDate from, LocalDate to, List<String> statuses, ExportFormat format, File file) {
+        AtomicBoolean exportCancelled = new AtomicBoolean();
+        cancelled = exportCancelled;
+        setExporting(true);
+        exportProgressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+        progressLabel.setText("Counting orders...");
+        throughputLabel.setText("");
+
+        ExportProgress progress = new ExportProgress() {
+            @Override
+            public void update(long rowsWritten, long totalRows, long bytesWritten, long elapsedNanos) {
+                Platform.runLater(() -> showProgress(rowsWritten, totalRows, bytesWritten, elapsedNanos));
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return exportCancelled.get();
+            }
+        };
+
+        OrderExporter exporter = new OrderExporter();
+        asyncDAO.supply(() -> {
+            try {
+                return exporter.export(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), statuses, format,
+                        file.toPath(), progress);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }).whenCompleteAsync((rows, error) -> {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause instanceof UncheckedIOException || cause instanceof CompletionException) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof CancellationException) {
+                // The view was left; the export has been told to stop as well
+                return;
+            }
+            setExporting(false);
+            if (cause == null) {
+                progressLabel.setText(String.format("Exported %,d rows to %s", rows, file.getName()));
+            } else if (cause instanceof InterruptedIOException) {
+                exportProgressBar.setProgress(0);
+                progressLabel.setText("Export cancelled");
+            } else {
+                cause.printStackTrace();
+                exportProgressBar.setProgress(0);
+                progressLabel.setText("Export failed");
+                showAlert(Alert.AlertType.ERROR, "Export Failed", "Could not export the orders: " + cause.getMessage());
+            }
+        }, AsyncDAO.FX_THREAD);
+    }
+
+    @FXML
+    private void handleCancel() {
+        cancelled.set(true);
+        cancelButton.setDisable(true);
+        progressLabel.setText("Cancelling...");
+    }
+
+    private void showProgress(long rowsWritten, long totalRows, long bytesWritten, long elapsedNanos) {
+        if (!cancelButton.isDisabled() || rowsWritten == totalRows) {
+            exportProgressBar.setProgress(totalRows > 0 ? (double) rowsWritten / totalRows : 1);
+            progressLabel.setText(String.format("%,d of %,d rows", rowsWritten, totalRows));
+        }
+        double seconds = Math.max(elapsedNanos / 1e9, 0.001);
+        throughputLabel.setText(String.format("%,.0f rows/s, %.1f MB written in %.1f s",
+                rowsWritten / seconds, bytesWritten / (1024.0 * 1024.0), seconds));
+    }
+
+    private void setExporting(boolean exporting) {
+        exportButton.setDisable(exporting);
+        cancelButton.setDisable(!exporting);
+        fromDatePicker.setDisable(exporting);
+        toDatePicker.setDisable(exporting);
+        formatCombo.setDisable(exporting);
+    }
+
+    private List<String> getSelectedStatuses() {
+        List<String> statuses = new ArrayList<>();
+        if (pendingCheck.isSelected()) {
+            statuses.add("PENDING");
+        }
+        if (processedFullCheck.isSelected()) {
+            statuses.add("PROCESSED_FULL");
+        }
+        if (processedTicketsCheck.isSelected()) {
+            statuses.add("PROCESSED_TICKETS");
+        }
+        if (processedProductsCheck.isSelected()) {
+            statuses.add("PROCESSED_PRODUCTS");
+        }
+        if (rejectedCheck.isSelected()) {
+            statuses.add("REJECTED");
+        }
+        return statuses;
+    }
+
+    private void showAlert(Alert.AlertType type, String title, String content) {
+        Alert alert = new Alert(type);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(content);
+        alert.showAndWait();
+    }
+}
@@ -0,0 +1,240 @@
+package com.group18.controller.admin;
+
+import com.group18.dao.AsyncDAO;
+import com.group18.dao.ConnectionPool;
+import com.group18.dao.DBConnection;
+import com.group18.dao.DaoMetrics;
+import com.group18.dao.SlowQueryLog;
+import com.group18.dao.StatementStats;
+import com.group18.util.DocumentRenderQueue;
+import com.group18.util.FxStallMonitor;
+import com.group18.util.LatencyHistogram;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextArea;
+import javafx.util.Duration;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Function;
+
+/**
+ * Controller for the performance view, where the admin sees which database calls are slow,
+ * how busy the connection pool is, how far behind document rendering is and how often the
+ * screen froze, without attaching a profiler.
+ *
+ * Every figure is read from the in-memory recorders of this till, so the view refreshes itself
+ * every few seconds without touching the database. The slow query journal, which also holds
+ * the slow queries of earlier runs, is read when the view opens and when the admin reloads it,
+ * and ranks the statements by the time their slow executions took.
+ */
+public class AdminPerformanceController {
+    private static final Duration REFRESH_INTERVAL = Duration.seconds(2);
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
+
+    @FXML
+    private Label updatedLabel;
+    @FXML
+    private Button resetButton;
+    @FXML
+    private Label poolUsageLabel;
+    @FXML
+    private Label poolWaitLabel;
+    @FXML
+    private Label poolTimeoutLabel;
+    @FXML
+    private Label stallCountLabel;
+    @FXML
+    private Label stallDelayLabel;
+    @FXML
+    private Label stallMaxLabel;
+    @FXML
+    private Label renderQueueLabel;
+    @FXML
+    private Label renderLatencyLabel;
+    @FXML
+    private Label renderFailedLabel;
+
+    @FXML
+    private TableView<DaoMetrics.MethodStats> methodsTable;
+    @FXML
+    private TableColumn<DaoMetrics.MethodStats, String> methodColumn;
+    @FXML
+    private TableColumn<DaoMetrics.MethodStats, String> callsColumn;
+    @FXML
+    private TableColumn<DaoMetrics.MethodStats, String> errorsColumn;
+    @FXML
+    private TableColumn<DaoMetrics.MethodStats, String> rowsColumn;
+    @FXML
+    private TableColumn<DaoMetrics.MethodStats, String> p50Column;
+    @FXML
+    private TableColumn<DaoMetrics.MethodStats, String> p95Column;
+    @FXML
+    private TableColumn<DaoMetrics.MethodStats, String> p99Column;
+    @FXML
+    private TableColumn<DaoMetrics.MethodStats, String> maxColumn;
+
+    @FXML
+    private TableView<StatementStats.QueryStats> statementsTable;
+    @FXML
+    private TableColumn<StatementStats.QueryStats, String> sqlColumn;
+    @FXML
+    private TableColumn<StatementStats.QueryStats, String> executionsColumn;
+    @FXML
+    private TableColumn<StatementStats.QueryStats, String> totalColumn;
+    @FXML
+    private TableColumn<StatementStats.QueryStats, String> averageColumn;
+    @FXML
+    private TableColumn<StatementStats.QueryStats, String> statementMaxColumn;
+    @FXML
+    private TableColumn<StatementStats.QueryStats, String> reusedColumn;
+
+    @FXML
+    private Label slowQueryLabel;
+    @FXML
+    private TableView<SlowQueryLog.Offender> offendersTable;
+    @FXML
+    private TableColumn<SlowQueryLog.Offender, String> offenderSqlColumn;
+    @FXML
+    private TableColumn<SlowQueryLog.Offender, String> offenderCountColumn;
+    @FXML
+    private TableColumn<SlowQueryLog.Offender, String> offenderTotalColumn;
+    @FXML
+    private TableColumn<SlowQueryLog.Offender, String> offenderMaxColumn;
+    @FXML
+    private TableColumn<SlowQueryLog.Offender, String> offenderLastSeenColumn;
+    @FXML
+    private TextArea offenderDetailsArea;
+
+    private AsyncDAO asyncDAO;
+    private Timeline refresher;
+
+    @FXML
+    public void initialize() {
+        setColumn(methodColumn, DaoMetrics.MethodStats::getMethod);
+        setColumn(callsColumn, stats -> String.format("%,d", stats.getCallCount()));
+        setColumn(errorsColumn, stats -> String.format("%,d", stats.getErrorCount()));
+        setColumn(rowsColumn, stats -> String.format("%,d", stats.getRowCount()));
+        setColumn(p50Column, stats -> formatMillis(stats.getP50Millis()));
+        setColumn(p95Column, stats -> formatMillis(stats.getP95Millis()));
+        setColumn(p99Column, stats -> formatMillis(stats.getP99Millis()));
+        setColumn(maxColumn, stats -> formatMillis(stats.getMaxMillis()));
+
+        setColumn(sqlColumn, StatementStats.QueryStats::getSql);
+        setColumn(executionsColumn, stats -> String.format("%,d", stats.getExecutionCount()));
+        setColumn(totalColumn, stats -> formatMillis(stats.getTotalMillis()));
+        setColumn(averageColumn, stats -> formatMillis(stats.getAverageMillis()));
+        setColumn(statementMaxColumn, stats -> formatMillis(stats.getMaxMillis()));
+        setColumn(reusedColumn, stats -> {
+            long handedOut = stats.getPreparedCount() + stats.getReusedCount();
+            return handedOut == 0 ? "-" : String.format("%.0f%%", 100.0 * stats.getReusedCount() / handedOut);
+        });
+
+        setColumn(offenderSqlColumn, SlowQueryLog.Offender::getSql);
+        setColumn(offenderCountColumn, offender -> String.format("%,d", offender.getCount()));
+        setColumn(offenderTotalColumn, offender -> formatMillis(offender.getTotalMillis()));
+        setColumn(offenderMaxColumn, offender -> formatMillis(offender.getMaxMillis()));
+        setColumn(offenderLastSeenColumn, offender -> offender.getLastSeen().format(DATE_TIME_FORMAT));
+        offendersTable.getSelectionModel().selectedItemProperty().addListener(
+                (obs, oldOffender, offender) -> showOffender(offender));
+
+        asyncDAO = new AsyncDAO();
+        asyncDAO.cancelWhenRemoved(offendersTable);
+        loadSlowQueries();
+
+        refresh();
+        refresher = new Timeline(new KeyFrame(REFRESH_INTERVAL, e -> refresh()));
+        refresher.setCycleCount(Animation.INDEFINITE);
+        refresher.play();
+        // Stop refreshing when the admin leaves the view
+        resetButton.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene == null) {
+                refresher.stop();
+            }
+        });
+    }
+
+    /**
+     * Forgets the call, statement and stall figures recorded so far, to measure from now on.
+     */
+    @FXML
+    private void handleReset() {
+        DaoMetrics.getInstance().reset();
+        DBConnection.getStatementStats().reset();
+        FxStallMonitor.getInstance().reset();
+        refresh();
+    }
+
+    /**
+     * Reads the slow query journal again, to include the queries journaled since the view opened.
+     */
+    @FXML
+    private void handleReloadSlowQueries() {
+        loadSlowQueries();
+    }
+
+    private void loadSlowQueries() {
+        SlowQueryLog slowQueries = SlowQueryLog.getInstance();
+        slowQueryLabel.setText("Loading...");
+        AsyncDAO.onFxThread(asyncDAO.supply(slowQueries::readOffenders), offenders -> {
+            offendersTable.setItems(FXCollections.observableArrayList(offenders));
+            slowQueryLabel.setText(String.format("Over %d ms, from %s", slowQueries.getThresholdMillis(),
+                    slowQueries.getJournalPath()));
+        });
+    }
+
+    private void showOffender(SlowQueryLog.Offender offender) {
+        if (offender == null) {
+            offenderDetailsArea.clear();
+            return;
+        }
+        offenderDetailsArea.setText(String.format("%s%n%nParameters: %s%n%n%s", offender.getLastSql(),
+                offender.getLastParameters().isEmpty() ? "none" : offender.getLastParameters(),
+                offender.getLastPlan().isEmpty() ? "No plan captured" : offender.getLastPlan()));
+    }
+
+    private void refresh() {
+        methodsTable.setItems(FXCollections.observableArrayList(DaoMetrics.getInstance().snapshot()));
+        statementsTable.setItems(FXCollections.observableArrayList(DBConnection.getStatementStats().snapshot()));
+
+        ConnectionPool.PoolStats pool = DBConnection.getPoolStats();
+        poolUsageLabel.setText(String.format("%d of %d in use", pool.getActiveCount(), pool.getMaxSize()));
+        poolWaitLabel.setText(String.format("Wait: %s ms avg, %s ms max, %d idle",
+                formatMillis(pool.getAverageWaitMillis()), formatMillis(pool.getMaxWaitMillis()), pool.getIdleCount()));
+        poolTimeoutLabel.setText(String.format("%,d timed out of %,d borrows", pool.getTimeoutCount(), pool.getBorrowCount()));
+
+        FxStallMonitor monitor = FxStallMonitor.getInstance();
+        LatencyHistogram.Summary delays = monitor.getDelays();
+        stallCountLabel.setText(String.format("%,d over %d ms", monitor.getStallCount(), monitor.getStallThresholdMillis()));
+        stallDelayLabel.setText(String.format("Delay: %s ms p50, %s ms p99",
+                formatMillis(delays.getP50Millis()), formatMillis(delays.getP99Millis())));
+        stallMaxLabel.setText(String.format("Longest: %s ms", formatMillis(delays.getMaxMillis())));
+
+        DocumentRenderQueue.RenderStats render = DocumentRenderQueue.getInstance().getStats();
+        renderQueueLabel.setText(String.format("%d queued, %d rendering", render.getQueueDepth(), render.getActiveCount()));
+        renderLatencyLabel.setText(String.format("Latency: %s ms avg, %s ms max, %,d rendered",
+                formatMillis(render.getAverageLatencyMillis()), formatMillis(render.getMaxLatencyMillis()),
+                render.getRenderedCount()));
+        renderFailedLabel.setText(String.format("%,d failed, %,d retried, %,d deferred",
+                render.getFailedCount(), render.getRetryCount(), render.getDeferredCount()));
+
+        updatedLabel.setText("Updated " + LocalTime.now().format(TIME_FORMAT));
+    }
+
+    private static <S> void setColumn(TableColumn<S, String> column, Function<S, String> value) {
+        column.setCellValueFactory(data -> new SimpleStringProperty(value.apply(data.getValue())));
+    }
+
+    private static String formatMillis(double millis) {
+        return millis < 10 ? String.format("%.2f", millis) : String.format("%,.0f", millis);
+    }
+}
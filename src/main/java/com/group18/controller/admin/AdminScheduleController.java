@@ -1,8 +1,10 @@
 package com.group18.controller.admin;
 
+import com.group18.dao.AsyncDAO;
 import com.group18.dao.ScheduleDAO;
 import com.group18.dao.MovieDAO;
 import com.group18.model.Schedule;
+import com.group18.model.ScheduleOverview;
 import com.group18.model.Movie;
 import javafx.animation.ScaleTransition;
 import javafx.beans.property.SimpleStringProperty;
@@ -23,6 +25,7 @@ import java.time.LocalTime;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller for managing movie schedules in the admin interface.
@@ -33,48 +36,53 @@ public class AdminScheduleController {
     private DatePicker monthPicker;
 
     @FXML
-    private TableView<Schedule> hallATable;
+    private TableView<ScheduleOverview> hallATable;
 
     @FXML
-    private TableColumn<Schedule, LocalDate> dateAColumn;
+    private TableColumn<ScheduleOverview, LocalDate> dateAColumn;
 
     @FXML
-    private TableColumn<Schedule, LocalTime> timeAColumn;
+    private TableColumn<ScheduleOverview, LocalTime> timeAColumn;
 
     @FXML
-    private TableColumn<Schedule, String> movieAColumn;
+    private TableColumn<ScheduleOverview, String> movieAColumn;
 
     @FXML
-    private TableColumn<Schedule, String> statusAColumn;
+    private TableColumn<ScheduleOverview, String> statusAColumn;
 
     @FXML
-    private TableColumn<Schedule, Void> actionsAColumn;
+    private TableColumn<ScheduleOverview, Void> actionsAColumn;
 
     @FXML
-    private TableView<Schedule> hallBTable;
+    private TableView<ScheduleOverview> hallBTable;
 
     @FXML
-    private TableColumn<Schedule, LocalDate> dateBColumn;
+    private TableColumn<ScheduleOverview, LocalDate> dateBColumn;
 
     @FXML
-    private TableColumn<Schedule, LocalTime> timeBColumn;
+    private TableColumn<ScheduleOverview, LocalTime> timeBColumn;
 
     @FXML
-    private TableColumn<Schedule, String> movieBColumn;
+    private TableColumn<ScheduleOverview, String> movieBColumn;
 
     @FXML
-    private TableColumn<Schedule, String> statusBColumn;
+    private TableColumn<ScheduleOverview, String> statusBColumn;
 
     @FXML
-    private TableColumn<Schedule, Void> actionsBColumn;
+    private TableColumn<ScheduleOverview, Void> actionsBColumn;
 
     @FXML
     private Button createScheduleButton;
 
     private ScheduleDAO scheduleDAO;
-    private MovieDAO movieDAO;
+    private AsyncDAO asyncDAO;
 
     private LocalDate selectedMonth;
+    /** The month query in flight, cancelled when another month is picked before it completes. */
+    private CompletableFuture<List<ScheduleOverview>> pendingMonthLoad;
+    /** Rows backing the hall tables; patched in place when schedules are created or deleted. */
+    private final ObservableList<ScheduleOverview> hallASchedules = FXCollections.observableArrayList();
+    private final ObservableList<ScheduleOverview> hallBSchedules = FXCollections.observableArrayList();
 
     /**
      * Initializes the controller. Sets up the initial state, table columns,
@@ -83,7 +91,8 @@ public class AdminScheduleController {
     @FXML
     private void initialize() {
         scheduleDAO = new ScheduleDAO();
-        movieDAO = new MovieDAO();
+        asyncDAO = new AsyncDAO();
+        asyncDAO.cancelWhenRemoved(hallATable);
 
         setupButtonHoverAnimation(createScheduleButton);
         setupTableColumns();
@@ -109,6 +118,8 @@ public class AdminScheduleController {
 
     /**
      * Sets up the columns for displaying schedule information in the tables for both halls.
+     * Every column reads from the loaded {@link ScheduleOverview}s, so rendering and
+     * scrolling the tables never touches the database.
      */
     private void setupTableColumns() {
         // Setup Hall A columns
@@ -118,16 +129,11 @@ public class AdminScheduleController {
         timeAColumn.setCellValueFactory(new PropertyValueFactory<>("sessionTime"));
         timeAColumn.setStyle("-fx-alignment: CENTER;");
 
-        movieAColumn.setCellValueFactory(cellData -> {
-            Movie movie = movieDAO.findById(cellData.getValue().getMovieId());
-            return new SimpleStringProperty(movie != null ? movie.getTitle() : "Unknown");
-        });
+        movieAColumn.setCellValueFactory(cellData -> new SimpleStringProperty(getMovieTitle(cellData.getValue())));
         movieAColumn.setStyle("-fx-alignment: CENTER;");
 
-        statusAColumn.setCellValueFactory(cellData -> {
-            int availableSeats = scheduleDAO.getAvailableSeatsCount(cellData.getValue().getScheduleId());
-            return new SimpleStringProperty(getStatusText(availableSeats));
-        });
+        statusAColumn.setCellValueFactory(cellData ->
+                new SimpleStringProperty(getStatusText(cellData.getValue().getAvailableSeats())));
         statusAColumn.setStyle("-fx-alignment: CENTER;");
 
         // Setup Hall B columns
@@ -137,18 +143,16 @@ public class AdminScheduleController {
         timeBColumn.setCellValueFactory(new PropertyValueFactory<>("sessionTime"));
         timeBColumn.setStyle("-fx-alignment: CENTER;");
 
-        movieBColumn.setCellValueFactory(cellData -> {
-            Movie movie = movieDAO.findById(cellData.getValue().getMovieId());
-            return new SimpleStringProperty(movie != null ? movie.getTitle() : "Unknown");
-        });
+        movieBColumn.setCellValueFactory(cellData -> new SimpleStringProperty(getMovieTitle(cellData.getValue())));
         movieBColumn.setStyle("-fx-alignment: CENTER;");
 
-        statusBColumn.setCellValueFactory(cellData -> {
-            int availableSeats = scheduleDAO.getAvailableSeatsCount(cellData.getValue().getScheduleId());
-            return new SimpleStringProperty(getStatusText(availableSeats));
-        });
+        statusBColumn.setCellValueFactory(cellData ->
+                new SimpleStringProperty(getStatusText(cellData.getValue().getAvailableSeats())));
         statusBColumn.setStyle("-fx-alignment: CENTER;");
 
+        hallATable.setItems(hallASchedules);
+        hallBTable.setItems(hallBSchedules);
+
         // Add to setupTableColumns() method
         setupActionsColumn(actionsAColumn);
         setupActionsColumn(actionsBColumn);
@@ -159,13 +163,13 @@ public class AdminScheduleController {
      *
      * @param column the column to set up
      */
-    private void setupActionsColumn(TableColumn<Schedule, Void> column) {
-        column.setCellFactory(col -> new TableCell<Schedule, Void>() {
+    private void setupActionsColumn(TableColumn<ScheduleOverview, Void> column) {
+        column.setCellFactory(col -> new TableCell<ScheduleOverview, Void>() {
             private final Button deleteButton = new Button("Delete");
 
             {
                 deleteButton.setOnAction(event -> {
-                    Schedule schedule = getTableView().getItems().get(getIndex());
+                    ScheduleOverview schedule = getTableView().getItems().get(getIndex());
                     handleDeleteSchedule(schedule);
                 });
 
@@ -195,15 +199,15 @@ public class AdminScheduleController {
      *
      * @param schedule the schedule to be deleted
      */
-    private void handleDeleteSchedule(Schedule schedule) {
+    private void handleDeleteSchedule(ScheduleOverview schedule) {
         Alert confirmation = new Alert(Alert.AlertType.CONFIRMATION);
         confirmation.setTitle("Delete Schedule");
-        confirmation.setHeaderText("Delete schedule for " + movieDAO.findById(schedule.getMovieId()).getTitle());
+        confirmation.setHeaderText("Delete schedule for " + getMovieTitle(schedule));
         confirmation.setContentText("Are you sure you want to delete this schedule?");
 
         if (confirmation.showAndWait().get() == ButtonType.OK) {
             if (scheduleDAO.deleteSchedule(schedule.getScheduleId())) {
-                filterSchedulesByMonth(selectedMonth);
+                hallSchedules(schedule.getHallId()).remove(schedule);
             } else {
                 Alert error = new Alert(Alert.AlertType.ERROR);
                 error.setTitle("Error");
@@ -240,8 +244,11 @@ public class AdminScheduleController {
         ComboBox<LocalTime> timeComboBox = new ComboBox<>();
 
         // Populate the combo boxes
-        movieComboBox.setItems(FXCollections.observableArrayList(movieDAO.getAllMovies()));
-        movieComboBox.setPromptText("Select Movie");
+        movieComboBox.setPromptText("Loading movies...");
+        AsyncDAO.onFxThread(asyncDAO.movies(MovieDAO::getAllMovies), movies -> {
+            movieComboBox.setItems(FXCollections.observableArrayList(movies));
+            movieComboBox.setPromptText("Select Movie");
+        });
 
         // Set movie display and conversion
         movieComboBox.setCellFactory(param -> new ListCell<Movie>() {
@@ -344,7 +351,7 @@ public class AdminScheduleController {
         // Show the dialog and process the result
         Optional<Schedule> result = dialog.showAndWait();
         result.ifPresent(schedule -> {
-            filterSchedulesByMonth(selectedMonth);
+            addScheduleRow(schedule);
             showAlert("Success", "Schedule created successfully!");
         });
     }
@@ -410,26 +417,82 @@ public class AdminScheduleController {
     /**
      * Filters the schedules based on the selected month and updates the table views for Hall A and Hall B.
      * The schedules are divided into two categories based on the hall (1 for Hall A and 2 for Hall B).
+     * They are queried in the background; a query for a previously selected month that has not
+     * completed yet is cancelled so its results never overwrite the newer month.
      *
      * @param selectedMonth The selected month to filter the schedules by.
      */
     private void filterSchedulesByMonth(LocalDate selectedMonth) {
-        List<Schedule> schedules = scheduleDAO.getSchedulesByMonth(selectedMonth);
+        if (pendingMonthLoad != null) {
+            pendingMonthLoad.cancel(false);
+        }
+        pendingMonthLoad = asyncDAO.schedules(dao -> dao.getScheduleOverviewsByMonth(selectedMonth));
+        AsyncDAO.onFxThread(pendingMonthLoad, this::showSchedules);
+    }
 
-        ObservableList<Schedule> hallASchedules = FXCollections.observableArrayList(
-                schedules.stream()
-                        .filter(s -> s.getHallId() == 1)
-                        .collect(Collectors.toList())
-        );
+    /**
+     * Splits the schedules of a month by hall and shows them in the Hall A and Hall B tables.
+     *
+     * @param schedules The schedules of the selected month, ordered by date and time.
+     */
+    private void showSchedules(List<ScheduleOverview> schedules) {
+        hallASchedules.setAll(schedules.stream()
+                .filter(s -> s.getHallId() == 1)
+                .collect(Collectors.toList()));
+        hallBSchedules.setAll(schedules.stream()
+                .filter(s -> s.getHallId() == 2)
+                .collect(Collectors.toList()));
+    }
 
-        ObservableList<Schedule> hallBSchedules = FXCollections.observableArrayList(
-                schedules.stream()
-                        .filter(s -> s.getHallId() == 2)
-                        .collect(Collectors.toList())
-        );
+    /**
+     * Adds a newly created schedule to its hall's table, keeping the rows ordered by date and time.
+     * Only the new schedule is fetched; the rest of the month is left as loaded. Schedules outside
+     * the selected month are not shown.
+     *
+     * @param schedule The schedule that was just created.
+     */
+    private void addScheduleRow(Schedule schedule) {
+        LocalDate month = selectedMonth;
+        AsyncDAO.onFxThread(asyncDAO.schedules(dao -> dao.getScheduleOverview(schedule.getScheduleId())), overview -> {
+            if (overview == null || !month.equals(selectedMonth)
+                    || !overview.getSessionDate().withDayOfMonth(1).equals(selectedMonth)) {
+                return;
+            }
+            ObservableList<ScheduleOverview> rows = hallSchedules(overview.getHallId());
+            int index = 0;
+            while (index < rows.size() && !isAfter(rows.get(index), overview)) {
+                index++;
+            }
+            rows.add(index, overview);
+        });
+    }
 
-        hallATable.setItems(hallASchedules);
-        hallBTable.setItems(hallBSchedules);
+    /**
+     * Returns the rows backing the table of the given hall.
+     *
+     * @param hallId The hall ID (1 for Hall A, 2 for Hall B).
+     * @return The observable list shown in that hall's table.
+     */
+    private ObservableList<ScheduleOverview> hallSchedules(int hallId) {
+        return hallId == 1 ? hallASchedules : hallBSchedules;
+    }
+
+    /**
+     * Checks whether one schedule starts after another.
+     */
+    private static boolean isAfter(Schedule a, Schedule b) {
+        int byDate = a.getSessionDate().compareTo(b.getSessionDate());
+        return byDate != 0 ? byDate > 0 : a.getSessionTime().isAfter(b.getSessionTime());
+    }
+
+    /**
+     * Returns the title to show for a schedule's movie.
+     *
+     * @param schedule The schedule.
+     * @return The movie title, or "Unknown" if the movie no longer exists.
+     */
+    private static String getMovieTitle(ScheduleOverview schedule) {
+        return schedule.getMovieTitle() != null ? schedule.getMovieTitle() : "Unknown";
     }
 
     /**
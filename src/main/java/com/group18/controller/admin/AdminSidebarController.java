@@ -3,14 +3,12 @@ package com.group18.controller.admin;
 
 import com.group18.dao.UserDAO;
 import com.group18.model.User;
+import com.group18.util.SceneSwitcher;
 import javafx.animation.ParallelTransition;
 import javafx.animation.ScaleTransition;
 import javafx.animation.TranslateTransition;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.effect.DropShadow;
@@ -34,6 +32,12 @@ public class AdminSidebarController {
     @FXML
     private Button cancellationsButton;
 
+    @FXML
+    private Button exportButton;
+
+    @FXML
+    private Button performanceButton;
+
     @FXML
     private Button logoutButton;
 
@@ -57,6 +61,8 @@ public class AdminSidebarController {
         setupSidebarHoverAnimation(moviesButton);
         setupSidebarHoverAnimation(scheduleButton);
         setupSidebarHoverAnimation(cancellationsButton);
+        setupSidebarHoverAnimation(exportButton);
+        setupSidebarHoverAnimation(performanceButton);
         setupSidebarHoverAnimation(logoutButton);
     }
 
@@ -202,23 +208,33 @@ public class AdminSidebarController {
         mainController.switchContent("/fxml/admin/AdminCancellations.fxml");
     }
 
+    /**
+     * Handles the "Export Orders" button click by switching to the admin order export view.
+     */
+    @FXML
+    private void handleExport() {
+        mainController.switchContent("/fxml/admin/AdminOrderExport.fxml");
+    }
+
+    /**
+     * Handles the "Performance" button click by switching to the admin performance view.
+     */
+    @FXML
+    private void handlePerformance() {
+        mainController.switchContent("/fxml/admin/AdminPerformance.fxml");
+    }
+
     /**
      * Handles the "Logout" button click by loading the login view and logging the user out.
      */
     @FXML
     private void handleLogout() {
         try {
-            // Load the login view
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/LoginView.fxml"));
-            Parent loginView = loader.load();
-
             // Get the current stage from the logout button's scene
             Stage stage = (Stage) logoutButton.getScene().getWindow();
 
-            // Set the login scene
-            Scene loginScene = new Scene(loginView);
-            stage.setScene(loginScene);
-            stage.show();
+            // Show the login view again
+            SceneSwitcher.switchToScene("/fxml/LoginView.fxml", stage);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -0,0 +1,224 @@
+package com.group18.controller.admin;
+
+import com.group18.dao.AsyncDAO;
+import com.group18.dao.ChangeEvent;
+import com.group18.dao.OrderDAO;
+import com.group18.model.Order;
+import com.group18.util.RowDeltas;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+import javafx.scene.control.skin.VirtualFlow;
+
+import java.util.List;
+
+/**
+ * Feeds a table of orders page by page as it is scrolled, so the history is never loaded whole.
+ *
+ * The table holds a window of at most {@link #MAX_PAGES} pages. When a row within a page of either
+ * edge of the window is shown, the next page in that direction is read in the background with
+ * {@link OrderDAO#getOrderPage}, and once the window is full the pages at the other edge are
+ * dropped. Opening the table therefore reads a single page, and memory stays the same however
+ * long the history is. Orders changed or created while the table is open are put in place one by
+ * one through {@link #applyChanges}.
+ */
+class OrderPageLoader {
+    /** Orders per page. */
+    static final int PAGE_SIZE = 50;
+    /** Pages held by the table at most. */
+    static final int MAX_PAGES = 6;
+
+    private final TableView<Order> table;
+    private final AsyncDAO asyncDAO;
+    private final ObservableList<Order> rows = FXCollections.observableArrayList();
+
+    private OrderDAO.OrderFilter filter;
+    /** Incremented on every reset, so pages read for an earlier filter are discarded. */
+    private int generation;
+    private boolean loading;
+    private boolean atNewest;
+    private boolean atOldest;
+
+    /**
+     * Creates a loader and attaches it to a table, replacing the table's items and row factory.
+     *
+     * @param table the table to fill
+     * @param asyncDAO the facade to read pages through
+     */
+    OrderPageLoader(TableView<Order> table, AsyncDAO asyncDAO) {
+        this.table = table;
+        this.asyncDAO = asyncDAO;
+        table.setItems(rows);
+        table.setRowFactory(tv -> new TableRow<>() {
+            @Override
+            public void updateIndex(int index) {
+                super.updateIndex(index);
+                if (index >= 0) {
+                    rowShown(index);
+                }
+            }
+        });
+    }
+
+    /**
+     * Empties the table and starts reading from the newest order that matches a filter.
+     *
+     * @param filter the filter the listed orders must match
+     */
+    void reset(OrderDAO.OrderFilter filter) {
+        this.filter = filter;
+        generation++;
+        loading = false;
+        atNewest = true;
+        atOldest = false;
+        rows.clear();
+        loadOlder();
+    }
+
+    /**
+     * Brings the window up to date with orders changed or created since it was read. Each order
+     * is read again and replaced, inserted in date order or dropped, as the filter now decides;
+     * orders beyond either edge of the window are left to the page that covers them.
+     *
+     * @param changes the order changes published on the change bus
+     */
+    void applyChanges(List<ChangeEvent> changes) {
+        if (filter == null) {
+            return;
+        }
+        int requested = generation;
+        OrderDAO.OrderFilter pageFilter = filter;
+
+        AsyncDAO.onFxThread(asyncDAO.orders(dao -> RowDeltas.read(changes, dao::findOrderById)), changed -> {
+            if (requested != generation) {
+                return;
+            }
+            changed.forEach((orderId, order) ->
+                    place(orderId, order != null && pageFilter.matches(order) ? order : null));
+        });
+    }
+
+    /**
+     * Replaces or inserts an order in the window, keeping it newest first, or removes it.
+     *
+     * @param orderId the ID of the order
+     * @param order the order as it is now, or null if it no longer belongs in the table
+     */
+    private void place(int orderId, Order order) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).getOrderId() == orderId) {
+                if (order == null) {
+                    rows.remove(i);
+                } else {
+                    rows.set(i, order);
+                }
+                return;
+            }
+        }
+        if (order == null) {
+            return;
+        }
+
+        int position = 0;
+        while (position < rows.size() && isNewer(rows.get(position), order)) {
+            position++;
+        }
+        if ((position > 0 || atNewest) && (position < rows.size() || atOldest)) {
+            rows.add(position, order);
+        }
+    }
+
+    /**
+     * Tells whether one order comes before another in the table, newest first by date and then by ID.
+     */
+    private static boolean isNewer(Order a, Order b) {
+        int byDate = a.getOrderDate().compareTo(b.getOrderDate());
+        return byDate != 0 ? byDate > 0 : a.getOrderId() > b.getOrderId();
+    }
+
+    /**
+     * Reads the next page in the direction of a row that comes into view near an edge of the window.
+     */
+    private void rowShown(int index) {
+        if (index >= rows.size() - PAGE_SIZE && !atOldest) {
+            loadOlder();
+        } else if (index < PAGE_SIZE && !atNewest) {
+            loadNewer();
+        }
+    }
+
+    private void loadOlder() {
+        if (loading || filter == null) {
+            return;
+        }
+        loading = true;
+        int requested = generation;
+        Order anchor = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        OrderDAO.OrderFilter pageFilter = filter;
+
+        AsyncDAO.onFxThread(asyncDAO.orders(dao -> dao.getOrderPage(pageFilter, anchor, true, PAGE_SIZE)), page -> {
+            if (requested != generation) {
+                return;
+            }
+            loading = false;
+            if (page.size() < PAGE_SIZE) {
+                atOldest = true;
+            }
+            int firstVisible = firstVisibleIndex();
+            rows.addAll(page);
+
+            int excess = rows.size() - MAX_PAGES * PAGE_SIZE;
+            if (excess > 0) {
+                rows.remove(0, excess);
+                atNewest = false;
+                // Keep the same orders in view after the rows above them were dropped
+                table.scrollTo(Math.max(firstVisible - excess, 0));
+            }
+        });
+    }
+
+    private void loadNewer() {
+        if (loading || rows.isEmpty()) {
+            return;
+        }
+        loading = true;
+        int requested = generation;
+        Order anchor = rows.get(0);
+        OrderDAO.OrderFilter pageFilter = filter;
+
+        AsyncDAO.onFxThread(asyncDAO.orders(dao -> dao.getOrderPage(pageFilter, anchor, false, PAGE_SIZE)), page -> {
+            if (requested != generation) {
+                return;
+            }
+            loading = false;
+            if (page.size() < PAGE_SIZE) {
+                atNewest = true;
+            }
+            int firstVisible = firstVisibleIndex();
+            rows.addAll(0, page);
+
+            int excess = rows.size() - MAX_PAGES * PAGE_SIZE;
+            if (excess > 0) {
+                rows.remove(rows.size() - excess, rows.size());
+                atOldest = false;
+            }
+            // Keep the same orders in view below the rows inserted above them
+            table.scrollTo(firstVisible + page.size());
+        });
+    }
+
+    /**
+     * Retrieves the index of the topmost row in view, or 0 if the table has not been shown yet.
+     */
+    private int firstVisibleIndex() {
+        if (table.lookup(".virtual-flow") instanceof VirtualFlow<?> flow) {
+            IndexedCell<?> cell = flow.getFirstVisibleCell();
+            if (cell != null) {
+                return cell.getIndex();
+            }
+        }
+        return 0;
+    }
+}
@@ -5,9 +5,11 @@ import com.group18.controller.cashier.sharedComponents.CashierCartController;
 import com.group18.controller.cashier.sharedComponents.CashierHeaderController;
 import com.group18.controller.cashier.sharedComponents.CashierStepperController;
 import com.group18.controller.cashier.stageSpecificFiles.*;
+import com.group18.dao.SeatHoldDAO;
 import com.group18.model.MovieSession;
 import com.group18.model.Movie;
 import com.group18.model.User;
+import com.group18.util.ViewCache;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
@@ -15,6 +17,7 @@ import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -234,6 +237,8 @@ public class CashierController {
      * 3. Assigns the main cashier controller to the newly loaded stage's controller.
      * 4. Replaces the current content area with the loaded initial stage.
      * 5. Updates the stepper stage controller if it exists to reflect the initial step.
+     * 6. Loads the remaining stages in the background, so moving between them later
+     *    parses no FXML.
      *
      * Any IOException encountered during the loading process is caught and
      * printed to the standard error stream.
@@ -247,19 +252,22 @@ public class CashierController {
             cashierCartController.setMainController(this);
 
             // Load initial stage
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(stages[0]));
-            Node initialStage = loader.load();
+            StackPane contentArea = (StackPane) currentStage.getParent();
+            FXMLLoader loader = ViewCache.getInstance().load(stages[0]);
+            Node initialStage = loader.getRoot();
 
             CashierMovieSearchController controller = loader.getController();
             controller.setCashierController(this);
 
-            StackPane contentArea = (StackPane) currentStage.getParent();
             contentArea.getChildren().setAll(initialStage);
             currentStage = initialStage;
 
             if (stepperController != null) {
                 stepperController.updateSteps(0);
             }
+
+            // Load the remaining stages while the cashier picks a movie
+            ViewCache.getInstance().prewarm(Arrays.copyOfRange(stages, 1, stages.length));
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -391,22 +399,31 @@ public class CashierController {
     /**
      * Loads a specific stage in the application based on the provided index.
      * Updates the current stage and related UI elements such as the stage stack, stepper, and action bar.
+     * Stages are taken from the {@link ViewCache}, so a stage shown before is reset and shown
+     * again rather than loaded from its FXML file anew.
      *
      * @param index The index of the stage to load. Must correspond to a valid entry in the stages array.
      */
     private void loadStage(int index) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(stages[index]));
-            Node newStage = loader.load();
+            // Taking a shown stage from the cache takes it out of the content area
+            StackPane contentArea = (StackPane) currentStage.getParent();
+            FXMLLoader loader = ViewCache.getInstance().load(stages[index]);
+            Node newStage = loader.getRoot();
 
             // Get controller and pass necessary data
             Object controller = loader.getController();
             setupStageController(controller);
 
-            StackPane contentArea = (StackPane) currentStage.getParent();
             contentArea.getChildren().setAll(newStage);
             currentStage = newStage;
 
+            // Seats held for this transaction are no longer renewed once the cashier goes back
+            // before seat selection; they are held again if the cashier returns to them
+            if (index < 2) {
+                SeatHoldDAO.getInstance().stopRenewing();
+            }
+
             // Update stepper
             if (stepperController != null) {
                 stepperController.updateSteps(index);
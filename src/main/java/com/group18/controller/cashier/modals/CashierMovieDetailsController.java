@@ -5,6 +5,7 @@ import javafx.scene.control.*;
 import javafx.scene.image.ImageView;
 import javafx.scene.image.Image;
 import com.group18.model.Movie;
+import com.group18.util.PosterCache;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
@@ -29,22 +30,8 @@ public class CashierMovieDetailsController {
         genresLabel.setText(movie.getGenresAsString());
         summaryArea.setText(movie.getSummary());
 
-        // Handle poster image using byte array data
-        if (movie.getPosterData() != null && movie.getPosterData().length > 0) {
-            try {
-                Image image = new Image(new ByteArrayInputStream(movie.getPosterData()));
-                if (!image.isError()) {
-                    posterImageView.setImage(image);
-                } else {
-                    setDefaultPoster();
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-                setDefaultPoster();
-            }
-        } else {
-            setDefaultPoster();
-        }
+        // Load the full-size poster in the background
+        PosterCache.getInstance().loadPoster(movie, posterImageView, this::setDefaultPoster);
     }
 
     /**
@@ -6,9 +6,8 @@ import com.group18.controller.cashier.stageSpecificFiles.CashierSeatSelectContro
 import com.group18.dao.UserDAO;
 import com.group18.model.ShoppingCart;
 import com.group18.model.User;
+import com.group18.util.SceneSwitcher;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -153,13 +152,8 @@ public class CashierHeaderController {
             // Get current stage
             Stage currentStage = (Stage) logoutButton.getScene().getWindow();
 
-            // Load login view
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/LoginView.fxml"));
-            Scene loginScene = new Scene(loader.load());
-
-            // Set the login scene
-            currentStage.setScene(loginScene);
-            currentStage.show();
+            // Show the login view again
+            SceneSwitcher.switchToScene("/fxml/LoginView.fxml", currentStage);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -1,11 +1,14 @@
 package com.group18.controller.cashier.stageSpecificFiles;
 
 import com.group18.controller.cashier.CashierController;
+import com.group18.dao.InventoryService;
 import com.group18.dao.PriceDAO;
 import com.group18.dao.ProductDAO;
 import com.group18.model.OrderItem;
+import com.group18.model.PriceSnapshot;
 import com.group18.model.Product;
 import com.group18.model.ShoppingCart;
+import com.group18.util.ReusableController;
 import javafx.animation.*;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
@@ -54,7 +57,7 @@ import java.util.*;
  * - Buttons for discount application and ticket count adjustments.
  * - Validation and persistence of customer details.
  */
-public class CashierCustomerDetailsController {
+public class CashierCustomerDetailsController implements ReusableController {
     /**
      * Represents a text field component in the UI where the user can input
      * the first name of a customer. This field is part of the customer
@@ -565,6 +568,21 @@ public class CashierCustomerDetailsController {
         customerDetailsValidated = false;
     }
 
+    /**
+     * Forgets the seats of the previous visit and clears the customer details, then restores
+     * the details saved for the current transaction, as a freshly loaded view would. The
+     * products are loaded again once the cashier controller is set.
+     */
+    @Override
+    public void resetForReuse() {
+        selectedSeats = null;
+        totalSeats = 0;
+        isDiscountApplicable = false;
+        productsTabPane.getSelectionModel().selectFirst();
+        resetUI();
+        restorePersistentDetails();
+    }
+
     /**
      * Resets the static field `persistentCustomerDetails` to null.
      * This method is typically used to clear any retained customer details
@@ -670,14 +688,14 @@ public class CashierCustomerDetailsController {
 
     /**
      * Loads products of a specified category into a given FlowPane container.
-     * Retrieves a list of products of the specified category, clears the container,
+     * Retrieves a list of products of the specified category with their live stock, clears the container,
      * and populates it with product cards generated from the retrieved products.
      *
      * @param category  the category of products to load into the container
      * @param container the FlowPane where the product cards will be displayed
      */
     private void loadProductCategory(String category, FlowPane container) {
-        List<Product> products = productDAO.getProductsByType(category);
+        List<Product> products = InventoryService.getInstance().withLiveStock(productDAO.getProductsByType(category));
         container.getChildren().clear();
 
         for (Product product : products) {
@@ -947,8 +965,10 @@ public class CashierCustomerDetailsController {
         }
 
         try {
-            double basePrice = priceDAO.getTicketPrice(cashierController.getSelectedSession().getHall());
-            double discountRate = priceDAO.getAgeDiscount() / 100.0;
+            // Price every ticket from one snapshot, so a price change midway cannot mix old and new prices
+            PriceSnapshot prices = priceDAO.getPriceSnapshot();
+            double basePrice = prices.getTicketPrice(cashierController.getSelectedSession().getHall());
+            double discountRate = prices.getAgeDiscount() / 100.0;
             double totalDiscount = 0.0;
 
             clearExistingTickets();
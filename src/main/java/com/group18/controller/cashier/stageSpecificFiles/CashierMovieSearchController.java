@@ -2,14 +2,17 @@ package com.group18.controller.cashier.stageSpecificFiles;
 
 import com.group18.controller.cashier.CashierController;
 import com.group18.controller.cashier.modals.CashierMovieDetailsController;
+import com.group18.dao.AsyncDAO;
 import com.group18.dao.MovieDAO;
 import com.group18.model.Movie;
+import com.group18.util.MovieSearchIndex;
+import com.group18.util.PosterCache;
+import com.group18.util.ReusableController;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
+import javafx.animation.PauseTransition;
 import javafx.animation.ScaleTransition;
 import javafx.animation.Timeline;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.control.*;
@@ -31,7 +34,6 @@ import java.io.File;
 import java.io.IOException;
 import java.util.*;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * This class represents the controller responsible for handling movie search functionality
@@ -47,7 +49,7 @@ import java.util.stream.Collectors;
  * - Handling genre selection and title input for movie filtering
  * - Integrating with other components like `CashierController` and `MovieDAO`
  */
-public class CashierMovieSearchController {
+public class CashierMovieSearchController implements ReusableController {
     /**
      * A text field used for searching movies by their title.
      * This field is part of the user interface managed by the CashierMovieSearchController.
@@ -86,19 +88,24 @@ public class CashierMovieSearchController {
      */
     private CashierController cashierController;
     /**
-     * A reference to the MovieDAO instance used for managing and retrieving movie data.
-     * This variable allows the controller to execute database operations such as
-     * fetching movies, updating movie information, adding new movies, or removing movies.
-     * It acts as the data access layer between the controller and the underlying database.
+     * Runs movie queries in the background so the till stays responsive while the
+     * database answers. Pending queries are cancelled when the search view is left.
      */
-    private MovieDAO movieDAO;
+    private AsyncDAO asyncDAO;
     /**
-     * Holds an observable list of Movie objects. This list is used as the primary data source
-     * for managing and displaying a collection of movies within the application. Changes made
-     * to the list are automatically reflected in UI components bound to it, enabling real-time
-     * updates.
+     * The search index over all movies, used to answer title and genre searches without
+     * scanning every title. Empty until the movies have been loaded.
      */
-    private ObservableList<Movie> allMovies;
+    private MovieSearchIndex searchIndex = MovieSearchIndex.of(List.of());
+    /**
+     * The card shown for each movie, by movie ID, so a new search moves existing cards
+     * instead of building them again.
+     */
+    private final Map<Integer, VBox> movieCards = new HashMap<>();
+    /**
+     * Delays the search while the title is still being typed.
+     */
+    private final PauseTransition searchDelay = new PauseTransition(Duration.millis(150));
     /**
      * Represents the currently selected movie in the cashier movie search controller.
      * This variable holds the Movie object that is actively chosen or being interacted with
@@ -122,24 +129,24 @@ public class CashierMovieSearchController {
      * This method sets up required data structures, event listeners, and UI components.
      *
      * Functionality includes:
-     * - Initialization of the {@code MovieDAO} object for database access.
-     * - Creation of an observable list to manage movie data.
+     * - Initialization of the {@code AsyncDAO} facade for background database access.
      * - Configuration of genre menu items by delegating to {@code setupGenreMenuItems()}.
-     * - Adding a text change listener to the title search field to trigger searches
-     *   when the input changes, excluding single-character inputs.
+     * - Adding a text change listener to the title search field to trigger a search
+     *   once typing pauses, excluding single-character inputs.
      * - Loading the initial set of movies by calling {@code loadMovies()}.
      */
     @FXML
     private void initialize() {
-        movieDAO = new MovieDAO();
-        allMovies = FXCollections.observableArrayList();
+        asyncDAO = new AsyncDAO();
+        asyncDAO.cancelWhenRemoved(movieGrid);
 
         // Setup genre menu items
         setupGenreMenuItems();
 
+        searchDelay.setOnFinished(event -> performSearch());
         titleSearchField.textProperty().addListener((observable, oldValue, newValue) -> {
             if (newValue.length() != 1) {
-                performSearch();
+                searchDelay.playFromStart();
             }
         });
 
@@ -244,6 +251,23 @@ public class CashierMovieSearchController {
         this.cashierController = controller;
     }
 
+    /**
+     * Clears the search text, the selected genres and the selected movie, and loads the movies
+     * again, as they may have changed since the view was last shown.
+     */
+    @Override
+    public void resetForReuse() {
+        selectedMovie = null;
+        titleSearchField.clear();
+        for (MenuItem item : genreMenuButton.getItems()) {
+            if (item instanceof CheckMenuItem) {
+                ((CheckMenuItem) item).setSelected(false);
+            }
+        }
+        updateGenreButtonText();
+        loadMovies();
+    }
+
     /**
      * Handles the search action triggered by the associated user interface element.
      * This method invokes the searching process by calling the performSearch method.
@@ -255,90 +279,77 @@ public class CashierMovieSearchController {
     }
 
     /**
-     * Filters and displays a list of movies based on the search text and selected genres.
-     *
-     * This method processes the input from the title search field and normalizes the search
-     * text by converting various forms of the letter 'i' to a consistent representation.
-     * It then retrieves the selected genres from the genre menu. Using this information,
-     * movies are filtered from the complete list of available movies based on whether their
-     * titles match the normalized search text and their genres match the selected genres.
-     * The filtered movies are then displayed using the appropriate UI method.
+     * Searches the movies by the title text and selected genres and displays the results.
      *
-     * The normalization is performed to ensure that variations of the letter 'i'
-     * (uppercase, lowercase, or diacritical forms) do not affect the search matching.
+     * The search is answered by the {@link MovieSearchIndex}, which ranks the titles by how
+     * well they match and tolerates small typos. Titles and search text are normalized the
+     * same way, so variations of the letter 'i' (uppercase, lowercase, or diacritical forms)
+     * and accents do not affect the matching.
      *
      * The filtering logic ensures that:
      * - If the search text is empty, no title filtering is applied.
      * - If no genres are selected, no genre filtering is applied.
      * - A movie is included if it matches the search text and belongs to at least one of the selected genres.
-     *
-     * This method internally calls `getSelectedGenres` to retrieve the selected genres
-     * and `displayMovies` to update the UI with the filtered results.
      */
     private void performSearch() {
-        // Normalize search text - convert all variations of i/I to a single character
-        String searchText = titleSearchField.getText()
-                .replace('i', 'i')
-                .replace('I', 'i')
-                .replace('ı', 'i')
-                .replace('İ', 'i')
-                .toLowerCase();
-
-        List<String> selectedGenres = getSelectedGenres();
-
-        List<Movie> filteredMovies = allMovies.stream()
-                .filter(movie -> {
-                    // Normalize movie title - convert all variations of i/I to a single character
-                    String movieTitle = movie.getTitle()
-                            .replace('i', 'i')
-                            .replace('I', 'i')
-                            .replace('ı', 'i')
-                            .replace('İ', 'i')
-                            .toLowerCase();
-
-                    boolean titleMatch = (searchText.isEmpty() || movieTitle.contains(searchText));
-                    boolean genreMatch = selectedGenres.isEmpty() ||
-                            selectedGenres.stream().anyMatch(movie.getGenres()::contains);
-
-                    return titleMatch && genreMatch;
-                })
-                .collect(Collectors.toList());
-
-        displayMovies(filteredMovies);
+        searchDelay.stop();
+        displayMovies(searchIndex.search(titleSearchField.getText(), getSelectedGenres()));
     }
 
     /**
-     * Loads all movies from the data source, updates the internal list of movies,
+     * Loads all movies from the data source, indexes them for searching,
      * and displays them in the user interface.
      *
-     * This method retrieves a list of all movies using the `movieDAO.getAllMovies` method,
-     * updates the `allMovies` observable list with the retrieved data, and subsequently
-     * displays these movies in the relevant UI component by invoking `displayMovies`.
+     * The movies are fetched with `MovieDAO.getAllMovies` and indexed on a background thread.
+     * Once the index arrives, it replaces the previous one on the JavaFX thread and the current
+     * search is re-applied, so any filter typed while the query was running is respected.
      *
      * It ensures that the movie grid and other UI elements stay synchronized with the
      * persisted data store.
      */
     private void loadMovies() {
-        List<Movie> movies = movieDAO.getAllMovies();
-        allMovies.setAll(movies);
-        displayMovies(movies);
+        resultCountLabel.setText("Loading movies...");
+        AsyncDAO.onFxThread(asyncDAO.movies(dao -> MovieSearchIndex.of(dao.getAllMovies())), index -> {
+            searchIndex = index;
+            movieCards.clear();
+            movieGrid.getChildren().clear();
+            performSearch();
+        });
     }
 
     /**
      * Displays a list of movies in the movie grid and updates the result count label.
-     * This method clears any existing content in the movie grid, sets the result count
-     * label to the number of movies provided, and then creates and adds a visual movie
-     * card for each movie in the list.
+     *
+     * Rather than rebuilding the grid, the cards already shown are kept: cards of movies
+     * no longer in the results are removed, cards are created only for movies shown for the
+     * first time, and the remaining cards are moved into the order of the results.
      *
      * @param movies The list of Movie objects to be displayed. Each movie will be
      *               represented as a visual card in the movie grid.
      */
     private void displayMovies(List<Movie> movies) {
-        movieGrid.getChildren().clear();
         resultCountLabel.setText(movies.size() + " movies found");
 
+        List<Node> cards = new ArrayList<>(movies.size());
         for (Movie movie : movies) {
-            movieGrid.getChildren().add(createMovieCard(movie));
+            cards.add(movieCards.computeIfAbsent(movie.getMovieId(), id -> createMovieCard(movie)));
+        }
+
+        List<Node> children = movieGrid.getChildren();
+        if (children.equals(cards)) {
+            return;
+        }
+        Set<Node> shown = Collections.newSetFromMap(new IdentityHashMap<>());
+        shown.addAll(cards);
+        children.removeIf(card -> !shown.contains(card));
+
+        for (int i = 0; i < cards.size(); i++) {
+            Node card = cards.get(i);
+            if (i < children.size() && children.get(i) == card) {
+                continue;
+            }
+            children.remove(card);
+            children.add(i, card);
         }
     }
 
@@ -392,23 +403,8 @@ public class CashierMovieSearchController {
 
         ImageView posterView = new ImageView();
 
-        // Handle poster image using byte array data
-        if (movie.getPosterData() != null && movie.getPosterData().length > 0) {
-            try {
-                Image image = new Image(new ByteArrayInputStream(movie.getPosterData()));
-                if (!image.isError()) {
-                    posterView.setImage(image);
-                } else {
-                    // Set default image if poster data is invalid
-                    setDefaultPoster(posterView);
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-                setDefaultPoster(posterView);
-            }
-        } else {
-            setDefaultPoster(posterView);
-        }
+        // Poster thumbnails are fetched and decoded in the background, then served from the cache
+        PosterCache.getInstance().loadThumbnail(movie, posterView, () -> setDefaultPoster(posterView));
 
         posterView.setFitWidth(180);
         posterView.setFitHeight(270);
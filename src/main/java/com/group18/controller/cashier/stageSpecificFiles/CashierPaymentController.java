@@ -2,12 +2,14 @@ package com.group18.controller.cashier.stageSpecificFiles;
 
 import com.group18.controller.cashier.CashierController;
 import com.group18.controller.cashier.sharedComponents.CashierCartController;
-import com.group18.dao.MovieDAO;
+import com.group18.dao.AsyncDAO;
 import com.group18.dao.OrderDAO;
-import com.group18.dao.ProductDAO;
-import com.group18.dao.UserDAO;
+import com.group18.dao.OrderDocument;
+import com.group18.dao.SeatConflictException;
+import com.group18.dao.StockShortfallException;
 import com.group18.model.*;
-import com.itextpdf.text.pdf.draw.LineSeparator;
+import com.group18.util.DocumentRenderQueue;
+import com.group18.util.ReusableController;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
@@ -29,14 +31,11 @@ import java.time.format.DateTimeFormatter;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import java.awt.Desktop;
 import java.io.File;
 import java.io.FileOutputStream;
-import java.io.ByteArrayOutputStream;
-
-import com.itextpdf.text.*;
-import com.itextpdf.text.pdf.*;
 
 /**
  * Controller class responsible for managing the cashier payment process in a JavaFX application.
@@ -62,7 +61,7 @@ import com.itextpdf.text.pdf.*;
  * - Provides various functionalities including setting up the table, loading order details,
  *   processing payments, and generating receipts.
  */
-public class CashierPaymentController {
+public class CashierPaymentController implements ReusableController {
     /**
      * A Label field used to display the title of a selected movie.
      * This label is part of the user interface and is updated to show the
@@ -197,26 +196,6 @@ public class CashierPaymentController {
      * Used primarily within the {@code CashierPaymentController} for managing order data.
      */
     private OrderDAO orderDAO;
-    /**
-     * Handles interactions with user data in the database.
-     * Provides high-level access to the UserDAO for performing CRUD operations
-     * and user-related queries within the context of the CashierPaymentController.
-     */
-    private UserDAO userDAO;
-    /**
-     * Represents the data access object (DAO) responsible for handling operations
-     * related to Product entities in the system. This variable provides an interface
-     * for interacting with the data layer, enabling CRUD (Create, Read, Update, Delete)
-     * operations associated with products. It is used to facilitate the retrieval and
-     * manipulation of product-related data from a persistent storage.
-     */
-    private ProductDAO productDAO;
-    /**
-     * Represents a MovieDAO instance used to interact with the movies database table.
-     * Provides CRUD operations (Create, Read, Update, Delete) for managing movie data.
-     * Used within the CashierPaymentController to retrieve or manipulate movie-related information.
-     */
-    private MovieDAO movieDAO;
     /**
      * Represents the currently logged-in cashier in the payment process.
      *
@@ -260,7 +239,7 @@ public class CashierPaymentController {
      *
      * Responsibilities:
      * - Initializes the shopping cart instance shared across the application.
-     * - Instantiates Data Access Object (DAO) classes to interact with persistent storage for orders, users, products, and movies.
+     * - Instantiates the Data Access Object (DAO) used to store orders.
      * - Calls setupTable() to prepare and configure the table view for displaying order-related items during the cashier's transaction.
      * - Sets the current cashier reference to null as part of the initialization process.
      */
@@ -268,9 +247,6 @@ public class CashierPaymentController {
     private void initialize() {
         cart = ShoppingCart.getInstance();
         orderDAO = new OrderDAO();
-        userDAO = new UserDAO();
-        productDAO = new ProductDAO();
-        movieDAO = new MovieDAO();
         setupTable();
 
         currentCashier = null;
@@ -334,6 +310,18 @@ public class CashierPaymentController {
         orderItemsTable.setItems(tableItems);
     }
 
+    /**
+     * Clears the order of the previous transaction and enables the payment button again; the
+     * new order is loaded once the cashier controller is set.
+     */
+    @Override
+    public void resetForReuse() {
+        tableItems.clear();
+        totalAmount = BigDecimal.ZERO;
+        currentCashier = null;
+        processPaymentButton.setDisable(false);
+    }
+
     /**
      * Sets the CashierController instance and initializes related components.
      * This method is responsible for updating the current cashier, handling any errors
@@ -558,7 +546,7 @@ public class CashierPaymentController {
      * It creates an order from the shopping cart and assigns the current cashier's
      * user ID to the order. The order is then submitted to the data access object
      * (DAO) for persistence. If the order is successfully created, the method
-     * generates tickets and a receipt, displays a success dialog, and resets
+     * queues its tickets and receipt for rendering, displays a success dialog, and resets
      * the transaction state. If the order creation fails, an error dialog is displayed
      * to notify the cashier of the failure.
      *
@@ -567,6 +555,10 @@ public class CashierPaymentController {
      *   will display a "System Error" alert and stop further processing.
      * - If the order could not be persisted (DAO failure), a "Payment Failed" alert
      *   will be displayed.
+     * - If another till sold or is holding any of the selected seats, a "Seats Unavailable"
+     *   alert names those seats so the cashier can go back and choose others.
+     * - If any product is short of stock, an "Out of Stock" alert names those products and
+     *   how many units are missing.
      */
     private void processPayment() {
         if (currentCashier == null) {
@@ -577,247 +569,33 @@ public class CashierPaymentController {
         Order order = cart.createOrder();
         order.setCashierId(currentCashier.getUserId());
 
-        if (orderDAO.createOrder(order)) {
-            generateTicketsAndReceipt(order);
-            showSuccessDialog(order.getOrderId());
-            resetTransaction();
-        } else {
-            showError("Payment Failed",
-                    "Failed to process payment. Please try again.");
-        }
-    }
-
-    /**
-     * Generates a PDF receipt for the given order.
-     * The receipt includes details such as cashier information, transaction date, order items,
-     * and totals (subtotal, tax, and total). It is formatted using a font that supports Turkish characters.
-     *
-     * @param order the {@code Order} object containing details of the transaction such as items purchased,
-     *              customer information, cashier, and order date.
-     * @return a byte array representing the generated PDF receipt. Returns {@code null} if an error occurs during PDF generation.
-     */
-    private byte[] generateReceiptPDF(Order order) {
         try {
-            // Use a font that supports Turkish characters
-            BaseFont turkishFont = BaseFont.createFont(
-                    "src/main/resources/fonts/arial-unicode.ttf",
-                    BaseFont.IDENTITY_H,
-                    BaseFont.EMBEDDED
-            );
-            Font titleFont = new Font(turkishFont, 18, Font.BOLD);
-            Font headerFont = new Font(turkishFont, 12, Font.BOLD);
-            Font normalFont = new Font(turkishFont, 10, Font.NORMAL);
-
-            com.itextpdf.text.Document document = new com.itextpdf.text.Document(PageSize.A4, 50, 50, 50, 50);
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter.getInstance(document, baos);
-
-            document.open();
-
-            // Cinema Header
-            Paragraph cinemaHeader = new Paragraph("Group 18 Cinema Center", titleFont);
-            cinemaHeader.setAlignment(Element.ALIGN_CENTER);
-            document.add(cinemaHeader);
-
-            // Subtitle
-            Paragraph receiptTitle = new Paragraph("Ticket and Sales Receipt", new Font(turkishFont, 14, Font.BOLD));
-            receiptTitle.setAlignment(Element.ALIGN_CENTER);
-            document.add(receiptTitle);
-
-            // Horizontal Line
-            LineSeparator line = new LineSeparator();
-            line.setLineWidth(1f);
-            document.add(new Chunk(line));
-            document.add(Chunk.NEWLINE);
-
-            // Transaction Details
-            PdfPTable detailsTable = new PdfPTable(2);
-            detailsTable.setWidthPercentage(100);
-            detailsTable.setSpacingBefore(10f);
-
-            // Cashier Information
-            User cashier = userDAO.findById(order.getCashierId());
-            addTableRow(detailsTable, "Cashier:",
-                    cashier.getFirstName() + " " + cashier.getLastName(),
-                    turkishFont);
-
-            // Order Date
-            addTableRow(detailsTable, "Date:",
-                    order.getOrderDate().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss")),
-                    turkishFont);
-
-            // Customer Details (from ticket)
-            OrderItem firstTicketItem = order.getOrderItems().stream()
-                    .filter(item -> "ticket".equals(item.getItemType()))
-                    .findFirst()
-                    .orElse(null);
-
-            if (firstTicketItem != null) {
-                addTableRow(detailsTable, "Customer Name:",
-                        firstTicketItem.getOccupantFirstName() + " " +
-                                firstTicketItem.getOccupantLastName(),
-                        turkishFont);
-
-                addTableRow(detailsTable, "Discount:",
-                        firstTicketItem.getDiscountApplied() ? "Applied" : "Not Applicable",
-                        turkishFont);
-            }
-
-            document.add(detailsTable);
-            document.add(Chunk.NEWLINE);
-
-            // Order Items Table
-            PdfPTable itemsTable = new PdfPTable(4);
-            itemsTable.setWidthPercentage(100);
-            itemsTable.setWidths(new float[]{3, 1, 1, 1});
-
-            // Table Header
-            String[] headers = {"Item", "Quantity", "Price", "Total"};
-            NumberFormat currencyFormatter = NumberFormat.getCurrencyInstance(new Locale("tr", "TR"));
-
-            for (String header : headers) {
-                PdfPCell headerCell = new PdfPCell(new Phrase(header, headerFont));
-                headerCell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                headerCell.setPadding(5);
-                headerCell.setBackgroundColor(BaseColor.LIGHT_GRAY);
-                itemsTable.addCell(headerCell);
+            if (orderDAO.createOrder(order)) {
+                // The documents are rendered in the background; checkout does not wait for them
+                CompletableFuture<Boolean> documents = DocumentRenderQueue.getInstance().submit(order);
+                showSuccessDialog(order.getOrderId(), documents);
+                resetTransaction();
+            } else {
+                showError("Payment Failed",
+                        "Failed to process payment. Please try again.");
             }
-
-            // Populate table with order items
-            double subtotal = 0;
-            for (OrderItem item : order.getOrderItems()) {
-                String itemName = getItemName(item);
-                int quantity = item.getQuantity();
-                double itemPrice = item.getItemPrice().doubleValue();
-                double total = itemPrice * quantity;
-
-                // Item Name
-                PdfPCell nameCell = new PdfPCell(new Phrase(itemName, normalFont));
-                nameCell.setPadding(5);
-                itemsTable.addCell(nameCell);
-
-                // Quantity
-                PdfPCell quantityCell = new PdfPCell(new Phrase(String.valueOf(quantity), normalFont));
-                quantityCell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                quantityCell.setPadding(5);
-                itemsTable.addCell(quantityCell);
-
-                // Price
-                PdfPCell priceCell = new PdfPCell(new Phrase(currencyFormatter.format(itemPrice), normalFont));
-                priceCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-                priceCell.setPadding(5);
-                itemsTable.addCell(priceCell);
-
-                // Total
-                PdfPCell totalCell = new PdfPCell(new Phrase(currencyFormatter.format(total), normalFont));
-                totalCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-                totalCell.setPadding(5);
-                itemsTable.addCell(totalCell);
-
-                subtotal += total;
-            }
-
-            document.add(itemsTable);
-            document.add(Chunk.NEWLINE);
-
-            // Totals Section
-            PdfPTable totalsTable = new PdfPTable(2);
-            totalsTable.setWidthPercentage(50);
-            totalsTable.setHorizontalAlignment(Element.ALIGN_RIGHT);
-
-            // Subtotal
-            addTotalRow(totalsTable, "Subtotal:", currencyFormatter.format(subtotal), turkishFont);
-
-            // Tax
-            double tax = cashierController.getCartController().getTax();
-            addTotalRow(totalsTable, "Tax:", currencyFormatter.format(tax), turkishFont);
-
-            // Total
-            double total = subtotal + tax;
-            addTotalRow(totalsTable, "Total:", currencyFormatter.format(total), turkishFont);
-
-            document.add(totalsTable);
-
-            // Footer
-            Paragraph footer = new Paragraph("\n\nThank you for your purchase!", new Font(turkishFont, 10, Font.ITALIC));
-            footer.setAlignment(Element.ALIGN_CENTER);
-            document.add(footer);
-
-            document.close();
-
-            return baos.toByteArray();
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
-        }
-    }
-
-    /**
-     * Adds a row with a label and a corresponding value to the provided PDF table.
-     *
-     * @param table the PdfPTable to which the row will be added
-     * @param label the text to display in the label cell
-     * @param value the text to display in the value cell
-     * @param font  the font to be used for styling the text in the cells
-     */
-    private void addTableRow(PdfPTable table, String label, String value, BaseFont font) {
-        Font labelFont = new Font(font, 10, Font.BOLD);
-        Font valueFont = new Font(font, 10, Font.NORMAL);
-
-        PdfPCell labelCell = new PdfPCell(new Phrase(label, labelFont));
-        labelCell.setBorder(Rectangle.NO_BORDER);
-        labelCell.setHorizontalAlignment(Element.ALIGN_LEFT);
-        table.addCell(labelCell);
-
-        PdfPCell valueCell = new PdfPCell(new Phrase(value, valueFont));
-        valueCell.setBorder(Rectangle.NO_BORDER);
-        valueCell.setHorizontalAlignment(Element.ALIGN_LEFT);
-        table.addCell(valueCell);
-    }
-
-    /**
-     * Adds a row to a PDF table displaying a total amount with a label and value.
-     * This method uses custom fonts for label and value styling and aligns
-     * the content to the right.
-     *
-     * @param table the PdfPTable to which the row will be added
-     * @param label the label describing the total (e.g., "Subtotal", "Tax", "Total")
-     * @param value the total value corresponding to the label
-     * @param font the BaseFont used to style the label and value text
-     */
-    private void addTotalRow(PdfPTable table, String label, String value, BaseFont font) {
-        Font labelFont = new Font(font, 10, Font.BOLD);
-        Font valueFont = new Font(font, 10, Font.NORMAL);
-
-        PdfPCell labelCell = new PdfPCell(new Phrase(label, labelFont));
-        labelCell.setBorder(Rectangle.NO_BORDER);
-        labelCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-        table.addCell(labelCell);
-
-        PdfPCell valueCell = new PdfPCell(new Phrase(value, valueFont));
-        valueCell.setBorder(Rectangle.NO_BORDER);
-        valueCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-        table.addCell(valueCell);
-    }
-
-    /**
-     * Retrieves the name or description of an item based on its type and related details.
-     *
-     * @param item the object representing the order item, containing details such as item type, schedule ID, seat number, or product ID
-     * @return the name or description of the item, such as the movie ticket description or the product name; returns "Unknown Item" if the type is unrecognized
-     */
-    private String getItemName(OrderItem item) {
-        if ("ticket".equals(item.getItemType())) {
-            // Use MovieDAO to fetch movie details
-            Movie movie = movieDAO.findMovieByScheduleId(item.getScheduleId());
-            return movie != null
-                    ? "Ticket: " + movie.getTitle() + " (Seat: " + convertNumberToSeatId(item.getSeatNumber()) + ")"
-                    : "Ticket: Unknown Movie (Seat: " + convertNumberToSeatId(item.getSeatNumber()) + ")";
-        } else if ("product".equals(item.getItemType())) {
-            Product product = productDAO.findById(item.getProductId());
-            return product != null ? product.getProductName() : "Unknown Product";
+        } catch (SeatConflictException e) {
+            String lostSeats = e.getLostSeats().values().stream()
+                    .flatMap(List::stream)
+                    .sorted()
+                    .map(this::convertNumberToSeatId)
+                    .collect(Collectors.joining(", "));
+            showError("Seats Unavailable",
+                    "These seats were just taken at another till: " + lostSeats +
+                    ". Please go back and select different seats.");
+        } catch (StockShortfallException e) {
+            String shortProducts = e.getShortfalls().entrySet().stream()
+                    .map(entry -> e.getProductName(entry.getKey()) + " (" + entry.getValue() + " short)")
+                    .collect(Collectors.joining(", "));
+            showError("Out of Stock",
+                    "Not enough stock left for: " + shortProducts +
+                    ". Please go back and reduce or remove these products.");
         }
-        return "Unknown Item";
     }
 
     /**
@@ -839,168 +617,6 @@ public class CashierPaymentController {
         return String.format("%c%d", (char)('A' + row), col);
     }
 
-    /**
-     * Generates the receipt and tickets for the given order and stores them in the database.
-     *
-     * @param order the order for which receipt and tickets are to be generated and stored
-     */
-    private void generateTicketsAndReceipt(Order order) {
-        byte[] receiptPdf = generateReceiptPDF(order);
-        byte[] ticketsPdf = generateTicketsPDF(order);
-
-        if (orderDAO.storeDocuments(order.getOrderId(), receiptPdf, ticketsPdf)) {
-            System.out.println("Receipt and tickets stored successfully");
-        } else {
-            System.err.println("Failed to store receipt and tickets");
-        }
-    }
-
-    /**
-     * Generates a PDF document for the tickets associated with the given order.
-     * The PDF includes details such as movie information, session details,
-     * seat numbers, pricing, and other relevant information in a format suitable
-     * for printing or digital distribution.
-     *
-     * @param order the {@code Order} object containing the details of
-     *              the tickets and products to be included in the PDF
-     * @return a byte array representing the generated PDF document,
-     *         or {@code null} if an error occurs during generation
-     */
-    private byte[] generateTicketsPDF(Order order) {
-        try {
-            // Use a font that supports Turkish characters
-            BaseFont turkishFont = BaseFont.createFont(
-                    "src/main/resources/fonts/arial-unicode.ttf",
-                    BaseFont.IDENTITY_H,
-                    BaseFont.EMBEDDED
-            );
-            Font titleFont = new Font(turkishFont, 24, Font.BOLD);
-            Font headerFont = new Font(turkishFont, 16, Font.BOLD);
-            Font normalFont = new Font(turkishFont, 12, Font.NORMAL);
-
-            com.itextpdf.text.Document document = new com.itextpdf.text.Document(PageSize.A4, 50, 50, 50, 50);
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter.getInstance(document, baos);
-            document.open();
-
-            // Get ticket items only
-            List<OrderItem> ticketItems = order.getOrderItems().stream()
-                    .filter(item -> "ticket".equals(item.getItemType()))
-                    .toList();
-
-            // Get product items
-            List<OrderItem> productItems = order.getOrderItems().stream()
-                    .filter(item -> "product".equals(item.getItemType()))
-                    .toList();
-
-            // Get movie details
-            Movie movie = movieDAO.findMovieByScheduleId(ticketItems.get(0).getScheduleId());
-            if (movie == null) return null;
-
-            // Cinema Header
-            Paragraph cinemaHeader = new Paragraph("Group 18 Cinema Center", titleFont);
-            cinemaHeader.setAlignment(Element.ALIGN_CENTER);
-            document.add(cinemaHeader);
-
-            // Movie Title
-            Paragraph movieTitle = new Paragraph(movie.getTitle(), headerFont);
-            movieTitle.setAlignment(Element.ALIGN_CENTER);
-            movieTitle.setSpacingBefore(20);
-            document.add(movieTitle);
-
-            // Horizontal Line
-            LineSeparator line = new LineSeparator();
-            line.setLineWidth(1f);
-            document.add(new Chunk(line));
-            document.add(Chunk.NEWLINE);
-
-            // Create table for ticket details
-            PdfPTable detailsTable = new PdfPTable(2);
-            detailsTable.setWidthPercentage(100);
-            detailsTable.setSpacingBefore(20f);
-
-            // Add customer details
-            OrderItem firstTicketItem = ticketItems.get(0);
-            addTableRow(detailsTable, "Customer:",
-                    firstTicketItem.getOccupantFirstName() + " " + firstTicketItem.getOccupantLastName(),
-                    turkishFont);
-
-            // Add session details
-            MovieSession session = cashierController.getSelectedSession();
-            addTableRow(detailsTable, "Date:",
-                    cashierController.getSelectedDate().format(DateTimeFormatter.ofPattern("dd.MM.yyyy")),
-                    turkishFont);
-            addTableRow(detailsTable, "Time:",
-                    session.getTime().format(DateTimeFormatter.ofPattern("HH:mm")),
-                    turkishFont);
-            addTableRow(detailsTable, "Hall:", session.getHall(), turkishFont);
-
-            // Collect and format seat numbers
-            String seats = ticketItems.stream()
-                    .map(item -> convertNumberToSeatId(item.getSeatNumber()))
-                    .sorted()
-                    .collect(Collectors.joining(", "));
-            addTableRow(detailsTable, "Seats:", seats, turkishFont);
-
-            // Calculate prices
-            NumberFormat currencyFormatter = NumberFormat.getCurrencyInstance(new Locale("tr", "TR"));
-
-            // Ticket Price
-            double totalTicketPrice = ticketItems.stream()
-                    .mapToDouble(item -> item.getItemPrice().doubleValue())
-                    .sum();
-            addTableRow(detailsTable, "Ticket Price:",
-                    currencyFormatter.format(totalTicketPrice),
-                    turkishFont);
-
-            // Product Price
-            double totalProductPrice = productItems.stream()
-                    .mapToDouble(item -> item.getItemPrice().doubleValue() * item.getQuantity())
-                    .sum();
-            addTableRow(detailsTable, "Products Price:",
-                    currencyFormatter.format(totalProductPrice),
-                    turkishFont);
-
-            // Tax Calculation
-            double totalTax = cashierController.getCartController().getTax();
-            addTableRow(detailsTable, "Tax:",
-                    currencyFormatter.format(totalTax),
-                    turkishFont);
-
-            // Total Price (including tax)
-            double totalPrice = totalTicketPrice + totalProductPrice + totalTax;
-            addTableRow(detailsTable, "Total Price:",
-                    currencyFormatter.format(totalPrice),
-                    turkishFont);
-
-            // Check if any ticket has a discount
-            boolean hasDiscount = ticketItems.stream()
-                    .anyMatch(OrderItem::getDiscountApplied);
-            if (hasDiscount) {
-                addTableRow(detailsTable, "Discount:", "Age-based discount applied", turkishFont);
-            }
-
-            document.add(detailsTable);
-
-            // Add footer with terms and conditions
-            Paragraph footer = new Paragraph(
-                    "\n\nThis ticket is valid only for the specified date and time." +
-                            "\nFor cancellations please contact us from our website." +
-                            "\nPlease arrive at least 15 minutes before showtime.",
-                    new Font(turkishFont, 8, Font.ITALIC)
-            );
-            footer.setAlignment(Element.ALIGN_CENTER);
-            document.add(footer);
-
-            document.close();
-            return baos.toByteArray();
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
-        }
-    }
-
     /**
      * Displays a dialog to view the tickets associated with a specific order ID.
      * This method retrieves the ticket PDF for the given order, temporarily saves it to a file,
@@ -1010,36 +626,38 @@ public class CashierPaymentController {
      * @param orderId the ID of the order whose tickets need to be displayed
      */
     private void showTicketsDialog(int orderId) {
-        byte[] ticketsPdf = orderDAO.retrieveTickets(orderId);
+        OrderDocument tickets = orderDAO.getTicketsDocument(orderId);
 
-        if (ticketsPdf != null) {
-            try {
-                // Create a temporary file
-                File tempFile = File.createTempFile("tickets_" + orderId, ".pdf");
-                tempFile.deleteOnExit(); // Ensure file is deleted when JVM exits
-
-                // Write PDF content to temp file
-                try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-                    fos.write(ticketsPdf);
-                }
-
-                // Open the PDF in default browser
-                Desktop.getDesktop().browse(tempFile.toURI());
+        try {
+            // Create a temporary file
+            File tempFile = File.createTempFile("tickets_" + orderId, ".pdf");
+            tempFile.deleteOnExit(); // Ensure file is deleted when JVM exits
+
+            // Stream PDF content straight from the database into the temp file
+            boolean found;
+            try (FileOutputStream fos = new FileOutputStream(tempFile)) {
+                found = tickets.writeTo(fos);
+            }
 
-            } catch (IOException e) {
-                // Show error if opening fails
+            if (!found) {
+                // Show error if no tickets found
                 Alert errorAlert = new Alert(Alert.AlertType.ERROR);
-                errorAlert.setTitle("Tickets View Error");
+                errorAlert.setTitle("Tickets Not Found");
                 errorAlert.setHeaderText(null);
-                errorAlert.setContentText("Could not open tickets: " + e.getMessage());
+                errorAlert.setContentText("No tickets found for this order.");
                 errorAlert.showAndWait();
+                return;
             }
-        } else {
-            // Show error if no tickets found
+
+            // Open the PDF in default browser
+            Desktop.getDesktop().browse(tempFile.toURI());
+
+        } catch (IOException e) {
+            // Show error if opening fails
             Alert errorAlert = new Alert(Alert.AlertType.ERROR);
-            errorAlert.setTitle("Tickets Not Found");
+            errorAlert.setTitle("Tickets View Error");
             errorAlert.setHeaderText(null);
-            errorAlert.setContentText("No tickets found for this order.");
+            errorAlert.setContentText("Could not open tickets: " + e.getMessage());
             errorAlert.showAndWait();
         }
     }
@@ -1052,36 +670,38 @@ public class CashierPaymentController {
      * @param orderId The unique identifier of the order for which the receipt will be displayed.
      */
     private void showReceiptDialog(int orderId) {
-        byte[] receiptPdf = orderDAO.retrieveReceipt(orderId);
-
-        if (receiptPdf != null) {
-            try {
-                // Create a temporary file
-                File tempFile = File.createTempFile("receipt_" + orderId, ".pdf");
-                tempFile.deleteOnExit(); // Ensure file is deleted when JVM exits
-
-                // Write PDF content to temp file
-                try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-                    fos.write(receiptPdf);
-                }
+        OrderDocument receipt = orderDAO.getReceiptDocument(orderId);
 
-                // Open the PDF in default browser
-                Desktop.getDesktop().browse(tempFile.toURI());
+        try {
+            // Create a temporary file
+            File tempFile = File.createTempFile("receipt_" + orderId, ".pdf");
+            tempFile.deleteOnExit(); // Ensure file is deleted when JVM exits
+
+            // Stream PDF content straight from the database into the temp file
+            boolean found;
+            try (FileOutputStream fos = new FileOutputStream(tempFile)) {
+                found = receipt.writeTo(fos);
+            }
 
-            } catch (IOException e) {
-                // Show error if opening fails
+            if (!found) {
+                // Show error if no receipt found
                 Alert errorAlert = new Alert(Alert.AlertType.ERROR);
-                errorAlert.setTitle("Receipt View Error");
+                errorAlert.setTitle("Receipt Not Found");
                 errorAlert.setHeaderText(null);
-                errorAlert.setContentText("Could not open receipt: " + e.getMessage());
+                errorAlert.setContentText("No receipt found for this order.");
                 errorAlert.showAndWait();
+                return;
             }
-        } else {
-            // Show error if no receipt found
+
+            // Open the PDF in default browser
+            Desktop.getDesktop().browse(tempFile.toURI());
+
+        } catch (IOException e) {
+            // Show error if opening fails
             Alert errorAlert = new Alert(Alert.AlertType.ERROR);
-            errorAlert.setTitle("Receipt Not Found");
+            errorAlert.setTitle("Receipt View Error");
             errorAlert.setHeaderText(null);
-            errorAlert.setContentText("No receipt found for this order.");
+            errorAlert.setContentText("Could not open receipt: " + e.getMessage());
             errorAlert.showAndWait();
         }
     }
@@ -1093,16 +713,21 @@ public class CashierPaymentController {
      * receipt and tickets prevent the dialog from closing, allowing users
      * to interact with them without dismissing the dialog.
      *
+     * The documents are still being rendered when the dialog opens, so both
+     * buttons stay disabled until they have been stored.
+     *
      * @param orderId the unique identifier of the order associated with
      *                the payment. This ID is used to retrieve the receipt
      *                and tickets for the order.
+     * @param documents completes with true once the receipt and tickets are
+     *                  stored, or false if they could not be generated
      */
-    private void showSuccessDialog(int orderId) {
+    private void showSuccessDialog(int orderId, CompletableFuture<Boolean> documents) {
         Alert success = new Alert(Alert.AlertType.INFORMATION);
         success.setTitle("Payment Successful");
         success.setHeaderText(null);
         success.setContentText("Payment has been processed successfully. " +
-                "Tickets and receipt have been generated.");
+                "Tickets and receipt are being generated...");
 
         // Create custom buttons
         ButtonType showReceiptButton = new ButtonType("Show Receipt", ButtonBar.ButtonData.LEFT);
@@ -1127,6 +752,23 @@ public class CashierPaymentController {
             });
         });
 
+        // Enable the document buttons once the documents are ready
+        Node receiptButtonNode = success.getDialogPane().lookupButton(showReceiptButton);
+        Node ticketsButtonNode = success.getDialogPane().lookupButton(showTicketsButton);
+        receiptButtonNode.setDisable(true);
+        ticketsButtonNode.setDisable(true);
+        AsyncDAO.onFxThread(documents, stored -> {
+            if (stored) {
+                success.setContentText("Payment has been processed successfully. " +
+                        "Tickets and receipt have been generated.");
+                receiptButtonNode.setDisable(false);
+                ticketsButtonNode.setDisable(false);
+            } else {
+                success.setContentText("Payment has been processed successfully, but the tickets " +
+                        "and receipt could not be generated.");
+            }
+        });
+
         // Show the dialog and handle the final result
         Optional<ButtonType> result = success.showAndWait();
 
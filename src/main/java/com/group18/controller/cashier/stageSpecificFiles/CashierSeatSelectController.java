@@ -1,10 +1,13 @@
 package com.group18.controller.cashier.stageSpecificFiles;
 import com.group18.controller.cashier.CashierController;
 import com.group18.controller.cashier.sharedComponents.CashierCartController;
-import com.group18.dao.DBConnection;
+import com.group18.dao.AsyncDAO;
 import com.group18.dao.OrderDAO;
 import com.group18.dao.PriceDAO;
+import com.group18.dao.SeatHoldDAO;
+import com.group18.dao.SeatMapDAO;
 import com.group18.model.OrderItem;
+import com.group18.model.SeatMap;
 import com.group18.model.ShoppingCart;
 import javafx.animation.ScaleTransition;
 import javafx.fxml.FXML;
@@ -13,21 +16,19 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import com.group18.model.Movie;
 import com.group18.model.MovieSession;
+import com.group18.util.ReusableController;
 import javafx.scene.shape.Circle;
 import javafx.util.Duration;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Controller class for selecting movie seats in the cashier's system.
  * Handles seat selection, updating seat availability, and adding selected seats to the cart.
  */
-public class CashierSeatSelectController {
+public class CashierSeatSelectController implements ReusableController {
     /**
      * Represents a Label control within the CashierSeatSelectController used to display the title of the selected movie.
      * This label is updated dynamically to reflect the title of the movie currently associated with the selected session.
@@ -134,6 +135,15 @@ public class CashierSeatSelectController {
      * Used for retrieving or updating price information from the database.
      */
     private PriceDAO priceDAO;
+    /**
+     * Reads the seat occupancy of the current session.
+     */
+    private SeatMapDAO seatMapDAO;
+    /**
+     * Holds the seats selected at this till so other tills cannot sell them meanwhile. Holds
+     * are taken and released in the background, so selecting a seat never waits on the database.
+     */
+    private SeatHoldDAO seatHoldDAO;
     /**
      * Represents the shopping cart used to store ticket selections and associated details
      * during the seat selection process. This cart is used to manage and persist user
@@ -197,6 +207,8 @@ public class CashierSeatSelectController {
     private void initialize() {
         confirmButton.setDisable(true);
         priceDAO = new PriceDAO();
+        seatMapDAO = new SeatMapDAO();
+        seatHoldDAO = SeatHoldDAO.getInstance();
         cart = ShoppingCart.getInstance();
 
         currentInstance = this;
@@ -224,13 +236,15 @@ public class CashierSeatSelectController {
      * labels and buttons, and recreates the visual seat grid to reflect the changes.
      * It ensures that the selection summary and total price are updated,
      * and disables the confirm button until new seats are selected.
+     * Any seats this till was holding are released for other tills.
      */
     public void resetSeats() {
         System.out.println("Selected Seats before clear: " + selectedSeats); // Before clearing
         selectedSeats.clear();
+        seatHoldDAO.releaseAllAsync();
         System.out.println("Selected Seats after clear: " + selectedSeats); // After clearing
         updateSelectionSummary();
-        if (seatGrid != null) {
+        if (seatGrid != null && session != null) {
             createSeatGrid(); // Recreate the grid to reset all visual states
         }
 
@@ -246,6 +260,30 @@ public class CashierSeatSelectController {
         }
     }
 
+    /**
+     * Forgets the session and the seats selected in it and clears the seat grid, so the view
+     * waits for session information to be set. As in {@link #resetSeats()}, the seats this till
+     * holds are released; seats the cashier comes back to are held again when they are restored,
+     * after the release, since holds reach the database in the order they are asked for.
+     */
+    @Override
+    public void resetForReuse() {
+        movie = null;
+        session = null;
+        date = null;
+        ticketPrice = 50.0;
+        selectedSeats.clear();
+        occupiedSeats.clear();
+        seatHoldDAO.releaseAllAsync();
+        seatGrid.getChildren().clear();
+        movieTitleLabel.setText("");
+        dateLabel.setText("");
+        timeLabel.setText("");
+        hallLabel.setText("");
+        updateSelectionSummary();
+        currentInstance = this;
+    }
+
     /**
      * Clears the selected seats and resets the current instance state if applicable.
      *
@@ -283,6 +321,9 @@ public class CashierSeatSelectController {
         updateSessionInfo();
         loadOccupiedSeats();
         createSeatGrid();
+
+        // Seats held for a previously chosen session are no longer needed
+        seatHoldDAO.releaseAllExceptAsync(session.getScheduleId());
     }
 
     /**
@@ -303,6 +344,7 @@ public class CashierSeatSelectController {
             for (String seatId : previousSeats) {
                 addSeatToSelection(seatId);
             }
+            holdSeats(previousSeats);
         }
     }
 
@@ -328,51 +370,30 @@ public class CashierSeatSelectController {
      * Loads the currently occupied seats for a specific movie session from the database
      * and updates the local list of occupied seats.
      *
-     * The method retrieves seat numbers that correspond to unprocessed orders
-     * for the specified movie session. It clears the existing list of occupied seats,
-     * fetches the relevant records from the database, and converts the seat numbers
-     * into their display format before adding them to the list.
+     * The occupancy is read from the session's seat map, a single row holding one bit per
+     * seat, rather than from the individual tickets sold for the session. Seats currently
+     * held by other tills are shown as occupied as well.
      *
      * This method executes the following steps:
      * 1. Clears the `occupiedSeats` collection.
-     * 2. Executes a query to retrieve seat numbers from `order_items` for the
-     *    current session, filtering by schedule ID and excluding fully processed orders.
-     * 3. Converts each numeric seat representation to its display format
+     * 2. Reads the seat map of the current session by its schedule ID.
+     * 3. Converts each occupied seat number to its display format
      *    (e.g., A1, B1) using the `convertNumberToSeatId` method.
      * 4. Adds the converted seats to the `occupiedSeats` collection.
-     *
-     * This method also manages database connections and handles SQL exceptions
-     * that may occur during the query execution.
-     *
-     * Note: The built query uses the session's schedule ID to filter seat reservations.
-     * It assumes the presence of the required database schema and data integrity.
      */
     private void loadOccupiedSeats() {
         occupiedSeats.clear();
-        String query = """
-        SELECT seat_number 
-        FROM order_items 
-        WHERE schedule_id = ? 
-          AND item_type = 'ticket'
-          AND order_id IN (
-              SELECT order_id 
-              FROM orders 
-              WHERE status NOT IN ('PROCESSED_FULL', 'PROCESSED_TICKETS')
-          )
-    """;
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setInt(1, session.getScheduleId());
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                // Convert numeric seat to display format (A1, B1, etc.)
-                int seatNumber = rs.getInt("seat_number");
-                occupiedSeats.add(convertNumberToSeatId(seatNumber));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+
+        SeatMap seatMap = seatMapDAO.getSeatMap(session.getScheduleId());
+        if (seatMap == null) {
+            return;
+        }
+        for (int seatNumber : seatMap.getOccupiedSeats()) {
+            // Convert numeric seat to display format (A1, B1, etc.)
+            occupiedSeats.add(convertNumberToSeatId(seatNumber));
+        }
+        for (int seatNumber : seatHoldDAO.getSeatsHeldByOthers(session.getScheduleId())) {
+            occupiedSeats.add(convertNumberToSeatId(seatNumber));
         }
     }
 
@@ -515,15 +536,54 @@ public class CashierSeatSelectController {
             seatCircle.setFill(javafx.scene.paint.Color.valueOf("#2ECC71")); // Back to green
             seatCircle.setOpacity(1.0);
 
+            int scheduleId = session.getScheduleId();
+            int seatNumber = convertSeatIdToNumber(seatId);
+            seatHoldDAO.releaseAsync(scheduleId, List.of(seatNumber));
         } else {
             selectedSeats.add(seatId);
             seatCircle.setFill(javafx.scene.paint.Color.valueOf("#3498DB")); // Blue for selected
             seatCircle.setOpacity(0.8);
+
+            holdSeats(List.of(seatId));
         }
 
         updateSelectionSummary();
     }
 
+    /**
+     * Holds the given seats for this till in the background. The seats are shown as selected
+     * right away; any seat another till got first is taken out of the selection again, shown
+     * as occupied, and reported to the cashier.
+     *
+     * @param seatIds the identifiers of the seats to hold (e.g., A1, B3)
+     */
+    private void holdSeats(Collection<String> seatIds) {
+        int scheduleId = session.getScheduleId();
+        List<Integer> seatNumbers = seatIds.stream()
+                .map(this::convertSeatIdToNumber)
+                .collect(Collectors.toList());
+
+        AsyncDAO.onFxThread(seatHoldDAO.holdAsync(scheduleId, seatNumbers), lostSeats -> {
+            if (lostSeats.isEmpty() || session == null || session.getScheduleId() != scheduleId) {
+                return;
+            }
+            List<String> lostSeatIds = lostSeats.stream()
+                    .map(this::convertNumberToSeatId)
+                    .collect(Collectors.toList());
+            selectedSeats.removeAll(lostSeatIds);
+            occupiedSeats.addAll(lostSeatIds);
+
+            // Redraw the grid with the lost seats occupied, keeping the rest of the selection
+            Set<String> stillSelected = new LinkedHashSet<>(selectedSeats);
+            createSeatGrid();
+            stillSelected.forEach(this::addSeatToSelection);
+            updateSelectionSummary();
+
+            showError("Seats Unavailable",
+                    "These seats were just taken at another till: " + String.join(", ", lostSeatIds));
+        });
+    }
+
     /**
      * Updates the selection summary by refreshing the selected seats label, total price label,
      * and enabling or disabling the confirmation button based on the current selection.
@@ -532,12 +592,21 @@ public class CashierSeatSelectController {
      * The total price is calculated based on the size of the selected seats and the ticket price,
      * and displayed in the totalPriceLabel in currency format.
      * The confirmButton is disabled if no seats are selected and enabled otherwise.
+     * The holds of the selected seats are kept alive from now on, and only those.
      */
     private void updateSelectionSummary() {
         selectedSeatsLabel.setText(String.join(", ", selectedSeats));
         double total = selectedSeats.size() * ticketPrice;
         totalPriceLabel.setText(String.format("₺%.2f", total));
         confirmButton.setDisable(selectedSeats.isEmpty());
+
+        if (session == null) {
+            seatHoldDAO.stopRenewing();
+        } else {
+            seatHoldDAO.renewSelection(session.getScheduleId(), selectedSeats.stream()
+                    .map(this::convertSeatIdToNumber)
+                    .collect(Collectors.toList()));
+        }
     }
 
     /**
@@ -617,6 +686,20 @@ public class CashierSeatSelectController {
         return String.format("%c%d", (char)('A' + row), col);
     }
 
+    /**
+     * Converts a seat identifier (e.g., A1, B3) to its numeric seat number, the inverse of
+     * {@link #convertNumberToSeatId(int)}.
+     *
+     * @param seatId the seat identifier to be converted
+     * @return the numeric seat number, starting from 1
+     */
+    private int convertSeatIdToNumber(String seatId) {
+        char row = seatId.charAt(0);
+        int col = Integer.parseInt(seatId.substring(1));
+        int cols = session.getHall().equals("Hall_A") ? 4 : 8;
+        return ((row - 'A') * cols) + col;
+    }
+
     /**
      * Displays an error alert with the specified title and content.
      *
@@ -13,6 +13,8 @@ import javafx.geometry.Pos;
 import com.group18.model.Movie;
 import com.group18.model.Schedule;
 import com.group18.model.MovieSession;
+import com.group18.util.PosterCache;
+import com.group18.util.ReusableController;
 import javafx.util.Duration;
 
 import java.io.ByteArrayInputStream;
@@ -33,7 +35,7 @@ import java.util.stream.Collectors;
  * - Providing hover animations and interactive UI elements for better user experience.
  * - Retaining state such as previously selected session and date for seamless navigation.
  */
-public class CashierSessionSelectController {
+public class CashierSessionSelectController implements ReusableController {
     /**
      * An ImageView component associated with displaying the poster of a movie.
      * This field is part of the user interface controlled by the CashierSessionSelectController.
@@ -257,6 +259,22 @@ public class CashierSessionSelectController {
         }
     }
 
+    /**
+     * Forgets the movie, its schedules and the session selected before, clears the sessions
+     * grid and moves the date picker back to today, so the view waits for a movie to be set.
+     */
+    @Override
+    public void resetForReuse() {
+        selectedMovie = null;
+        selectedSchedule = null;
+        previouslySelectedSession = null;
+        previouslySelectedDate = null;
+        allAvailableSchedules = new ArrayList<>();
+        currentDateSchedules = new ArrayList<>();
+        clearSessionsGrid();
+        datePicker.setValue(LocalDate.now());
+    }
+
     /**
      * Sets the selected movie for the session selection view and updates the relevant UI components.
      * This method updates the displayed movie details based on the selected movie, resets the date picker
@@ -331,27 +349,13 @@ public class CashierSessionSelectController {
      * If the selected movie's poster data is available and valid, it is displayed in the
      * movie poster view. Otherwise, a default poster image is displayed.
      *
-     * The method retrieves the poster data as a byte array from the selected movie.
-     * If the byte array is not null and contains data, it attempts to create an image
-     * object from the data. If the image creation fails or if the byte array is invalid,
-     * the default poster image is loaded instead. It also handles any exceptions
-     * that occur during the image loading process.
+     * The poster is fetched and decoded in the background by the shared {@link PosterCache},
+     * so revisiting a movie shows its poster without another database round trip.
      */
     private void loadMoviePoster() {
-        // Handle poster image using byte array data
-        if (selectedMovie != null && selectedMovie.getPosterData() != null &&
-                selectedMovie.getPosterData().length > 0) {
-            try {
-                Image image = new Image(new ByteArrayInputStream(selectedMovie.getPosterData()));
-                if (!image.isError()) {
-                    moviePosterView.setImage(image);
-                } else {
-                    setDefaultPoster();
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-                setDefaultPoster();
-            }
+        if (selectedMovie != null) {
+            // Load the full-size poster in the background
+            PosterCache.getInstance().loadPoster(selectedMovie, moviePosterView, this::setDefaultPoster);
         } else {
             setDefaultPoster();
         }
@@ -1,9 +1,14 @@
 package com.group18.controller.manager;
 
+import com.group18.dao.AsyncDAO;
+import com.group18.dao.ChangeBus;
+import com.group18.dao.ChangeEvent;
+import com.group18.dao.InventoryService;
 import com.group18.dao.ProductDAO;
 import com.group18.model.Product;
 import com.group18.model.AddProductDialog;
 import com.group18.model.EditProductDialog;
+import com.group18.util.RowDeltas;
 
 import javafx.animation.ScaleTransition;
 import javafx.application.Platform;
@@ -18,6 +23,9 @@ import javafx.scene.layout.HBox;
 
 import java.math.BigDecimal;
 import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.ResourceBundle;
 import java.util.stream.Collectors;
 
@@ -70,12 +78,16 @@ public class ManagerInventoryController implements Initializable {
 
     // Data Management
     private ProductDAO productDAO;
-    private ObservableList<Product> masterData;
+    private AsyncDAO asyncDAO;
+    private final ObservableList<Product> masterData = FXCollections.observableArrayList();
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         // Initialize dependencies
         productDAO = new ProductDAO();
+        asyncDAO = new AsyncDAO();
+        asyncDAO.cancelWhenRemoved(inventoryTable);
+        ChangeBus.getInstance().subscribeUntilRemoved(inventoryTable, ChangeEvent.Entity.PRODUCT, this::applyProductChanges);
 
         // Setup UI components
         setupTableColumns();
@@ -188,12 +200,35 @@ public class ManagerInventoryController implements Initializable {
     }
 
     /**
-     * Load all products from database and update UI
+     * Load all products from database in the background, with the live stock counts of the
+     * inventory service, and update UI once they arrive, re-applying any filters chosen while
+     * the query was running
      */
     private void loadProductData() {
-        masterData = FXCollections.observableArrayList(productDAO.getAllProducts());
-        inventoryTable.setItems(masterData);
-        updateCategoryCards();
+        inventoryTable.setPlaceholder(new Label("Loading products..."));
+        AsyncDAO.onFxThread(asyncDAO.products(dao -> InventoryService.getInstance().withLiveStock(dao.getAllProducts())), products -> {
+            masterData.setAll(products);
+            inventoryTable.setPlaceholder(new Label("No products found"));
+            filterProducts();
+            updateCategoryCards();
+        });
+    }
+
+    /**
+     * Read the products changed here or at other tills again in the background, with their
+     * live stock, and put them in place in the loaded data instead of reloading the table
+     */
+    private void applyProductChanges(List<ChangeEvent> changes) {
+        AsyncDAO.onFxThread(asyncDAO.products(dao -> {
+            Map<Integer, Product> changed = RowDeltas.read(changes, dao::findById);
+            InventoryService.getInstance().withLiveStock(
+                    changed.values().stream().filter(Objects::nonNull).collect(Collectors.toList()));
+            return changed;
+        }), changed -> {
+            RowDeltas.apply(masterData, changed, Product::getProductId);
+            filterProducts();
+            updateCategoryCards();
+        });
     }
 
     /**
@@ -1,23 +1,28 @@
 package com.group18.controller.manager;
 
-import com.group18.dao.OrderDAO;
-import com.group18.model.Order;
-import com.group18.model.OrderItem;
+import com.group18.analytics.SalesColumns;
+import com.group18.analytics.SalesDimension;
+import com.group18.analytics.SalesGroup;
+import com.group18.analytics.SalesQuery;
+import com.group18.dao.AsyncDAO;
+import com.group18.dao.RevenueDAO;
+import com.group18.dao.SalesHistoryDAO;
+import com.group18.model.DailyRevenue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * The ManagerRevenueController class is responsible for managing and displaying
@@ -30,13 +35,17 @@ import java.util.stream.Collectors;
  * calculates various statistics, including total revenue, VAT amounts, and
  * trends between months. The results are displayed in corresponding UI elements.
  *
- * This class also updates a revenue table to display detailed information about
- * daily revenue, categorized by type (ticket or product).
+ * This class also updates a revenue table to display the revenue of each day,
+ * categorized by type (ticket or product).
  *
  * Static constants are defined for calculating VAT rates for tickets and products.
  *
- * It uses the OrderDAO class to retrieve orders and calculate revenue statistics
- * using helper methods and encapsulated logic.
+ * It uses the RevenueDAO class to read the daily revenue rollup, so the cost of
+ * opening the view does not grow with the order history.
+ *
+ * A sales breakdown card groups the last 12 months of sales by hour, day, movie, hall,
+ * cashier or product. The history is loaded once in the background into {@link SalesColumns}
+ * and every change of grouping is answered in memory by a {@link SalesQuery}.
  */
 public class ManagerRevenueController {
 
@@ -137,11 +146,52 @@ public class ManagerRevenueController {
     private TableColumn<RevenueEntry, BigDecimal> amountColumn;
 
     /**
-     * Manages database operations related to orders within the context of the revenue management system.
-     * This variable is primarily used to interact with the database to fetch, update, or manipulate order-related data,
-     * supporting the functionality of the ManagerRevenueController class.
+     * Selects the dimension the sales breakdown groups by.
+     */
+    @FXML
+    private ComboBox<SalesDimension> breakdownDimensionCombo;
+    /**
+     * Describes the period covered by the sales breakdown, or that it is still loading.
+     */
+    @FXML
+    private Label breakdownPeriodLabel;
+    /**
+     * Shows one row per group of the sales breakdown.
+     */
+    @FXML
+    private TableView<SalesGroup> breakdownTable;
+    /**
+     * Shows the label of a breakdown group, such as a movie title or an hour of the day.
      */
-    private OrderDAO orderDAO;
+    @FXML
+    private TableColumn<SalesGroup, String> breakdownGroupColumn;
+    /**
+     * Shows the number of items sold in a breakdown group.
+     */
+    @FXML
+    private TableColumn<SalesGroup, Long> breakdownItemsColumn;
+    /**
+     * Shows the revenue of a breakdown group, before tax.
+     */
+    @FXML
+    private TableColumn<SalesGroup, BigDecimal> breakdownRevenueColumn;
+
+    /**
+     * Reads the daily revenue rollup that backs the statistics and the revenue table.
+     */
+    private RevenueDAO revenueDAO;
+    /**
+     * Loads the sales history for the breakdown off the JavaFX thread.
+     */
+    private AsyncDAO asyncDAO;
+    /**
+     * The sales of the last 12 months, or null until they have been loaded.
+     */
+    private SalesColumns salesHistory;
+    /**
+     * The number of months of sales history the breakdown covers.
+     */
+    private static final int BREAKDOWN_MONTHS = 12;
     /**
      * The value-added tax (VAT) rate applied to ticket purchases.
      * This constant represents a standard VAT rate of 20%.
@@ -161,15 +211,19 @@ public class ManagerRevenueController {
      * when the associated FXML file is loaded.
      *
      * Responsibilities:
-     * - Instantiates the OrderDAO object to access order data.
+     * - Instantiates the RevenueDAO object to access the revenue rollup.
      * - Configures the revenue table structure by calling the setupTable method.
      * - Populates the data into the table and performs initial calculations by calling the loadData method.
      */
     @FXML
     public void initialize() {
-        orderDAO = new OrderDAO();
+        revenueDAO = new RevenueDAO();
+        asyncDAO = new AsyncDAO();
+        asyncDAO.cancelWhenRemoved(breakdownTable);
         setupTable();
+        setupBreakdown();
         loadData();
+        loadSalesHistory();
     }
 
     /**
@@ -188,82 +242,99 @@ public class ManagerRevenueController {
     }
 
     /**
-     * Loads the data required to display current and previous month's revenue statistics.
-     * This method retrieves and processes order data for the current and previous months,
-     * calculates revenue-related statistics, and updates the respective UI components.
-     *
-     * The operations performed include:
-     * 1. Determining the date range for the current and previous months.
-     * 2. Fetching orders within these date ranges using the `orderDAO`.
-     * 3. Calculating revenue statistics for both the current and previous months using
-     *    the `calculateStatistics` method.
-     * 4. Updating the UI components with the calculated statistics and order details
-     *    using `updateStatistics` and `updateRevenueTable` methods.
-     *
-     * This method plays a central role in preparing data to monitor and compare
-     * revenue performance for the current and previous months.
+     * Configures the sales breakdown table and the dimension selector, regrouping the
+     * loaded history whenever another dimension is selected.
      */
-    private void loadData() {
-        LocalDateTime startOfMonth = YearMonth.now().atDay(1).atStartOfDay();
-        LocalDateTime endOfMonth = YearMonth.now().atEndOfMonth().atTime(23, 59, 59);
+    private void setupBreakdown() {
+        breakdownGroupColumn.setCellValueFactory(new PropertyValueFactory<>("label"));
+        breakdownItemsColumn.setCellValueFactory(new PropertyValueFactory<>("itemCount"));
+        breakdownRevenueColumn.setCellValueFactory(new PropertyValueFactory<>("revenue"));
+
+        breakdownDimensionCombo.setItems(FXCollections.observableArrayList(SalesDimension.values()));
+        breakdownDimensionCombo.setValue(SalesDimension.MOVIE);
+        breakdownDimensionCombo.valueProperty().addListener((obs, oldValue, newValue) -> updateBreakdown());
+    }
+
+    /**
+     * Loads the sales of the last 12 months in the background and shows the breakdown
+     * once they have arrived.
+     */
+    private void loadSalesHistory() {
+        LocalDateTime from = YearMonth.now().minusMonths(BREAKDOWN_MONTHS - 1).atDay(1).atStartOfDay();
+        LocalDateTime to = LocalDate.now().plusDays(1).atStartOfDay();
+
+        AsyncDAO.onFxThread(asyncDAO.supply(() -> new SalesHistoryDAO().loadSalesColumns(from, to)), history -> {
+            salesHistory = history;
+            breakdownPeriodLabel.setText(String.format("%s to %s, %d items",
+                    from.toLocalDate(), to.toLocalDate().minusDays(1), history.size()));
+            updateBreakdown();
+        });
+    }
 
-        // Get current month's orders
-        List<Order> currentMonthOrders = orderDAO.getOrdersByDateRange(startOfMonth, endOfMonth);
+    /**
+     * Groups the loaded sales history by the selected dimension and shows the groups.
+     * Refunded items are left out, as in the statistics above.
+     */
+    private void updateBreakdown() {
+        SalesDimension dimension = breakdownDimensionCombo.getValue();
+        if (salesHistory == null || dimension == null) {
+            return;
+        }
+        List<SalesGroup> groups = SalesQuery.over(salesHistory).groupBy(dimension);
+        breakdownTable.setItems(FXCollections.observableArrayList(groups));
+    }
 
-        // Get previous month's orders
-        LocalDateTime startOfPrevMonth = YearMonth.now().minusMonths(1).atDay(1).atStartOfDay();
-        LocalDateTime endOfPrevMonth = YearMonth.now().minusMonths(1).atEndOfMonth().atTime(23, 59, 59);
-        List<Order> prevMonthOrders = orderDAO.getOrdersByDateRange(startOfPrevMonth, endOfPrevMonth);
+    /**
+     * Loads the data required to display current and previous month's revenue statistics.
+     * Both months are read from the daily revenue rollup in a single query, then split
+     * by month to calculate the statistics and fill the revenue table.
+     */
+    private void loadData() {
+        YearMonth currentMonth = YearMonth.now();
+        LocalDate startOfPrevMonth = currentMonth.minusMonths(1).atDay(1);
+        LocalDate startOfMonth = currentMonth.atDay(1);
+        LocalDate startOfNextMonth = currentMonth.plusMonths(1).atDay(1);
+
+        List<DailyRevenue> revenue = revenueDAO.getDailyRevenue(startOfPrevMonth, startOfNextMonth);
+        List<DailyRevenue> currentMonthRevenue = revenue.stream()
+                .filter(day -> !day.getDate().isBefore(startOfMonth))
+                .toList();
+        List<DailyRevenue> prevMonthRevenue = revenue.stream()
+                .filter(day -> day.getDate().isBefore(startOfMonth))
+                .toList();
 
         // Calculate statistics
-        RevenueStatistics currentStats = calculateStatistics(currentMonthOrders);
-        RevenueStatistics prevStats = calculateStatistics(prevMonthOrders);
+        RevenueStatistics currentStats = calculateStatistics(currentMonthRevenue);
+        RevenueStatistics prevStats = calculateStatistics(prevMonthRevenue);
 
         // Update UI
         updateStatistics(currentStats, prevStats);
-        updateRevenueTable(currentMonthOrders);
+        updateRevenueTable(currentMonthRevenue);
     }
 
     /**
      * Calculates revenue statistics including ticket and product revenue, VAT, and quantities
-     * based on the provided list of orders. Orders with certain statuses or items with specific
-     * types are conditionally processed or excluded in the calculation.
+     * from the daily revenue of a period. Refunded items are already excluded from the rollup.
      *
-     * @param orders the list of orders from which revenue statistics are calculated.
-     *               Each order contains a status and multiple order items of different types.
+     * @param revenue the revenue of each day and item type in the period
      * @return a RevenueStatistics instance containing the computed revenue, VAT, and item counts
      *         for both tickets and products, as well as the overall totals.
      */
-    private RevenueStatistics calculateStatistics(List<Order> orders) {
+    private RevenueStatistics calculateStatistics(List<DailyRevenue> revenue) {
         RevenueStatistics stats = new RevenueStatistics();
 
-        for (Order order : orders) {
-            if (!"PROCESSED_FULL".equals(order.getStatus())) {
-                for (OrderItem item : order.getOrderItems()) {
-                    if (("PROCESSED_TICKETS".equals(order.getStatus()) && "ticket".equals(item.getItemType())) ||
-                            ("PROCESSED_PRODUCTS".equals(order.getStatus()) && "product".equals(item.getItemType()))) {
-                        continue; // Skip cancelled ticket or product items
-                    }
-
-                    BigDecimal itemTotalPrice = item.getItemPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
-
-                    if ("ticket".equals(item.getItemType())) {
-                        stats.ticketRevenue = stats.ticketRevenue.add(itemTotalPrice);
-                        stats.ticketCount += item.getQuantity();
-                        stats.ticketVAT = stats.ticketVAT.add(
-                                itemTotalPrice.multiply(TICKET_VAT_RATE)
-                        );
-                    } else {
-                        stats.productRevenue = stats.productRevenue.add(itemTotalPrice);
-                        stats.productCount += item.getQuantity();
-                        stats.productVAT = stats.productVAT.add(
-                                itemTotalPrice.multiply(PRODUCT_VAT_RATE)
-                        );
-                    }
-                }
+        for (DailyRevenue day : revenue) {
+            if ("ticket".equals(day.getItemType())) {
+                stats.ticketRevenue = stats.ticketRevenue.add(day.getRevenue());
+                stats.ticketCount += day.getItemCount();
+            } else {
+                stats.productRevenue = stats.productRevenue.add(day.getRevenue());
+                stats.productCount += day.getItemCount();
             }
         }
 
+        stats.ticketVAT = stats.ticketRevenue.multiply(TICKET_VAT_RATE);
+        stats.productVAT = stats.productRevenue.multiply(PRODUCT_VAT_RATE);
         stats.totalRevenue = stats.ticketRevenue.add(stats.productRevenue);
         stats.totalVAT = stats.ticketVAT.add(stats.productVAT);
 
@@ -317,46 +388,20 @@ public class ManagerRevenueController {
     }
 
     /**
-     * Updates the revenue table with data derived from the provided list of orders.
-     * The method processes each order, calculates revenue for different item types,
-     * and updates the display of revenue entries in the revenue table.
+     * Updates the revenue table with one entry per day and item type.
      *
-     * @param orders a list of {@link Order} objects that represent customer orders.
-     *               Each order is examined to determine the revenue contributions
-     *               of its items based on their types and the status of the order.
+     * @param revenue the revenue of each day and item type, in date order
      */
-    private void updateRevenueTable(List<Order> orders) {
+    private void updateRevenueTable(List<DailyRevenue> revenue) {
         ObservableList<RevenueEntry> entries = FXCollections.observableArrayList();
-
-        for (Order order : orders) {
-            if (!"PROCESSED_FULL".equals(order.getStatus())) {
-                String date = order.getOrderDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-
-                Map<String, BigDecimal> typeRevenue = order.getOrderItems().stream()
-                        .filter(item -> !(order.getStatus().equals("PROCESSED_TICKETS") && item.getItemType().equals("ticket")) &&
-                                !(order.getStatus().equals("PROCESSED_PRODUCTS") && item.getItemType().equals("product")))
-                        .collect(Collectors.groupingBy(
-                                OrderItem::getItemType,
-                                Collectors.reducing(
-                                        BigDecimal.ZERO,
-                                        item -> item.getItemPrice().multiply(BigDecimal.valueOf(item.getQuantity())),
-                                        BigDecimal::add
-                                )
-                        ));
-
-                typeRevenue.forEach((type, amount) -> {
-                    int totalQuantity = order.getOrderItems().stream()
-                            .filter(item -> item.getItemType().equals(type))
-                            .mapToInt(OrderItem::getQuantity)
-                            .sum();
-
-                    entries.add(new RevenueEntry(
-                            date,
-                            String.format("%s (x%d)", type, totalQuantity),
-                            amount
-                    ));
-                });
-            }
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+        for (DailyRevenue day : revenue) {
+            entries.add(new RevenueEntry(
+                    day.getDate().format(dateFormatter),
+                    String.format("%s (x%d)", day.getItemType(), day.getItemCount()),
+                    day.getRevenue()
+            ));
         }
 
         revenueTable.setItems(entries);
@@ -1,6 +1,7 @@
 package com.group18.controller.manager;
 
 import com.group18.model.User;
+import com.group18.util.SceneSwitcher;
 import javafx.animation.ParallelTransition;
 import javafx.animation.ScaleTransition;
 import javafx.animation.TranslateTransition;
@@ -11,9 +12,7 @@ import javafx.scene.control.Label;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
-import javafx.scene.Scene;
 import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.util.Duration;
 
 import java.io.IOException;
@@ -286,17 +285,11 @@ public class ManagerSidebarController {
     @FXML
     private void handleLogout() {
         try {
-            // Load the login view
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/LoginView.fxml"));
-            Parent loginView = loader.load();
-
             // Get the current stage
             Stage stage = (Stage) logoutButton.getScene().getWindow();
 
-            // Set the login scene
-            Scene scene = new Scene(loginView);
-            stage.setScene(scene);
-            stage.show();
+            // Show the login view again
+            SceneSwitcher.switchToScene("/fxml/LoginView.fxml", stage);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -1,13 +1,16 @@
 package com.group18.controller.manager;
 
+import com.group18.dao.AsyncDAO;
+import com.group18.dao.ChangeBus;
+import com.group18.dao.ChangeEvent;
 import com.group18.dao.UserDAO;
 import com.group18.model.AddStaffDialog;
 import com.group18.model.EditStaffDialog;
 import com.group18.model.User;
+import com.group18.util.RowDeltas;
 import javafx.animation.ParallelTransition;
 import javafx.animation.ScaleTransition;
 import javafx.animation.TranslateTransition;
-import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -19,6 +22,7 @@ import javafx.scene.layout.HBox;
 import javafx.util.Duration;
 import java.net.URL;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.stream.Collectors;
@@ -211,6 +215,11 @@ public class ManagerStaffController implements Initializable {
      * access layer between the application and the database.
      */
     private UserDAO userDAO;
+    /**
+     * Runs the staff queries in the background so the manager view stays responsive while
+     * the database answers. Pending queries are cancelled when the view is left.
+     */
+    private AsyncDAO asyncDAO;
     /**
      * Represents the main data storage for the application, containing an observable list of users.
      *
@@ -219,7 +228,7 @@ public class ManagerStaffController implements Initializable {
      * all user objects, providing functionalities like filtering, searching, and updating the
      * staff data dynamically.
      */
-    private ObservableList<User> masterData;
+    private final ObservableList<User> masterData = FXCollections.observableArrayList();
     /**
      * Represents the currently logged-in user within the system.
      *
@@ -244,7 +253,8 @@ public class ManagerStaffController implements Initializable {
     }
     /**
      * Initializes the ManagerStaffController by setting up table columns, filters, search functionality,
-     * and other UI components. It also loads the initial staff data.
+     * and other UI components. It also loads the initial staff data, and follows the changes to
+     * staff made here or at other tills so they are applied without reloading the table.
      *
      * @param location The location used to resolve relative paths for the root object, or null if the location is not known.
      * @param resources The resources used to localize the root object, or null if no resources are specified.
@@ -252,6 +262,9 @@ public class ManagerStaffController implements Initializable {
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         userDAO = new UserDAO();
+        asyncDAO = new AsyncDAO();
+        asyncDAO.cancelWhenRemoved(staffTable);
+        ChangeBus.getInstance().subscribeUntilRemoved(staffTable, ChangeEvent.Entity.USER, this::applyStaffChanges);
 
         // Setup table columns
         setupTableColumns();
@@ -382,18 +395,36 @@ public class ManagerStaffController implements Initializable {
      * and populates the table with the resulting list of users. Additionally, it updates staff
      * statistics after reloading the data.
      *
-     * The user data is fetched using the `userDAO.getAllUsers()` method, and is set to an observable
-     * list to support dynamic updates in the UI. This observable list is then assigned to the staff
-     * table for display.
+     * The user data is fetched using the `userDAO.getAllUsers()` method on a background thread, and
+     * is set to an observable list on the JavaFX thread to support dynamic updates in the UI. The
+     * current search and role filters are then re-applied to fill the staff table.
      *
      * After updating the staff table, the method calls `updateStaffStats()` to refresh role-specific
      * counts and other staff-related metrics in the UI.
      */
     private void loadStaffData() {
         // Get all users (including current user)
-        masterData = FXCollections.observableArrayList(userDAO.getAllUsers());
-        staffTable.setItems(masterData);
-        updateStaffStats();
+        AsyncDAO.onFxThread(asyncDAO.users(UserDAO::getAllUsers), users -> {
+            masterData.setAll(users);
+            filterStaff();
+            updateStaffStats();
+        });
+    }
+
+    /**
+     * Applies changes to staff members, made here or at other tills, to the loaded staff data.
+     *
+     * The changed users are read again in the background and put in place in the master data;
+     * the table filters and the staff statistics are then reapplied.
+     *
+     * @param changes the user changes published on the change bus
+     */
+    private void applyStaffChanges(List<ChangeEvent> changes) {
+        AsyncDAO.onFxThread(asyncDAO.users(dao -> RowDeltas.read(changes, dao::findById)), changed -> {
+            RowDeltas.apply(masterData, changed, User::getUserId);
+            filterStaff();
+            updateStaffStats();
+        });
     }
 
     /**
@@ -403,9 +434,9 @@ public class ManagerStaffController implements Initializable {
      * including the total number of staff, the number of new staff members for the
      * current month, and the count of staff members grouped by specific roles.
      *
-     * The calculated data is extracted from the underlying staff data and database,
-     * and the statistics are updated asynchronously on the JavaFX application thread
-     * to ensure proper UI rendering.
+     * The counts are taken from the loaded staff data right away; the number of new staff
+     * members is queried in the background and shown on the JavaFX application thread
+     * once it arrives.
      *
      * The following statistics are displayed:
      * - Total number of staff members.
@@ -416,16 +447,14 @@ public class ManagerStaffController implements Initializable {
         Map<String, Long> roleCounts = masterData.stream()
                 .collect(Collectors.groupingBy(User::getRole, Collectors.counting()));
 
+        totalStaffLabel.setText(String.valueOf(masterData.size()));
+        cashiersLabel.setText(roleCounts.getOrDefault("cashier", 0L) + " Cashiers");
+        adminsLabel.setText(roleCounts.getOrDefault("admin", 0L) + " Admins");
+        managersLabel.setText(roleCounts.getOrDefault("manager", 0L) + " Managers");
+
         // Get new users count for this month
-        long newUsersThisMonth = userDAO.getNewUsersThisMonth();
-
-        Platform.runLater(() -> {
-            totalStaffLabel.setText(String.valueOf(masterData.size()));
-            newStaffLabel.setText(newUsersThisMonth + " new this month");
-            cashiersLabel.setText(roleCounts.getOrDefault("cashier", 0L) + " Cashiers");
-            adminsLabel.setText(roleCounts.getOrDefault("admin", 0L) + " Admins");
-            managersLabel.setText(roleCounts.getOrDefault("manager", 0L) + " Managers");
-        });
+        AsyncDAO.onFxThread(asyncDAO.users(UserDAO::getNewUsersThisMonth), newUsersThisMonth ->
+                newStaffLabel.setText(newUsersThisMonth + " new this month"));
     }
 
     /**
@@ -436,14 +465,12 @@ public class ManagerStaffController implements Initializable {
      * and role. Upon successful input and validation, the dialog returns a new User object, which gets added
      * to the data model and displayed in the staff table.
      *
-     * If a new staff member is added, the staff data is refreshed via the loadStaffData() method to include
-     * the newly added user.
+     * The newly added user is not reloaded here; it arrives through the change bus like any other
+     * change and is applied by applyStaffChanges().
      */
     private void showAddStaffDialog() {
         AddStaffDialog dialog = new AddStaffDialog(userDAO);
-        dialog.showAndWait().ifPresent(newUser -> {
-            loadStaffData();
-        });
+        dialog.showAndWait();
     }
 
     /**
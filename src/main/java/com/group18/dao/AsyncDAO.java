@@ -0,0 +1,173 @@
+package com.group18.dao;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous facade over the DAOs, so controllers never block the JavaFX thread on JDBC.
+ * Queries run on virtual threads and complete {@link CompletableFuture}s; results are handed
+ * back to the JavaFX thread through {@link #onFxThread}. Each controller owns one instance,
+ * and everything it started is cancelled when the user navigates away from its view.
+ *
+ * <pre>
+ * AsyncDAO.onFxThread(asyncDAO.products(ProductDAO::getAllProducts), this::showProducts);
+ * </pre>
+ */
+public class AsyncDAO {
+    /** Runs callbacks on the JavaFX application thread. */
+    public static final Executor FX_THREAD = Platform::runLater;
+
+    /** One virtual thread per query; blocking in JDBC costs no platform thread. */
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final MovieDAO movieDAO = new MovieDAO();
+    private final ScheduleDAO scheduleDAO = new ScheduleDAO();
+    private final OrderDAO orderDAO = new OrderDAO();
+    private final ProductDAO productDAO = new ProductDAO();
+    private final UserDAO userDAO = new UserDAO();
+    private final PriceDAO priceDAO = new PriceDAO();
+
+    /** Queries started through this facade that have not completed yet. */
+    private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Runs a query against the {@link MovieDAO} in the background.
+     *
+     * @param query the DAO call to run
+     * @param <T>   the result type
+     * @return a future completed with the query result
+     */
+    public <T> CompletableFuture<T> movies(Function<MovieDAO, T> query) {
+        return submit(() -> query.apply(movieDAO));
+    }
+
+    /**
+     * Runs a query against the {@link ScheduleDAO} in the background.
+     *
+     * @param query the DAO call to run
+     * @param <T>   the result type
+     * @return a future completed with the query result
+     */
+    public <T> CompletableFuture<T> schedules(Function<ScheduleDAO, T> query) {
+        return submit(() -> query.apply(scheduleDAO));
+    }
+
+    /**
+     * Runs a query against the {@link OrderDAO} in the background.
+     *
+     * @param query the DAO call to run
+     * @param <T>   the result type
+     * @return a future completed with the query result
+     */
+    public <T> CompletableFuture<T> orders(Function<OrderDAO, T> query) {
+        return submit(() -> query.apply(orderDAO));
+    }
+
+    /**
+     * Runs a query against the {@link ProductDAO} in the background.
+     *
+     * @param query the DAO call to run
+     * @param <T>   the result type
+     * @return a future completed with the query result
+     */
+    public <T> CompletableFuture<T> products(Function<ProductDAO, T> query) {
+        return submit(() -> query.apply(productDAO));
+    }
+
+    /**
+     * Runs a query against the {@link UserDAO} in the background.
+     *
+     * @param query the DAO call to run
+     * @param <T>   the result type
+     * @return a future completed with the query result
+     */
+    public <T> CompletableFuture<T> users(Function<UserDAO, T> query) {
+        return submit(() -> query.apply(userDAO));
+    }
+
+    /**
+     * Runs a query against the {@link PriceDAO} in the background.
+     *
+     * @param query the DAO call to run
+     * @param <T>   the result type
+     * @return a future completed with the query result
+     */
+    public <T> CompletableFuture<T> prices(Function<PriceDAO, T> query) {
+        return submit(() -> query.apply(priceDAO));
+    }
+
+    /**
+     * Runs arbitrary blocking work, such as several DAO calls that belong together, in the background.
+     *
+     * @param work the work to run
+     * @param <T>  the result type
+     * @return a future completed with the work's result
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> work) {
+        return submit(work);
+    }
+
+    /**
+     * Applies the result of a query on the JavaFX thread. Failures other than cancellation are
+     * logged; cancelled queries never reach the callback.
+     *
+     * @param future   the pending query
+     * @param onResult the UI update to run with the result
+     * @param <T>      the result type
+     * @return a future that completes after the UI update has run
+     */
+    public static <T> CompletableFuture<Void> onFxThread(CompletableFuture<T> future, Consumer<T> onResult) {
+        return future.thenAcceptAsync(onResult, FX_THREAD)
+                .exceptionally(error -> {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (!(cause instanceof CancellationException)) {
+                        cause.printStackTrace();
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Cancels every query started through this facade that has not completed yet.
+     * Their results are discarded and their callbacks are not run.
+     */
+    public void cancelAll() {
+        for (CompletableFuture<?> future : inFlight) {
+            future.cancel(false);
+        }
+        inFlight.clear();
+    }
+
+    /**
+     * Cancels outstanding queries once the given view is removed from its scene, which is how the
+     * admin, manager and cashier shells replace one screen with another.
+     *
+     * @param view the root node of the controller's view
+     */
+    public void cancelWhenRemoved(Node view) {
+        view.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (oldScene != null && newScene == null) {
+                cancelAll();
+            }
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(work, EXECUTOR);
+        inFlight.add(future);
+        future.whenComplete((result, error) -> inFlight.remove(future));
+        return future;
+    }
+}
@@ -0,0 +1,326 @@
+package com.group18.dao;
+
+import javafx.scene.Node;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Tells open screens which products, users, movies, orders and schedules have changed, at this
+ * till or any other, so they can update those rows instead of reloading whole tables.
+ *
+ * The DAOs record each change as a row of the change log, in the transaction that makes it.
+ * While anything is subscribed, the log is polled by its sequence number in the background,
+ * which costs one indexed range read when nothing changed, and the new changes are handed to
+ * the subscribers on the JavaFX thread, one list per poll with a single event per row. Changes
+ * made at this till are polled right after they are stored, so they show without delay.
+ *
+ * Sequence numbers are handed out when a change is recorded but become visible when it is
+ * committed, so a number missing from the log may still arrive; it is waited for a few
+ * seconds before being taken as rolled back.
+ *
+ * This class follows the Singleton design pattern so every screen shares one poller.
+ */
+public class ChangeBus {
+    /** How often the change log is polled while anything is subscribed. */
+    private static final long POLL_INTERVAL_MILLIS = 1000;
+    /** How long a missing sequence number is waited for. */
+    private static final long GAP_TIMEOUT_MILLIS = 10_000;
+    /** Changes read per poll at most, after the delivered ones and again from the gaps between them. */
+    private static final int POLL_LIMIT = 1000;
+    /** Gaps between delivered changes looked for per poll at most. */
+    private static final int MAX_GAPS = 20;
+    /** How long changes are kept in the log. */
+    private static final long RETENTION_HOURS = 24;
+    /** How often changes past their retention are deleted. */
+    private static final long PRUNE_INTERVAL_MILLIS = 60 * 60 * 1000;
+
+    private static ChangeBus instance;
+
+    private final Map<ChangeEvent.Entity, List<Consumer<List<ChangeEvent>>>> listeners = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "change-poll");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Touched by the poller thread only
+    /** Every change up to this sequence number has been delivered or given up on; -1 until read. */
+    private long watermark = -1;
+    /** Changes above the watermark that have been delivered, so the watermark can pass them. */
+    private final TreeSet<Long> deliveredAbove = new TreeSet<>();
+    /** When the change after the watermark was first found missing, or 0. */
+    private long gapSince;
+    private long nextPrune;
+
+    private ChangeBus() {
+        poller.scheduleWithFixedDelay(this::poll, POLL_INTERVAL_MILLIS, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Provides the change bus of this till.
+     *
+     * @return the singleton instance of the ChangeBus class
+     */
+    public static synchronized ChangeBus getInstance() {
+        if (instance == null) {
+            instance = new ChangeBus();
+        }
+        return instance;
+    }
+
+    /**
+     * Subscribes to the changes of one kind of row. Only changes recorded after subscribing are
+     * delivered, so a screen should subscribe before it loads its rows; a change to a row it then
+     * loads anyway is harmless, as rows are read again on every change.
+     *
+     * @param entity the kind of row to follow
+     * @param listener receives the changed rows on the JavaFX thread, one event per row
+     * @return an action that ends the subscription
+     */
+    public Runnable subscribe(ChangeEvent.Entity entity, Consumer<List<ChangeEvent>> listener) {
+        List<Consumer<List<ChangeEvent>>> entityListeners =
+                listeners.computeIfAbsent(entity, e -> new CopyOnWriteArrayList<>());
+        entityListeners.add(listener);
+        pollNow();
+        return () -> entityListeners.remove(listener);
+    }
+
+    /**
+     * Subscribes to the changes of one kind of row until the given view is removed from its
+     * scene, which is how the admin, manager and cashier shells replace one screen with another.
+     *
+     * @param view the root node of the subscribing controller's view
+     * @param entity the kind of row to follow
+     * @param listener receives the changed rows on the JavaFX thread, one event per row
+     */
+    public void subscribeUntilRemoved(Node view, ChangeEvent.Entity entity, Consumer<List<ChangeEvent>> listener) {
+        Runnable unsubscribe = subscribe(entity, listener);
+        view.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (oldScene != null && newScene == null) {
+                unsubscribe.run();
+            }
+        });
+    }
+
+    /**
+     * Records a change in the transaction of the given connection. Once the transaction is
+     * committed, the caller should call {@link #pollNow()} so this till sees it right away.
+     *
+     * @param connection the connection whose transaction made the change
+     * @param entity the kind of row changed
+     * @param type what happened to the row
+     * @param entityId the ID of the row
+     * @throws SQLException if the change could not be recorded
+     */
+    void record(Connection connection, ChangeEvent.Entity entity, ChangeEvent.Type type, int entityId) throws SQLException {
+        String query = "INSERT INTO change_log (entity, entity_id, change_type) VALUES (?, ?, ?)";
+
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, entity.name());
+            stmt.setInt(2, entityId);
+            stmt.setString(3, type.name());
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Records a change that is already committed, for writes made without a transaction, and
+     * polls for it right away. Failing to record it is only logged, as the change itself stands;
+     * open screens then show it once they are reloaded.
+     *
+     * @param connection the connection that made the change, in auto-commit mode
+     * @param entity the kind of row changed
+     * @param type what happened to the row
+     * @param entityId the ID of the row
+     */
+    void publish(Connection connection, ChangeEvent.Entity entity, ChangeEvent.Type type, int entityId) {
+        try {
+            record(connection, entity, type, entityId);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        pollNow();
+    }
+
+    /**
+     * Polls the change log right away, instead of at the next interval.
+     */
+    void pollNow() {
+        poller.execute(this::poll);
+    }
+
+    /**
+     * Stops polling the change log.
+     */
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+
+    private void poll() {
+        if (listeners.values().stream().allMatch(List::isEmpty)) {
+            // Nobody is listening, so start over from the latest change once somebody does
+            watermark = -1;
+            deliveredAbove.clear();
+            gapSince = 0;
+            return;
+        }
+
+        try (Connection connection = DBConnection.getConnection()) {
+            if (watermark < 0) {
+                watermark = readLatestChangeId(connection);
+                return;
+            }
+            List<ChangeEvent> changes = readChanges(connection);
+            advanceWatermark();
+            if (System.currentTimeMillis() >= nextPrune) {
+                prune(connection);
+                nextPrune = System.currentTimeMillis() + PRUNE_INTERVAL_MILLIS;
+            }
+            deliver(changes);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private long readLatestChangeId(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(change_id), 0) FROM change_log")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Reads the changes above the watermark that have not been delivered yet: those that were
+     * missing between the changes delivered so far, and a page of those after them. Reading the
+     * two apart keeps changes flowing while a gap is open, however many were delivered after it.
+     */
+    private List<ChangeEvent> readChanges(Connection connection) throws SQLException {
+        String columns = "SELECT change_id, entity, entity_id, change_type FROM change_log ";
+        List<ChangeEvent> changes = new ArrayList<>();
+
+        List<long[]> gaps = findGaps();
+        if (!gaps.isEmpty()) {
+            String ranges = gaps.stream().map(gap -> "change_id BETWEEN ? AND ?").collect(Collectors.joining(" OR "));
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    columns + "WHERE " + ranges + " ORDER BY change_id LIMIT " + POLL_LIMIT)) {
+                int index = 1;
+                for (long[] gap : gaps) {
+                    stmt.setLong(index++, gap[0]);
+                    stmt.setLong(index++, gap[1]);
+                }
+                readInto(stmt, changes);
+            }
+        }
+
+        try (PreparedStatement stmt = connection.prepareStatement(
+                columns + "WHERE change_id > ? ORDER BY change_id LIMIT " + POLL_LIMIT)) {
+            stmt.setLong(1, deliveredAbove.isEmpty() ? watermark : deliveredAbove.last());
+            readInto(stmt, changes);
+        }
+        return changes;
+    }
+
+    /**
+     * Finds the ranges of sequence numbers above the watermark that are missing between the
+     * changes delivered so far, lowest first and at most {@link #MAX_GAPS} of them.
+     */
+    private List<long[]> findGaps() {
+        List<long[]> gaps = new ArrayList<>();
+        long previous = watermark;
+        for (long changeId : deliveredAbove) {
+            if (changeId > previous + 1) {
+                gaps.add(new long[] {previous + 1, changeId - 1});
+                if (gaps.size() == MAX_GAPS) {
+                    break;
+                }
+            }
+            previous = changeId;
+        }
+        return gaps;
+    }
+
+    private void readInto(PreparedStatement stmt, List<ChangeEvent> changes) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                long changeId = rs.getLong("change_id");
+                if (!deliveredAbove.add(changeId)) {
+                    continue;
+                }
+                try {
+                    changes.add(new ChangeEvent(changeId,
+                            ChangeEvent.Entity.valueOf(rs.getString("entity")),
+                            ChangeEvent.Type.valueOf(rs.getString("change_type")),
+                            rs.getInt("entity_id")));
+                } catch (IllegalArgumentException e) {
+                    // A kind of change this version does not know; nothing here can show it
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the watermark past the delivered changes that follow it. A missing change in
+     * between holds it back until the gap has lasted {@link #GAP_TIMEOUT_MILLIS}.
+     */
+    private void advanceWatermark() {
+        while (!deliveredAbove.isEmpty()) {
+            if (deliveredAbove.first() == watermark + 1) {
+                watermark = deliveredAbove.pollFirst();
+                gapSince = 0;
+            } else if (gapSince == 0) {
+                gapSince = System.currentTimeMillis();
+                return;
+            } else if (System.currentTimeMillis() - gapSince >= GAP_TIMEOUT_MILLIS) {
+                // The missing changes were rolled back
+                watermark = deliveredAbove.first() - 1;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void prune(Connection connection) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("DELETE FROM change_log WHERE changed_at < ?")) {
+            stmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now().minusHours(RETENTION_HOURS)));
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Hands the changes to the listeners of each kind of row, keeping only the last change of each row.
+     */
+    private void deliver(List<ChangeEvent> changes) {
+        Map<ChangeEvent.Entity, Map<Integer, ChangeEvent>> byEntity = new EnumMap<>(ChangeEvent.Entity.class);
+        for (ChangeEvent change : changes) {
+            Map<Integer, ChangeEvent> rows = byEntity.computeIfAbsent(change.getEntity(), e -> new LinkedHashMap<>());
+            rows.remove(change.getEntityId());
+            rows.put(change.getEntityId(), change);
+        }
+
+        byEntity.forEach((entity, rows) -> {
+            List<ChangeEvent> events = List.copyOf(rows.values());
+            for (Consumer<List<ChangeEvent>> listener : listeners.getOrDefault(entity, List.of())) {
+                AsyncDAO.FX_THREAD.execute(() -> listener.accept(events));
+            }
+        });
+    }
+}
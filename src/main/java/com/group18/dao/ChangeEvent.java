@@ -0,0 +1,58 @@
+package com.group18.dao;
+
+/**
+ * A change to one row of the data the manager and admin screens list, as published on the
+ * {@link ChangeBus}. It only names the row; listeners read the row again if they show it.
+ */
+public class ChangeEvent {
+
+    /**
+     * The kinds of rows whose changes are published.
+     */
+    public enum Entity {
+        PRODUCT,
+        USER,
+        MOVIE,
+        ORDER,
+        SCHEDULE
+    }
+
+    /**
+     * What happened to the row.
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final long changeId;
+    private final Entity entity;
+    private final Type type;
+    private final int entityId;
+
+    /**
+     * Constructs a change event.
+     *
+     * @param changeId the sequence number of the change in the change log
+     * @param entity the kind of row changed
+     * @param type what happened to the row
+     * @param entityId the ID of the row
+     */
+    public ChangeEvent(long changeId, Entity entity, Type type, int entityId) {
+        this.changeId = changeId;
+        this.entity = entity;
+        this.type = type;
+        this.entityId = entityId;
+    }
+
+    public long getChangeId() { return changeId; }
+    public Entity getEntity() { return entity; }
+    public Type getType() { return type; }
+    public int getEntityId() { return entityId; }
+
+    @Override
+    public String toString() {
+        return entity + " " + entityId + " " + type;
+    }
+}
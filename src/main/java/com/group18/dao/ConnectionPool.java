@@ -0,0 +1,420 @@
+package com.group18.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of physical JDBC connections with borrow/return semantics.
+ * Borrowed connections are handed out as proxies whose {@code close()} returns the
+ * physical connection to the pool instead of closing it, so DAOs can keep using
+ * try-with-resources. Idle connections are validated on borrow and evicted after
+ * they have been unused for longer than the idle timeout.
+ *
+ * Each physical connection keeps a {@link StatementCache}, so statements prepared with the
+ * same SQL text are reused across borrows, and every statement's executions are counted in
+ * the pool's {@link StatementStats}.
+ */
+public class ConnectionPool {
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final int statementCacheSize;
+    private final StatementStats statementStats = new StatementStats();
+
+    /** Limits the number of connections that may be checked out at the same time. */
+    private final Semaphore permits;
+    /** Idle physical connections, most recently returned first. Guarded by itself. */
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService evictor;
+
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+
+    private volatile boolean shutdown;
+
+    /**
+     * Creates a new pool. Physical connections are opened lazily on first borrow.
+     *
+     * @param url                 the JDBC URL of the database
+     * @param username            the database user
+     * @param password            the database password
+     * @param maxSize             the maximum number of connections checked out at once
+     * @param borrowTimeoutMillis how long a borrower waits for a free connection
+     * @param idleTimeoutMillis   how long a connection may sit idle before it is closed
+     * @param statementCacheSize  how many prepared statements each connection keeps for reuse, 0 to keep none
+     */
+    public ConnectionPool(String url, String username, String password,
+                          int maxSize, long borrowTimeoutMillis, long idleTimeoutMillis, int statementCacheSize) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long evictionInterval = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections,
+                evictionInterval, evictionInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, waiting up to the borrow timeout for one to
+     * become free. The returned connection must be closed to give it back.
+     *
+     * @return a validated connection in auto-commit mode
+     * @throws SQLException if the pool is shut down, the wait times out, or a new
+     *                      physical connection cannot be opened
+     */
+    public Connection borrow() throws SQLException {
+        return borrow(null);
+    }
+
+    /**
+     * Borrows a connection for a measured DAO call, which is finished when the connection is
+     * given back and counts the rows and errors of its statements meanwhile.
+     *
+     * @param call the call, or null to measure nothing
+     * @return a validated connection in auto-commit mode
+     * @throws SQLException as for {@link #borrow()}
+     */
+    Connection borrow(DaoMetrics.Call call) throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down.");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("Timed out after " + borrowTimeoutMillis
+                        + " ms waiting for a database connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+
+        try {
+            IdleConnection taken = takeValidIdleConnection();
+            StatementCache statements;
+            Connection physical;
+            if (taken != null) {
+                physical = taken.connection;
+                statements = taken.statements;
+            } else {
+                physical = DriverManager.getConnection(url, username, password);
+                statements = new StatementCache(physical, statementCacheSize, statementStats);
+                createdCount.incrementAndGet();
+            }
+            recordWait(System.nanoTime() - start);
+            activeCount.incrementAndGet();
+            return wrap(physical, statements, call);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Pops idle connections until one passes validation.
+     *
+     * @return a live physical connection with its statements, or null if none are idle
+     */
+    private IdleConnection takeValidIdleConnection() {
+        while (true) {
+            IdleConnection candidate;
+            synchronized (idle) {
+                candidate = idle.pollFirst();
+            }
+            if (candidate == null) {
+                return null;
+            }
+            try {
+                if (candidate.connection.isValid(2)) {
+                    return candidate;
+                }
+            } catch (SQLException e) {
+                // Treat a failing validation the same as an invalid connection
+            }
+            closeQuietly(candidate.connection);
+            evictedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Gives a physical connection back to the pool, resetting any transaction state a
+     * borrower may have left behind. Broken connections are discarded.
+     *
+     * @param physical   the physical connection being returned
+     * @param statements the statements cached on the connection
+     */
+    private void release(Connection physical, StatementCache statements) {
+        activeCount.decrementAndGet();
+        try {
+            boolean reusable = !shutdown && !physical.isClosed();
+            if (reusable && !physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (reusable) {
+                synchronized (idle) {
+                    idle.offerFirst(new IdleConnection(physical, statements, System.currentTimeMillis()));
+                }
+            } else {
+                closeQuietly(physical);
+            }
+        } catch (SQLException e) {
+            closeQuietly(physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes connections that have been idle for longer than the idle timeout.
+     */
+    private void evictIdleConnections() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        List<Connection> expired = new ArrayList<>();
+
+        synchronized (idle) {
+            Iterator<IdleConnection> it = idle.iterator();
+            while (it.hasNext()) {
+                IdleConnection entry = it.next();
+                if (entry.idleSince < cutoff) {
+                    it.remove();
+                    expired.add(entry.connection);
+                }
+            }
+        }
+
+        for (Connection connection : expired) {
+            closeQuietly(connection);
+            evictedCount.incrementAndGet();
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    /**
+     * Wraps a physical connection in a proxy that returns it to the pool on close.
+     */
+    private Connection wrap(Connection physical, StatementCache statements, DaoMetrics.Call call) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledConnectionHandler(physical, statements, call));
+    }
+
+    /**
+     * Closes every idle connection and refuses further borrows. Connections that are
+     * currently checked out are closed when they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        evictor.shutdownNow();
+        synchronized (idle) {
+            for (IdleConnection entry : idle) {
+                closeQuietly(entry.connection);
+            }
+            idle.clear();
+        }
+    }
+
+    /**
+     * Takes a snapshot of the pool's metrics.
+     *
+     * @return the current pool statistics
+     */
+    public PoolStats getStats() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        long borrows = borrowCount.get();
+        double averageWaitMillis = borrows == 0 ? 0 : totalWaitNanos.get() / (borrows * 1_000_000.0);
+        return new PoolStats(maxSize, activeCount.get(), idleCount, borrows, averageWaitMillis,
+                maxWaitNanos.get() / 1_000_000.0, timeoutCount.get(), createdCount.get(), evictedCount.get());
+    }
+
+    /**
+     * Retrieves the per-statement counts of every connection of the pool.
+     *
+     * @return the statement statistics, updated as statements run
+     */
+    public StatementStats getStatementStats() {
+        return statementStats;
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * A physical connection waiting in the idle queue, with its cached statements.
+     */
+    private static class IdleConnection {
+        private final Connection connection;
+        private final StatementCache statements;
+        private final long idleSince;
+
+        IdleConnection(Connection connection, StatementCache statements, long idleSince) {
+            this.connection = connection;
+            this.statements = statements;
+            this.idleSince = idleSince;
+        }
+    }
+
+    /**
+     * Delegates every call to the physical connection except {@code close()}, which
+     * hands the connection back to the pool exactly once and finishes the borrower's call,
+     * {@code prepareStatement} with a plain SQL text, which is served from the connection's
+     * statement cache, and {@code createStatement}, whose statements are measured too.
+     */
+    private class PooledConnectionHandler implements InvocationHandler {
+        private final Connection physical;
+        private final StatementCache statements;
+        private final DaoMetrics.Call call;
+        private boolean returned;
+
+        PooledConnectionHandler(Connection physical, StatementCache statements, DaoMetrics.Call call) {
+            this.physical = physical;
+            this.statements = statements;
+            this.call = call;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(physical, statements);
+                        if (call != null) {
+                            call.finish();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            if (method.getName().equals("prepareStatement") && args.length <= 2
+                    && (args.length == 1 || args[1] instanceof Integer)) {
+                int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                return statements.prepare((Connection) proxy, (String) args[0], autoGeneratedKeys, call);
+            }
+            if (method.getName().equals("createStatement") && args == null) {
+                return statements.createStatement((Connection) proxy, call);
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Represents a point-in-time view of the pool's usage.
+     */
+    public static class PoolStats {
+        private final int maxSize;
+        private final int activeCount;
+        private final int idleCount;
+        private final long borrowCount;
+        private final double averageWaitMillis;
+        private final double maxWaitMillis;
+        private final long timeoutCount;
+        private final long createdCount;
+        private final long evictedCount;
+
+        /**
+         * Constructs a PoolStats object.
+         *
+         * @param maxSize           The maximum number of connections that may be checked out.
+         * @param activeCount       The number of connections currently checked out.
+         * @param idleCount         The number of connections waiting in the pool.
+         * @param borrowCount       The number of successful borrows since startup.
+         * @param averageWaitMillis The average time a borrower waited for a connection.
+         * @param maxWaitMillis     The longest time a borrower waited for a connection.
+         * @param timeoutCount      The number of borrows that gave up waiting.
+         * @param createdCount      The number of physical connections opened.
+         * @param evictedCount      The number of physical connections closed as idle or invalid.
+         */
+        public PoolStats(int maxSize, int activeCount, int idleCount, long borrowCount,
+                         double averageWaitMillis, double maxWaitMillis, long timeoutCount,
+                         long createdCount, long evictedCount) {
+            this.maxSize = maxSize;
+            this.activeCount = activeCount;
+            this.idleCount = idleCount;
+            this.borrowCount = borrowCount;
+            this.averageWaitMillis = averageWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+            this.timeoutCount = timeoutCount;
+            this.createdCount = createdCount;
+            this.evictedCount = evictedCount;
+        }
+
+        public int getMaxSize() { return maxSize; }
+        public int getActiveCount() { return activeCount; }
+        public int getIdleCount() { return idleCount; }
+        public long getBorrowCount() { return borrowCount; }
+        public double getAverageWaitMillis() { return averageWaitMillis; }
+        public double getMaxWaitMillis() { return maxWaitMillis; }
+        public long getTimeoutCount() { return timeoutCount; }
+        public long getCreatedCount() { return createdCount; }
+        public long getEvictedCount() { return evictedCount; }
+    }
+}
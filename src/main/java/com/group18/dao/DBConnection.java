@@ -1,68 +1,100 @@
 package com.group18.dao;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
- * This class manages the connection to the database.
- * It provides methods to establish and close a connection to the MySQL database.
- * The connection is established lazily and reused throughout the application.
+ * This class manages access to the database.
+ * Connections are borrowed from a bounded {@link ConnectionPool} and must be closed by the caller,
+ * which returns them to the pool so that concurrent screens and tills do not share a single socket.
+ * Each pooled connection keeps the statements it has prepared, so a query is parsed once per connection.
  */
 public class DBConnection {
-    private static Connection connection;
 
-    // Database credentials and URL
-    private static final String DB_URL = "jdbc:mysql://localhost/cinemadb";
-    private static final String DB_USERNAME = "myuser";
-    private static final String DB_PASSWORD = "1234";
+    // Database credentials and URL, which the cinema.db.* system properties override
+    // (the benchmarks point them at an embedded database)
+    private static final String DB_URL = withServerPreparedStatements(
+            System.getProperty("cinema.db.url", "jdbc:mysql://localhost/cinemadb"));
+    private static final String DB_USERNAME = System.getProperty("cinema.db.username", "myuser");
+    private static final String DB_PASSWORD = System.getProperty("cinema.db.password", "1234");
+
+    // Pool sizing
+    private static final int POOL_MAX_SIZE = 10;
+    private static final long BORROW_TIMEOUT_MILLIS = 10_000;
+    private static final long IDLE_TIMEOUT_MILLIS = 5 * 60_000;
+    private static final int STATEMENT_CACHE_SIZE = 100;
+
+    private static final ConnectionPool pool = new ConnectionPool(DB_URL, DB_USERNAME, DB_PASSWORD,
+            POOL_MAX_SIZE, BORROW_TIMEOUT_MILLIS, IDLE_TIMEOUT_MILLIS, STATEMENT_CACHE_SIZE);
+
+    private DBConnection() {}
 
     /**
-     * Constructor that initializes the connection to the database.
-     * It calls the connect method to establish a connection when an instance is created.
+     * Has MySQL prepare statements on the server, so a statement reused from the pool's cache
+     * skips parsing there too, unless the URL already says otherwise or the
+     * cinema.db.serverPrepStmts system property is false.
      */
-    public DBConnection() {
-        connect();
+    private static String withServerPreparedStatements(String url) {
+        if (!url.startsWith("jdbc:mysql:") || url.contains("useServerPrepStmts")
+                || !Boolean.parseBoolean(System.getProperty("cinema.db.serverPrepStmts", "true"))) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + "useServerPrepStmts=true&cachePrepStmts=true";
     }
 
     /**
-     * Establishes a connection to the database if not already connected.
-     * The connection is established lazily when needed.
+     * Borrows a connection from the pool.
+     * The caller must close the connection (ideally with try-with-resources) to return it to the pool.
+     * The time the caller holds it, and the rows and errors of its statements, are recorded in
+     * {@link DaoMetrics} under the calling method.
+     *
+     * @return A validated database connection in auto-commit mode.
+     * @throws SQLException If no connection becomes available in time or the database cannot be reached.
      */
-    private static void connect() {
+    public static Connection getConnection() throws SQLException {
+        DaoMetrics.Call call = DaoMetrics.getInstance().start();
         try {
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD);
-            }
+            return pool.borrow(call);
         } catch (SQLException e) {
-            e.printStackTrace();
-            System.err.println("Failed to connect to the database. \n");
+            call.fail();
+            call.finish();
+            throw e;
         }
     }
 
     /**
-     * Provides the connection to the database.
-     * If the connection is not already established, it calls the connect method to ensure the connection is active.
+     * Checks whether the database is MySQL, for the few statements that use MySQL-only syntax
+     * or Connector/J-only settings and need a plain fallback on the embedded benchmark database.
      *
-     * @return The active database connection.
+     * @return true if the configured URL is a MySQL one.
      */
-    public static Connection getConnection() {
-        connect();
-        return connection;
+    public static boolean isMySQL() {
+        return DB_URL.startsWith("jdbc:mysql:");
     }
 
     /**
-     * Closes the database connection if it is open.
-     * This method is called to clean up resources when the connection is no longer needed.
+     * Retrieves the current usage statistics of the connection pool.
+     *
+     * @return A snapshot of the pool's wait times and active/idle counts.
      */
-    private static void disconnect() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    public static ConnectionPool.PoolStats getPoolStats() {
+        return pool.getStats();
     }
 
+    /**
+     * Retrieves the execution counts and timings of every statement run through the pool.
+     *
+     * @return The statement statistics, updated as statements run.
+     */
+    public static StatementStats getStatementStats() {
+        return pool.getStatementStats();
+    }
+
+    /**
+     * Closes all pooled connections.
+     * This method is called to clean up resources when the application exits.
+     */
+    public static void shutdown() {
+        pool.shutdown();
+    }
 }
@@ -0,0 +1,205 @@
+package com.group18.dao;
+
+import com.group18.util.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the calls, errors and rows of every DAO method and keeps a histogram of how long its
+ * calls take, so the slow paths of a running till show on the admin Performance view.
+ *
+ * A call is measured from the moment its method borrows a connection from
+ * {@link DBConnection#getConnection()} to the moment it gives it back, and is named after the
+ * method that borrowed it; helpers that run on their caller's connection count as part of that
+ * call. A call fails if any of its statements throws, even when the DAO catches the exception,
+ * and its rows are the rows its queries returned plus the rows its updates changed. Recording
+ * takes no locks, so it costs the DAOs little more than the statement calls themselves.
+ *
+ * This class follows the Singleton design pattern so every DAO records into one registry.
+ */
+public class DaoMetrics {
+    private static DaoMetrics instance;
+
+    private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    private DaoMetrics() {
+    }
+
+    /**
+     * Provides the metrics registry of this till.
+     *
+     * @return the singleton instance of the DaoMetrics class
+     */
+    public static synchronized DaoMetrics getInstance() {
+        if (instance == null) {
+            instance = new DaoMetrics();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts measuring a call of the method that borrows a connection, which must be the
+     * caller of the method calling this one.
+     *
+     * @return the call, to be finished when the connection is given back
+     */
+    Call start() {
+        String method = StackWalker.getInstance().walk(frames -> frames.skip(2).findFirst())
+                .map(DaoMetrics::methodName)
+                .orElse("unknown");
+        return new Call(methods.computeIfAbsent(method, MethodMetrics::new));
+    }
+
+    /**
+     * Names a stack frame as ClassName.methodName, counting code in lambdas and inner classes
+     * as part of the method and class they are written in.
+     */
+    private static String methodName(StackWalker.StackFrame frame) {
+        String className = frame.getClassName();
+        className = className.substring(className.lastIndexOf('.') + 1);
+        int inner = className.indexOf('$');
+        if (inner >= 0) {
+            className = className.substring(0, inner);
+        }
+        String methodName = frame.getMethodName();
+        if (methodName.startsWith("lambda$")) {
+            int end = methodName.indexOf('$', "lambda$".length());
+            methodName = methodName.substring("lambda$".length(), end < 0 ? methodName.length() : end);
+        }
+        return className + "." + methodName;
+    }
+
+    /**
+     * Takes a snapshot of the metrics of every DAO method, the ones that took the most time at
+     * the 99th percentile first.
+     *
+     * @return the method metrics
+     */
+    public List<MethodStats> snapshot() {
+        List<MethodStats> snapshot = new ArrayList<>();
+        for (MethodMetrics method : methods.values()) {
+            LatencyHistogram.Summary latency = method.latency.summarize();
+            if (latency.getCount() == 0) {
+                continue;
+            }
+            snapshot.add(new MethodStats(method.name, latency.getCount(), method.errors.sum(),
+                    method.rows.sum(), latency));
+        }
+        snapshot.sort(Comparator.comparingDouble(MethodStats::getP99Millis).reversed());
+        return snapshot;
+    }
+
+    /**
+     * Forgets every call recorded, to measure from now on.
+     */
+    public void reset() {
+        for (MethodMetrics method : methods.values()) {
+            method.errors.reset();
+            method.rows.reset();
+            method.latency.reset();
+        }
+    }
+
+    /**
+     * The running metrics of one DAO method.
+     */
+    private static class MethodMetrics {
+        private final String name;
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        MethodMetrics(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * One call of a DAO method, which lasts while it holds its connection. A call is used by
+     * the thread holding the connection only.
+     */
+    static final class Call {
+        private final MethodMetrics method;
+        private final long start = System.nanoTime();
+        private long rows;
+        private boolean failed;
+        private boolean finished;
+
+        private Call(MethodMetrics method) {
+            this.method = method;
+        }
+
+        /**
+         * Adds rows the call read or changed.
+         *
+         * @param count the number of rows
+         */
+        void addRows(long count) {
+            rows += count;
+        }
+
+        /**
+         * Marks the call as failed.
+         */
+        void fail() {
+            failed = true;
+        }
+
+        /**
+         * Ends the call and records it, once.
+         */
+        void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            method.latency.record(System.nanoTime() - start);
+            method.rows.add(rows);
+            if (failed) {
+                method.errors.increment();
+            }
+        }
+    }
+
+    /**
+     * Represents a point-in-time view of the metrics of one DAO method.
+     */
+    public static class MethodStats {
+        private final String method;
+        private final long callCount;
+        private final long errorCount;
+        private final long rowCount;
+        private final LatencyHistogram.Summary latency;
+
+        /**
+         * Constructs a MethodStats object.
+         *
+         * @param method     The method, as ClassName.methodName.
+         * @param callCount  The number of calls.
+         * @param errorCount The number of calls in which a statement failed.
+         * @param rowCount   The number of rows read or changed by all calls.
+         * @param latency    The percentiles of the call durations.
+         */
+        public MethodStats(String method, long callCount, long errorCount, long rowCount, LatencyHistogram.Summary latency) {
+            this.method = method;
+            this.callCount = callCount;
+            this.errorCount = errorCount;
+            this.rowCount = rowCount;
+            this.latency = latency;
+        }
+
+        public String getMethod() { return method; }
+        public long getCallCount() { return callCount; }
+        public long getErrorCount() { return errorCount; }
+        public long getRowCount() { return rowCount; }
+        public double getP50Millis() { return latency.getP50Millis(); }
+        public double getP95Millis() { return latency.getP95Millis(); }
+        public double getP99Millis() { return latency.getP99Millis(); }
+        public double getMaxMillis() { return latency.getMaxMillis(); }
+    }
+}
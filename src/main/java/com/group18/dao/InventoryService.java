@@ -0,0 +1,465 @@
+package com.group18.dao;
+
+import com.group18.model.Product;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps the concession stock of this till in memory, so checkouts take stock without waiting
+ * on each other for the product rows.
+ *
+ * Each product has an atomic counter of the units that can still be sold. A checkout reserves
+ * its units from the counters before it writes anything, and records the sale as rows of the
+ * inventory journal in its own transaction; it never updates the products table. A background
+ * flusher applies the journal to products.stock in batches, deleting the rows it applied in the
+ * same transaction, so the product rows are locked once per flush instead of once per checkout
+ * and a crash loses no sale. Each flush publishes the products it changed on the {@link ChangeBus}.
+ * The true stock of a product is its stock plus its journal rows.
+ *
+ * After every flush the counters are compared with the true stock, which takes in the sales of
+ * other tills and stock set by a manager. The counters are exact for the sales of this till;
+ * sales of other tills reach them within a flush interval, so in that interval two tills may
+ * both sell the last units of a product.
+ *
+ * This class follows the Singleton design pattern so every checkout reserves from the same counters.
+ */
+public class InventoryService {
+    /** How often the journal is applied to the products table. */
+    private static final long FLUSH_INTERVAL_MILLIS = 500;
+    /** Journal rows applied per transaction at most. */
+    private static final int FLUSH_BATCH_SIZE = 500;
+    /** Number of locks the products are spread over. */
+    private static final int STRIPES = 16;
+
+    private static InventoryService instance;
+
+    private final Map<Integer, ProductStock> products = new ConcurrentHashMap<>();
+    /**
+     * Held shared by checkouts while they commit, and exclusively while the counters are compared
+     * with the database, so a comparison never sees a sale in only one of the two.
+     */
+    private final ReadWriteLock[] stripes = new ReadWriteLock[STRIPES];
+    /** Commits of checkouts started and finished, so a comparison can tell whether one ran while it read the stock. */
+    private final AtomicLong commitsBegun = new AtomicLong();
+    private final AtomicLong commitsEnded = new AtomicLong();
+    private final ProductDAO productDAO = new ProductDAO();
+    private final ChangeBus changeBus = ChangeBus.getInstance();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "inventory-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean loaded;
+
+    private InventoryService() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+        flusher.scheduleWithFixedDelay(this::flushAndRefresh,
+                FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Provides the inventory of this till.
+     *
+     * @return the singleton instance of the InventoryService class
+     */
+    public static synchronized InventoryService getInstance() {
+        if (instance == null) {
+            instance = new InventoryService();
+        }
+        return instance;
+    }
+
+    /**
+     * The stock of one product as this till sees it.
+     */
+    private static final class ProductStock {
+        volatile String name;
+        /** Units that can still be reserved. */
+        final AtomicInteger available;
+        /** Sum of the stock changes this till has committed to the journal. */
+        final AtomicLong committed = new AtomicLong();
+        /** The true stock when last compared, and {@link #committed} at that moment; guarded by the stripe's write lock. */
+        long lastStock;
+        long lastCommitted;
+
+        ProductStock(String name, int stock) {
+            this.name = name;
+            this.available = new AtomicInteger(stock);
+            this.lastStock = stock;
+        }
+    }
+
+    /**
+     * Retrieves the number of units of a product that can still be sold.
+     *
+     * @param productId the ID of the product
+     * @return the live stock, or -1 if the product is unknown or the stock could not be loaded
+     */
+    public int getStock(int productId) {
+        if (!ensureLoaded()) {
+            return -1;
+        }
+        ProductStock stock = products.get(productId);
+        return stock == null ? -1 : stock.available.get();
+    }
+
+    /**
+     * Replaces the stock of products read from the database with the live stock of this till,
+     * which already counts the sales not yet applied to the products table.
+     *
+     * @param products the products to update
+     * @return the same products, for chaining
+     */
+    public List<Product> withLiveStock(List<Product> products) {
+        if (!ensureLoaded()) {
+            return products;
+        }
+        for (Product product : products) {
+            ProductStock stock = this.products.get(product.getProductId());
+            if (stock != null) {
+                product.setStock(stock.available.get());
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Reserves units of several products for an order, all or none. The units stay taken once
+     * the order is committed with {@link #commit}, and must be given back with {@link #release}
+     * if the order is not stored.
+     *
+     * @param quantities the units to reserve, by product ID
+     * @throws StockShortfallException if any product does not have enough units; nothing is reserved then
+     * @throws SQLException if the stock has to be loaded and could not be
+     */
+    void reserve(Map<Integer, Integer> quantities) throws SQLException {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        if (!loaded || !products.keySet().containsAll(quantities.keySet())) {
+            // Products added since the stock was last read are picked up here
+            synchronize();
+        }
+
+        Map<Integer, Integer> reserved = new HashMap<>();
+        Map<Integer, Integer> shortfalls = new TreeMap<>();
+        Map<Integer, String> productNames = new HashMap<>();
+        for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+            ProductStock stock = products.get(entry.getKey());
+            int available = stock == null ? 0 : take(stock.available, entry.getValue());
+            if (available < 0) {
+                reserved.put(entry.getKey(), entry.getValue());
+            } else {
+                shortfalls.put(entry.getKey(), entry.getValue() - available);
+                if (stock != null) {
+                    productNames.put(entry.getKey(), stock.name);
+                }
+            }
+        }
+
+        if (!shortfalls.isEmpty()) {
+            release(reserved);
+            throw new StockShortfallException(shortfalls, productNames);
+        }
+    }
+
+    /**
+     * Takes units from a counter if it has enough of them.
+     *
+     * @return -1 if the units were taken, otherwise the units available
+     */
+    private static int take(AtomicInteger available, int quantity) {
+        while (true) {
+            int current = available.get();
+            if (current < quantity) {
+                return Math.max(current, 0);
+            }
+            if (available.compareAndSet(current, current - quantity)) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Makes units available again: a reservation for an order that was not stored, or
+     * units returned by a refund once it is committed.
+     *
+     * @param quantities the units to make available, by product ID
+     */
+    void release(Map<Integer, Integer> quantities) {
+        quantities.forEach((productId, quantity) -> {
+            ProductStock stock = products.get(productId);
+            if (stock != null) {
+                stock.available.addAndGet(quantity);
+            }
+        });
+    }
+
+    /**
+     * Records stock changes in the journal, in the transaction of the given connection.
+     * All the rows are inserted with a single statement.
+     *
+     * @param connection the connection whose transaction the rows take part in
+     * @param changes the change in stock, negative for a sale, by product ID
+     * @throws SQLException if the insert fails
+     */
+    void journal(Connection connection, Map<Integer, Integer> changes) throws SQLException {
+        if (changes.isEmpty()) {
+            return;
+        }
+        String query = "INSERT INTO inventory_journal (product_id, delta) VALUES "
+                + String.join(", ", Collections.nCopies(changes.size(), "(?, ?)"));
+
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            int index = 1;
+            for (Map.Entry<Integer, Integer> entry : changes.entrySet()) {
+                stmt.setInt(index++, entry.getKey());
+                stmt.setInt(index++, entry.getValue());
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Commits a transaction that journaled stock changes, and counts the changes as committed
+     * by this till. Only the locks of the products changed are taken, and only shared, so
+     * checkouts commit side by side.
+     *
+     * @param connection the connection to commit
+     * @param changes the stock changes the transaction journaled, by product ID
+     * @throws SQLException if the commit fails
+     */
+    void commit(Connection connection, Map<Integer, Integer> changes) throws SQLException {
+        List<Lock> locks = new ArrayList<>();
+        for (int stripe : stripesOf(changes.keySet())) {
+            locks.add(stripes[stripe].readLock());
+        }
+        locks.forEach(Lock::lock);
+        commitsBegun.incrementAndGet();
+        try {
+            connection.commit();
+            changes.forEach((productId, change) -> {
+                ProductStock stock = products.get(productId);
+                if (stock != null) {
+                    stock.committed.addAndGet(change);
+                }
+            });
+        } finally {
+            commitsEnded.incrementAndGet();
+            Collections.reverse(locks);
+            locks.forEach(Lock::unlock);
+        }
+    }
+
+    private static Set<Integer> stripesOf(Collection<Integer> productIds) {
+        Set<Integer> stripeIndexes = new TreeSet<>();
+        for (int productId : productIds) {
+            stripeIndexes.add(Math.floorMod(productId, STRIPES));
+        }
+        return stripeIndexes;
+    }
+
+    /**
+     * Compares the counters with the true stock in the database, so that sales of other tills
+     * and stock set by a manager are taken into account right away.
+     */
+    public void refresh() {
+        try {
+            synchronize();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Applies the whole journal to the products table.
+     */
+    public void flush() {
+        try {
+            while (flushBatch()) {
+                // Keep going until the journal is empty
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Stops the background flusher and applies what is left of the journal.
+     */
+    public void shutdown() {
+        flusher.shutdownNow();
+        flush();
+    }
+
+    private void flushAndRefresh() {
+        flush();
+        if (loaded) {
+            refresh();
+        }
+    }
+
+    /**
+     * Applies the oldest rows of the journal to the products table in one transaction. The
+     * rows are deleted before they are applied; if another till has applied some of them in
+     * the meantime, fewer rows are deleted and the batch is left to the next flush.
+     *
+     * @return true if a full batch was applied, so more rows may be waiting
+     */
+    private boolean flushBatch() throws SQLException {
+        String selectQuery = "SELECT journal_id, product_id, delta FROM inventory_journal ORDER BY journal_id LIMIT " + FLUSH_BATCH_SIZE;
+
+        try (Connection connection = DBConnection.getConnection()) {
+            List<Long> journalIds = new ArrayList<>();
+            Map<Integer, Integer> changes = new TreeMap<>();
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(selectQuery)) {
+                while (rs.next()) {
+                    journalIds.add(rs.getLong("journal_id"));
+                    changes.merge(rs.getInt("product_id"), rs.getInt("delta"), Integer::sum);
+                }
+            }
+            if (journalIds.isEmpty()) {
+                return false;
+            }
+
+            String deleteQuery = "DELETE FROM inventory_journal WHERE journal_id IN ("
+                    + String.join(", ", Collections.nCopies(journalIds.size(), "?")) + ")";
+            connection.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = connection.prepareStatement(deleteQuery)) {
+                    int index = 1;
+                    for (long journalId : journalIds) {
+                        stmt.setLong(index++, journalId);
+                    }
+                    if (stmt.executeUpdate() != journalIds.size()) {
+                        connection.rollback();
+                        return false;
+                    }
+                }
+                // Changes to products deleted since are dropped along with their rows
+                productDAO.adjustStock(connection, changes);
+                for (int productId : changes.keySet()) {
+                    changeBus.record(connection, ChangeEvent.Entity.PRODUCT, ChangeEvent.Type.UPDATED, productId);
+                }
+                connection.commit();
+                changeBus.pollNow();
+                return journalIds.size() == FLUSH_BATCH_SIZE;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Loads the stock if it was never read.
+     *
+     * @return true if the stock is loaded
+     */
+    private boolean ensureLoaded() {
+        if (!loaded) {
+            refresh();
+        }
+        return loaded;
+    }
+
+    /**
+     * Reads the true stock of every product and corrects the counters by whatever changed it
+     * other than this till's committed sales.
+     *
+     * The stock is read before any lock is taken, so checkouts keep committing meanwhile, and
+     * every stripe is then locked exclusively only to apply the correction. If a sale of this
+     * till committed while the stock was being read, the read may have seen the sale without the
+     * counters or the other way round, so the stock is read once more with the stripes locked,
+     * on the connection already borrowed; no lock is ever held while waiting for a connection.
+     */
+    private synchronized void synchronize() throws SQLException {
+        try (Connection connection = DBConnection.getConnection()) {
+            long begun = commitsBegun.get();
+            boolean quiet = commitsEnded.get() == begun;
+            Map<Integer, ProductStock> trueStock = readStock(connection);
+
+            for (ReadWriteLock stripe : stripes) {
+                stripe.writeLock().lock();
+            }
+            try {
+                if (!quiet || commitsBegun.get() != begun) {
+                    trueStock = readStock(connection);
+                }
+                correct(trueStock);
+            } finally {
+                for (int i = STRIPES - 1; i >= 0; i--) {
+                    stripes[i].writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the true stock of every product, as fresh counters.
+     */
+    private static Map<Integer, ProductStock> readStock(Connection connection) throws SQLException {
+        String query = "SELECT p.product_id, p.product_name, p.stock + COALESCE(j.delta, 0) AS stock FROM products p " +
+                "LEFT JOIN (SELECT product_id, SUM(delta) AS delta FROM inventory_journal GROUP BY product_id) j " +
+                "ON j.product_id = p.product_id";
+        Map<Integer, ProductStock> trueStock = new HashMap<>();
+
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            while (rs.next()) {
+                trueStock.put(rs.getInt("product_id"),
+                        new ProductStock(rs.getString("product_name"), rs.getInt("stock")));
+            }
+        }
+        return trueStock;
+    }
+
+    /**
+     * Corrects the counters by the difference between the true stock and the stock expected
+     * from the last comparison and this till's sales since. Called with every stripe locked.
+     */
+    private void correct(Map<Integer, ProductStock> trueStock) {
+        for (Map.Entry<Integer, ProductStock> entry : trueStock.entrySet()) {
+            ProductStock read = entry.getValue();
+            ProductStock stock = products.get(entry.getKey());
+            if (stock == null) {
+                products.put(entry.getKey(), read);
+                continue;
+            }
+            long committed = stock.committed.get();
+            long expected = stock.lastStock + (committed - stock.lastCommitted);
+            stock.available.addAndGet((int) (read.lastStock - expected));
+            stock.lastStock = read.lastStock;
+            stock.lastCommitted = committed;
+            stock.name = read.name;
+        }
+        products.keySet().retainAll(trueStock.keySet());
+        loaded = true;
+    }
+}
@@ -4,21 +4,20 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import com.group18.model.Movie;
+import com.group18.util.PosterThumbnails;
 
 /**
  * This class provides CRUD operations (Create, Read, Update, Delete) for managing movies in the database.
  * It interacts with the 'movies' table in the database to perform operations like adding, updating, removing,
  * and fetching movie details.
+ * Every change is published on the {@link ChangeBus}.
  */
 public class MovieDAO {
-    private Connection connection;
-
     /**
-     * Constructor that initializes the connection to the database by calling the DBConnection's getConnection method.
+     * The movie columns loaded for lists and lookups. Poster images are left out and fetched
+     * separately, as a thumbnail or the original, only when a screen needs to show one.
      */
-    public MovieDAO() {
-        this.connection = DBConnection.getConnection();
-    }
+    private static final String MOVIE_COLUMNS = "m.movie_id, m.title, m.genre, m.summary, m.duration, m.poster_hash";
 
     /**
      * Finds a movie by its unique identifier (movieId).
@@ -27,8 +26,9 @@ public class MovieDAO {
      * @return The Movie object corresponding to the provided movieId, or null if no such movie exists.
      */
     public Movie findById(int movieId) {
-        String query = "SELECT * FROM movies WHERE movie_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        String query = "SELECT " + MOVIE_COLUMNS + " FROM movies m WHERE m.movie_id = ?";
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, movieId);
             ResultSet rs = stmt.executeQuery();
 
@@ -53,21 +53,28 @@ public class MovieDAO {
             return false;
         }
 
-        String query = "INSERT INTO movies (title, genre, summary, poster_data, duration) VALUES (?, ?, ?, ?, ?)";
+        String query = "INSERT INTO movies (title, genre, summary, poster_data, poster_thumb, poster_hash, duration) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, movie.getTitle());
             stmt.setString(2, movie.getGenresAsString());
             stmt.setString(3, movie.getSummary());
 
-            // Handle poster image BLOB
+            // Handle poster image BLOB, stored together with its grid thumbnail
             if (movie.getPosterData() != null) {
+                movie.setPosterHash(PosterThumbnails.hash(movie.getPosterData()));
                 stmt.setBytes(4, movie.getPosterData());
+                stmt.setBytes(5, PosterThumbnails.createThumbnail(movie.getPosterData()));
+                stmt.setString(6, movie.getPosterHash());
             } else {
                 stmt.setNull(4, Types.BLOB);
+                stmt.setNull(5, Types.BLOB);
+                stmt.setNull(6, Types.CHAR);
             }
 
-            stmt.setInt(5, movie.getDuration());
+            stmt.setInt(7, movie.getDuration());
 
             int affectedRows = stmt.executeUpdate();
             if (affectedRows == 0) {
@@ -77,6 +84,7 @@ public class MovieDAO {
             try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     movie.setMovieId(generatedKeys.getInt(1));
+                    ChangeBus.getInstance().publish(connection, ChangeEvent.Entity.MOVIE, ChangeEvent.Type.CREATED, movie.getMovieId());
                     return true;
                 } else {
                     throw new SQLException("Creating movie failed, no ID obtained.");
@@ -101,19 +109,34 @@ public class MovieDAO {
             return false;
         }
 
-        String query = "UPDATE movies SET title = ?, genre = ?, summary = ?, poster_data = ?, duration = ? WHERE movie_id = ?";
+        // Posters are only loaded on demand, so a movie without poster data keeps its stored poster
+        boolean replacePoster = movie.getPosterData() != null;
+        String query = replacePoster
+                ? "UPDATE movies SET title = ?, genre = ?, summary = ?, duration = ?, " +
+                  "poster_data = ?, poster_thumb = ?, poster_hash = ? WHERE movie_id = ?"
+                : "UPDATE movies SET title = ?, genre = ?, summary = ?, duration = ? WHERE movie_id = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, movie.getTitle());
             stmt.setString(2, movie.getGenresAsString());
             stmt.setString(3, movie.getSummary());
-            stmt.setBytes(4, movie.getPosterData());
-            stmt.setInt(5, movie.getDuration());
-            stmt.setInt(6, movie.getMovieId());
+            stmt.setInt(4, movie.getDuration());
+
+            if (replacePoster) {
+                movie.setPosterHash(PosterThumbnails.hash(movie.getPosterData()));
+                stmt.setBytes(5, movie.getPosterData());
+                stmt.setBytes(6, PosterThumbnails.createThumbnail(movie.getPosterData()));
+                stmt.setString(7, movie.getPosterHash());
+                stmt.setInt(8, movie.getMovieId());
+            } else {
+                stmt.setInt(5, movie.getMovieId());
+            }
 
             int affectedRows = stmt.executeUpdate();
 
             if (affectedRows > 0) {
+                ChangeBus.getInstance().publish(connection, ChangeEvent.Entity.MOVIE, ChangeEvent.Type.UPDATED, movie.getMovieId());
                 return true;
             }
         } catch (SQLException e) {
@@ -130,7 +153,8 @@ public class MovieDAO {
     public boolean existsByTitleIgnoreCase(String title) {
         String query = "SELECT COUNT(*) FROM movies WHERE LOWER(title) = LOWER(?)";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, title);
             ResultSet rs = stmt.executeQuery();
 
@@ -149,10 +173,11 @@ public class MovieDAO {
      * @return A list of all movies in the database.
      */
     public List<Movie> getAllMovies() {
-        String query = "SELECT * FROM movies";
+        String query = "SELECT " + MOVIE_COLUMNS + " FROM movies m";
         List<Movie> movies = new ArrayList<>();
 
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = DBConnection.getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
 
             while (rs.next()) {
@@ -164,6 +189,82 @@ public class MovieDAO {
         return movies;
     }
 
+    /**
+     * Retrieves the original, full-size poster of a movie.
+     *
+     * @param movieId The unique identifier of the movie.
+     * @return The poster image bytes, or null if the movie has no poster.
+     */
+    public byte[] getPosterData(int movieId) {
+        String query = "SELECT poster_data FROM movies WHERE movie_id = ?";
+
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, movieId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getBytes("poster_data");
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the pre-scaled grid thumbnail of a movie's poster.
+     * Movies stored before thumbnails existed get one generated from the original and saved,
+     * so the original is transferred at most once per movie.
+     *
+     * @param movieId The unique identifier of the movie.
+     * @return The thumbnail as JPEG bytes, or null if the movie has no usable poster.
+     */
+    public byte[] getPosterThumbnail(int movieId) {
+        String query = "SELECT poster_thumb FROM movies WHERE movie_id = ?";
+
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, movieId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next() && rs.getBytes("poster_thumb") != null) {
+                    return rs.getBytes("poster_thumb");
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        return backfillPosterThumbnail(movieId);
+    }
+
+    /**
+     * Generates and stores the thumbnail and hash for a movie whose poster predates thumbnails.
+     *
+     * @param movieId The unique identifier of the movie.
+     * @return The generated thumbnail, or null if the movie has no usable poster.
+     */
+    private byte[] backfillPosterThumbnail(int movieId) {
+        byte[] posterData = getPosterData(movieId);
+        byte[] thumbnail = PosterThumbnails.createThumbnail(posterData);
+        if (thumbnail == null) {
+            return null;
+        }
+
+        String query = "UPDATE movies SET poster_thumb = ?, poster_hash = ? WHERE movie_id = ?";
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setBytes(1, thumbnail);
+            stmt.setString(2, PosterThumbnails.hash(posterData));
+            stmt.setInt(3, movieId);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return thumbnail;
+    }
+
     /**
      * Extracts a Movie object from the result set.
      *
@@ -177,7 +278,7 @@ public class MovieDAO {
         movie.setTitle(rs.getString("title"));
         movie.setGenresFromString(rs.getString("genre"));
         movie.setSummary(rs.getString("summary"));
-        movie.setPosterData(rs.getBytes("poster_data"));
+        movie.setPosterHash(rs.getString("poster_hash"));
         movie.setDuration(rs.getInt("duration"));
         return movie;
     }
@@ -193,10 +294,15 @@ public class MovieDAO {
         String query = "DELETE FROM movies WHERE movie_id = ? AND NOT EXISTS " +
                 "(SELECT 1 FROM schedules WHERE movie_id = ?)";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, movieId);
             stmt.setInt(2, movieId);
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() > 0) {
+                ChangeBus.getInstance().publish(connection, ChangeEvent.Entity.MOVIE, ChangeEvent.Type.DELETED, movieId);
+                return true;
+            }
+            return false;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -210,11 +316,12 @@ public class MovieDAO {
      * @return The Movie object associated with the given schedule ID, or null if no such movie exists.
      */
     public Movie findMovieByScheduleId(int scheduleId) {
-        String query = "SELECT m.* FROM movies m " +
+        String query = "SELECT " + MOVIE_COLUMNS + " FROM movies m " +
                 "JOIN schedules s ON m.movie_id = s.movie_id " +
                 "WHERE s.schedule_id = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, scheduleId);
             ResultSet rs = stmt.executeQuery();
 
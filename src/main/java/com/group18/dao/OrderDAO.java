@@ -7,127 +7,251 @@ import com.group18.model.Product;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
 import java.math.BigDecimal;
 
 /**
  * Data Access Object (DAO) for interacting with the 'orders' and 'order_items' tables in the database.
  * Provides methods for creating, retrieving, updating, and deleting orders and order items.
+ * Every change to an order is published on the {@link ChangeBus}.
  */
 public class OrderDAO {
-    private Connection connection;
-
     /**
-     * Constructs an OrderDAO object and establishes a connection to the database.
+     * The order columns needed by list screens. The PDF BLOBs are replaced by availability
+     * flags so they never travel over the wire unless a document is actually opened.
      */
-    public OrderDAO() {
-        this.connection = DBConnection.getConnection();
-    }
+    private static final String ORDER_SUMMARY_COLUMNS =
+            "o.order_id, o.cashier_id, o.order_date, o.total_price, o.status, o.refunded_amount, " +
+            "(o.receipt_pdf IS NOT NULL) AS has_receipt, (o.tickets_pdf IS NOT NULL) AS has_tickets";
+
+    /** MySQL error code for a duplicate key in a unique index. */
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+
+    private final SeatMapDAO seatMapDAO = new SeatMapDAO();
+    private final SeatHoldDAO seatHoldDAO = SeatHoldDAO.getInstance();
+    private final RevenueDAO revenueDAO = new RevenueDAO();
+    private final ChangeBus changeBus = ChangeBus.getInstance();
 
     /**
      * Creates a new order and associated order items in the database.
+     * The order is added to the revenue rollup in the same transaction.
+     * The order's documents are marked as pending; they are rendered and stored afterwards
+     * through {@link #storeDocuments(int, byte[], byte[])}.
+     * Seats held by another till, or sold since they were selected, make the whole order fail
+     * with a {@link SeatConflictException} naming those seats; nothing is stored in that case.
+     * The stock of the product lines is reserved in memory through the {@link InventoryService}
+     * before anything is written, and products short of stock likewise make the order fail with
+     * a {@link StockShortfallException}. The sale is journaled rather than taken off the product
+     * rows, so checkouts selling the same products do not wait on each other.
      *
      * @param order The Order object containing the order details.
      * @return true if the order is successfully created; false otherwise.
+     * @throws SeatConflictException If any of the order's seats is no longer available.
+     * @throws StockShortfallException If any of the order's products is short of stock.
      */
-    public boolean createOrder(Order order) {
-        String orderQuery = "INSERT INTO orders (cashier_id, order_date, total_price, status) VALUES (?, ?, ?, 'PENDING')";
+    public boolean createOrder(Order order) throws SeatConflictException, StockShortfallException {
+        String orderQuery = "INSERT INTO orders (cashier_id, order_date, total_price, status, documents_status) " +
+                "VALUES (?, ?, ?, 'PENDING', 'PENDING')";
         String itemQuery = "INSERT INTO order_items (order_id, item_type, schedule_id, seat_number, " +
                 "discount_applied, occupant_first_name, occupant_last_name, product_id, " +
                 "quantity, item_price) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-        ProductDAO productDAO = new ProductDAO();
+        InventoryService inventory = InventoryService.getInstance();
+
+        // Group the seats being sold by schedule, so each seat map is updated once, and the
+        // products by ID, so the stock of each product is taken once
+        Map<Integer, List<Integer>> seatsBySchedule = new HashMap<>();
+        Map<Integer, Integer> productQuantities = new TreeMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            if ("ticket".equals(item.getItemType())) {
+                seatsBySchedule.computeIfAbsent(item.getScheduleId(), id -> new ArrayList<>())
+                        .add(item.getSeatNumber());
+            } else if ("product".equals(item.getItemType())) {
+                productQuantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        Map<Integer, Integer> stockChanges = new TreeMap<>();
+        productQuantities.forEach((productId, quantity) -> stockChanges.put(productId, -quantity));
 
         try {
-            connection.setAutoCommit(false);
+            // Sold out products fail the order before anything is written, and before a
+            // connection is borrowed, as reserving may read the stock on a connection of its own
+            inventory.reserve(productQuantities);
+        } catch (StockShortfallException e) {
+            throw e;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
 
-            // Create the order first
-            try (PreparedStatement orderStmt = connection.prepareStatement(orderQuery, Statement.RETURN_GENERATED_KEYS)) {
-                orderStmt.setInt(1, order.getCashierId());
-                orderStmt.setTimestamp(2, Timestamp.valueOf(order.getOrderDate()));
-                orderStmt.setBigDecimal(3, order.getTotalPrice());
+        boolean stored = false;
+        try (Connection connection = DBConnection.getConnection()) {
+            connection.setAutoCommit(false);
 
-                int affectedRows = orderStmt.executeUpdate();
-                if (affectedRows == 0) {
-                    throw new SQLException("Creating order failed, no rows affected.");
+            try {
+                // Seats another till is holding are not for sale
+                Map<Integer, List<Integer>> heldByOthers = seatHoldDAO.findSeatsHeldByOthers(connection, seatsBySchedule);
+                if (!heldByOthers.isEmpty()) {
+                    throw new SeatConflictException(heldByOthers);
                 }
 
-                try (ResultSet generatedKeys = orderStmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        order.setOrderId(generatedKeys.getInt(1));
-                    } else {
-                        throw new SQLException("Creating order failed, no ID obtained.");
+                // Create the order
+                try (PreparedStatement orderStmt = connection.prepareStatement(orderQuery, Statement.RETURN_GENERATED_KEYS)) {
+                    orderStmt.setInt(1, order.getCashierId());
+                    orderStmt.setTimestamp(2, Timestamp.valueOf(order.getOrderDate()));
+                    orderStmt.setBigDecimal(3, order.getTotalPrice());
+
+                    int affectedRows = orderStmt.executeUpdate();
+                    if (affectedRows == 0) {
+                        throw new SQLException("Creating order failed, no rows affected.");
+                    }
+
+                    try (ResultSet generatedKeys = orderStmt.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            order.setOrderId(generatedKeys.getInt(1));
+                        } else {
+                            throw new SQLException("Creating order failed, no ID obtained.");
+                        }
                     }
                 }
-            }
 
-            // Create each order item and update stock
-            try (PreparedStatement itemStmt = connection.prepareStatement(itemQuery)) {
-                for (OrderItem item : order.getOrderItems()) {
-                    System.out.println("Processing item type: " + item.getItemType());
+                // Create each order item and update stock
+                try (PreparedStatement itemStmt = connection.prepareStatement(itemQuery)) {
+                    for (OrderItem item : order.getOrderItems()) {
+                        System.out.println("Processing item type: " + item.getItemType());
+
+                        itemStmt.setInt(1, order.getOrderId());
+                        itemStmt.setString(2, item.getItemType());
+
+                        // Handle schedule_id based on item type
+                        if ("ticket".equals(item.getItemType())) {
+                            itemStmt.setInt(3, item.getScheduleId());  // For tickets, use actual schedule_id
+                            itemStmt.setInt(4, item.getSeatNumber());  // For tickets, set seat number
+                        } else {
+                            itemStmt.setNull(3, Types.INTEGER);  // For products, set NULL
+                            itemStmt.setNull(4, Types.INTEGER);  // For products, set NULL
+                        }
 
-                    itemStmt.setInt(1, order.getOrderId());
-                    itemStmt.setString(2, item.getItemType());
+                        itemStmt.setBoolean(5, item.getDiscountApplied());
 
-                    // Handle schedule_id based on item type
-                    if ("ticket".equals(item.getItemType())) {
-                        itemStmt.setInt(3, item.getScheduleId());  // For tickets, use actual schedule_id
-                        itemStmt.setInt(4, item.getSeatNumber());  // For tickets, set seat number
-                    } else {
-                        itemStmt.setNull(3, Types.INTEGER);  // For products, set NULL
-                        itemStmt.setNull(4, Types.INTEGER);  // For products, set NULL
-                    }
+                        // Handle customer names based on item type
+                        if ("ticket".equals(item.getItemType())) {
+                            itemStmt.setString(6, item.getOccupantFirstName());
+                            itemStmt.setString(7, item.getOccupantLastName());
+                        } else {
+                            itemStmt.setNull(6, Types.VARCHAR);
+                            itemStmt.setNull(7, Types.VARCHAR);
+                        }
 
-                    itemStmt.setBoolean(5, item.getDiscountApplied());
+                        // Handle product_id based on item type
+                        if ("product".equals(item.getItemType())) {
+                            itemStmt.setInt(8, item.getProductId());
+                        } else {
+                            itemStmt.setNull(8, Types.INTEGER);
+                        }
 
-                    // Handle customer names based on item type
-                    if ("ticket".equals(item.getItemType())) {
-                        itemStmt.setString(6, item.getOccupantFirstName());
-                        itemStmt.setString(7, item.getOccupantLastName());
-                    } else {
-                        itemStmt.setNull(6, Types.VARCHAR);
-                        itemStmt.setNull(7, Types.VARCHAR);
-                    }
+                        itemStmt.setInt(9, item.getQuantity());
+                        itemStmt.setBigDecimal(10, item.getItemPrice());
 
-                    // Handle product_id based on item type
-                    if ("product".equals(item.getItemType())) {
-                        itemStmt.setInt(8, item.getProductId());
-                        // Process product stock reduction
-                        if (!productDAO.decreaseStock(item.getProductId(), item.getQuantity())) {
-                            throw new SQLException("Failed to decrease stock for product: " + item.getProductId());
+                        itemStmt.addBatch();
+                    }
+                    try {
+                        itemStmt.executeBatch();
+                    } catch (SQLException e) {
+                        // The unique index on live tickets rejected a seat another till sold first
+                        if (isLiveSeatConflict(e)) {
+                            throw new SeatConflictException(findSoldSeats(connection, order.getOrderId(), seatsBySchedule));
                         }
-                    } else {
-                        itemStmt.setNull(8, Types.INTEGER);
+                        throw e;
                     }
+                }
 
-                    itemStmt.setInt(9, item.getQuantity());
-                    itemStmt.setBigDecimal(10, item.getItemPrice());
+                // Journal the stock taken, which the inventory flusher applies to the products later
+                inventory.journal(connection, stockChanges);
 
-                    itemStmt.addBatch();
-                }
-                itemStmt.executeBatch();
-            }
+                revenueDAO.addOrder(connection, order.getOrderId());
 
-            connection.commit();
-            return true;
+                // Record the sale in the seat maps and drop this till's holds, last, so the
+                // seat map rows stay locked only for the moment before the commit
+                seatMapDAO.occupySeats(connection, seatsBySchedule);
+                seatHoldDAO.consume(connection, seatsBySchedule);
+                changeBus.record(connection, ChangeEvent.Entity.ORDER, ChangeEvent.Type.CREATED, order.getOrderId());
 
-        } catch (SQLException e) {
-            try {
+                inventory.commit(connection, stockChanges);
+                stored = true;
+                changeBus.pollNow();
+                return true;
+
+            } catch (SQLException e) {
                 connection.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
+                throw e;
             }
+        } catch (SeatConflictException | StockShortfallException e) {
+            throw e;
+        } catch (SQLException e) {
             e.printStackTrace();
             return false;
         } finally {
-            try {
-                connection.setAutoCommit(true);
-            } catch (SQLException e) {
-                e.printStackTrace();
+            if (!stored) {
+                inventory.release(productQuantities);
             }
         }
     }
 
+    /**
+     * Checks whether an insert failed because a seat already has a live ticket.
+     *
+     * @param e The exception raised by the insert.
+     * @return true if the unique index on live tickets was violated.
+     */
+    private static boolean isLiveSeatConflict(SQLException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && sqlException.getErrorCode() == MYSQL_DUPLICATE_ENTRY
+                    && String.valueOf(sqlException.getMessage()).contains("uq_live_seat")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds which of the seats being sold already have a live ticket in another order.
+     *
+     * @param connection The connection whose transaction sells the seats.
+     * @param orderId The ID of the order being created, whose own tickets are ignored.
+     * @param seatsBySchedule The seats being sold, grouped by schedule ID.
+     * @return The seats sold to other orders, grouped by schedule ID.
+     * @throws SQLException If an SQL error occurs while reading the tickets.
+     */
+    private Map<Integer, List<Integer>> findSoldSeats(Connection connection, int orderId,
+                                                      Map<Integer, List<Integer>> seatsBySchedule) throws SQLException {
+        String query = "SELECT seat_number FROM order_items WHERE live_schedule_id = ? AND seat_number = ? AND order_id <> ?";
+        Map<Integer, List<Integer>> sold = new HashMap<>();
+
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            for (Map.Entry<Integer, List<Integer>> entry : seatsBySchedule.entrySet()) {
+                for (int seatNumber : entry.getValue()) {
+                    stmt.setInt(1, entry.getKey());
+                    stmt.setInt(2, seatNumber);
+                    stmt.setInt(3, orderId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            sold.computeIfAbsent(entry.getKey(), id -> new ArrayList<>()).add(seatNumber);
+                        }
+                    }
+                }
+            }
+        }
+        return sold;
+    }
+
 
     /**
      * Restores the stock of products when an order is canceled.
@@ -136,35 +260,70 @@ public class OrderDAO {
      * @return true if the product stock is successfully restored; false otherwise.
      */
     public boolean restoreProductStock(int orderId) {
-        String query = """
-            SELECT product_id, quantity 
-            FROM order_items 
-            WHERE order_id = ? AND item_type = 'product' 
-            AND product_id IS NOT NULL
-        """;
-
-        ProductDAO productDAO = new ProductDAO();
-
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, orderId);
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                int productId = rs.getInt("product_id");
-                int quantity = rs.getInt("quantity");
+        return restoreProductStock(List.of(orderId));
+    }
 
-                // Restore stock for each product
-                if (!productDAO.increaseStock(productId, quantity)) {
-                    return false;
-                }
+    /**
+     * Restores the stock of the products of several canceled orders at once, in a single
+     * transaction, with one journal insert for all their products.
+     *
+     * @param orderIds The IDs of the orders to be canceled.
+     * @return true if the product stock is successfully restored; false otherwise.
+     */
+    public boolean restoreProductStock(Collection<Integer> orderIds) {
+        InventoryService inventory = InventoryService.getInstance();
+        try (Connection connection = DBConnection.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                Map<Integer, Integer> productQuantities = restoreProductStock(connection, orderIds);
+                inventory.commit(connection, productQuantities);
+                inventory.release(productQuantities);
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
             }
-            return true;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
     }
 
+    /**
+     * Restores the stock of products for canceled orders on the given connection.
+     * The quantities are summed per product by the database and journaled with one insert;
+     * once the transaction is committed through {@link InventoryService#commit}, the caller
+     * makes them available again with {@link InventoryService#release}.
+     *
+     * @param connection The connection whose transaction the journal rows take part in.
+     * @param orderIds The IDs of the orders to be canceled.
+     * @return The quantities restored, by product ID.
+     * @throws SQLException If an SQL error occurs while restoring the stock.
+     */
+    private Map<Integer, Integer> restoreProductStock(Connection connection, Collection<Integer> orderIds) throws SQLException {
+        Map<Integer, Integer> productQuantities = new TreeMap<>();
+        if (orderIds.isEmpty()) {
+            return productQuantities;
+        }
+        String query = "SELECT product_id, SUM(quantity) AS quantity FROM order_items " +
+                "WHERE order_id IN (" + String.join(", ", Collections.nCopies(orderIds.size(), "?")) + ") " +
+                "AND item_type = 'product' AND product_id IS NOT NULL GROUP BY product_id";
+
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            int index = 1;
+            for (int orderId : orderIds) {
+                stmt.setInt(index++, orderId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    productQuantities.put(rs.getInt("product_id"), rs.getInt("quantity"));
+                }
+            }
+        }
+        InventoryService.getInstance().journal(connection, productQuantities);
+        return productQuantities;
+    }
+
     /**
      * Restores the available seats for tickets when an order is canceled.
      *
@@ -172,34 +331,27 @@ public class OrderDAO {
      * @return true if the seats are successfully restored; false otherwise.
      */
     public boolean restoreSeats(int orderId) {
-        String query = """
-            UPDATE schedules s
-            SET s.available_seats = s.available_seats + 
-                (SELECT COUNT(*) 
-                 FROM order_items oi 
-                 WHERE oi.order_id = ? 
-                 AND oi.item_type = 'ticket' 
-                 AND oi.schedule_id = s.schedule_id)
-            WHERE EXISTS (
-                SELECT 1 
-                FROM order_items oi 
-                WHERE oi.order_id = ? 
-                AND oi.item_type = 'ticket' 
-                AND oi.schedule_id = s.schedule_id
-            )
-        """;
-
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, orderId);
-            stmt.setInt(2, orderId);
-
-            return stmt.executeUpdate() > 0;
+        try (Connection connection = DBConnection.getConnection()) {
+            return restoreSeats(connection, orderId);
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
     }
 
+    /**
+     * Restores the available seats for a canceled order on the given connection,
+     * releasing them in the seat maps of their schedules.
+     *
+     * @param connection The connection whose transaction the update takes part in.
+     * @param orderId The ID of the order to be canceled.
+     * @return true if the seats are successfully restored; false otherwise.
+     * @throws SQLException If an SQL error occurs while restoring the seats.
+     */
+    private boolean restoreSeats(Connection connection, int orderId) throws SQLException {
+        return seatMapDAO.releaseOrderSeats(connection, orderId);
+    }
+
     /**
      * Retrieves orders from the database that fall within the specified date range.
      *
@@ -208,18 +360,30 @@ public class OrderDAO {
      * @return A list of orders within the specified date range.
      */
     public List<Order> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        String query = "SELECT * FROM orders WHERE order_date BETWEEN ? AND ?";
+        String query = "SELECT " + ORDER_SUMMARY_COLUMNS + " FROM orders o WHERE o.order_date BETWEEN ? AND ?";
+        String itemQuery = """
+            SELECT oi.*
+            FROM order_items oi
+            JOIN orders o ON oi.order_id = o.order_id
+            WHERE o.order_date BETWEEN ? AND ?
+        """;
         List<Order> orders = new ArrayList<>();
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query);
+             PreparedStatement itemStmt = connection.prepareStatement(itemQuery)) {
             stmt.setTimestamp(1, Timestamp.valueOf(startDate));
             stmt.setTimestamp(2, Timestamp.valueOf(endDate));
 
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
-                Order order = extractOrderFromResultSet(rs);
-                order.setOrderItems(getOrderItemsForOrder(order.getOrderId()));
-                orders.add(order);
+                orders.add(extractOrderFromResultSet(rs));
+            }
+
+            itemStmt.setTimestamp(1, Timestamp.valueOf(startDate));
+            itemStmt.setTimestamp(2, Timestamp.valueOf(endDate));
+            try (ResultSet itemRs = itemStmt.executeQuery()) {
+                attachOrderItems(orders, itemRs);
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -233,26 +397,191 @@ public class OrderDAO {
      * @return A list of all orders in the database.
      */
     public List<Order> getAllOrders() {
-        String query = "SELECT * FROM orders ORDER BY order_date DESC";
+        String query = "SELECT " + ORDER_SUMMARY_COLUMNS + " FROM orders o ORDER BY o.order_date DESC";
+        String itemQuery = "SELECT * FROM order_items";
         List<Order> orders = new ArrayList<>();
 
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             Statement stmt = connection.createStatement()) {
 
-            while (rs.next()) {
-                Order order = extractOrderFromResultSet(rs);
-                order.setOrderItems(getOrderItemsForOrder(order.getOrderId()));
-                orders.add(order);
+            try (ResultSet rs = stmt.executeQuery(query)) {
+                while (rs.next()) {
+                    orders.add(extractOrderFromResultSet(rs));
+                }
+            }
+
+            try (ResultSet itemRs = stmt.executeQuery(itemQuery)) {
+                attachOrderItems(orders, itemRs);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return orders;
+    }
+
+    /**
+     * Retrieves a single order with its items.
+     *
+     * @param orderId The ID of the order.
+     * @return The order, or null if it does not exist.
+     */
+    public Order findOrderById(int orderId) {
+        String query = "SELECT " + ORDER_SUMMARY_COLUMNS + " FROM orders o WHERE o.order_id = ?";
+        String itemQuery = "SELECT * FROM order_items WHERE order_id = ?";
+        List<Order> orders = new ArrayList<>();
+
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query);
+             PreparedStatement itemStmt = connection.prepareStatement(itemQuery)) {
+            stmt.setInt(1, orderId);
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                orders.add(extractOrderFromResultSet(rs));
+            } else {
+                return null;
+            }
+
+            itemStmt.setInt(1, orderId);
+            try (ResultSet itemRs = itemStmt.executeQuery()) {
+                attachOrderItems(orders, itemRs);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+        return orders.get(0);
+    }
+
+    /**
+     * Retrieves one page of orders, newest first, using keyset pagination on (order_date, order_id).
+     *
+     * Instead of an OFFSET, a page starts right after a given order, so each page is read from
+     * the order date index in the same time however deep into the history it lies. The filter is
+     * applied by the database, and orders are read until the page is full.
+     *
+     * @param filter The filter the orders must match.
+     * @param anchor The order the page starts next to, or null for the newest page.
+     * @param older true to read the orders that come after the anchor in the list (older ones),
+     *              false to read those that come before it (newer ones).
+     * @param limit The maximum number of orders to read.
+     * @return The orders of the page with their items, newest first, or an empty list if an error occurs.
+     */
+    public List<Order> getOrderPage(OrderFilter filter, Order anchor, boolean older, int limit) {
+        StringBuilder query = new StringBuilder("SELECT " + ORDER_SUMMARY_COLUMNS + " FROM orders o WHERE 1 = 1");
+        List<Object> parameters = new ArrayList<>();
+
+        if (anchor != null) {
+            String comparison = older ? "<" : ">";
+            query.append(" AND o.order_date ").append(comparison).append("= ?")
+                    .append(" AND (o.order_date ").append(comparison).append(" ? OR o.order_id ")
+                    .append(comparison).append(" ?)");
+            parameters.add(Timestamp.valueOf(anchor.getOrderDate()));
+            parameters.add(Timestamp.valueOf(anchor.getOrderDate()));
+            parameters.add(anchor.getOrderId());
+        }
+        appendFilter(query, parameters, filter);
+        String direction = older ? "DESC" : "ASC";
+        query.append(" ORDER BY o.order_date ").append(direction).append(", o.order_id ").append(direction)
+                .append(" LIMIT ?");
+        parameters.add(limit);
+
+        List<Order> orders = new ArrayList<>();
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query.toString())) {
+            for (int i = 0; i < parameters.size(); i++) {
+                stmt.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    orders.add(extractOrderFromResultSet(rs));
+                }
+            }
+            if (!older) {
+                // Newer orders were read closest to the anchor first
+                Collections.reverse(orders);
+            }
+            if (orders.isEmpty()) {
+                return orders;
+            }
+
+            String itemQuery = "SELECT * FROM order_items WHERE order_id IN ("
+                    + String.join(", ", Collections.nCopies(orders.size(), "?")) + ")";
+            try (PreparedStatement itemStmt = connection.prepareStatement(itemQuery)) {
+                for (int i = 0; i < orders.size(); i++) {
+                    itemStmt.setInt(i + 1, orders.get(i).getOrderId());
+                }
+                try (ResultSet itemRs = itemStmt.executeQuery()) {
+                    attachOrderItems(orders, itemRs);
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
+            return new ArrayList<>();
         }
         return orders;
     }
 
+    /**
+     * Appends the conditions of a filter to an orders query.
+     *
+     * @param query The query, whose orders table is aliased as o.
+     * @param parameters The query parameters, to which the filter's are added.
+     * @param filter The filter to apply.
+     */
+    private void appendFilter(StringBuilder query, List<Object> parameters, OrderFilter filter) {
+        if (filter.getStatus() != null) {
+            query.append(" AND o.status = ?");
+            parameters.add(filter.getStatus());
+        }
+
+        String hasTickets = "EXISTS (SELECT 1 FROM order_items t WHERE t.order_id = o.order_id AND t.item_type = 'ticket')";
+        String hasProducts = "EXISTS (SELECT 1 FROM order_items p WHERE p.order_id = o.order_id AND p.item_type = 'product')";
+        if (filter.getOrderType() != null) {
+            switch (filter.getOrderType()) {
+                case "Ticket" -> query.append(" AND ").append(hasTickets).append(" AND NOT ").append(hasProducts);
+                case "Product" -> query.append(" AND NOT ").append(hasTickets).append(" AND ").append(hasProducts);
+                case "Mixed" -> query.append(" AND ").append(hasTickets).append(" AND ").append(hasProducts);
+                default -> { }
+            }
+        }
+
+        String searchText = filter.getSearchText();
+        if (searchText != null && !searchText.isEmpty()) {
+            String pattern = "%" + searchText.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            query.append(" AND (CAST(o.order_id AS CHAR) LIKE ?")
+                    .append(" OR EXISTS (SELECT 1 FROM order_items s WHERE s.order_id = o.order_id")
+                    .append(" AND CONCAT(s.occupant_first_name, ' ', s.occupant_last_name) LIKE ?))");
+            parameters.add(pattern);
+            parameters.add(pattern);
+        }
+    }
+
+    /**
+     * Distributes the order items of a result set over the orders they belong to in a single pass.
+     * Items whose order is not in the list are ignored, and orders without items get an empty list.
+     *
+     * @param orders The orders to fill in.
+     * @param itemRs A ResultSet of order_items rows covering the given orders.
+     * @throws SQLException If an SQL error occurs while reading the items.
+     */
+    private void attachOrderItems(List<Order> orders, ResultSet itemRs) throws SQLException {
+        Map<Integer, Order> ordersById = new HashMap<>(orders.size() * 2);
+        for (Order order : orders) {
+            order.setOrderItems(new ArrayList<>());
+            ordersById.put(order.getOrderId(), order);
+        }
+
+        while (itemRs.next()) {
+            Order order = ordersById.get(itemRs.getInt("order_id"));
+            if (order != null) {
+                order.getOrderItems().add(extractOrderItemFromResultSet(itemRs));
+            }
+        }
+    }
+
     /**
      * Processes the cancellation of an order by updating stock and seat availability.
-     * Also calculates any applicable refunds.
+     * Also calculates any applicable refunds and updates the revenue rollup.
      *
      * @param orderId The ID of the order to be canceled.
      * @param cancelProducts Whether to cancel the products in the order.
@@ -260,115 +589,114 @@ public class OrderDAO {
      * @return true if the cancellation is successfully processed; false otherwise.
      */
     public boolean processCancellation(int orderId, boolean cancelProducts, boolean cancelTickets) {
-        try {
+        InventoryService inventory = InventoryService.getInstance();
+        try (Connection connection = DBConnection.getConnection()) {
             connection.setAutoCommit(false);
-            boolean productRestored = true;
-            boolean seatsRestored = true;
 
-            // Conditional product stock restoration
-            if (cancelProducts) {
-                productRestored = restoreProductStock(orderId);
-                if (!productRestored) {
-                    connection.rollback();
-                    return false;
+            try {
+                Map<Integer, Integer> productQuantities = Map.of();
+                boolean seatsRestored = true;
+
+                // Conditional product stock restoration
+                if (cancelProducts) {
+                    productQuantities = restoreProductStock(connection, List.of(orderId));
+                }
+
+                // Conditional seat availability restoration
+                if (cancelTickets) {
+                    seatsRestored = restoreSeats(connection, orderId);
+                    if (!seatsRestored) {
+                        connection.rollback();
+                        return false;
+                    }
                 }
-            }
 
-            // Conditional seat availability restoration
-            if (cancelTickets) {
-                seatsRestored = restoreSeats(orderId);
-                if (!seatsRestored) {
+                // Determine final order status
+                String newStatus;
+                if (cancelProducts && cancelTickets) {
+                    newStatus = "PROCESSED_FULL";
+                } else if (cancelProducts) {
+                    newStatus = "PROCESSED_PRODUCTS";
+                } else if (cancelTickets) {
+                    newStatus = "PROCESSED_TICKETS";
+                } else {
                     connection.rollback();
                     return false;
                 }
-            }
 
-            // Determine final order status
-            String newStatus;
-            if (cancelProducts && cancelTickets) {
-                newStatus = "PROCESSED_FULL";
-            } else if (cancelProducts) {
-                newStatus = "PROCESSED_PRODUCTS";
-            } else if (cancelTickets) {
-                newStatus = "PROCESSED_TICKETS";
-            } else {
-                connection.rollback();
-                return false;
-            }
-
-            // Calculate refund amounts for products and tickets with tax
-            BigDecimal refundAmount = BigDecimal.ZERO;
-
-            if (cancelProducts) {
-                String productRefundQuery = """
-                SELECT COALESCE(SUM(
-                    (item_price * quantity) * (1 + 0.10)  -- 10% tax for products
-                ), 0) 
-                FROM order_items 
-                WHERE order_id = ? AND item_type = 'product'
-            """;
-                try (PreparedStatement stmt = connection.prepareStatement(productRefundQuery)) {
-                    stmt.setInt(1, orderId);
-                    try (ResultSet rs = stmt.executeQuery()) {
-                        if (rs.next()) {
-                            refundAmount = refundAmount.add(rs.getBigDecimal(1));
+                // Calculate refund amounts for products and tickets with tax
+                BigDecimal refundAmount = BigDecimal.ZERO;
+
+                if (cancelProducts) {
+                    String productRefundQuery = """
+                    SELECT COALESCE(SUM(
+                        (item_price * quantity) * (1 + 0.10)  -- 10% tax for products
+                    ), 0) 
+                    FROM order_items 
+                    WHERE order_id = ? AND item_type = 'product'
+                """;
+                    try (PreparedStatement stmt = connection.prepareStatement(productRefundQuery)) {
+                        stmt.setInt(1, orderId);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            if (rs.next()) {
+                                refundAmount = refundAmount.add(rs.getBigDecimal(1));
+                            }
                         }
                     }
                 }
-            }
 
-            if (cancelTickets) {
-                String ticketRefundQuery = """
-                SELECT COALESCE(SUM(
-                    (item_price * quantity) * (1 + 0.20)  -- 20% tax for tickets
-                ), 0) 
-                FROM order_items 
-                WHERE order_id = ? AND item_type = 'ticket'
-            """;
-                try (PreparedStatement stmt = connection.prepareStatement(ticketRefundQuery)) {
-                    stmt.setInt(1, orderId);
-                    try (ResultSet rs = stmt.executeQuery()) {
-                        if (rs.next()) {
-                            refundAmount = refundAmount.add(rs.getBigDecimal(1));
+                if (cancelTickets) {
+                    String ticketRefundQuery = """
+                    SELECT COALESCE(SUM(
+                        (item_price * quantity) * (1 + 0.20)  -- 20% tax for tickets
+                    ), 0) 
+                    FROM order_items 
+                    WHERE order_id = ? AND item_type = 'ticket'
+                """;
+                    try (PreparedStatement stmt = connection.prepareStatement(ticketRefundQuery)) {
+                        stmt.setInt(1, orderId);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            if (rs.next()) {
+                                refundAmount = refundAmount.add(rs.getBigDecimal(1));
+                            }
                         }
                     }
                 }
-            }
 
-            // Update order status and refunded amount
-            String updateQuery = "UPDATE orders SET status = ?, refunded_amount = refunded_amount + ? WHERE order_id = ?";
+                // Take the order out of the revenue rollup; what still counts is put back below
+                revenueDAO.removeOrder(connection, orderId);
 
-            try (PreparedStatement stmt = connection.prepareStatement(updateQuery)) {
-                stmt.setString(1, newStatus);
+                // Update order status and refunded amount
+                String updateQuery = "UPDATE orders SET status = ?, refunded_amount = refunded_amount + ? WHERE order_id = ?";
 
-                // Add the calculated refund amount (including tax) to refunded_amount
-                stmt.setBigDecimal(2, refundAmount);
-                stmt.setInt(3, orderId);
+                try (PreparedStatement stmt = connection.prepareStatement(updateQuery)) {
+                    stmt.setString(1, newStatus);
 
-                int result = stmt.executeUpdate();
+                    // Add the calculated refund amount (including tax) to refunded_amount
+                    stmt.setBigDecimal(2, refundAmount);
+                    stmt.setInt(3, orderId);
 
-                if (result > 0) {
-                    connection.commit();
-                    return true;
-                } else {
-                    connection.rollback();
-                    return false;
+                    int result = stmt.executeUpdate();
+
+                    if (result > 0) {
+                        revenueDAO.addOrder(connection, orderId);
+                        changeBus.record(connection, ChangeEvent.Entity.ORDER, ChangeEvent.Type.UPDATED, orderId);
+                        inventory.commit(connection, productQuantities);
+                        inventory.release(productQuantities);
+                        changeBus.pollNow();
+                        return true;
+                    } else {
+                        connection.rollback();
+                        return false;
+                    }
                 }
-            }
-        } catch (SQLException e) {
-            try {
+            } catch (SQLException e) {
                 connection.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
+                throw e;
             }
+        } catch (SQLException e) {
             e.printStackTrace();
             return false;
-        } finally {
-            try {
-                connection.setAutoCommit(true);
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -381,9 +709,14 @@ public class OrderDAO {
     public boolean rejectCancellation(int orderId) {
         String query = "UPDATE orders SET status = 'REJECTED' WHERE order_id = ? AND status = 'PENDING'";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, orderId);
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() > 0) {
+                changeBus.publish(connection, ChangeEvent.Entity.ORDER, ChangeEvent.Type.UPDATED, orderId);
+                return true;
+            }
+            return false;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -399,13 +732,16 @@ public class OrderDAO {
         String query = """
         SELECT 
             COUNT(CASE WHEN status = 'PENDING' THEN 1 END) as pending_count,
-            COUNT(CASE WHEN status IN ('PROCESSED_FULL', 'PROCESSED_TICKETS', 'PROCESSED_PRODUCTS') AND DATE(order_date) = CURRENT_DATE THEN 1 END) as processed_today,
-            SUM(CASE WHEN status IN ('PROCESSED_FULL', 'PROCESSED_TICKETS', 'PROCESSED_PRODUCTS') AND DATE(order_date) = CURRENT_DATE THEN refunded_amount END) as refunded_today
+            COUNT(CASE WHEN status <> 'PENDING' THEN 1 END) as processed_today,
+            SUM(CASE WHEN status <> 'PENDING' THEN refunded_amount END) as refunded_today
         FROM orders
-        WHERE status IN ('PENDING', 'PROCESSED_FULL', 'PROCESSED_TICKETS', 'PROCESSED_PRODUCTS')
+        WHERE status = 'PENDING'
+           OR (status IN ('PROCESSED_FULL', 'PROCESSED_TICKETS', 'PROCESSED_PRODUCTS')
+               AND order_date >= CURRENT_DATE AND order_date < CURRENT_DATE + INTERVAL 1 DAY)
     """;
 
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = DBConnection.getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
 
             if (rs.next()) {
@@ -422,30 +758,7 @@ public class OrderDAO {
     }
 
     /**
-     * Retrieves all order items associated with a specific order.
-     *
-     * @param orderId The ID of the order.
-     * @return A list of order items for the specified order.
-     */
-    private List<OrderItem> getOrderItemsForOrder(int orderId) {
-        String query = "SELECT * FROM order_items WHERE order_id = ?";
-        List<OrderItem> items = new ArrayList<>();
-
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, orderId);
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                items.add(extractOrderItemFromResultSet(rs));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return items;
-    }
-
-    /**
-     * Stores receipt and ticket PDFs for an order.
+     * Stores receipt and ticket PDFs for an order and marks its documents as ready.
      *
      * @param orderId The ID of the order.
      * @param receiptPdf The receipt PDF as a byte array.
@@ -453,9 +766,10 @@ public class OrderDAO {
      * @return true if the PDFs are successfully stored; false otherwise.
      */
     public boolean storeDocuments(int orderId, byte[] receiptPdf, byte[] ticketsPdf) {
-        String query = "UPDATE orders SET receipt_pdf = ?, tickets_pdf = ? WHERE order_id = ?";
+        String query = "UPDATE orders SET receipt_pdf = ?, tickets_pdf = ?, documents_status = 'READY' WHERE order_id = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
 
             // Handle null PDFs gracefully
             if (receiptPdf != null) {
@@ -472,6 +786,30 @@ public class OrderDAO {
 
             stmt.setInt(3, orderId);
 
+            if (stmt.executeUpdate() > 0) {
+                // The order now has its documents to view
+                changeBus.publish(connection, ChangeEvent.Entity.ORDER, ChangeEvent.Type.UPDATED, orderId);
+                return true;
+            }
+            return false;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Marks the documents of an order as failed, after rendering them was given up.
+     *
+     * @param orderId The ID of the order.
+     * @return true if the order is updated; false otherwise.
+     */
+    public boolean markDocumentsFailed(int orderId) {
+        String query = "UPDATE orders SET documents_status = 'FAILED' WHERE order_id = ? AND documents_status = 'PENDING'";
+
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, orderId);
             return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -480,19 +818,21 @@ public class OrderDAO {
     }
 
     /**
-     * Retrieves the receipt PDF for a specific order.
+     * Retrieves the rendering state of an order's documents.
      *
      * @param orderId The ID of the order.
-     * @return The receipt PDF as a byte array, or null if not found.
+     * @return "PENDING", "READY" or "FAILED", or null if the order does not exist.
      */
-    public byte[] retrieveReceipt(int orderId) {
-        String query = "SELECT receipt_pdf FROM orders WHERE order_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+    public String getDocumentsStatus(int orderId) {
+        String query = "SELECT documents_status FROM orders WHERE order_id = ?";
+
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, orderId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getBytes("receipt_pdf");
-                }
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return rs.getString("documents_status");
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -501,24 +841,111 @@ public class OrderDAO {
     }
 
     /**
-     * Retrieves the tickets PDF for a specific order.
+     * Retrieves the IDs of orders whose documents are still waiting to be rendered, oldest first.
+     * Only orders placed before the given time are included, so orders whose documents another
+     * till is still rendering are left to it.
+     *
+     * @param placedBefore The time the orders must have been placed before.
+     * @return The IDs of the orders with pending documents.
+     */
+    public List<Integer> getOrderIdsWithPendingDocuments(LocalDateTime placedBefore) {
+        String query = "SELECT order_id FROM orders WHERE documents_status = 'PENDING' AND order_date < ? ORDER BY order_id";
+        List<Integer> orderIds = new ArrayList<>();
+
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(placedBefore));
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                orderIds.add(rs.getInt("order_id"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return orderIds;
+    }
+
+    /**
+     * Retrieves the IDs of orders whose documents could not be rendered, oldest first.
+     *
+     * @return The IDs of the orders with failed documents.
+     */
+    public List<Integer> getOrderIdsWithFailedDocuments() {
+        String query = "SELECT order_id FROM orders WHERE documents_status = 'FAILED' ORDER BY order_id";
+        List<Integer> orderIds = new ArrayList<>();
+
+        try (Connection connection = DBConnection.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+
+            while (rs.next()) {
+                orderIds.add(rs.getInt("order_id"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return orderIds;
+    }
+
+    /**
+     * Marks the failed documents of an order as pending again, so they can be rendered once more.
+     * When several tills try this for the same order, only one succeeds and renders it again.
      *
      * @param orderId The ID of the order.
-     * @return The tickets PDF as a byte array, or null if not found.
+     * @return true if the documents were failed and are now pending; false otherwise.
      */
-    public byte[] retrieveTickets(int orderId) {
-        String query = "SELECT tickets_pdf FROM orders WHERE order_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+    public boolean retryDocuments(int orderId) {
+        String query = "UPDATE orders SET documents_status = 'PENDING' WHERE order_id = ? AND documents_status = 'FAILED'";
+
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, orderId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getBytes("tickets_pdf");
-                }
-            }
+            return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
             e.printStackTrace();
+            return false;
         }
-        return null;
+    }
+
+    /**
+     * Retrieves the receipt PDF for a specific order.
+     *
+     * @param orderId The ID of the order.
+     * @return The receipt PDF as a byte array, or null if not found.
+     */
+    public byte[] retrieveReceipt(int orderId) {
+        return getReceiptDocument(orderId).load();
+    }
+
+    /**
+     * Retrieves the tickets PDF for a specific order.
+     *
+     * @param orderId The ID of the order.
+     * @return The tickets PDF as a byte array, or null if not found.
+     */
+    public byte[] retrieveTickets(int orderId) {
+        return getTicketsDocument(orderId).load();
+    }
+
+    /**
+     * Provides a lazy handle to the receipt PDF of an order. No data is read until the handle is used.
+     *
+     * @param orderId The ID of the order.
+     * @return A handle that streams the receipt on demand.
+     */
+    public OrderDocument getReceiptDocument(int orderId) {
+        return new OrderDocument(orderId, OrderDocument.Type.RECEIPT);
+    }
+
+    /**
+     * Provides a lazy handle to the tickets PDF of an order. No data is read until the handle is used.
+     *
+     * @param orderId The ID of the order.
+     * @return A handle that streams the tickets on demand.
+     */
+    public OrderDocument getTicketsDocument(int orderId) {
+        return new OrderDocument(orderId, OrderDocument.Type.TICKETS);
     }
 
     /**
@@ -535,6 +962,9 @@ public class OrderDAO {
         order.setOrderDate(rs.getTimestamp("order_date").toLocalDateTime());
         order.setTotalPrice(rs.getBigDecimal("total_price"));
         order.setStatus(rs.getString("status")); // Added status
+        order.setRefundedAmount(rs.getBigDecimal("refunded_amount"));
+        order.setHasReceipt(rs.getBoolean("has_receipt"));
+        order.setHasTickets(rs.getBoolean("has_tickets"));
         return order;
     }
 
@@ -586,4 +1016,69 @@ public class OrderDAO {
         public int getProcessedToday() { return processedToday; }
         public BigDecimal getRefundedToday() { return refundedToday; }
     }
-}
\ No newline at end of file
+
+    /**
+     * The conditions an order must meet to be listed. A null condition matches every order.
+     */
+    public static class OrderFilter {
+        private final String status;
+        private final String orderType;
+        private final String searchText;
+
+        /**
+         * Constructs an OrderFilter object.
+         *
+         * @param status The order status, e.g. "PENDING", or null for any status.
+         * @param orderType "Ticket", "Product" or "Mixed" for orders with only tickets, only
+         *                  products or both, or null for any order.
+         * @param searchText Text the order ID or an occupant's full name must contain, or null.
+         */
+        public OrderFilter(String status, String orderType, String searchText) {
+            this.status = status;
+            this.orderType = orderType;
+            this.searchText = searchText;
+        }
+
+        public String getStatus() { return status; }
+        public String getOrderType() { return orderType; }
+        public String getSearchText() { return searchText; }
+
+        /**
+         * Checks whether an order passes the filter the way {@link #getOrderPage} decides it,
+         * for an order read with its items, such as one that changed while it was listed.
+         *
+         * @param order The order to check, with its items.
+         * @return true if the order matches the filter.
+         */
+        public boolean matches(Order order) {
+            if (status != null && !status.equals(order.getStatus())) {
+                return false;
+            }
+
+            List<OrderItem> items = order.getOrderItems();
+            boolean hasTickets = items.stream().anyMatch(item -> "ticket".equals(item.getItemType()));
+            boolean hasProducts = items.stream().anyMatch(item -> "product".equals(item.getItemType()));
+            if (orderType != null) {
+                boolean typeMatches = switch (orderType) {
+                    case "Ticket" -> hasTickets && !hasProducts;
+                    case "Product" -> !hasTickets && hasProducts;
+                    case "Mixed" -> hasTickets && hasProducts;
+                    default -> true;
+                };
+                if (!typeMatches) {
+                    return false;
+                }
+            }
+
+            if (searchText != null && !searchText.isEmpty()) {
+                String text = searchText.toLowerCase(Locale.ROOT);
+                return String.valueOf(order.getOrderId()).contains(text)
+                        || items.stream().anyMatch(item -> item.getOccupantFirstName() != null
+                                && item.getOccupantLastName() != null
+                                && (item.getOccupantFirstName() + " " + item.getOccupantLastName())
+                                        .toLowerCase(Locale.ROOT).contains(text));
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.group18.dao;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A lazy handle to one of the PDF documents stored with an order.
+ * Creating a handle does not touch the database; the BLOB is only read when
+ * {@link #writeTo(OutputStream)} or {@link #load()} is called, and is streamed
+ * from the result set rather than materialized when written to a stream.
+ */
+public class OrderDocument {
+
+    /**
+     * The kinds of documents stored on the 'orders' table, with the column holding each.
+     */
+    public enum Type {
+        RECEIPT("receipt_pdf"),
+        TICKETS("tickets_pdf");
+
+        private final String column;
+
+        Type(String column) {
+            this.column = column;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+    }
+
+    private final int orderId;
+    private final Type type;
+
+    /**
+     * Constructs a handle to a document of an order.
+     *
+     * @param orderId The ID of the order the document belongs to.
+     * @param type The kind of document.
+     */
+    OrderDocument(int orderId, Type type) {
+        this.orderId = orderId;
+        this.type = type;
+    }
+
+    public int getOrderId() { return orderId; }
+    public Type getType() { return type; }
+
+    /**
+     * Streams the document into the given output stream.
+     *
+     * @param out The stream to copy the PDF into; it is not closed.
+     * @return true if the document exists and was written; false if none is stored or it could not be read.
+     * @throws IOException If writing to the output stream fails.
+     */
+    public boolean writeTo(OutputStream out) throws IOException {
+        String query = "SELECT " + type.getColumn() + " FROM orders WHERE order_id = ?";
+
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, orderId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    try (InputStream in = rs.getBinaryStream(1)) {
+                        if (in != null) {
+                            in.transferTo(out);
+                            return true;
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Reads the whole document into memory.
+     *
+     * @return The PDF as a byte array, or null if none is stored.
+     */
+    public byte[] load() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            return writeTo(buffer) ? buffer.toByteArray() : null;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
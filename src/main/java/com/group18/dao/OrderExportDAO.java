@@ -0,0 +1,143 @@
+package com.group18.dao;
+
+import com.group18.export.OrderExportRow;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Data Access Object (DAO) that reads the order history for export.
+ *
+ * Unlike {@link OrderDAO#getAllOrders()}, which builds a list of every order, the rows are
+ * streamed from the server through a forward-only, read-only cursor and handed to the caller
+ * one at a time, and the PDF BLOBs are never selected. Memory use therefore stays the same
+ * however many years of orders are exported.
+ */
+public class OrderExportDAO {
+    /**
+     * Receives exported rows as they are read.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * Handles a row.
+         *
+         * @param row the row read
+         * @throws IOException if the row cannot be written
+         */
+        void accept(OrderExportRow row) throws IOException;
+    }
+
+    private static final String EXPORT_QUERY = """
+        SELECT o.order_id, o.order_date, o.cashier_id, o.status, o.total_price, o.refunded_amount,
+               oi.order_item_id, oi.item_type, oi.schedule_id, oi.seat_number, oi.product_id,
+               oi.quantity, oi.item_price, oi.discount_applied
+        FROM orders o
+        LEFT JOIN order_items oi ON oi.order_id = o.order_id
+        WHERE o.order_date >= ? AND o.order_date < ? AND o.status IN (%s)
+        ORDER BY o.order_date, o.order_id, oi.order_item_id
+        """;
+
+    private static final String COUNT_QUERY = """
+        SELECT COUNT(*)
+        FROM orders o
+        LEFT JOIN order_items oi ON oi.order_id = o.order_id
+        WHERE o.order_date >= ? AND o.order_date < ? AND o.status IN (%s)
+        """;
+
+    /**
+     * Counts the rows an export of a period would write.
+     *
+     * @param from The start of the period, inclusive.
+     * @param to The end of the period, exclusive.
+     * @param statuses The order statuses to include.
+     * @return The number of rows, one per order item and one per order without items.
+     * @throws SQLException If an SQL error occurs while counting.
+     */
+    public long countRows(LocalDateTime from, LocalDateTime to, Collection<String> statuses) throws SQLException {
+        if (statuses.isEmpty()) {
+            return 0;
+        }
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(withStatuses(COUNT_QUERY, statuses))) {
+            setParameters(stmt, from, to, statuses);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Streams the rows of a period to a handler, in order of the order date.
+     *
+     * @param from The start of the period, inclusive.
+     * @param to The end of the period, exclusive.
+     * @param statuses The order statuses to include.
+     * @param handler Receives each row.
+     * @throws SQLException If an SQL error occurs while reading.
+     * @throws IOException If the handler fails to write a row.
+     */
+    public void streamRows(LocalDateTime from, LocalDateTime to, Collection<String> statuses,
+                           RowHandler handler) throws SQLException, IOException {
+        if (statuses.isEmpty()) {
+            return;
+        }
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(withStatuses(EXPORT_QUERY, statuses),
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // With Connector/J, this fetch size makes the server stream rows instead of the
+            // driver buffering the whole result
+            if (DBConnection.isMySQL()) {
+                stmt.setFetchSize(Integer.MIN_VALUE);
+            }
+            setParameters(stmt, from, to, statuses);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.accept(extractRow(rs));
+                }
+            }
+        }
+    }
+
+    private static String withStatuses(String query, Collection<String> statuses) {
+        return String.format(query, String.join(", ", Collections.nCopies(statuses.size(), "?")));
+    }
+
+    private static void setParameters(PreparedStatement stmt, LocalDateTime from, LocalDateTime to,
+                                      Collection<String> statuses) throws SQLException {
+        stmt.setTimestamp(1, Timestamp.valueOf(from));
+        stmt.setTimestamp(2, Timestamp.valueOf(to));
+        int index = 3;
+        for (String status : statuses) {
+            stmt.setString(index++, status);
+        }
+    }
+
+    private OrderExportRow extractRow(ResultSet rs) throws SQLException {
+        int orderItemId = rs.getInt("order_item_id");
+        boolean hasItem = !rs.wasNull();
+        return new OrderExportRow(
+                rs.getInt("order_id"),
+                rs.getTimestamp("order_date").toLocalDateTime(),
+                rs.getInt("cashier_id"),
+                rs.getString("status"),
+                rs.getBigDecimal("total_price"),
+                rs.getBigDecimal("refunded_amount"),
+                hasItem ? orderItemId : null,
+                rs.getString("item_type"),
+                rs.getObject("schedule_id", Integer.class),
+                rs.getObject("seat_number", Integer.class),
+                rs.getObject("product_id", Integer.class),
+                hasItem ? rs.getInt("quantity") : null,
+                rs.getBigDecimal("item_price"),
+                hasItem ? rs.getBoolean("discount_applied") : null);
+    }
+}
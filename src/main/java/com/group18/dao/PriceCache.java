@@ -0,0 +1,143 @@
+package com.group18.dao;
+
+import com.group18.model.PriceSnapshot;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the current {@link PriceSnapshot} of this till in memory.
+ *
+ * Reading prices is a memory read. Prices changed from this till are written through: the
+ * snapshot is replaced right after the change is stored. Changes made from other tills
+ * are noticed by comparing the pricing version counter in the background, which costs a
+ * single-row primary key read; the prices themselves are only reloaded when it has moved.
+ *
+ * This class follows the Singleton design pattern so every screen prices from one snapshot.
+ */
+public class PriceCache {
+    /** How often the pricing version is compared with the database. */
+    private static final long VERSION_CHECK_INTERVAL_SECONDS = 5;
+
+    private static PriceCache instance;
+
+    private final AtomicReference<PriceSnapshot> snapshot = new AtomicReference<>();
+    private final ScheduledExecutorService versionCheck = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "price-version-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private PriceCache() {
+        versionCheck.scheduleWithFixedDelay(this::checkVersion,
+                VERSION_CHECK_INTERVAL_SECONDS, VERSION_CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Provides the price cache of this till.
+     *
+     * @return the singleton instance of the PriceCache class
+     */
+    public static synchronized PriceCache getInstance() {
+        if (instance == null) {
+            instance = new PriceCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Retrieves the current prices, loading them on first use.
+     *
+     * @return the current snapshot, or {@link PriceSnapshot#EMPTY} if prices could not be loaded yet
+     */
+    public PriceSnapshot get() {
+        PriceSnapshot current = snapshot.get();
+        if (current == null) {
+            current = refresh();
+        }
+        return current;
+    }
+
+    /**
+     * Reloads the prices from the database and replaces the current snapshot, unless a
+     * newer one has been installed in the meantime.
+     *
+     * @return the current snapshot, or {@link PriceSnapshot#EMPTY} if prices could not be loaded
+     */
+    public PriceSnapshot refresh() {
+        PriceSnapshot loaded;
+        try (Connection connection = DBConnection.getConnection()) {
+            loaded = load(connection);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            PriceSnapshot current = snapshot.get();
+            return current != null ? current : PriceSnapshot.EMPTY;
+        }
+        return snapshot.accumulateAndGet(loaded,
+                (current, fresh) -> current == null || fresh.getVersion() >= current.getVersion() ? fresh : current);
+    }
+
+    /**
+     * Stops the background version check.
+     */
+    public void shutdown() {
+        versionCheck.shutdownNow();
+    }
+
+    /**
+     * Reloads the prices if another till has changed them since the current snapshot was read.
+     */
+    private void checkVersion() {
+        PriceSnapshot current = snapshot.get();
+        if (current == null) {
+            return;
+        }
+        try (Connection connection = DBConnection.getConnection();
+             Statement stmt = connection.createStatement()) {
+            if (readVersion(stmt) != current.getVersion()) {
+                refresh();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Reads a snapshot. The version is read first, so a change landing between the reads
+     * leaves the snapshot looking older than its prices and is simply loaded again.
+     */
+    private PriceSnapshot load(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            long version = readVersion(stmt);
+
+            Map<String, Double> ticketPrices = new HashMap<>();
+            try (ResultSet rs = stmt.executeQuery("SELECT hall, price FROM ticket_prices")) {
+                while (rs.next()) {
+                    ticketPrices.put(rs.getString("hall"), rs.getDouble("price"));
+                }
+            }
+
+            double ageDiscount = 0.0;
+            try (ResultSet rs = stmt.executeQuery("SELECT discount_rate FROM age_discounts WHERE discount_type = 'age'")) {
+                if (rs.next()) {
+                    ageDiscount = rs.getDouble("discount_rate");
+                }
+            }
+            return new PriceSnapshot(version, ticketPrices, ageDiscount);
+        }
+    }
+
+    private long readVersion(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT version FROM pricing_version WHERE id = 1")) {
+            return rs.next() ? rs.getLong("version") : 0;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.group18.dao;
 
 import com.group18.model.PriceHistory;
+import com.group18.model.PriceSnapshot;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -8,15 +9,19 @@ import java.util.List;
 /**
  * Data Access Object (DAO) for managing price-related operations, including ticket prices,
  * age discounts, and logging price changes.
+ * Current prices are read from the in-memory {@link PriceCache} rather than the database.
  */
 public class PriceDAO {
-    private Connection connection;
+    private final PriceCache priceCache = PriceCache.getInstance();
 
     /**
-     * Constructs a new PriceDAO object and initializes the database connection.
+     * Retrieves every current ticket price and discount rate at once. Prices are served from
+     * memory; see {@link PriceCache}.
+     *
+     * @return the current price snapshot
      */
-    public PriceDAO() {
-        this.connection = DBConnection.getConnection();
+    public PriceSnapshot getPriceSnapshot() {
+        return priceCache.get();
     }
 
     /**
@@ -26,23 +31,12 @@ public class PriceDAO {
      * @return the ticket price for the specified hall
      */
     public double getTicketPrice(String hall) {
-        try (Connection connection = DBConnection.getConnection();
-             PreparedStatement pstmt = connection.prepareStatement("SELECT price FROM ticket_prices WHERE hall = ?")) {
-
-            pstmt.setString(1, hall);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getDouble("price");
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return 0.0;
+        return priceCache.get().getTicketPrice(hall);
     }
 
     /**
-     * Updates the ticket price for a specific hall.
+     * Updates the ticket price for a specific hall. Prices read on this till reflect the
+     * change as soon as this method returns.
      *
      * @param hall     the name of the hall
      * @param newPrice the new ticket price to set
@@ -55,6 +49,9 @@ public class PriceDAO {
             pstmt.setDouble(1, newPrice);
             pstmt.setString(2, hall);
             int rowsUpdated = pstmt.executeUpdate();
+            if (rowsUpdated > 0) {
+                priceCache.refresh();
+            }
             return rowsUpdated > 0;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -68,21 +65,12 @@ public class PriceDAO {
      * @return the discount rate for age-based discounts
      */
     public double getAgeDiscount() {
-        try (Connection connection = DBConnection.getConnection();
-             Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT discount_rate FROM age_discounts WHERE discount_type = 'age'")) {
-
-            if (rs.next()) {
-                return rs.getDouble("discount_rate");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return 0.0;
+        return priceCache.get().getAgeDiscount();
     }
 
     /**
-     * Updates the age discount rate.
+     * Updates the age discount rate. Prices read on this till reflect the change as soon
+     * as this method returns.
      *
      * @param newDiscount the new age discount rate
      * @return true if the discount update was successful, false otherwise
@@ -93,6 +81,9 @@ public class PriceDAO {
 
             pstmt.setDouble(1, newDiscount);
             int rowsUpdated = pstmt.executeUpdate();
+            if (rowsUpdated > 0) {
+                priceCache.refresh();
+            }
             return rowsUpdated > 0;
         } catch (SQLException e) {
             e.printStackTrace();
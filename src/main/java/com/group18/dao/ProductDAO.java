@@ -3,23 +3,17 @@ package com.group18.dao;
 import com.group18.model.Product;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.math.BigDecimal;
 
 /**
  * Data Access Object (DAO) for managing product-related operations including retrieving,
  * adding, updating, deleting products, and managing stock levels.
+ * Every change is published on the {@link ChangeBus}.
  */
 public class ProductDAO {
-    private Connection connection;
-
-    /**
-     * Constructs a new ProductDAO object and initializes the database connection.
-     */
-    public ProductDAO() {
-        this.connection = DBConnection.getConnection();
-    }
-
     /**
      * Retrieves a product by its ID.
      *
@@ -29,7 +23,8 @@ public class ProductDAO {
     public Product findById(int productId) {
         String query = "SELECT * FROM products WHERE product_id = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, productId);
             ResultSet rs = stmt.executeQuery();
 
@@ -51,7 +46,8 @@ public class ProductDAO {
         String query = "SELECT * FROM products";
         List<Product> products = new ArrayList<>();
 
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = DBConnection.getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
 
             while (rs.next()) {
@@ -73,7 +69,8 @@ public class ProductDAO {
         String query = "SELECT * FROM products WHERE product_type = ?";
         List<Product> products = new ArrayList<>();
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, type);
             ResultSet rs = stmt.executeQuery();
 
@@ -87,45 +84,32 @@ public class ProductDAO {
     }
 
     /**
-     * Decreases the stock of a product by a specified quantity.
+     * Changes the stock of several products with a single statement on the given connection,
+     * with the changes given as a CASE on the product ID, so that applying a batch of the
+     * inventory journal costs one round trip however many products it touches.
      *
-     * @param productId the ID of the product
-     * @param quantity  the quantity to decrease
-     * @return true if the stock was successfully decreased, false otherwise
+     * @param connection the connection to run the update on
+     * @param changes the change in stock, negative to decrease it, by product ID
+     * @return true if every product exists and was changed, false otherwise
+     * @throws SQLException if the update fails
      */
-    public boolean decreaseStock(int productId, int quantity) {
-        String query = "UPDATE products SET stock = stock - ? WHERE product_id = ? AND stock >= ?";
-
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, quantity);
-            stmt.setInt(2, productId);
-            stmt.setInt(3, quantity);
-
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
+    boolean adjustStock(Connection connection, Map<Integer, Integer> changes) throws SQLException {
+        if (changes.isEmpty()) {
+            return true;
         }
-    }
-
-    /**
-     * Increases the stock of a product by a specified quantity.
-     *
-     * @param productId the ID of the product
-     * @param quantity  the quantity to increase
-     * @return true if the stock was successfully increased, false otherwise
-     */
-    public boolean increaseStock(int productId, int quantity) {
-        String query = "UPDATE products SET stock = stock + ? WHERE product_id = ?";
+        String query = "UPDATE products SET stock = stock + CASE product_id" + " WHEN ? THEN ?".repeat(changes.size())
+                + " END WHERE product_id IN (" + String.join(", ", Collections.nCopies(changes.size(), "?")) + ")";
 
         try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, quantity);
-            stmt.setInt(2, productId);
-
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
+            int index = 1;
+            for (Map.Entry<Integer, Integer> entry : changes.entrySet()) {
+                stmt.setInt(index++, entry.getKey());
+                stmt.setInt(index++, entry.getValue());
+            }
+            for (int productId : changes.keySet()) {
+                stmt.setInt(index++, productId);
+            }
+            return stmt.executeUpdate() == changes.size();
         }
     }
 
@@ -138,7 +122,8 @@ public class ProductDAO {
     public Product addProduct(Product product) {
         String query = "INSERT INTO products (product_name, product_type, price, stock, image_data) VALUES (?, ?, ?, ?, ?)";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, product.getProductName());
             stmt.setString(2, product.getProductType());
             stmt.setBigDecimal(3, product.getPrice());
@@ -158,6 +143,7 @@ public class ProductDAO {
                     throw new SQLException("Creating product failed, no ID obtained.");
                 }
             }
+            ChangeBus.getInstance().publish(connection, ChangeEvent.Entity.PRODUCT, ChangeEvent.Type.CREATED, product.getProductId());
 
             return product;
         } catch (SQLException e) {
@@ -175,9 +161,14 @@ public class ProductDAO {
     public boolean deleteProduct(int productId) {
         String query = "DELETE FROM products WHERE product_id = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, productId);
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() > 0) {
+                ChangeBus.getInstance().publish(connection, ChangeEvent.Entity.PRODUCT, ChangeEvent.Type.DELETED, productId);
+                return true;
+            }
+            return false;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -186,24 +177,32 @@ public class ProductDAO {
 
     /**
      * Updates an existing product in the database.
+     * The stock given is the true stock, so the changes still waiting in the inventory journal
+     * are taken off the stored stock, and the live counts are refreshed right away.
      *
      * @param product the Product object with updated details
      * @return the updated Product object, or null if the update failed
      */
     public Product updateProduct(Product product) {
-        String query = "UPDATE products SET product_name = ?, product_type = ?, price = ?, stock = ?, image_data = ? WHERE product_id = ?";
+        String query = "UPDATE products SET product_name = ?, product_type = ?, price = ?, " +
+                "stock = ? - COALESCE((SELECT SUM(delta) FROM inventory_journal WHERE product_id = ?), 0), " +
+                "image_data = ? WHERE product_id = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, product.getProductName());
             stmt.setString(2, product.getProductType());
             stmt.setBigDecimal(3, product.getPrice());
             stmt.setInt(4, product.getStock());
-            stmt.setBytes(5, product.getImageData());
-            stmt.setInt(6, product.getProductId());
+            stmt.setInt(5, product.getProductId());
+            stmt.setBytes(6, product.getImageData());
+            stmt.setInt(7, product.getProductId());
 
             int affectedRows = stmt.executeUpdate();
 
             if (affectedRows > 0) {
+                ChangeBus.getInstance().publish(connection, ChangeEvent.Entity.PRODUCT, ChangeEvent.Type.UPDATED, product.getProductId());
+                InventoryService.getInstance().refresh();
                 return product;
             }
         } catch (SQLException e) {
@@ -231,7 +230,8 @@ public class ProductDAO {
         )
     """;
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, product.getProductId());
 
             try (ResultSet rs = stmt.executeQuery()) {
@@ -0,0 +1,116 @@
+package com.group18.dao;
+
+import com.group18.model.DailyRevenue;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) for the "revenue_daily" table, a rollup of the revenue of every day
+ * by item type, hall and product type. Reading the revenue of a period touches one small row
+ * per day and group, however many orders the cinema has taken.
+ *
+ * The rollup is maintained by {@link OrderDAO} inside the transactions that create and cancel
+ * orders: an order's items are added when it is created, and when it is cancelled they are
+ * taken out and the items that still count under its new status put back.
+ */
+public class RevenueDAO {
+    /**
+     * Adds or subtracts the items of one order that count as revenue under its current status.
+     * Refunded items are excluded the same way the dashboard always has: nothing of a fully
+     * cancelled order, and no tickets or no products of a partly cancelled one.
+     */
+    private static final String APPLY_ORDER_QUERY = """
+        INSERT INTO revenue_daily (revenue_date, item_type, hall_id, product_type, item_count, revenue)
+        SELECT DATE(o.order_date), oi.item_type, COALESCE(s.hall_id, 0), COALESCE(p.product_type, ''),
+               ? * SUM(oi.quantity), ? * SUM(oi.item_price * oi.quantity)
+        FROM orders o
+        JOIN order_items oi ON oi.order_id = o.order_id
+        LEFT JOIN schedules s ON oi.schedule_id = s.schedule_id
+        LEFT JOIN products p ON oi.product_id = p.product_id
+        WHERE o.order_id = ?
+          AND o.status <> 'PROCESSED_FULL'
+          AND NOT (o.status = 'PROCESSED_TICKETS' AND oi.item_type = 'ticket')
+          AND NOT (o.status = 'PROCESSED_PRODUCTS' AND oi.item_type = 'product')
+        GROUP BY DATE(o.order_date), oi.item_type, COALESCE(s.hall_id, 0), COALESCE(p.product_type, '')
+        ON DUPLICATE KEY UPDATE
+            item_count = item_count + VALUES(item_count),
+            revenue = revenue + VALUES(revenue)
+        """;
+
+    /**
+     * Retrieves the revenue of each day in a period, by item type.
+     *
+     * @param from The first day of the period.
+     * @param to The day after the last day of the period.
+     * @return The revenue of each day and item type that had any sales, in date order.
+     */
+    public List<DailyRevenue> getDailyRevenue(LocalDate from, LocalDate to) {
+        String query = """
+            SELECT revenue_date, item_type, SUM(item_count) AS item_count, SUM(revenue) AS revenue
+            FROM revenue_daily
+            WHERE revenue_date >= ? AND revenue_date < ?
+            GROUP BY revenue_date, item_type
+            HAVING SUM(item_count) <> 0 OR SUM(revenue) <> 0
+            ORDER BY revenue_date, item_type
+        """;
+        List<DailyRevenue> revenue = new ArrayList<>();
+
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(to));
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                revenue.add(new DailyRevenue(
+                        rs.getDate("revenue_date").toLocalDate(),
+                        rs.getString("item_type"),
+                        rs.getInt("item_count"),
+                        rs.getBigDecimal("revenue")));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return revenue;
+    }
+
+    /**
+     * Adds the revenue of an order to the rollup, as part of the caller's transaction.
+     *
+     * @param connection The connection whose transaction creates or updates the order.
+     * @param orderId The ID of the order.
+     * @throws SQLException If an SQL error occurs while updating the rollup.
+     */
+    void addOrder(Connection connection, int orderId) throws SQLException {
+        applyOrder(connection, orderId, 1);
+    }
+
+    /**
+     * Takes the revenue of an order out of the rollup, as part of the caller's transaction.
+     * Called before the order's status changes, so that {@link #addOrder} can put back
+     * what still counts under the new status.
+     *
+     * @param connection The connection whose transaction updates the order.
+     * @param orderId The ID of the order.
+     * @throws SQLException If an SQL error occurs while updating the rollup.
+     */
+    void removeOrder(Connection connection, int orderId) throws SQLException {
+        applyOrder(connection, orderId, -1);
+    }
+
+    private void applyOrder(Connection connection, int orderId, int sign) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(APPLY_ORDER_QUERY)) {
+            stmt.setInt(1, sign);
+            stmt.setInt(2, sign);
+            stmt.setInt(3, orderId);
+            stmt.executeUpdate();
+        }
+    }
+}
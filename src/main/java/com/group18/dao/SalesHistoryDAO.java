@@ -0,0 +1,104 @@
+package com.group18.dao;
+
+import com.group18.analytics.SalesColumns;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Data Access Object (DAO) that reads the sold order items of a period into {@link SalesColumns}
+ * for in-memory analysis.
+ *
+ * The items are streamed from the server row by row in date order and written straight into
+ * the columns, so loading a year of sales never holds more than one row of the result set.
+ * The names of halls, movies, cashiers and products are read once in small separate queries
+ * rather than repeated on every row.
+ */
+public class SalesHistoryDAO {
+    /**
+     * Selects every item of the orders in a period together with its order, in date order.
+     * Times come back as minutes since 1970-01-01 and amounts as cents, ready for the columns.
+     */
+    private static final String SALES_QUERY = """
+        SELECT o.order_id, o.cashier_id, o.status,
+               TIMESTAMPDIFF(MINUTE, '1970-01-01 00:00:00', o.order_date) AS order_minute,
+               oi.item_type, COALESCE(s.hall_id, 0) AS hall_id, COALESCE(s.movie_id, 0) AS movie_id,
+               COALESCE(oi.product_id, 0) AS product_id, oi.quantity,
+               ROUND(oi.item_price * oi.quantity * 100) AS cents
+        FROM orders o
+        JOIN order_items oi ON oi.order_id = o.order_id
+        LEFT JOIN schedules s ON oi.schedule_id = s.schedule_id
+        WHERE o.order_date >= ? AND o.order_date < ?
+        ORDER BY o.order_date, o.order_id
+        """;
+
+    /**
+     * Loads the sold order items of a period, refunded ones included.
+     *
+     * @param from The start of the period, inclusive.
+     * @param to The end of the period, exclusive.
+     * @return The items of the period, or empty columns if an SQL error occurs.
+     */
+    public SalesColumns loadSalesColumns(LocalDateTime from, LocalDateTime to) {
+        SalesColumns.Builder builder = new SalesColumns.Builder();
+        Map<Integer, String> hallNames = new HashMap<>();
+        Map<Integer, String> movieTitles = new HashMap<>();
+        Map<Integer, String> cashierNames = new HashMap<>();
+        Map<Integer, String> productNames = new HashMap<>();
+
+        try (Connection connection = DBConnection.getConnection()) {
+            try (PreparedStatement stmt = connection.prepareStatement(SALES_QUERY)) {
+                // Stream the result instead of buffering it all in the driver; only Connector/J
+                // takes this fetch size
+                if (DBConnection.isMySQL()) {
+                    stmt.setFetchSize(Integer.MIN_VALUE);
+                }
+                stmt.setTimestamp(1, Timestamp.valueOf(from));
+                stmt.setTimestamp(2, Timestamp.valueOf(to));
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        builder.add(
+                                rs.getInt("order_id"),
+                                rs.getInt("cashier_id"),
+                                rs.getInt("order_minute"),
+                                rs.getString("item_type"),
+                                rs.getString("status"),
+                                rs.getInt("hall_id"),
+                                rs.getInt("movie_id"),
+                                rs.getInt("product_id"),
+                                rs.getInt("quantity"),
+                                rs.getLong("cents"));
+                    }
+                }
+            }
+
+            readNames(connection, "SELECT hall_id, hall_name FROM halls", hallNames);
+            readNames(connection, "SELECT movie_id, title FROM movies", movieTitles);
+            readNames(connection, "SELECT user_id, CONCAT(first_name, ' ', last_name) FROM users", cashierNames);
+            readNames(connection, "SELECT product_id, product_name FROM products", productNames);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new SalesColumns.Builder().build(Map.of(), Map.of(), Map.of(), Map.of());
+        }
+        return builder.build(hallNames, movieTitles, cashierNames, productNames);
+    }
+
+    /**
+     * Reads a query of IDs and names into a map.
+     */
+    private void readNames(Connection connection, String query, Map<Integer, String> names) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                names.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+    }
+}
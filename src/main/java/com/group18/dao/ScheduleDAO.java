@@ -2,6 +2,8 @@
 package com.group18.dao;
 
 import com.group18.model.Schedule;
+import com.group18.model.ScheduleOverview;
+import com.group18.model.SeatMap;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -11,16 +13,24 @@ import java.util.List;
 /**
  * Data Access Object (DAO) for interacting with the "schedules" table in the database.
  * Provides methods for CRUD operations related to movie schedules.
+ * Every change is published on the {@link ChangeBus}.
  */
 public class ScheduleDAO {
-    private Connection connection;
-
     /**
-     * Constructs a new ScheduleDAO object with a database connection.
+     * Selects schedules together with their movie title, hall capacity and available seats,
+     * read from the materialized seat maps. Callers append a WHERE clause on the 's' alias.
      */
-    public ScheduleDAO() {
-        this.connection = DBConnection.getConnection();
-    }
+    private static final String OVERVIEW_QUERY = """
+        SELECT s.schedule_id, s.movie_id, s.hall_id, s.session_date, s.session_time,
+               m.title, h.hall_name, h.capacity,
+               h.capacity - COALESCE(ss.occupied_count, 0) AS available_seats
+        FROM schedules s
+        JOIN halls h ON s.hall_id = h.hall_id
+        LEFT JOIN movies m ON s.movie_id = m.movie_id
+        LEFT JOIN schedule_seats ss ON s.schedule_id = ss.schedule_id
+        """;
+
+    private final SeatMapDAO seatMapDAO = new SeatMapDAO();
 
     /**
      * Retrieves all schedules from the "schedules" table.
@@ -31,7 +41,8 @@ public class ScheduleDAO {
         String query = "SELECT * FROM schedules";
         List<Schedule> schedules = new ArrayList<>();
 
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = DBConnection.getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
 
             while (rs.next()) {
@@ -53,7 +64,8 @@ public class ScheduleDAO {
         String query = "SELECT * FROM schedules WHERE MONTH(session_date) = ? AND YEAR(session_date) = ?";
         List<Schedule> schedules = new ArrayList<>();
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, monthDate.getMonthValue());
             stmt.setInt(2, monthDate.getYear());
             ResultSet rs = stmt.executeQuery();
@@ -67,6 +79,58 @@ public class ScheduleDAO {
         return schedules;
     }
 
+    /**
+     * Retrieves the overviews of all schedules in a given month, with movie titles and
+     * available seats resolved in the same query, ordered by session date and time.
+     *
+     * @param monthDate Any date in the month to load.
+     * @return A list of schedule overviews for the specified month.
+     */
+    public List<ScheduleOverview> getScheduleOverviewsByMonth(LocalDate monthDate) {
+        // A date range rather than MONTH()/YEAR() lets MySQL use an index on session_date
+        String query = OVERVIEW_QUERY + "WHERE s.session_date >= ? AND s.session_date < ?\n"
+                + "ORDER BY s.session_date, s.session_time";
+        List<ScheduleOverview> overviews = new ArrayList<>();
+        LocalDate firstDay = monthDate.withDayOfMonth(1);
+
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setDate(1, Date.valueOf(firstDay));
+            stmt.setDate(2, Date.valueOf(firstDay.plusMonths(1)));
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                overviews.add(extractOverviewFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return overviews;
+    }
+
+    /**
+     * Retrieves the overview of a single schedule.
+     *
+     * @param scheduleId The ID of the schedule.
+     * @return The schedule overview, or null if the schedule does not exist.
+     */
+    public ScheduleOverview getScheduleOverview(int scheduleId) {
+        String query = OVERVIEW_QUERY + "WHERE s.schedule_id = ?";
+
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, scheduleId);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return extractOverviewFromResultSet(rs);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
     /**
      * Creates a new schedule in the database.
      *
@@ -76,19 +140,35 @@ public class ScheduleDAO {
     public boolean createSchedule(Schedule schedule) {
         String query = "INSERT INTO schedules (movie_id, hall_id, session_date, session_time) VALUES (?, ?, ?, ?)";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setInt(1, schedule.getMovieId());
-            stmt.setInt(2, schedule.getHallId());
-            stmt.setDate(3, Date.valueOf(schedule.getSessionDate()));
-            stmt.setTime(4, Time.valueOf(schedule.getSessionTime()));
+        try (Connection connection = DBConnection.getConnection()) {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setInt(1, schedule.getMovieId());
+                stmt.setInt(2, schedule.getHallId());
+                stmt.setDate(3, Date.valueOf(schedule.getSessionDate()));
+                stmt.setTime(4, Time.valueOf(schedule.getSessionTime()));
+
+                int affectedRows = stmt.executeUpdate();
+                if (affectedRows == 0) {
+                    connection.rollback();
+                    return false;
+                }
 
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
                 ResultSet rs = stmt.getGeneratedKeys();
                 if (rs.next()) {
                     schedule.setScheduleId(rs.getInt(1));
+                    // Every schedule starts with an empty seat map
+                    seatMapDAO.createEmpty(connection, schedule.getScheduleId());
+                    ChangeBus.getInstance().record(connection, ChangeEvent.Entity.SCHEDULE, ChangeEvent.Type.CREATED,
+                            schedule.getScheduleId());
                 }
+                connection.commit();
+                ChangeBus.getInstance().pollNow();
                 return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -97,44 +177,22 @@ public class ScheduleDAO {
     }
 
     /**
-     * Retrieves the count of available seats for a specific schedule.
+     * Retrieves the count of available seats for a specific schedule
+     * from its materialized seat map.
      *
      * @param scheduleId The ID of the schedule.
      * @return The number of available seats for the given schedule.
      */
     public int getAvailableSeatsCount(int scheduleId) {
-        String query = """
-        SELECT h.capacity - COUNT(DISTINCT oi.seat_number) as available_seats
-        FROM schedules s
-        JOIN halls h ON s.hall_id = h.hall_id
-        LEFT JOIN order_items oi ON s.schedule_id = oi.schedule_id 
-            AND oi.item_type = 'ticket'
-            AND oi.order_id IN (
-                SELECT order_id 
-                FROM orders 
-                WHERE status NOT IN ('PROCESSED_FULL', 'PROCESSED_TICKETS')
-            )
-        WHERE s.schedule_id = ?
-        GROUP BY s.schedule_id, h.capacity
-    """;
-
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, scheduleId);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return rs.getInt("available_seats");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return 0;
+        SeatMap seatMap = seatMapDAO.getSeatMap(scheduleId);
+        return seatMap != null ? seatMap.getAvailableCount() : 0;
     }
 
     public boolean hasSchedules(int movieId) {
         String query = "SELECT COUNT(*) FROM schedules WHERE movie_id = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, movieId);
             ResultSet rs = stmt.executeQuery();
 
@@ -155,11 +213,8 @@ public class ScheduleDAO {
      * @return True if the schedule was successfully deleted, false otherwise.
      */
     public boolean deleteSchedule(int scheduleId) {
-        try {
-            connection.setAutoCommit(false);
-
-            // First, update order_items to remove reference to this schedule for processed/cancelled orders
-            String updateOrderItemsQuery = """
+        // First, update order_items to remove reference to this schedule for processed/cancelled orders
+        String updateOrderItemsQuery = """
             UPDATE order_items 
             SET schedule_id = NULL 
             WHERE schedule_id = ? 
@@ -170,13 +225,8 @@ public class ScheduleDAO {
             )
         """;
 
-            try (PreparedStatement updateStmt = connection.prepareStatement(updateOrderItemsQuery)) {
-                updateStmt.setInt(1, scheduleId);
-                updateStmt.executeUpdate();
-            }
-
-            // Then delete the schedule
-            String deleteQuery = """
+        // Then delete the schedule
+        String deleteQuery = """
             DELETE FROM schedules 
             WHERE schedule_id = ? 
             AND NOT EXISTS (
@@ -191,29 +241,32 @@ public class ScheduleDAO {
             )
         """;
 
-            try (PreparedStatement deleteStmt = connection.prepareStatement(deleteQuery)) {
+        try (Connection connection = DBConnection.getConnection()) {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement updateStmt = connection.prepareStatement(updateOrderItemsQuery);
+                 PreparedStatement deleteStmt = connection.prepareStatement(deleteQuery)) {
+                updateStmt.setInt(1, scheduleId);
+                updateStmt.executeUpdate();
+
                 deleteStmt.setInt(1, scheduleId);
                 deleteStmt.setInt(2, scheduleId);
 
                 int affectedRows = deleteStmt.executeUpdate();
+                if (affectedRows > 0) {
+                    ChangeBus.getInstance().record(connection, ChangeEvent.Entity.SCHEDULE, ChangeEvent.Type.DELETED, scheduleId);
+                }
 
                 connection.commit();
+                ChangeBus.getInstance().pollNow();
                 return affectedRows > 0;
-            }
-        } catch (SQLException e) {
-            try {
+            } catch (SQLException e) {
                 connection.rollback();
-            } catch (SQLException rollbackEx) {
-                rollbackEx.printStackTrace();
+                throw e;
             }
+        } catch (SQLException e) {
             e.printStackTrace();
             return false;
-        } finally {
-            try {
-                connection.setAutoCommit(true);
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -231,7 +284,8 @@ public class ScheduleDAO {
                 "AND session_date = ? " +
                 "AND session_time = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, hallId);
             stmt.setDate(2, Date.valueOf(sessionDate));
             stmt.setTime(3, Time.valueOf(sessionTime));
@@ -258,7 +312,8 @@ public class ScheduleDAO {
         String query = "SELECT * FROM schedules WHERE movie_id = ? AND session_date BETWEEN ? AND ? ORDER BY session_date";
         List<Schedule> schedules = new ArrayList<>();
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, movieId);
             stmt.setDate(2, Date.valueOf(startDate));
             stmt.setDate(3, Date.valueOf(endDate));
@@ -289,4 +344,25 @@ public class ScheduleDAO {
         schedule.setSessionTime(rs.getTime("session_time").toLocalTime());
         return schedule;
     }
+
+    /**
+     * Extracts a schedule overview from the current row of a ResultSet produced by the overview query.
+     *
+     * @param rs The ResultSet object containing the overview data.
+     * @return A ScheduleOverview object populated with the data from the ResultSet.
+     * @throws SQLException If an error occurs while accessing the ResultSet.
+     */
+    private ScheduleOverview extractOverviewFromResultSet(ResultSet rs) throws SQLException {
+        ScheduleOverview overview = new ScheduleOverview();
+        overview.setScheduleId(rs.getInt("schedule_id"));
+        overview.setMovieId(rs.getInt("movie_id"));
+        overview.setHallId(rs.getInt("hall_id"));
+        overview.setSessionDate(rs.getDate("session_date").toLocalDate());
+        overview.setSessionTime(rs.getTime("session_time").toLocalTime());
+        overview.setMovieTitle(rs.getString("title"));
+        overview.setHallName(rs.getString("hall_name"));
+        overview.setCapacity(rs.getInt("capacity"));
+        overview.setAvailableSeats(rs.getInt("available_seats"));
+        return overview;
+    }
 }
\ No newline at end of file
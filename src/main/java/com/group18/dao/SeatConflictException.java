@@ -0,0 +1,38 @@
+package com.group18.dao;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Thrown when an order cannot be placed because some of its seats were sold to, or are
+ * held by, another till. The order is rolled back as a whole; the lost seats are reported
+ * so the cashier can pick replacements.
+ */
+public class SeatConflictException extends SQLException {
+    private static final long serialVersionUID = 1L;
+
+    /** Copied into a TreeMap of immutable lists, so the exception stays serializable. */
+    private final TreeMap<Integer, List<Integer>> lostSeats = new TreeMap<>();
+
+    /**
+     * Constructs a conflict for the given seats.
+     *
+     * @param lostSeats The seat numbers that are no longer available, grouped by schedule ID.
+     */
+    public SeatConflictException(Map<Integer, List<Integer>> lostSeats) {
+        super("Seats no longer available: " + lostSeats);
+        lostSeats.forEach((scheduleId, seats) -> this.lostSeats.put(scheduleId, List.copyOf(seats)));
+    }
+
+    /**
+     * Retrieves the seats that were lost to another till.
+     *
+     * @return The seat numbers, grouped by schedule ID.
+     */
+    public Map<Integer, List<Integer>> getLostSeats() {
+        return Collections.unmodifiableMap(lostSeats);
+    }
+}
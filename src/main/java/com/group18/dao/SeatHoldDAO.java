@@ -0,0 +1,422 @@
+package com.group18.dao;
+
+import com.group18.model.SeatMap;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Data Access Object (DAO) for the "seat_holds" table, which reserves seats for a till
+ * from the moment they are selected until the order is placed or the selection is dropped.
+ *
+ * Holds are single rows keyed by schedule and seat, so taking one never locks more than
+ * the seat itself and tills selecting different seats of a busy session do not wait on
+ * each other. Every hold expires after {@link #HOLD_TTL_SECONDS} unless renewed; this till
+ * renews in the background only the holds of the seats its screen currently selects, set
+ * through {@link #renewSelection}, so a seat clicked and then walked away from is released
+ * once the cashier moves on. Expired holds, whether left behind by this till or by tills that
+ * closed or crashed, are reaped on the same schedule.
+ *
+ * Screens take and drop holds through the asynchronous methods, which run one at a time on a
+ * single background thread in the order they were called, so holds reach the database in the
+ * order the cashier clicked the seats and a release never overtakes the hold it undoes.
+ *
+ * This class follows the Singleton design pattern: the application is one till, and all
+ * of its holds share one token.
+ */
+public class SeatHoldDAO {
+    /** How long a hold lasts without being renewed. */
+    static final int HOLD_TTL_SECONDS = 120;
+    /** How often this till renews its holds and reaps expired ones. */
+    private static final long MAINTENANCE_INTERVAL_SECONDS = 30;
+
+    private static SeatHoldDAO instance;
+
+    private final String holdToken = UUID.randomUUID().toString();
+    private final SeatMapDAO seatMapDAO = new SeatMapDAO();
+    private final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "seat-hold-reaper");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** The seats whose holds are renewed, or null to let every hold of this till expire. */
+    private volatile Selection selection;
+    /** Runs the holds and releases asked for by screens, one at a time in the order asked. */
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "seat-hold-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SeatHoldDAO() {
+        maintenance.scheduleWithFixedDelay(this::maintain,
+                MAINTENANCE_INTERVAL_SECONDS, MAINTENANCE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Provides the seat holds of this till.
+     *
+     * @return the singleton instance of the SeatHoldDAO class
+     */
+    public static synchronized SeatHoldDAO getInstance() {
+        if (instance == null) {
+            instance = new SeatHoldDAO();
+        }
+        return instance;
+    }
+
+    /**
+     * Retrieves the token identifying this till's holds.
+     *
+     * @return the hold token
+     */
+    public String getHoldToken() {
+        return holdToken;
+    }
+
+    /**
+     * Holds seats of a schedule for this till. Seats this till already holds are renewed;
+     * seats that are sold or held by another till are left alone and reported back.
+     *
+     * @param scheduleId The ID of the schedule.
+     * @param seatNumbers The seats to hold.
+     * @return The seats that could not be held; empty if every seat is now held by this till.
+     */
+    public List<Integer> hold(int scheduleId, Collection<Integer> seatNumbers) {
+        if (seatNumbers.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // Take the seat if it is free, ours already, or held by an expired hold. Both columns
+        // test the same condition, which holds whether the database assigns hold_token before
+        // testing it for expires_at (MySQL) or tests the old row (the benchmarks' H2)
+        String upsert = """
+            INSERT INTO seat_holds (schedule_id, seat_number, hold_token, expires_at)
+            VALUES (?, ?, ?, TIMESTAMPADD(SECOND, ?, NOW(3)))
+            ON DUPLICATE KEY UPDATE
+                hold_token = CASE WHEN hold_token = VALUES(hold_token) OR expires_at < NOW(3)
+                    THEN VALUES(hold_token) ELSE hold_token END,
+                expires_at = CASE WHEN hold_token = VALUES(hold_token) OR expires_at < NOW(3)
+                    THEN VALUES(expires_at) ELSE expires_at END
+        """;
+
+        Set<Integer> held;
+        try (Connection connection = DBConnection.getConnection()) {
+            try (PreparedStatement stmt = connection.prepareStatement(upsert)) {
+                for (int seatNumber : seatNumbers) {
+                    stmt.setInt(1, scheduleId);
+                    stmt.setInt(2, seatNumber);
+                    stmt.setString(3, holdToken);
+                    stmt.setInt(4, HOLD_TTL_SECONDS);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            held = findHeldSeats(connection, scheduleId, seatNumbers, true);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>(seatNumbers);
+        }
+
+        // A hold does not make a sold seat available again
+        SeatMap seatMap = seatMapDAO.getSeatMap(scheduleId);
+        List<Integer> sold = new ArrayList<>();
+        for (int seatNumber : held) {
+            if (seatMap == null || seatMap.isOccupied(seatNumber)) {
+                sold.add(seatNumber);
+            }
+        }
+        if (!sold.isEmpty()) {
+            release(scheduleId, sold);
+            held.removeAll(sold);
+        }
+
+        return seatNumbers.stream()
+                .filter(seatNumber -> !held.contains(seatNumber))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Releases seats of a schedule held by this till.
+     *
+     * @param scheduleId The ID of the schedule.
+     * @param seatNumbers The seats to release.
+     */
+    public void release(int scheduleId, Collection<Integer> seatNumbers) {
+        if (seatNumbers.isEmpty()) {
+            return;
+        }
+        String query = "DELETE FROM seat_holds WHERE schedule_id = ? AND seat_number = ? AND hold_token = ?";
+
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            for (int seatNumber : seatNumbers) {
+                stmt.setInt(1, scheduleId);
+                stmt.setInt(2, seatNumber);
+                stmt.setString(3, holdToken);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Releases every seat held by this till, except those of the given schedule.
+     * Used when the cashier moves on to another session.
+     *
+     * @param scheduleId The ID of the schedule whose holds to keep, or 0 to release everything.
+     */
+    public void releaseAllExcept(int scheduleId) {
+        String query = "DELETE FROM seat_holds WHERE hold_token = ? AND schedule_id <> ?";
+
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, holdToken);
+            stmt.setInt(2, scheduleId);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Releases every seat held by this till.
+     */
+    public void releaseAll() {
+        releaseAllExcept(0);
+    }
+
+    /**
+     * Holds seats in the background, after every hold and release asked for before.
+     *
+     * @param scheduleId The ID of the schedule.
+     * @param seatNumbers The seats to hold.
+     * @return A future completed with the seats that could not be held, as by {@link #hold}.
+     */
+    public CompletableFuture<List<Integer>> holdAsync(int scheduleId, Collection<Integer> seatNumbers) {
+        List<Integer> seats = List.copyOf(seatNumbers);
+        return CompletableFuture.supplyAsync(() -> hold(scheduleId, seats), writer);
+    }
+
+    /**
+     * Releases seats in the background, after every hold and release asked for before.
+     *
+     * @param scheduleId The ID of the schedule.
+     * @param seatNumbers The seats to release.
+     * @return A future completed once the seats are released.
+     */
+    public CompletableFuture<Void> releaseAsync(int scheduleId, Collection<Integer> seatNumbers) {
+        List<Integer> seats = List.copyOf(seatNumbers);
+        return CompletableFuture.runAsync(() -> release(scheduleId, seats), writer);
+    }
+
+    /**
+     * Releases every seat held by this till except those of the given schedule in the
+     * background, after every hold and release asked for before.
+     *
+     * @param scheduleId The ID of the schedule whose holds to keep, or 0 to release everything.
+     * @return A future completed once the seats are released.
+     */
+    public CompletableFuture<Void> releaseAllExceptAsync(int scheduleId) {
+        return CompletableFuture.runAsync(() -> releaseAllExcept(scheduleId), writer);
+    }
+
+    /**
+     * Releases every seat held by this till in the background, after every hold and release
+     * asked for before.
+     *
+     * @return A future completed once the seats are released.
+     */
+    public CompletableFuture<Void> releaseAllAsync() {
+        return releaseAllExceptAsync(0);
+    }
+
+    /**
+     * Sets the seats the cashier currently has selected, whose holds are kept alive from now
+     * on. The holds of any other seat of this till expire unless they are taken again.
+     *
+     * @param scheduleId The ID of the schedule.
+     * @param seatNumbers The selected seats; empty to renew no holds.
+     */
+    public void renewSelection(int scheduleId, Collection<Integer> seatNumbers) {
+        selection = seatNumbers.isEmpty() ? null : new Selection(scheduleId, List.copyOf(seatNumbers));
+    }
+
+    /**
+     * Stops renewing holds, so every hold of this till expires unless it is taken again.
+     */
+    public void stopRenewing() {
+        selection = null;
+    }
+
+    /**
+     * Retrieves the seats of a schedule currently held by other tills.
+     *
+     * @param scheduleId The ID of the schedule.
+     * @return The seat numbers held by other tills.
+     */
+    public Set<Integer> getSeatsHeldByOthers(int scheduleId) {
+        String query = "SELECT seat_number FROM seat_holds WHERE schedule_id = ? AND hold_token <> ? AND expires_at >= NOW(3)";
+        Set<Integer> seats = new HashSet<>();
+
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, scheduleId);
+            stmt.setString(2, holdToken);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                seats.add(rs.getInt("seat_number"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return seats;
+    }
+
+    /**
+     * Finds the seats among those being sold that another till holds, as part of the
+     * caller's transaction.
+     *
+     * @param connection The connection whose transaction sells the seats.
+     * @param seatsBySchedule The seats being sold, grouped by schedule ID.
+     * @return The seats held by other tills, grouped by schedule ID; empty if there are none.
+     * @throws SQLException If an SQL error occurs while reading the holds.
+     */
+    Map<Integer, List<Integer>> findSeatsHeldByOthers(Connection connection,
+                                                      Map<Integer, List<Integer>> seatsBySchedule) throws SQLException {
+        Map<Integer, List<Integer>> lost = new TreeMap<>();
+        for (Map.Entry<Integer, List<Integer>> entry : seatsBySchedule.entrySet()) {
+            Set<Integer> seats = findHeldSeats(connection, entry.getKey(), entry.getValue(), false);
+            if (!seats.isEmpty()) {
+                lost.put(entry.getKey(), new ArrayList<>(seats));
+            }
+        }
+        return lost;
+    }
+
+    /**
+     * Removes this till's holds on seats that have just been sold, as part of the caller's transaction.
+     *
+     * @param connection The connection whose transaction sells the seats.
+     * @param seatsBySchedule The seats sold, grouped by schedule ID.
+     * @throws SQLException If an SQL error occurs while removing the holds.
+     */
+    void consume(Connection connection, Map<Integer, List<Integer>> seatsBySchedule) throws SQLException {
+        String query = "DELETE FROM seat_holds WHERE schedule_id = ? AND seat_number = ? AND hold_token = ?";
+
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            for (Map.Entry<Integer, List<Integer>> entry : seatsBySchedule.entrySet()) {
+                for (int seatNumber : entry.getValue()) {
+                    stmt.setInt(1, entry.getKey());
+                    stmt.setInt(2, seatNumber);
+                    stmt.setString(3, holdToken);
+                    stmt.addBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Stops background maintenance and releases this till's holds, so other tills do not
+     * have to wait for them to expire.
+     */
+    public void shutdown() {
+        maintenance.shutdownNow();
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        releaseAll();
+    }
+
+    /**
+     * Finds which of the given seats are under a live hold, either this till's own or another till's.
+     */
+    private Set<Integer> findHeldSeats(Connection connection, int scheduleId, Collection<Integer> seatNumbers,
+                                       boolean own) throws SQLException {
+        String placeholders = seatNumbers.stream().map(seat -> "?").collect(Collectors.joining(", "));
+        String query = "SELECT seat_number FROM seat_holds WHERE schedule_id = ? AND seat_number IN (" + placeholders + ") " +
+                "AND hold_token " + (own ? "=" : "<>") + " ? AND expires_at >= NOW(3)";
+        Set<Integer> seats = new HashSet<>();
+
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            int index = 1;
+            stmt.setInt(index++, scheduleId);
+            for (int seatNumber : seatNumbers) {
+                stmt.setInt(index++, seatNumber);
+            }
+            stmt.setString(index, holdToken);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                seats.add(rs.getInt("seat_number"));
+            }
+        }
+        return seats;
+    }
+
+    /**
+     * Renews this till's holds on the selected seats and deletes holds that have expired.
+     */
+    private void maintain() {
+        Selection renewing = selection;
+        String reapQuery = "DELETE FROM seat_holds WHERE expires_at < NOW(3)";
+
+        try (Connection connection = DBConnection.getConnection()) {
+            if (renewing != null) {
+                String placeholders = renewing.seatNumbers.stream().map(seat -> "?").collect(Collectors.joining(", "));
+                String renewQuery = "UPDATE seat_holds SET expires_at = TIMESTAMPADD(SECOND, ?, NOW(3)) " +
+                        "WHERE hold_token = ? AND schedule_id = ? AND seat_number IN (" + placeholders + ")";
+                try (PreparedStatement renewStmt = connection.prepareStatement(renewQuery)) {
+                    int index = 1;
+                    renewStmt.setInt(index++, HOLD_TTL_SECONDS);
+                    renewStmt.setString(index++, holdToken);
+                    renewStmt.setInt(index++, renewing.scheduleId);
+                    for (int seatNumber : renewing.seatNumbers) {
+                        renewStmt.setInt(index++, seatNumber);
+                    }
+                    renewStmt.executeUpdate();
+                }
+            }
+            try (PreparedStatement reapStmt = connection.prepareStatement(reapQuery)) {
+                reapStmt.executeUpdate();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * The seats of one schedule the cashier has selected.
+     */
+    private static class Selection {
+        private final int scheduleId;
+        private final List<Integer> seatNumbers;
+
+        Selection(int scheduleId, List<Integer> seatNumbers) {
+            this.scheduleId = scheduleId;
+            this.seatNumbers = seatNumbers;
+        }
+    }
+}
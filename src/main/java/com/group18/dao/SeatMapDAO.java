@@ -0,0 +1,225 @@
+package com.group18.dao;
+
+import com.group18.model.SeatMap;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Data Access Object (DAO) for the "schedule_seats" table, which keeps the seat occupancy of
+ * every schedule as a bitmap. Reading a seat map or an availability count is a primary-key
+ * lookup instead of an aggregate over every ticket ever sold for the schedule.
+ *
+ * The bitmaps are maintained by {@link OrderDAO} inside the transactions that sell and refund
+ * tickets. A schedule without a row, for example one created before the table existed,
+ * has its bitmap rebuilt from its tickets the first time it is touched.
+ */
+public class SeatMapDAO {
+    /**
+     * Reads the hall capacity and stored bitmap of a schedule.
+     */
+    private static final String SEAT_MAP_QUERY = """
+        SELECT h.capacity, ss.seat_bits
+        FROM schedules s
+        JOIN halls h ON s.hall_id = h.hall_id
+        LEFT JOIN schedule_seats ss ON s.schedule_id = ss.schedule_id
+        WHERE s.schedule_id = ?
+        """;
+
+    /**
+     * Retrieves the seat occupancy of a schedule.
+     *
+     * @param scheduleId The ID of the schedule.
+     * @return The seat map of the schedule, or null if the schedule does not exist.
+     */
+    public SeatMap getSeatMap(int scheduleId) {
+        try (Connection connection = DBConnection.getConnection()) {
+            return readSeatMap(connection, scheduleId, false);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Stores an empty seat map for a newly created schedule.
+     *
+     * @param connection The connection whose transaction creates the schedule.
+     * @param scheduleId The ID of the new schedule.
+     * @throws SQLException If an SQL error occurs while storing the seat map.
+     */
+    void createEmpty(Connection connection, int scheduleId) throws SQLException {
+        String query = "INSERT INTO schedule_seats (schedule_id, seat_bits, occupied_count) VALUES (?, ?, 0)";
+
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, scheduleId);
+            stmt.setBytes(2, new byte[0]);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Marks seats as taken as part of the caller's transaction. The seat maps involved are
+     * locked in ascending schedule order, so concurrent sales cannot deadlock on them.
+     * Exclusive ownership of the seats is enforced by the unique index on live tickets, so
+     * this only records the sale; it should run last, just before the commit, to keep the
+     * seat map locked as briefly as possible.
+     *
+     * @param connection The connection whose transaction sells the tickets.
+     * @param seatsBySchedule The seat numbers sold, grouped by schedule ID.
+     * @throws SQLException If a seat does not exist in its hall, or an SQL error occurs.
+     */
+    void occupySeats(Connection connection, Map<Integer, List<Integer>> seatsBySchedule) throws SQLException {
+        for (Map.Entry<Integer, List<Integer>> entry : new TreeMap<>(seatsBySchedule).entrySet()) {
+            int scheduleId = entry.getKey();
+            SeatMap seatMap = lockSeatMap(connection, scheduleId);
+
+            for (int seatNumber : entry.getValue()) {
+                try {
+                    // Already set if the map was just rebuilt from these very tickets
+                    seatMap.occupy(seatNumber);
+                } catch (IllegalArgumentException e) {
+                    throw new SQLException(e.getMessage(), e);
+                }
+            }
+            save(connection, scheduleId, seatMap);
+        }
+    }
+
+    /**
+     * Marks the seats of an order's tickets as available again, as part of the caller's transaction.
+     *
+     * @param connection The connection whose transaction refunds the tickets.
+     * @param orderId The ID of the order whose tickets are refunded.
+     * @return true if the order had any seats to release; false otherwise.
+     * @throws SQLException If an SQL error occurs while releasing the seats.
+     */
+    boolean releaseOrderSeats(Connection connection, int orderId) throws SQLException {
+        String query = """
+            SELECT schedule_id, seat_number
+            FROM order_items
+            WHERE order_id = ? AND item_type = 'ticket' AND seat_released = 0
+            AND schedule_id IS NOT NULL AND seat_number IS NOT NULL
+        """;
+
+        Map<Integer, List<Integer>> seatsBySchedule = new TreeMap<>();
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, orderId);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                seatsBySchedule.computeIfAbsent(rs.getInt("schedule_id"), id -> new ArrayList<>())
+                        .add(rs.getInt("seat_number"));
+            }
+        }
+
+        // The tickets stop counting as live, which frees their seats in the unique index
+        String releaseQuery = "UPDATE order_items SET seat_released = 1 WHERE order_id = ? AND item_type = 'ticket'";
+        try (PreparedStatement stmt = connection.prepareStatement(releaseQuery)) {
+            stmt.setInt(1, orderId);
+            stmt.executeUpdate();
+        }
+
+        for (Map.Entry<Integer, List<Integer>> entry : seatsBySchedule.entrySet()) {
+            SeatMap seatMap = lockSeatMap(connection, entry.getKey());
+            for (int seatNumber : entry.getValue()) {
+                if (seatNumber >= 1 && seatNumber <= seatMap.getCapacity()) {
+                    seatMap.release(seatNumber);
+                }
+            }
+            save(connection, entry.getKey(), seatMap);
+        }
+        return !seatsBySchedule.isEmpty();
+    }
+
+    /**
+     * Reads and row-locks the seat map of a schedule for the rest of the caller's transaction,
+     * creating it from the schedule's tickets if it has not been stored yet.
+     */
+    private SeatMap lockSeatMap(Connection connection, int scheduleId) throws SQLException {
+        SeatMap seatMap = readSeatMap(connection, scheduleId, true);
+        if (seatMap == null) {
+            throw new SQLException("Schedule " + scheduleId + " does not exist.");
+        }
+        return seatMap;
+    }
+
+    private SeatMap readSeatMap(Connection connection, int scheduleId, boolean forUpdate) throws SQLException {
+        // Only the seat map row is locked; the schedule and hall rows stay free for other tills.
+        // Other databases lack FOR UPDATE OF and lock every row read
+        String query = !forUpdate ? SEAT_MAP_QUERY
+                : DBConnection.isMySQL() ? SEAT_MAP_QUERY + "FOR UPDATE OF ss" : SEAT_MAP_QUERY + "FOR UPDATE";
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                stmt.setInt(1, scheduleId);
+                ResultSet rs = stmt.executeQuery();
+
+                if (!rs.next()) {
+                    return null;
+                }
+                byte[] bits = rs.getBytes("seat_bits");
+                if (bits != null) {
+                    return SeatMap.fromBytes(rs.getInt("capacity"), bits);
+                }
+                if (attempt == 0) {
+                    rebuild(connection, scheduleId, rs.getInt("capacity"));
+                }
+            }
+        }
+        throw new SQLException("Could not create the seat map of schedule " + scheduleId + ".");
+    }
+
+    /**
+     * Creates the missing seat map of a schedule from its tickets that have not been refunded.
+     * If another transaction stores the map first, its row is kept.
+     */
+    private void rebuild(Connection connection, int scheduleId, int capacity) throws SQLException {
+        String ticketsQuery = """
+            SELECT DISTINCT seat_number
+            FROM order_items
+            WHERE schedule_id = ?
+              AND item_type = 'ticket'
+              AND seat_number IS NOT NULL
+              AND seat_released = 0
+        """;
+        String insertQuery = "INSERT IGNORE INTO schedule_seats (schedule_id, seat_bits, occupied_count) VALUES (?, ?, ?)";
+
+        SeatMap seatMap = new SeatMap(capacity);
+        try (PreparedStatement stmt = connection.prepareStatement(ticketsQuery)) {
+            stmt.setInt(1, scheduleId);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                int seatNumber = rs.getInt("seat_number");
+                if (seatNumber >= 1 && seatNumber <= capacity) {
+                    seatMap.occupy(seatNumber);
+                }
+            }
+        }
+
+        try (PreparedStatement stmt = connection.prepareStatement(insertQuery)) {
+            stmt.setInt(1, scheduleId);
+            stmt.setBytes(2, seatMap.toBytes());
+            stmt.setInt(3, seatMap.getOccupiedCount());
+            stmt.executeUpdate();
+        }
+    }
+
+    private void save(Connection connection, int scheduleId, SeatMap seatMap) throws SQLException {
+        String query = "UPDATE schedule_seats SET seat_bits = ?, occupied_count = ? WHERE schedule_id = ?";
+
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setBytes(1, seatMap.toBytes());
+            stmt.setInt(2, seatMap.getOccupiedCount());
+            stmt.setInt(3, scheduleId);
+            stmt.executeUpdate();
+        }
+    }
+}
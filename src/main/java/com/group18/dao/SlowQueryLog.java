@@ -0,0 +1,373 @@
+package com.group18.dao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Journals the statements that take longer than a threshold, with the types of their bound
+ * parameters, duration and the database's {@code EXPLAIN} of them, so the queries that degrade as tables
+ * grow can be found and indexed before cashiers notice.
+ *
+ * Statements are timed by the pooled statement proxies; one that is slow is handed to a
+ * background writer, which runs the {@code EXPLAIN} on a connection of its own and appends the
+ * entry to a local journal file. The journal is rotated once it reaches a few megabytes, and
+ * the same statement is explained again only after a while, so a slow query that runs
+ * constantly does not turn the journal into a copy of itself. The threshold and the journal
+ * file are set by the cinema.db.slowQueryMillis and cinema.db.slowQueryJournal system
+ * properties.
+ *
+ * Parameter values are kept out of the journal, which is a plain file the admin view shows;
+ * only their types and lengths are written. Setting the cinema.db.slowQueryValues system
+ * property to true writes the values as well, except for statements on the password column,
+ * of whose parameters only the types are ever written.
+ *
+ * This class follows the Singleton design pattern so the application writes one journal.
+ */
+public class SlowQueryLog {
+    /** Executions at least this long are journaled. */
+    static final long THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Long.getLong("cinema.db.slowQueryMillis", 250));
+    private static final Path JOURNAL = Paths.get(System.getProperty("cinema.db.slowQueryJournal",
+            Paths.get(System.getProperty("user.home"), ".cinema", "slow-queries.log").toString()));
+    /** Size at which the journal is rotated. */
+    private static final long MAX_JOURNAL_BYTES = 5 * 1024 * 1024;
+    /** Rotated journals kept besides the current one. */
+    private static final int ROTATED_JOURNALS = 2;
+    /** How long a statement's EXPLAIN is reused before the statement is explained again. */
+    private static final long EXPLAIN_INTERVAL_MILLIS = 10 * 60_000;
+    /** Slow statements waiting to be journaled at most; further ones are dropped. */
+    private static final int QUEUE_CAPACITY = 256;
+    /** Length at which a parameter value is cut short in the journal. */
+    private static final int MAX_PARAMETER_LENGTH = 100;
+    /** Whether parameter values are journaled rather than only their types. */
+    private static final boolean JOURNAL_VALUES = Boolean.getBoolean("cinema.db.slowQueryValues");
+    /** Statements whose parameters are never journaled, as they carry credentials. */
+    private static final Pattern SECRET_COLUMNS = Pattern.compile("\\bpassword\\b", Pattern.CASE_INSENSITIVE);
+
+    private static SlowQueryLog instance;
+
+    private final AtomicLong recordedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final ThreadPoolExecutor writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                Thread thread = new Thread(r, "slow-query-journal");
+                thread.setDaemon(true);
+                return thread;
+            }, (task, executor) -> droppedCount.incrementAndGet());
+
+    /** When each statement was last explained, by normalized SQL text. */
+    private final Map<String, Long> lastExplained = new ConcurrentHashMap<>();
+
+    private SlowQueryLog() {
+    }
+
+    /**
+     * Provides the slow query journal of this till.
+     *
+     * @return the singleton instance of the SlowQueryLog class
+     */
+    public static synchronized SlowQueryLog getInstance() {
+        if (instance == null) {
+            instance = new SlowQueryLog();
+        }
+        return instance;
+    }
+
+    /**
+     * Journals a slow execution in the background.
+     *
+     * @param sql        the SQL text executed
+     * @param parameters the parameters bound to it by index, starting at index 1, or null for a plain statement
+     * @param nanos      how long the execution took
+     */
+    void record(String sql, Object[] parameters, long nanos) {
+        if (sql.regionMatches(true, 0, "EXPLAIN", 0, "EXPLAIN".length())) {
+            return;
+        }
+        recordedCount.incrementAndGet();
+        LocalDateTime executedAt = LocalDateTime.now();
+        writer.execute(() -> journal(executedAt, sql, parameters, nanos));
+    }
+
+    private void journal(LocalDateTime executedAt, String sql, Object[] parameters, long nanos) {
+        String normalized = StatementStats.normalize(sql);
+        long now = System.currentTimeMillis();
+        Long explainedAt = lastExplained.get(normalized);
+        String plan = "";
+        if (explainedAt == null || now - explainedAt >= EXPLAIN_INTERVAL_MILLIS) {
+            lastExplained.put(normalized, now);
+            plan = explain(sql, parameters);
+        }
+
+        String entry = String.join("\t", executedAt.toString(), String.format("%.3f", nanos / 1_000_000.0),
+                escape(normalized), escape(sql), escape(formatParameters(sql, parameters)), escape(plan)) + "\n";
+        try {
+            Files.createDirectories(JOURNAL.toAbsolutePath().getParent());
+            rotateIfFull();
+            try (Writer out = Files.newBufferedWriter(JOURNAL, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                out.write(entry);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Asks the database how it runs the statement, with the same parameters bound.
+     *
+     * @return the plan as a text table, or why it could not be read
+     */
+    private String explain(String sql, Object[] parameters) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("EXPLAIN " + sql)) {
+            if (parameters != null) {
+                for (int i = 1; i < parameters.length; i++) {
+                    stmt.setObject(i, parameters[i]);
+                }
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultSetMetaData columns = rs.getMetaData();
+                List<String> row = new ArrayList<>();
+                for (int i = 1; i <= columns.getColumnCount(); i++) {
+                    row.add(columns.getColumnLabel(i));
+                }
+                plan.append(String.join(" | ", row));
+                while (rs.next()) {
+                    row.clear();
+                    for (int i = 1; i <= columns.getColumnCount(); i++) {
+                        row.add(String.valueOf(rs.getObject(i)));
+                    }
+                    plan.append('\n').append(String.join(" | ", row));
+                }
+            }
+            return plan.toString();
+        } catch (SQLException e) {
+            return "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+
+    private void rotateIfFull() throws IOException {
+        try {
+            if (Files.size(JOURNAL) < MAX_JOURNAL_BYTES) {
+                return;
+            }
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        for (int i = ROTATED_JOURNALS; i > 0; i--) {
+            Path older = rotated(i - 1);
+            if (Files.exists(older)) {
+                Files.move(older, rotated(i), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Names the journal rotated the given number of times, 0 being the current one.
+     */
+    private static Path rotated(int generation) {
+        return generation == 0 ? JOURNAL : JOURNAL.resolveSibling(JOURNAL.getFileName() + "." + generation);
+    }
+
+    /**
+     * Describes the bound parameters for the journal: their types and lengths, or their values
+     * if values are journaled, or only their types if the statement carries credentials.
+     */
+    static String formatParameters(String sql, Object[] parameters) {
+        if (parameters == null) {
+            return "";
+        }
+        boolean secret = SECRET_COLUMNS.matcher(sql).find();
+        List<String> values = new ArrayList<>();
+        for (int i = 1; i < parameters.length; i++) {
+            Object parameter = parameters[i];
+            String value = parameter == null ? "null"
+                    : secret ? "<" + parameter.getClass().getSimpleName() + ">"
+                    : parameter instanceof byte[] ? "<" + ((byte[]) parameter).length + " bytes>"
+                    : !JOURNAL_VALUES && parameter instanceof String ? "<String, " + ((String) parameter).length() + " chars>"
+                    : !JOURNAL_VALUES ? "<" + parameter.getClass().getSimpleName() + ">"
+                    : parameter instanceof String ? "'" + parameter + "'"
+                    : String.valueOf(parameter);
+            if (value.length() > MAX_PARAMETER_LENGTH) {
+                value = value.substring(0, MAX_PARAMETER_LENGTH) + "...";
+            }
+            values.add(i + "=" + value);
+        }
+        return String.join(", ", values);
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "");
+    }
+
+    private static String unescape(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                out.append(next == 't' ? '\t' : next == 'n' ? '\n' : next);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Reads the journal, current and rotated, and ranks the statements in it by the total time
+     * their slow executions took. Reads files, so call it in the background.
+     *
+     * @return the slow statements, the worst offenders first
+     */
+    public List<Offender> readOffenders() {
+        Map<String, Offender> offenders = new LinkedHashMap<>();
+        for (int generation = ROTATED_JOURNALS; generation >= 0; generation--) {
+            Path file = rotated(generation);
+            if (!Files.exists(file)) {
+                continue;
+            }
+            try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String[] fields = line.split("\t", -1);
+                    if (fields.length != 6) {
+                        continue;
+                    }
+                    try {
+                        String normalized = unescape(fields[2]);
+                        offenders.computeIfAbsent(normalized, Offender::new)
+                                .add(LocalDateTime.parse(fields[0]), Double.parseDouble(fields[1]),
+                                        unescape(fields[3]), unescape(fields[4]), unescape(fields[5]));
+                    } catch (RuntimeException e) {
+                        // A line cut short when a till closed mid-write
+                    }
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        List<Offender> ranked = new ArrayList<>(offenders.values());
+        ranked.sort(Comparator.comparingDouble(Offender::getTotalMillis).reversed());
+        return ranked;
+    }
+
+    /**
+     * Retrieves the file the journal is written to.
+     *
+     * @return the current journal file
+     */
+    public Path getJournalPath() {
+        return JOURNAL;
+    }
+
+    /**
+     * Retrieves the threshold above which executions are journaled.
+     *
+     * @return the threshold in milliseconds
+     */
+    public long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(THRESHOLD_NANOS);
+    }
+
+    /**
+     * Retrieves the number of slow executions seen since startup.
+     *
+     * @return the number of slow executions
+     */
+    public long getRecordedCount() {
+        return recordedCount.get();
+    }
+
+    /**
+     * Retrieves the number of slow executions left out of the journal because too many were waiting.
+     *
+     * @return the number of dropped executions
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Stops journaling, letting the slow executions already waiting be written first.
+     */
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Represents a statement found in the journal, with its slow executions summed up and
+     * the details of the latest one.
+     */
+    public static class Offender {
+        private final String sql;
+        private long count;
+        private double totalMillis;
+        private double maxMillis;
+        private LocalDateTime lastSeen;
+        private String lastSql;
+        private String lastParameters;
+        private String lastPlan = "";
+
+        private Offender(String sql) {
+            this.sql = sql;
+        }
+
+        private void add(LocalDateTime executedAt, double millis, String executedSql, String parameters, String plan) {
+            count++;
+            totalMillis += millis;
+            maxMillis = Math.max(maxMillis, millis);
+            if (lastSeen == null || !executedAt.isBefore(lastSeen)) {
+                lastSeen = executedAt;
+                lastSql = executedSql;
+                lastParameters = parameters;
+            }
+            if (!plan.isEmpty()) {
+                lastPlan = plan;
+            }
+        }
+
+        public String getSql() { return sql; }
+        public long getCount() { return count; }
+        public double getTotalMillis() { return totalMillis; }
+        public double getMaxMillis() { return maxMillis; }
+        public double getAverageMillis() { return count == 0 ? 0 : totalMillis / count; }
+        public LocalDateTime getLastSeen() { return lastSeen; }
+        public String getLastSql() { return lastSql; }
+        public String getLastParameters() { return lastParameters; }
+        public String getLastPlan() { return lastPlan; }
+    }
+
+}
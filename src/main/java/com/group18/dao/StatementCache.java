@@ -0,0 +1,327 @@
+package com.group18.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the prepared statements of one physical connection for reuse, so a DAO method that
+ * prepares the same SQL text on every call parses it once per connection instead. Statements
+ * are handed out as proxies whose {@code close()} gives the statement back to the cache, so
+ * DAOs keep using try-with-resources. A statement is held by one borrower at a time; the least
+ * recently used ones are closed once the cache is full.
+ *
+ * Every statement handed out, cached or not, has its executions counted and timed in the
+ * {@link StatementStats} of the pool, and so do plain statements from {@link #createStatement};
+ * the rows they return or change and the errors they throw count towards the
+ * {@link DaoMetrics.Call} of the borrower, if it has one. Executions slower than the
+ * threshold of the {@link SlowQueryLog} are handed to it with the parameters bound to them,
+ * which it redacts before journaling.
+ */
+class StatementCache {
+    /** Setters that leave a statement behaving differently from a freshly prepared one. */
+    private static final Set<String> DIRTYING_METHODS = Set.of(
+            "setFetchSize", "setFetchDirection", "setMaxRows", "setLargeMaxRows", "setMaxFieldSize",
+            "setQueryTimeout", "setEscapeProcessing", "setCursorName", "setPoolable", "closeOnCompletion");
+
+    private final Connection physical;
+    private final int maxSize;
+    private final StatementStats stats;
+    /** Idle statements by SQL text, least recently used first. Guarded by this. */
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    /**
+     * Creates an empty cache for a physical connection.
+     *
+     * @param physical the connection the statements are prepared on
+     * @param maxSize  the number of idle statements kept at most, 0 to keep none
+     * @param stats    where executions are counted
+     */
+    StatementCache(Connection physical, int maxSize, StatementStats stats) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.stats = stats;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() > StatementCache.this.maxSize) {
+                    closeQuietly(eldest.getValue().statement);
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Hands out a prepared statement for the SQL text, reusing an idle one if the cache holds it.
+     *
+     * @param connection        the connection proxy the statement should report as its connection
+     * @param sql               the SQL text
+     * @param autoGeneratedKeys whether generated keys are returned, as for {@link Connection#prepareStatement(String, int)}
+     * @param call              the call of the borrower, or null
+     * @return a statement proxy that goes back to the cache when closed
+     * @throws SQLException if a new statement cannot be prepared
+     */
+    PreparedStatement prepare(Connection connection, String sql, int autoGeneratedKeys, DaoMetrics.Call call) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "keys:" + sql : sql;
+        CachedStatement cached;
+        synchronized (this) {
+            cached = statements.remove(key);
+        }
+
+        if (cached != null) {
+            cached.counters.recordPrepare(true);
+        } else {
+            PreparedStatement statement = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS
+                    ? physical.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                    : physical.prepareStatement(sql);
+            cached = new CachedStatement(statement, stats.countersFor(sql));
+            cached.counters.recordPrepare(false);
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new StatementHandler(key, sql, cached.statement, cached.counters, connection, call));
+    }
+
+    /**
+     * Hands out a plain statement, whose executions are counted by the SQL text they run.
+     *
+     * @param connection the connection proxy the statement should report as its connection
+     * @param call       the call of the borrower, or null
+     * @return a statement proxy that is closed when closed
+     * @throws SQLException if the statement cannot be created
+     */
+    Statement createStatement(Connection connection, DaoMetrics.Call call) throws SQLException {
+        return (Statement) Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[]{Statement.class},
+                new StatementHandler(null, null, physical.createStatement(), null, connection, call));
+    }
+
+    /**
+     * Resets a statement its borrower has closed and keeps it, unless it was changed in a way a
+     * reset does not undo, or the cache already holds one for the same SQL text.
+     */
+    private void giveBack(String key, CachedStatement cached, boolean dirty) {
+        try {
+            if (dirty || maxSize == 0 || cached.statement.isClosed()) {
+                closeQuietly(cached.statement);
+                return;
+            }
+            ResultSet open = cached.statement.getResultSet();
+            if (open != null) {
+                open.close();
+            }
+            cached.statement.clearParameters();
+            cached.statement.clearBatch();
+            cached.statement.clearWarnings();
+        } catch (SQLException e) {
+            closeQuietly(cached.statement);
+            return;
+        }
+
+        synchronized (this) {
+            if (!statements.containsKey(key)) {
+                statements.put(key, cached);
+                return;
+            }
+        }
+        closeQuietly(cached.statement);
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * A physical statement with the counters of its SQL text.
+     */
+    private static class CachedStatement {
+        private final PreparedStatement statement;
+        private final StatementStats.Counters counters;
+
+        CachedStatement(PreparedStatement statement, StatementStats.Counters counters) {
+            this.statement = statement;
+            this.counters = counters;
+        }
+    }
+
+    /**
+     * Delegates every call to the physical statement, timing the executions and counting their
+     * rows and errors, except {@code close()}, which gives a cached statement back to the cache
+     * and closes a plain one, exactly once.
+     */
+    private class StatementHandler implements InvocationHandler {
+        /** The cache key of a cached statement, or null for a plain one. */
+        private final String key;
+        /** The SQL text of a cached statement, or null for a plain one. */
+        private final String sql;
+        private final Statement statement;
+        /** The counters of a cached statement, or null for a plain one, which runs any SQL text. */
+        private final StatementStats.Counters counters;
+        private final Connection connection;
+        private final DaoMetrics.Call call;
+        /** The parameters bound to a cached statement by index, for the slow query journal. */
+        private Object[] parameters = new Object[0];
+        private boolean closed;
+        private boolean dirty;
+
+        StatementHandler(String key, String sql, Statement statement, StatementStats.Counters counters,
+                         Connection connection, DaoMetrics.Call call) {
+            this.key = key;
+            this.sql = sql;
+            this.statement = statement;
+            this.counters = counters;
+            this.connection = connection;
+            this.call = call;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        if (key != null) {
+                            giveBack(key, new CachedStatement((PreparedStatement) statement, counters), dirty);
+                        } else {
+                            statement.close();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || statement.isClosed();
+                case "getConnection":
+                    return connection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledStatement[" + statement + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Statement has already been closed.");
+            }
+            if (DIRTYING_METHODS.contains(name)) {
+                dirty = true;
+            } else if (method.getDeclaringClass() == PreparedStatement.class) {
+                keepParameter(name, args);
+            }
+            if (!name.startsWith("execute")) {
+                try {
+                    return method.invoke(statement, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+
+            long start = System.nanoTime();
+            try {
+                Object result = method.invoke(statement, args);
+                return countRows(proxy, result);
+            } catch (InvocationTargetException e) {
+                if (call != null) {
+                    call.fail();
+                }
+                throw e.getCause();
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                String executedSql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                StatementStats.Counters executed = counters;
+                if (executed == null && executedSql != null) {
+                    executed = stats.countersFor(executedSql);
+                }
+                if (executed != null) {
+                    executed.recordExecution(elapsed);
+                }
+                if (elapsed >= SlowQueryLog.THRESHOLD_NANOS && (sql != null || executedSql != null)) {
+                    SlowQueryLog.getInstance().record(sql != null ? sql : executedSql,
+                            sql != null ? parameters.clone() : null, elapsed);
+                }
+            }
+        }
+
+        /**
+         * Remembers a parameter bound with one of the setters of {@link PreparedStatement}.
+         */
+        private void keepParameter(String name, Object[] args) {
+            if (name.equals("clearParameters")) {
+                parameters = new Object[0];
+            } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                int index = (Integer) args[0];
+                if (index >= parameters.length) {
+                    parameters = Arrays.copyOf(parameters, index + 1);
+                }
+                parameters[index] = name.equals("setNull") ? null : args[1];
+            }
+        }
+
+        /**
+         * Counts the rows an update changed, or wraps the result set of a query to count its rows as they are read.
+         */
+        private Object countRows(Object proxy, Object result) {
+            if (call == null) {
+                return result;
+            }
+            if (result instanceof Integer || result instanceof Long) {
+                call.addRows(Math.max(0, ((Number) result).longValue()));
+            } else if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    call.addRows(Math.max(0, count));
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    call.addRows(Math.max(0, count));
+                }
+            } else if (result instanceof ResultSet) {
+                ResultSet resultSet = (ResultSet) result;
+                return Proxy.newProxyInstance(
+                        ResultSet.class.getClassLoader(),
+                        new Class<?>[]{ResultSet.class},
+                        (rsProxy, method, args) -> {
+                            if (method.getName().equals("getStatement")) {
+                                return proxy;
+                            }
+                            if (method.getName().equals("equals")) {
+                                return rsProxy == args[0];
+                            }
+                            if (method.getName().equals("hashCode")) {
+                                return System.identityHashCode(rsProxy);
+                            }
+                            try {
+                                Object value = method.invoke(resultSet, args);
+                                if (Boolean.TRUE.equals(value) && method.getName().equals("next")) {
+                                    call.addRows(1);
+                                }
+                                return value;
+                            } catch (InvocationTargetException e) {
+                                call.fail();
+                                throw e.getCause();
+                            }
+                        });
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.group18.dao;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Counts how often each SQL statement of a {@link ConnectionPool} is prepared and executed, and
+ * how long its executions take. Statements are told apart by their SQL text, with runs of
+ * placeholders such as the ones of an IN list folded into one, so a query built for any number
+ * of IDs counts as a single statement.
+ */
+public class StatementStats {
+    /** A comma-separated run of two or more placeholders. */
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+    /** A comma-separated run of two or more identical rows, as in a multi-row INSERT. */
+    private static final Pattern ROW_LIST = Pattern.compile("(\\([^()]*\\))(\\s*,\\s*\\1)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * The running counts of one statement.
+     */
+    static final class Counters {
+        private final String sql;
+        private final LongAdder prepared = new LongAdder();
+        private final LongAdder reused = new LongAdder();
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private Counters(String sql) {
+            this.sql = sql;
+        }
+
+        /**
+         * Records that the statement was handed out.
+         *
+         * @param reused whether it was taken from a statement cache instead of being prepared
+         */
+        void recordPrepare(boolean reused) {
+            (reused ? this.reused : prepared).increment();
+        }
+
+        /**
+         * Records an execution of the statement.
+         *
+         * @param nanos how long the execution took
+         */
+        void recordExecution(long nanos) {
+            executions.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        private void reset() {
+            prepared.reset();
+            reused.reset();
+            executions.reset();
+            totalNanos.reset();
+            maxNanos.set(0);
+        }
+    }
+
+    /**
+     * Retrieves the counters of a statement. Statement caches keep them with the statement, so
+     * the SQL text is only normalized when a statement is prepared.
+     *
+     * @param sql the SQL text the statement was prepared from
+     * @return the counters of the statement
+     */
+    Counters countersFor(String sql) {
+        return counters.computeIfAbsent(normalize(sql), Counters::new);
+    }
+
+    /**
+     * Folds whitespace and placeholder lists, so the same statement built for different list
+     * lengths has one text.
+     */
+    static String normalize(String sql) {
+        String text = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        text = PLACEHOLDER_LIST.matcher(text).replaceAll("?...");
+        return ROW_LIST.matcher(text).replaceAll("$1...");
+    }
+
+    /**
+     * Takes a snapshot of the counts of every statement, the ones that took the most time in total first.
+     *
+     * @return the statement counts
+     */
+    public List<QueryStats> snapshot() {
+        List<QueryStats> snapshot = new ArrayList<>();
+        for (Counters statement : counters.values()) {
+            if (statement.prepared.sum() == 0 && statement.reused.sum() == 0 && statement.executions.sum() == 0) {
+                continue;
+            }
+            snapshot.add(new QueryStats(statement.sql, statement.prepared.sum(), statement.reused.sum(),
+                    statement.executions.sum(), statement.totalNanos.sum() / 1_000_000.0,
+                    statement.maxNanos.get() / 1_000_000.0));
+        }
+        snapshot.sort(Comparator.comparingDouble(QueryStats::getTotalMillis).reversed());
+        return snapshot;
+    }
+
+    /**
+     * Forgets every count, to measure from now on.
+     */
+    public void reset() {
+        counters.values().forEach(Counters::reset);
+    }
+
+    /**
+     * Represents a point-in-time view of the counts of one statement.
+     */
+    public static class QueryStats {
+        private final String sql;
+        private final long preparedCount;
+        private final long reusedCount;
+        private final long executionCount;
+        private final double totalMillis;
+        private final double maxMillis;
+
+        /**
+         * Constructs a QueryStats object.
+         *
+         * @param sql            The SQL text, with placeholder lists folded.
+         * @param preparedCount  The number of times the statement was prepared on a connection.
+         * @param reusedCount    The number of times a prepared statement was reused from the cache.
+         * @param executionCount The number of executions.
+         * @param totalMillis    The time spent in all executions.
+         * @param maxMillis      The longest execution.
+         */
+        public QueryStats(String sql, long preparedCount, long reusedCount, long executionCount,
+                          double totalMillis, double maxMillis) {
+            this.sql = sql;
+            this.preparedCount = preparedCount;
+            this.reusedCount = reusedCount;
+            this.executionCount = executionCount;
+            this.totalMillis = totalMillis;
+            this.maxMillis = maxMillis;
+        }
+
+        public String getSql() { return sql; }
+        public long getPreparedCount() { return preparedCount; }
+        public long getReusedCount() { return reusedCount; }
+        public long getExecutionCount() { return executionCount; }
+        public double getTotalMillis() { return totalMillis; }
+        public double getMaxMillis() { return maxMillis; }
+        public double getAverageMillis() { return executionCount == 0 ? 0 : totalMillis / executionCount; }
+    }
+}
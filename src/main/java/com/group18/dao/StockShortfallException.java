@@ -0,0 +1,54 @@
+package com.group18.dao;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Thrown when an order cannot be placed because some of its products are short of stock.
+ * The order is rolled back as a whole; the short products are reported with how many units
+ * are missing, so the cashier can reduce or remove those lines.
+ */
+public class StockShortfallException extends SQLException {
+    private static final long serialVersionUID = 1L;
+
+    /** Copied into TreeMaps, so the exception stays serializable. */
+    private final TreeMap<Integer, Integer> shortfalls;
+    private final TreeMap<Integer, String> productNames;
+
+    /**
+     * Constructs a shortfall for the given products.
+     *
+     * @param shortfalls The number of units missing, by product ID.
+     * @param productNames The names of the short products, by product ID.
+     */
+    public StockShortfallException(Map<Integer, Integer> shortfalls, Map<Integer, String> productNames) {
+        super("Not enough stock: " + shortfalls.entrySet().stream()
+                .map(entry -> productNames.getOrDefault(entry.getKey(), "Product " + entry.getKey())
+                        + " short by " + entry.getValue())
+                .collect(Collectors.joining(", ")));
+        this.shortfalls = new TreeMap<>(shortfalls);
+        this.productNames = new TreeMap<>(productNames);
+    }
+
+    /**
+     * Retrieves the products that are short of stock.
+     *
+     * @return The number of units missing, by product ID.
+     */
+    public Map<Integer, Integer> getShortfalls() {
+        return Collections.unmodifiableMap(shortfalls);
+    }
+
+    /**
+     * Retrieves the name of a short product.
+     *
+     * @param productId The ID of the product.
+     * @return The product's name, or a placeholder if the product no longer exists.
+     */
+    public String getProductName(int productId) {
+        return productNames.getOrDefault(productId, "Product " + productId);
+    }
+}
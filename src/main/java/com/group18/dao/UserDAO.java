@@ -8,17 +8,9 @@ import java.util.List;
 /**
  * Data Access Object (DAO) for interacting with the "users" table in the database.
  * Provides methods for CRUD operations and user-related queries.
+ * Every change is published on the {@link ChangeBus}.
  */
 public class UserDAO {
-    private Connection connection;
-
-    /**
-     * Constructs a new UserDAO object with a database connection.
-     */
-    public UserDAO() {
-        this.connection = DBConnection.getConnection();
-    }
-
     /**
      * Authenticates a user based on the provided username and password.
      *
@@ -29,7 +21,8 @@ public class UserDAO {
     public User authenticateUser(String username, String password) {
         String query = "SELECT * FROM users WHERE username = ? AND password = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, username);
             stmt.setString(2, password);
 
@@ -52,7 +45,8 @@ public class UserDAO {
     public User findById(int userId) {
         String query = "SELECT * FROM users WHERE user_id = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
 
@@ -74,7 +68,8 @@ public class UserDAO {
         String query = "SELECT * FROM users";
         List<User> users = new ArrayList<>();
 
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = DBConnection.getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
 
             while (rs.next()) {
@@ -96,7 +91,8 @@ public class UserDAO {
         // First, check if the username already exists
         String checkQuery = "SELECT COUNT(*) FROM users WHERE username = ?";
 
-        try (PreparedStatement checkStmt = connection.prepareStatement(checkQuery)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement checkStmt = connection.prepareStatement(checkQuery)) {
             checkStmt.setString(1, user.getUsername());
 
             try (ResultSet rs = checkStmt.executeQuery()) {
@@ -122,6 +118,7 @@ public class UserDAO {
                     try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                         if (generatedKeys.next()) {
                             user.setUserId(generatedKeys.getInt(1));
+                            ChangeBus.getInstance().publish(connection, ChangeEvent.Entity.USER, ChangeEvent.Type.CREATED, user.getUserId());
                         }
                     }
                     return true;
@@ -143,7 +140,8 @@ public class UserDAO {
         // First, check if the username is already taken by another user
         String checkQuery = "SELECT COUNT(*) FROM users WHERE username = ? AND user_id != ?";
 
-        try (PreparedStatement checkStmt = connection.prepareStatement(checkQuery)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement checkStmt = connection.prepareStatement(checkQuery)) {
             checkStmt.setString(1, user.getUsername());
             checkStmt.setInt(2, user.getUserId());
 
@@ -165,7 +163,11 @@ public class UserDAO {
                 stmt.setString(5, user.getLastName());
                 stmt.setInt(6, user.getUserId());
 
-                return stmt.executeUpdate() > 0;
+                if (stmt.executeUpdate() > 0) {
+                    ChangeBus.getInstance().publish(connection, ChangeEvent.Entity.USER, ChangeEvent.Type.UPDATED, user.getUserId());
+                    return true;
+                }
+                return false;
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -182,9 +184,13 @@ public class UserDAO {
     public boolean deleteUser(int userId) {
         String query = "DELETE FROM users WHERE user_id = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, userId);
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() > 0) {
+                ChangeBus.getInstance().publish(connection, ChangeEvent.Entity.USER, ChangeEvent.Type.DELETED, userId);
+                return true;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -200,7 +206,8 @@ public class UserDAO {
         String query = "SELECT COUNT(*) FROM users WHERE MONTH(created_at) = MONTH(CURRENT_DATE()) " +
                 "AND YEAR(created_at) = YEAR(CURRENT_DATE())";
 
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = DBConnection.getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             if (rs.next()) {
                 return rs.getLong(1);
@@ -0,0 +1,174 @@
+package com.group18.export;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes rows as a gzip-compressed file of column blocks, which is several times smaller than
+ * CSV and quick to read back column by column.
+ *
+ * Rows are collected into blocks of {@link #BLOCK_SIZE}, and each full block is written column
+ * after column, so only one block is ever held in memory. Inside the gzip stream the file is:
+ * <pre>
+ * "ORDC" version:byte columnCount:int columnName:UTF...
+ * block*  rowCount:int  column...        (rowCount > 0)
+ * end     0:int
+ * </pre>
+ * Integer columns are written as zig-zag varints of the difference to the previous row of the
+ * block, so the mostly increasing IDs and dates take a byte or two: order_id, order_date (epoch
+ * seconds, local time), cashier_id, order_item_id, schedule_id, seat_number, product_id and
+ * quantity. A missing value is written as 0. The amounts total_price, refunded_amount and
+ * item_price are zig-zag varints of cents. status and item_type are written as a block dictionary
+ * (count:int, values:UTF, with "" for a missing value) followed by one code byte per row, and
+ * discount_applied as one byte per row: 0 no, 1 yes, 2 missing.
+ */
+class ColumnarOrderExportWriter implements OrderExportWriter {
+    /** Rows per block. */
+    static final int BLOCK_SIZE = 8192;
+    private static final int VERSION = 1;
+
+    private final DataOutputStream out;
+
+    private int size;
+    private final int[] orderIds = new int[BLOCK_SIZE];
+    private final long[] orderSeconds = new long[BLOCK_SIZE];
+    private final int[] cashierIds = new int[BLOCK_SIZE];
+    private final String[] statuses = new String[BLOCK_SIZE];
+    private final long[] totalCents = new long[BLOCK_SIZE];
+    private final long[] refundedCents = new long[BLOCK_SIZE];
+    private final int[] orderItemIds = new int[BLOCK_SIZE];
+    private final String[] itemTypes = new String[BLOCK_SIZE];
+    private final int[] scheduleIds = new int[BLOCK_SIZE];
+    private final int[] seatNumbers = new int[BLOCK_SIZE];
+    private final int[] productIds = new int[BLOCK_SIZE];
+    private final int[] quantities = new int[BLOCK_SIZE];
+    private final long[] itemCents = new long[BLOCK_SIZE];
+    private final byte[] discounts = new byte[BLOCK_SIZE];
+
+    ColumnarOrderExportWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(out, 64 * 1024), 64 * 1024));
+        this.out.writeBytes("ORDC");
+        this.out.writeByte(VERSION);
+        this.out.writeInt(OrderExportRow.COLUMNS.length);
+        for (String column : OrderExportRow.COLUMNS) {
+            this.out.writeUTF(column);
+        }
+    }
+
+    @Override
+    public void write(OrderExportRow row) throws IOException {
+        orderIds[size] = row.orderId();
+        orderSeconds[size] = row.orderDate().toEpochSecond(ZoneOffset.UTC);
+        cashierIds[size] = row.cashierId();
+        statuses[size] = row.status();
+        totalCents[size] = cents(row.totalPrice());
+        refundedCents[size] = cents(row.refundedAmount());
+        orderItemIds[size] = orZero(row.orderItemId());
+        itemTypes[size] = row.itemType();
+        scheduleIds[size] = orZero(row.scheduleId());
+        seatNumbers[size] = orZero(row.seatNumber());
+        productIds[size] = orZero(row.productId());
+        quantities[size] = orZero(row.quantity());
+        itemCents[size] = cents(row.itemPrice());
+        discounts[size] = row.discountApplied() == null ? 2 : (byte) (row.discountApplied() ? 1 : 0);
+        size++;
+
+        if (size == BLOCK_SIZE) {
+            writeBlock();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        out.writeInt(size);
+        writeDeltas(orderIds);
+        writeDeltas(orderSeconds);
+        writeDeltas(cashierIds);
+        writeDictionary(statuses);
+        writeValues(totalCents);
+        writeValues(refundedCents);
+        writeDeltas(orderItemIds);
+        writeDictionary(itemTypes);
+        writeDeltas(scheduleIds);
+        writeDeltas(seatNumbers);
+        writeDeltas(productIds);
+        writeDeltas(quantities);
+        writeValues(itemCents);
+        out.write(discounts, 0, size);
+        size = 0;
+    }
+
+    private void writeDeltas(int[] column) throws IOException {
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            writeVarLong(column[i] - previous);
+            previous = column[i];
+        }
+    }
+
+    private void writeDeltas(long[] column) throws IOException {
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            writeVarLong(column[i] - previous);
+            previous = column[i];
+        }
+    }
+
+    private void writeValues(long[] column) throws IOException {
+        for (int i = 0; i < size; i++) {
+            writeVarLong(column[i]);
+        }
+    }
+
+    private void writeDictionary(String[] column) throws IOException {
+        Map<String, Integer> codes = new LinkedHashMap<>();
+        byte[] rowCodes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            String value = column[i] == null ? "" : column[i];
+            rowCodes[i] = codes.computeIfAbsent(value, v -> codes.size()).byteValue();
+        }
+        List<String> values = new ArrayList<>(codes.keySet());
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+        out.write(rowCodes);
+    }
+
+    /**
+     * Writes a signed value as a zig-zag varint: seven bits per byte, small magnitudes first.
+     */
+    private void writeVarLong(long value) throws IOException {
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        out.writeByte((int) zigZag);
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).longValue();
+    }
+
+    private static int orZero(Integer value) {
+        return value == null ? 0 : value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (size > 0) {
+            writeBlock();
+        }
+        out.writeInt(0);
+        out.close();
+    }
+}
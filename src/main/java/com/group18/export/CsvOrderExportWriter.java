@@ -0,0 +1,91 @@
+package com.group18.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes rows as UTF-8 CSV with a header line. Null fields are left empty.
+ */
+class CsvOrderExportWriter implements OrderExportWriter {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Writer writer;
+    private boolean headerWritten;
+
+    CsvOrderExportWriter(OutputStream out) {
+        writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public void write(OrderExportRow row) throws IOException {
+        if (!headerWritten) {
+            writer.write(String.join(",", OrderExportRow.COLUMNS));
+            writer.write('\n');
+            headerWritten = true;
+        }
+        writer.write(Integer.toString(row.orderId()));
+        writer.write(',');
+        writer.write(row.orderDate().format(DATE_FORMAT));
+        writer.write(',');
+        writer.write(Integer.toString(row.cashierId()));
+        writer.write(',');
+        writeText(row.status());
+        writer.write(',');
+        writeValue(row.totalPrice());
+        writer.write(',');
+        writeValue(row.refundedAmount());
+        writer.write(',');
+        writeValue(row.orderItemId());
+        writer.write(',');
+        writeText(row.itemType());
+        writer.write(',');
+        writeValue(row.scheduleId());
+        writer.write(',');
+        writeValue(row.seatNumber());
+        writer.write(',');
+        writeValue(row.productId());
+        writer.write(',');
+        writeValue(row.quantity());
+        writer.write(',');
+        writeValue(row.itemPrice());
+        writer.write(',');
+        writeValue(row.discountApplied());
+        writer.write('\n');
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value != null) {
+            writer.write(value.toString());
+        }
+    }
+
+    /**
+     * Writes text, quoting it if it contains a separator, a quote or a line break.
+     */
+    private void writeText(String text) throws IOException {
+        if (text == null) {
+            return;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(text);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!headerWritten) {
+            writer.write(String.join(",", OrderExportRow.COLUMNS));
+            writer.write('\n');
+        }
+        writer.close();
+    }
+}
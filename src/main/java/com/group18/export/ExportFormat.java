@@ -0,0 +1,53 @@
+package com.group18.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The file formats orders can be exported in.
+ */
+public enum ExportFormat {
+    /** Comma-separated values with a header line, for spreadsheets. */
+    CSV("CSV", "csv") {
+        @Override
+        public OrderExportWriter open(OutputStream out) {
+            return new CsvOrderExportWriter(out);
+        }
+    },
+    /** Gzip-compressed blocks of columns, see {@link ColumnarOrderExportWriter}. */
+    COLUMNAR("Compressed columnar", "ordc.gz") {
+        @Override
+        public OrderExportWriter open(OutputStream out) throws IOException {
+            return new ColumnarOrderExportWriter(out);
+        }
+    };
+
+    private final String displayName;
+    private final String extension;
+
+    ExportFormat(String displayName, String extension) {
+        this.displayName = displayName;
+        this.extension = extension;
+    }
+
+    /**
+     * Opens a writer in this format.
+     *
+     * @param out the stream to write to; closed when the writer is closed
+     * @return the writer
+     * @throws IOException if the file header cannot be written
+     */
+    public abstract OrderExportWriter open(OutputStream out) throws IOException;
+
+    /**
+     * Retrieves the file name extension of this format, without the leading dot.
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
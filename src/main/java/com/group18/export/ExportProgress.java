@@ -0,0 +1,25 @@
+package com.group18.export;
+
+/**
+ * Follows the progress of an export, and may ask for it to stop.
+ */
+public interface ExportProgress {
+    /**
+     * Reports the progress so far. Called from the exporting thread, at most a few times a second.
+     *
+     * @param rowsWritten  the rows written so far
+     * @param totalRows    the rows the export will write
+     * @param bytesWritten the bytes written to the file so far
+     * @param elapsedNanos the time since the export started
+     */
+    void update(long rowsWritten, long totalRows, long bytesWritten, long elapsedNanos);
+
+    /**
+     * Checks whether the export should stop. The partly written file is deleted.
+     *
+     * @return true to stop the export
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+}
@@ -0,0 +1,36 @@
+package com.group18.export;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One exported line: an order item together with the order it belongs to. Orders without
+ * items are exported as a single row whose item fields are null.
+ *
+ * @param orderId         the ID of the order
+ * @param orderDate       the date and time of the order
+ * @param cashierId       the ID of the cashier who placed it
+ * @param status          the status of the order
+ * @param totalPrice      the total price of the order, with tax
+ * @param refundedAmount  the amount refunded for the order
+ * @param orderItemId     the ID of the item, or null
+ * @param itemType        "ticket" or "product", or null
+ * @param scheduleId      the schedule of a ticket, or null
+ * @param seatNumber      the seat of a ticket, or null
+ * @param productId       the product, or null
+ * @param quantity        the number of items, or null
+ * @param itemPrice       the price of one item before tax, or null
+ * @param discountApplied whether an age discount was applied, or null
+ */
+public record OrderExportRow(int orderId, LocalDateTime orderDate, int cashierId, String status,
+                             BigDecimal totalPrice, BigDecimal refundedAmount, Integer orderItemId,
+                             String itemType, Integer scheduleId, Integer seatNumber, Integer productId,
+                             Integer quantity, BigDecimal itemPrice, Boolean discountApplied) {
+
+    /** The column names, in export order. */
+    public static final String[] COLUMNS = {
+            "order_id", "order_date", "cashier_id", "status", "total_price", "refunded_amount",
+            "order_item_id", "item_type", "schedule_id", "seat_number", "product_id", "quantity",
+            "item_price", "discount_applied"
+    };
+}
@@ -0,0 +1,18 @@
+package com.group18.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes exported rows to a file as they arrive, holding no more than a small, fixed
+ * number of them in memory.
+ */
+public interface OrderExportWriter extends Closeable {
+    /**
+     * Writes a row.
+     *
+     * @param row the row to write
+     * @throws IOException if the file cannot be written
+     */
+    void write(OrderExportRow row) throws IOException;
+}
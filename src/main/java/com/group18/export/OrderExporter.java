@@ -0,0 +1,100 @@
+package com.group18.export;
+
+import com.group18.dao.OrderExportDAO;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports the order history of a period to a file, streaming rows from the database to the
+ * file with bounded memory.
+ *
+ * <pre>
+ * long rows = new OrderExporter().export(from, to, statuses, ExportFormat.CSV, file, progress);
+ * </pre>
+ */
+public class OrderExporter {
+    /** The least time between two progress reports. */
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final OrderExportDAO orderExportDAO = new OrderExportDAO();
+
+    /**
+     * Exports the orders of a period. Blocks until the file is complete, so call it off the
+     * JavaFX thread.
+     *
+     * @param from     the start of the period, inclusive
+     * @param to       the end of the period, exclusive
+     * @param statuses the order statuses to include
+     * @param format   the file format
+     * @param file     the file to write; replaced if it exists
+     * @param progress receives progress reports and may cancel the export
+     * @return the number of rows written
+     * @throws IOException  if the file cannot be written, or the export was cancelled
+     * @throws SQLException if the orders cannot be read
+     */
+    public long export(LocalDateTime from, LocalDateTime to, Collection<String> statuses, ExportFormat format,
+                       Path file, ExportProgress progress) throws IOException, SQLException {
+        List<String> statusList = List.copyOf(statuses);
+        long totalRows = orderExportDAO.countRows(from, to, statusList);
+        long start = System.nanoTime();
+        long[] rows = {0};
+        long[] lastReport = {start};
+
+        boolean complete = false;
+        CountingOutputStream counter = new CountingOutputStream(Files.newOutputStream(file));
+        try (OrderExportWriter writer = format.open(counter)) {
+            orderExportDAO.streamRows(from, to, statusList, row -> {
+                writer.write(row);
+                rows[0]++;
+                long now = System.nanoTime();
+                if (now - lastReport[0] >= PROGRESS_INTERVAL_NANOS) {
+                    lastReport[0] = now;
+                    if (progress.isCancelled()) {
+                        throw new InterruptedIOException("Export cancelled");
+                    }
+                    progress.update(rows[0], totalRows, counter.count, now - start);
+                }
+            });
+            complete = true;
+        } finally {
+            if (!complete) {
+                Files.deleteIfExists(file);
+            }
+        }
+        progress.update(rows[0], Math.max(totalRows, rows[0]), counter.count, System.nanoTime() - start);
+        return rows[0];
+    }
+
+    /**
+     * Counts the bytes written through it.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private volatile long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.group18.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The items of one type sold on one day and the revenue they brought in before tax,
+ * excluding refunded items.
+ */
+public class DailyRevenue {
+    /**
+     * The day of the sales.
+     */
+    private final LocalDate date;
+    /**
+     * The type of the items, "ticket" or "product".
+     */
+    private final String itemType;
+    /**
+     * The number of items sold.
+     */
+    private final int itemCount;
+    /**
+     * The revenue of the items, before tax.
+     */
+    private final BigDecimal revenue;
+
+    /**
+     * Constructs a DailyRevenue object.
+     *
+     * @param date      the day of the sales
+     * @param itemType  the type of the items, "ticket" or "product"
+     * @param itemCount the number of items sold
+     * @param revenue   the revenue of the items, before tax
+     */
+    public DailyRevenue(LocalDate date, String itemType, int itemCount, BigDecimal revenue) {
+        this.date = date;
+        this.itemType = itemType;
+        this.itemCount = itemCount;
+        this.revenue = revenue;
+    }
+
+    public LocalDate getDate() { return date; }
+    public String getItemType() { return itemType; }
+    public int getItemCount() { return itemCount; }
+    public BigDecimal getRevenue() { return revenue; }
+}
@@ -41,6 +41,12 @@ public class Movie {
      * Typically used to store and retrieve the movie's visual representation.
      */
     private byte[] posterData;
+    /**
+     * Represents the SHA-256 content hash of the poster image, or null if the movie has no poster.
+     * Used as part of the key under which decoded poster images are cached, so a replaced poster
+     * never shows a stale image.
+     */
+    private String posterHash;
     /**
      * Represents the duration of the movie in minutes.
      */
@@ -88,6 +94,24 @@ public class Movie {
         this.posterData = posterData;
     }
 
+    /**
+     * Retrieves the content hash of the movie's poster.
+     *
+     * @return the poster's SHA-256 hash as a hex string, or null if the movie has no poster.
+     */
+    public String getPosterHash() {
+        return posterHash;
+    }
+
+    /**
+     * Sets the content hash of the movie's poster.
+     *
+     * @param posterHash the poster's SHA-256 hash as a hex string.
+     */
+    public void setPosterHash(String posterHash) {
+        this.posterHash = posterHash;
+    }
+
     /**
      * Retrieves the poster image for the movie. Converts the byte array representing
      * the poster data to an Image object.
@@ -54,6 +54,16 @@ public class Order {
      * This value is initialized to zero and is updated whenever a refund is processed.
      */
     private BigDecimal refundedAmount = BigDecimal.ZERO;
+    /**
+     * Indicates whether a receipt PDF has been stored for the order.
+     * The document itself is loaded on demand rather than kept on the order.
+     */
+    private boolean hasReceipt;
+    /**
+     * Indicates whether a tickets PDF has been stored for the order.
+     * The document itself is loaded on demand rather than kept on the order.
+     */
+    private boolean hasTickets;
 
     /**
      * Retrieves the total refunded amount for the order.
@@ -227,4 +237,40 @@ public class Order {
     public void setStatus(String status) {
         this.status = status;
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks whether a receipt PDF is stored for the order.
+     *
+     * @return true if a receipt is available, false otherwise
+     */
+    public boolean hasReceipt() {
+        return hasReceipt;
+    }
+
+    /**
+     * Sets whether a receipt PDF is stored for the order.
+     *
+     * @param hasReceipt true if a receipt is available
+     */
+    public void setHasReceipt(boolean hasReceipt) {
+        this.hasReceipt = hasReceipt;
+    }
+
+    /**
+     * Checks whether a tickets PDF is stored for the order.
+     *
+     * @return true if tickets are available, false otherwise
+     */
+    public boolean hasTickets() {
+        return hasTickets;
+    }
+
+    /**
+     * Sets whether a tickets PDF is stored for the order.
+     *
+     * @param hasTickets true if tickets are available
+     */
+    public void setHasTickets(boolean hasTickets) {
+        this.hasTickets = hasTickets;
+    }
+}
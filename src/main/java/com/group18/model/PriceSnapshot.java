@@ -0,0 +1,80 @@
+package com.group18.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable copy of every ticket price and discount rate, as of one version of the
+ * pricing tables. A snapshot is read without locking and replaced as a whole when
+ * prices change, so a cart priced from one snapshot never mixes old and new prices.
+ */
+public class PriceSnapshot {
+    /**
+     * The snapshot used before prices could be loaded, in which everything is free.
+     */
+    public static final PriceSnapshot EMPTY = new PriceSnapshot(0, new HashMap<>(), 0.0);
+
+    /**
+     * The value of the pricing version counter the snapshot was read at.
+     */
+    private final long version;
+    /**
+     * The ticket price of each hall, by hall name.
+     */
+    private final Map<String, Double> ticketPrices;
+    /**
+     * The age-based discount rate, in percent.
+     */
+    private final double ageDiscount;
+
+    /**
+     * Constructs a snapshot.
+     *
+     * @param version      the pricing version the snapshot was read at
+     * @param ticketPrices the ticket price of each hall, by hall name
+     * @param ageDiscount  the age-based discount rate, in percent
+     */
+    public PriceSnapshot(long version, Map<String, Double> ticketPrices, double ageDiscount) {
+        this.version = version;
+        this.ticketPrices = Collections.unmodifiableMap(new HashMap<>(ticketPrices));
+        this.ageDiscount = ageDiscount;
+    }
+
+    /**
+     * Retrieves the pricing version the snapshot was read at.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Retrieves the ticket price of a hall.
+     *
+     * @param hall the name of the hall
+     * @return the ticket price, or 0.0 if the hall has no price
+     */
+    public double getTicketPrice(String hall) {
+        return ticketPrices.getOrDefault(hall, 0.0);
+    }
+
+    /**
+     * Retrieves the ticket prices of all halls.
+     *
+     * @return an unmodifiable map of ticket prices by hall name
+     */
+    public Map<String, Double> getTicketPrices() {
+        return ticketPrices;
+    }
+
+    /**
+     * Retrieves the age-based discount rate.
+     *
+     * @return the discount rate, in percent
+     */
+    public double getAgeDiscount() {
+        return ageDiscount;
+    }
+}
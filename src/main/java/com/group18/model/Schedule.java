@@ -38,7 +38,8 @@ public class Schedule {
     /**
      * Represents the number of available seats for a movie session.
      * This value indicates the count of seats that have not been booked yet.
-     * HOWEVER, THIS IS NOT BEING USED, Instead we retrieve them from the current orders.
+     * It is only filled in by queries that compute it from the current orders,
+     * such as the ones loading a {@link ScheduleOverview}.
      */
     private int availableSeats;
     /**
@@ -65,7 +66,7 @@ public class Schedule {
 
     /**
      * Retrieves the number of available seats for the movie session.
-     * HOWEVER, THIS IS NOT BEING USED, Instead we retrieve them from the current orders.
+     * Only meaningful when the schedule was loaded together with its seat counts.
      *
      * @return the number of available seats
      */
@@ -75,7 +76,6 @@ public class Schedule {
 
     /**
      * Sets the number of available seats for the movie session.
-     * HOWEVER, THIS IS NOT BEING USED, Instead we retrieve them from the current orders.
      *
      * @param availableSeats the number of seats available for this session
      */
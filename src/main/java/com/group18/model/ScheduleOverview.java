@@ -0,0 +1,80 @@
+package com.group18.model;
+
+/**
+ * A schedule as shown in the admin schedule tables and printed on tickets, together with
+ * the title of its movie, its hall and its seat occupancy. Overviews are loaded for a whole month in a single query, so the
+ * tables can render and scroll without going back to the database for each cell.
+ */
+public class ScheduleOverview extends Schedule {
+    /**
+     * The title of the scheduled movie, or null if the movie no longer exists.
+     */
+    private String movieTitle;
+    /**
+     * The number of seats in the hall the session takes place in.
+     */
+    private int capacity;
+    /**
+     * The name of the hall the session takes place in, e.g. "Hall_A".
+     */
+    private String hallName;
+
+    /**
+     * Constructs a new, empty ScheduleOverview object.
+     */
+    public ScheduleOverview() {}
+
+    /**
+     * Retrieves the title of the scheduled movie.
+     *
+     * @return the movie title, or null if the movie no longer exists
+     */
+    public String getMovieTitle() {
+        return movieTitle;
+    }
+
+    /**
+     * Sets the title of the scheduled movie.
+     *
+     * @param movieTitle the movie title
+     */
+    public void setMovieTitle(String movieTitle) {
+        this.movieTitle = movieTitle;
+    }
+
+    /**
+     * Retrieves the number of seats in the session's hall.
+     *
+     * @return the hall capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Sets the number of seats in the session's hall.
+     *
+     * @param capacity the hall capacity
+     */
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Retrieves the name of the session's hall.
+     *
+     * @return the hall name
+     */
+    public String getHallName() {
+        return hallName;
+    }
+
+    /**
+     * Sets the name of the session's hall.
+     *
+     * @param hallName the hall name
+     */
+    public void setHallName(String hallName) {
+        this.hallName = hallName;
+    }
+}
@@ -0,0 +1,138 @@
+package com.group18.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The seat occupancy of a single schedule, kept as one bit per seat.
+ * Seats are numbered from 1, in the same row-major order the seat grid uses,
+ * so seat n is stored in bit n - 1.
+ */
+public class SeatMap {
+    /**
+     * The number of seats in the hall of the schedule.
+     */
+    private final int capacity;
+    /**
+     * One bit per seat; a set bit means the seat is taken.
+     */
+    private final BitSet occupied;
+
+    /**
+     * Constructs a seat map with every seat available.
+     *
+     * @param capacity the number of seats in the hall
+     */
+    public SeatMap(int capacity) {
+        this(capacity, new BitSet(capacity));
+    }
+
+    private SeatMap(int capacity, BitSet occupied) {
+        this.capacity = capacity;
+        this.occupied = occupied;
+    }
+
+    /**
+     * Restores a seat map from its stored form.
+     *
+     * @param capacity the number of seats in the hall
+     * @param bits     the little-endian bitmap produced by {@link #toBytes()}, or null for an empty map
+     * @return the seat map
+     */
+    public static SeatMap fromBytes(int capacity, byte[] bits) {
+        return new SeatMap(capacity, bits != null ? BitSet.valueOf(bits) : new BitSet(capacity));
+    }
+
+    /**
+     * Returns the stored form of this seat map.
+     *
+     * @return the occupied seats as a little-endian bitmap
+     */
+    public byte[] toBytes() {
+        return occupied.toByteArray();
+    }
+
+    /**
+     * Checks whether a seat is taken.
+     *
+     * @param seatNumber the seat number, starting from 1
+     * @return true if the seat is taken
+     */
+    public boolean isOccupied(int seatNumber) {
+        return seatNumber >= 1 && occupied.get(seatNumber - 1);
+    }
+
+    /**
+     * Marks a seat as taken.
+     *
+     * @param seatNumber the seat number, starting from 1
+     * @return true if the seat was available; false if it was already taken
+     * @throws IllegalArgumentException if the hall has no such seat
+     */
+    public boolean occupy(int seatNumber) {
+        checkSeat(seatNumber);
+        if (occupied.get(seatNumber - 1)) {
+            return false;
+        }
+        occupied.set(seatNumber - 1);
+        return true;
+    }
+
+    /**
+     * Marks a seat as available again.
+     *
+     * @param seatNumber the seat number, starting from 1
+     * @throws IllegalArgumentException if the hall has no such seat
+     */
+    public void release(int seatNumber) {
+        checkSeat(seatNumber);
+        occupied.clear(seatNumber - 1);
+    }
+
+    /**
+     * Retrieves the number of seats in the hall.
+     *
+     * @return the hall capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Retrieves the number of taken seats.
+     *
+     * @return the number of taken seats
+     */
+    public int getOccupiedCount() {
+        return occupied.cardinality();
+    }
+
+    /**
+     * Retrieves the number of seats still available.
+     *
+     * @return the number of available seats
+     */
+    public int getAvailableCount() {
+        return capacity - getOccupiedCount();
+    }
+
+    /**
+     * Lists the taken seats in ascending order.
+     *
+     * @return the numbers of the taken seats, starting from 1
+     */
+    public List<Integer> getOccupiedSeats() {
+        List<Integer> seats = new ArrayList<>(getOccupiedCount());
+        for (int bit = occupied.nextSetBit(0); bit >= 0; bit = occupied.nextSetBit(bit + 1)) {
+            seats.add(bit + 1);
+        }
+        return seats;
+    }
+
+    private void checkSeat(int seatNumber) {
+        if (seatNumber < 1 || seatNumber > capacity) {
+            throw new IllegalArgumentException("No seat " + seatNumber + " in a hall of " + capacity + " seats");
+        }
+    }
+}
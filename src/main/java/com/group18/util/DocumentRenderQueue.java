@@ -0,0 +1,335 @@
+package com.group18.util;
+
+import com.group18.dao.OrderDAO;
+import com.group18.model.Order;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders the receipt and tickets PDFs of new orders in the background, so checkout only
+ * has to store the order itself.
+ *
+ * Orders are stored with their documents pending. A small pool of workers takes them from a
+ * bounded queue, renders both PDFs and stores them, which marks the documents as ready.
+ * A render that fails is retried with a growing delay; after the last attempt the documents
+ * are marked as failed. When the queue is full, an order waits for a retry slot instead of
+ * blocking the till.
+ *
+ * Orders whose documents were still pending when a till closed, and orders whose documents
+ * failed, are picked up again by {@link #resumePending()}. It only takes pending orders placed
+ * more than a grace period ago, so it leaves alone the orders another running till is still
+ * rendering, and gives each failed order one more try per run.
+ *
+ * This class follows the Singleton design pattern so every screen shares one queue.
+ */
+public class DocumentRenderQueue {
+    /** Number of orders rendered at the same time. */
+    private static final int WORKER_COUNT = 2;
+    /** Number of orders that may wait for a worker before new ones are deferred. */
+    private static final int QUEUE_CAPACITY = 64;
+    /** Number of times an order is rendered before its documents are marked as failed. */
+    private static final int MAX_ATTEMPTS = 3;
+    /** Delay before the first retry; each further retry waits twice as long. */
+    private static final long RETRY_DELAY_MILLIS = 2000;
+    /**
+     * How long an order's documents may stay pending before another till takes them over, and
+     * how often this till looks for such orders and for failed ones.
+     */
+    private static final long RESUME_GRACE_SECONDS = Long.getLong("cinema.documents.resumeGraceSeconds", 300);
+    /** How long closing the application waits for queued orders to finish. */
+    private static final long SHUTDOWN_GRACE_SECONDS = 10;
+
+    private static DocumentRenderQueue instance;
+
+    private final OrderDAO orderDAO = new OrderDAO();
+    private final OrderPdfRenderer renderer = new OrderPdfRenderer();
+
+    private final ThreadPoolExecutor workers = new ThreadPoolExecutor(WORKER_COUNT, WORKER_COUNT,
+            0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY), daemonThreads("document-renderer"));
+    private final ScheduledExecutorService retries =
+            Executors.newSingleThreadScheduledExecutor(daemonThreads("document-render-retry"));
+
+    /** Orders queued, rendering or waiting for a retry, by order ID. */
+    private final Map<Integer, CompletableFuture<Boolean>> pending = new ConcurrentHashMap<>();
+    /** Orders whose failed documents this till has already tried again. */
+    private final Set<Integer> retriedFailed = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong renderedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong deferredCount = new AtomicLong();
+    private final AtomicLong totalRenderNanos = new AtomicLong();
+    private final AtomicLong maxRenderNanos = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    private DocumentRenderQueue() {}
+
+    /**
+     * Provides the shared render queue.
+     *
+     * @return the singleton instance of the DocumentRenderQueue class
+     */
+    public static synchronized DocumentRenderQueue getInstance() {
+        if (instance == null) {
+            instance = new DocumentRenderQueue();
+        }
+        return instance;
+    }
+
+    /**
+     * Queues the documents of a newly stored order for rendering and returns immediately.
+     *
+     * @param order the order, including its items, as it was stored
+     * @return a future completed with true once the documents are stored, or false if they could not be rendered
+     */
+    public CompletableFuture<Boolean> submit(Order order) {
+        return enqueue(order.getOrderId(), order);
+    }
+
+    /**
+     * Starts looking for orders whose documents were left behind, now and then every grace
+     * period, in the background. Orders still pending after the grace period, for example
+     * because the till that sold them closed before rendering them, are queued. Orders whose
+     * documents failed are set back to pending and queued once; only one till wins each of them.
+     * Rendering is idempotent, so a pending order resumed by two tills at once is merely
+     * rendered twice. Called once, when the till starts.
+     */
+    public void resumePending() {
+        retries.scheduleWithFixedDelay(this::resumeLeftBehind, 0, RESUME_GRACE_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Checks whether the documents of an order are still being rendered by this till.
+     *
+     * @param orderId the ID of the order
+     * @return true if the order is queued, rendering or waiting for a retry
+     */
+    public boolean isPending(int orderId) {
+        return pending.containsKey(orderId);
+    }
+
+    /**
+     * Retrieves a snapshot of the queue's state and performance.
+     *
+     * @return the current statistics
+     */
+    public RenderStats getStats() {
+        long rendered = renderedCount.get();
+        return new RenderStats(
+                pending.size(),
+                workers.getQueue().size(),
+                workers.getActiveCount(),
+                rendered,
+                failedCount.get(),
+                retryCount.get(),
+                deferredCount.get(),
+                rendered == 0 ? 0 : totalRenderNanos.get() / (rendered * 1_000_000.0),
+                maxRenderNanos.get() / 1_000_000.0,
+                rendered == 0 ? 0 : totalLatencyNanos.get() / (rendered * 1_000_000.0),
+                maxLatencyNanos.get() / 1_000_000.0);
+    }
+
+    /**
+     * Stops accepting orders and gives the queued ones a short time to finish. Orders that
+     * do not finish stay pending in the database and are resumed by the next till to start.
+     */
+    public void shutdown() {
+        retries.shutdownNow();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void resumeLeftBehind() {
+        try {
+            LocalDateTime placedBefore = LocalDateTime.now().minusSeconds(RESUME_GRACE_SECONDS);
+            for (int orderId : orderDAO.getOrderIdsWithPendingDocuments(placedBefore)) {
+                enqueue(orderId, null);
+            }
+            for (int orderId : orderDAO.getOrderIdsWithFailedDocuments()) {
+                if (retriedFailed.add(orderId) && orderDAO.retryDocuments(orderId)) {
+                    enqueue(orderId, null);
+                }
+            }
+        } catch (Exception e) {
+            // Keep looking on the next run
+            e.printStackTrace();
+        }
+    }
+
+    private CompletableFuture<Boolean> enqueue(int orderId, Order order) {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        CompletableFuture<Boolean> existing = pending.putIfAbsent(orderId, future);
+        if (existing != null) {
+            return existing;
+        }
+        schedule(new RenderJob(orderId, order, System.nanoTime(), future), 1);
+        return future;
+    }
+
+    private void schedule(RenderJob job, int attempt) {
+        try {
+            workers.execute(() -> render(job, attempt));
+        } catch (RejectedExecutionException e) {
+            if (workers.isShutdown()) {
+                // Left pending in the database for the next start
+                pending.remove(job.orderId);
+                return;
+            }
+            // The queue is full; try again later without counting it as a failed attempt
+            deferredCount.incrementAndGet();
+            retryLater(job, attempt, RETRY_DELAY_MILLIS);
+        }
+    }
+
+    private void retryLater(RenderJob job, int attempt, long delayMillis) {
+        try {
+            retries.schedule(() -> schedule(job, attempt), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            pending.remove(job.orderId);
+        }
+    }
+
+    private void render(RenderJob job, int attempt) {
+        long start = System.nanoTime();
+        try {
+            Order order = job.order != null ? job.order : orderDAO.findOrderById(job.orderId);
+            if (order == null) {
+                throw new IllegalStateException("Order " + job.orderId + " could not be loaded.");
+            }
+
+            byte[] receiptPdf = renderer.renderReceipt(order);
+            byte[] ticketsPdf = renderer.renderTickets(order);
+            if (!orderDAO.storeDocuments(job.orderId, receiptPdf, ticketsPdf)) {
+                throw new IllegalStateException("Documents of order " + job.orderId + " could not be stored.");
+            }
+
+            long end = System.nanoTime();
+            renderedCount.incrementAndGet();
+            totalRenderNanos.addAndGet(end - start);
+            maxRenderNanos.accumulateAndGet(end - start, Math::max);
+            totalLatencyNanos.addAndGet(end - job.enqueuedNanos);
+            maxLatencyNanos.accumulateAndGet(end - job.enqueuedNanos, Math::max);
+            complete(job, true);
+        } catch (Exception e) {
+            if (attempt < MAX_ATTEMPTS) {
+                System.err.println("Rendering documents of order " + job.orderId + " failed (attempt "
+                        + attempt + " of " + MAX_ATTEMPTS + "): " + e.getMessage());
+                retryCount.incrementAndGet();
+                retryLater(job, attempt + 1, RETRY_DELAY_MILLIS << (attempt - 1));
+            } else {
+                e.printStackTrace();
+                failedCount.incrementAndGet();
+                orderDAO.markDocumentsFailed(job.orderId);
+                complete(job, false);
+            }
+        }
+    }
+
+    private void complete(RenderJob job, boolean stored) {
+        pending.remove(job.orderId);
+        job.future.complete(stored);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * An order waiting for its documents. The order is null when it was resumed from the
+     * database, in which case it is loaded by the worker.
+     */
+    private record RenderJob(int orderId, Order order, long enqueuedNanos, CompletableFuture<Boolean> future) {}
+
+    /**
+     * Represents a point-in-time view of the render queue.
+     */
+    public static class RenderStats {
+        private final int pendingCount;
+        private final int queueDepth;
+        private final int activeCount;
+        private final long renderedCount;
+        private final long failedCount;
+        private final long retryCount;
+        private final long deferredCount;
+        private final double averageRenderMillis;
+        private final double maxRenderMillis;
+        private final double averageLatencyMillis;
+        private final double maxLatencyMillis;
+
+        /**
+         * Constructs a RenderStats object.
+         *
+         * @param pendingCount         The number of orders queued, rendering or waiting for a retry.
+         * @param queueDepth           The number of orders waiting for a worker.
+         * @param activeCount          The number of orders being rendered.
+         * @param renderedCount        The number of orders whose documents were stored since startup.
+         * @param failedCount          The number of orders whose documents were given up on.
+         * @param retryCount           The number of failed attempts that were retried.
+         * @param deferredCount        The number of times an order found the queue full.
+         * @param averageRenderMillis  The average time spent rendering and storing an order's documents.
+         * @param maxRenderMillis      The longest time spent rendering and storing an order's documents.
+         * @param averageLatencyMillis The average time from checkout until the documents were stored.
+         * @param maxLatencyMillis     The longest time from checkout until the documents were stored.
+         */
+        public RenderStats(int pendingCount, int queueDepth, int activeCount, long renderedCount,
+                           long failedCount, long retryCount, long deferredCount,
+                           double averageRenderMillis, double maxRenderMillis,
+                           double averageLatencyMillis, double maxLatencyMillis) {
+            this.pendingCount = pendingCount;
+            this.queueDepth = queueDepth;
+            this.activeCount = activeCount;
+            this.renderedCount = renderedCount;
+            this.failedCount = failedCount;
+            this.retryCount = retryCount;
+            this.deferredCount = deferredCount;
+            this.averageRenderMillis = averageRenderMillis;
+            this.maxRenderMillis = maxRenderMillis;
+            this.averageLatencyMillis = averageLatencyMillis;
+            this.maxLatencyMillis = maxLatencyMillis;
+        }
+
+        public int getPendingCount() { return pendingCount; }
+        public int getQueueDepth() { return queueDepth; }
+        public int getActiveCount() { return activeCount; }
+        public long getRenderedCount() { return renderedCount; }
+        public long getFailedCount() { return failedCount; }
+        public long getRetryCount() { return retryCount; }
+        public long getDeferredCount() { return deferredCount; }
+        public double getAverageRenderMillis() { return averageRenderMillis; }
+        public double getMaxRenderMillis() { return maxRenderMillis; }
+        public double getAverageLatencyMillis() { return averageLatencyMillis; }
+        public double getMaxLatencyMillis() { return maxLatencyMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("DocumentRenderQueue[pending=%d, queued=%d, active=%d, rendered=%d, failed=%d, " +
+                            "retries=%d, deferred=%d, avgRender=%.1fms, maxRender=%.1fms, avgLatency=%.1fms, maxLatency=%.1fms]",
+                    pendingCount, queueDepth, activeCount, renderedCount, failedCount, retryCount, deferredCount,
+                    averageRenderMillis, maxRenderMillis, averageLatencyMillis, maxLatencyMillis);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.group18.util;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how long the JavaFX thread takes to get to new work, by posting a probe to it at a
+ * fixed interval and timing how late each probe runs. A late probe means the screen froze for
+ * that long, usually because a handler ran a query on the JavaFX thread.
+ *
+ * Only one probe is waiting at a time, so a long stall is recorded once with its full length
+ * instead of flooding the JavaFX thread with probes.
+ *
+ * This class follows the Singleton design pattern so the application runs one monitor.
+ */
+public class FxStallMonitor {
+    /** How often a probe is posted. */
+    private static final long PROBE_INTERVAL_MILLIS = 100;
+    /** How late a probe must run to count as a stall. */
+    private static final long STALL_THRESHOLD_MILLIS = 100;
+
+    private static FxStallMonitor instance;
+
+    private final LatencyHistogram delays = new LatencyHistogram();
+    private final AtomicLong stallCount = new AtomicLong();
+    private final AtomicBoolean probePending = new AtomicBoolean();
+    private final ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "fx-stall-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private FxStallMonitor() {
+        prober.scheduleWithFixedDelay(this::probe, PROBE_INTERVAL_MILLIS, PROBE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Provides the monitor, starting it on first use.
+     *
+     * @return the singleton instance of the FxStallMonitor class
+     */
+    public static synchronized FxStallMonitor getInstance() {
+        if (instance == null) {
+            instance = new FxStallMonitor();
+        }
+        return instance;
+    }
+
+    private void probe() {
+        if (!probePending.compareAndSet(false, true)) {
+            return;
+        }
+        long posted = System.nanoTime();
+        Platform.runLater(() -> {
+            long delay = System.nanoTime() - posted;
+            delays.record(delay);
+            if (delay >= TimeUnit.MILLISECONDS.toNanos(STALL_THRESHOLD_MILLIS)) {
+                stallCount.incrementAndGet();
+            }
+            probePending.set(false);
+        });
+    }
+
+    /**
+     * Reads how late the probes ran so far.
+     *
+     * @return the percentiles of the probe delays
+     */
+    public LatencyHistogram.Summary getDelays() {
+        return delays.summarize();
+    }
+
+    /**
+     * Retrieves the number of probes that ran at least the stall threshold late.
+     *
+     * @return the number of stalls
+     */
+    public long getStallCount() {
+        return stallCount.get();
+    }
+
+    /**
+     * Retrieves how late a probe must run to count as a stall.
+     *
+     * @return the stall threshold in milliseconds
+     */
+    public long getStallThresholdMillis() {
+        return STALL_THRESHOLD_MILLIS;
+    }
+
+    /**
+     * Forgets every delay recorded, to measure from now on.
+     */
+    public void reset() {
+        delays.reset();
+        stallCount.set(0);
+    }
+
+    /**
+     * Stops posting probes.
+     */
+    public void shutdown() {
+        prober.shutdownNow();
+    }
+}
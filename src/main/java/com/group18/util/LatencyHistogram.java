@@ -0,0 +1,129 @@
+package com.group18.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records latencies into buckets without locking, so any number of threads can record while
+ * the admin reads percentiles. Buckets are spaced logarithmically with eight steps per power
+ * of two, so a percentile is reported to within an eighth of its value, from one microsecond
+ * up to days.
+ */
+public class LatencyHistogram {
+    /** Steps per power of two, as a power of two. */
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        counts.incrementAndGet(bucketOf(micros));
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * Forgets every latency recorded. Latencies recorded meanwhile may or may not be kept.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        maxMicros.set(0);
+    }
+
+    /**
+     * Reads the percentiles of the latencies recorded so far.
+     *
+     * @return the count, median, 95th and 99th percentile and maximum
+     */
+    public Summary summarize() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        long max = maxMicros.get();
+        return new Summary(count, percentile(snapshot, count, 0.50, max), percentile(snapshot, count, 0.95, max),
+                percentile(snapshot, count, 0.99, max), max / 1000.0);
+    }
+
+    /**
+     * Finds the bucket the given share of latencies falls in, and reports its upper bound.
+     */
+    private static double percentile(long[] snapshot, long count, double share, long maxMicros) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(share * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), maxMicros) / 1000.0;
+            }
+        }
+        return maxMicros / 1000.0;
+    }
+
+    private static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (subBucket + 1) * width - 1;
+    }
+
+    /**
+     * Represents the percentiles of a histogram at one point in time, in milliseconds.
+     */
+    public static class Summary {
+        private final long count;
+        private final double p50Millis;
+        private final double p95Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+
+        /**
+         * Constructs a Summary object.
+         *
+         * @param count     The number of latencies recorded.
+         * @param p50Millis The median latency.
+         * @param p95Millis The 95th percentile latency.
+         * @param p99Millis The 99th percentile latency.
+         * @param maxMillis The longest latency.
+         */
+        public Summary(long count, double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+            this.count = count;
+            this.p50Millis = p50Millis;
+            this.p95Millis = p95Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+        }
+
+        public long getCount() { return count; }
+        public double getP50Millis() { return p50Millis; }
+        public double getP95Millis() { return p95Millis; }
+        public double getP99Millis() { return p99Millis; }
+        public double getMaxMillis() { return maxMillis; }
+    }
+}
@@ -0,0 +1,339 @@
+package com.group18.util;
+
+import com.group18.model.Movie;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An in-memory search index over movie titles and genres, for answering searches as the
+ * cashier types.
+ *
+ * Titles are normalized (lower case, accents removed, every form of i made the same letter)
+ * and split into words, and every word is indexed by its trigrams, counting the word start as
+ * padding so that the first letters form trigrams too. A search only scores the movies that
+ * share enough trigrams with each word of the query, and genres are compared as one bitmask
+ * per movie, so a search stays fast with thousands of titles.
+ *
+ * Matching is ranked and tolerates typos: for each query word, a title word scores highest
+ * when equal to it, then when starting with it, then when containing it, and finally when
+ * it, or the part typed so far, is within one edit of a query word of four to six letters, or
+ * two edits of a longer one. Every query word must match, unless the whole title contains the
+ * query.
+ *
+ * An index is immutable and may be searched from any thread.
+ */
+public final class MovieSearchIndex {
+    /** Character standing before the first letter of a word in its trigrams. */
+    private static final char PAD = '$';
+    private static final int[] NO_MOVIES = new int[0];
+
+    private final List<Movie> movies;
+    private final String[] titles;
+    private final String[][] titleWords;
+    private final long[] genreMasks;
+    private final Map<String, Integer> genreBits = new HashMap<>();
+    /** The movies whose title has a trigram, in ascending order, by trigram. */
+    private final Map<String, int[]> postings = new HashMap<>();
+
+    private MovieSearchIndex(List<Movie> movies) {
+        this.movies = List.copyOf(movies);
+        int count = this.movies.size();
+        titles = new String[count];
+        titleWords = new String[count][];
+        genreMasks = new long[count];
+
+        Map<String, List<Integer>> moviesByTrigram = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            Movie movie = this.movies.get(i);
+            titles[i] = normalize(movie.getTitle());
+            titleWords[i] = words(titles[i]);
+            genreMasks[i] = genreMask(movie.getGenres(), true);
+
+            for (String word : titleWords[i]) {
+                for (String trigram : trigrams(word, true)) {
+                    List<Integer> posting = moviesByTrigram.computeIfAbsent(trigram, t -> new ArrayList<>());
+                    if (posting.isEmpty() || posting.get(posting.size() - 1) != i) {
+                        posting.add(i);
+                    }
+                }
+            }
+        }
+        moviesByTrigram.forEach((trigram, posting) ->
+                postings.put(trigram, posting.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    /**
+     * Builds an index over a list of movies.
+     *
+     * @param movies the movies to search, in the order unranked results are listed
+     * @return the index
+     * @throws IllegalArgumentException if the movies have more than 64 distinct genres
+     */
+    public static MovieSearchIndex of(List<Movie> movies) {
+        return new MovieSearchIndex(movies);
+    }
+
+    /**
+     * Retrieves the indexed movies.
+     *
+     * @return the movies, in the order they were indexed
+     */
+    public List<Movie> getMovies() {
+        return movies;
+    }
+
+    /**
+     * Finds the movies that match a title query and belong to at least one of the given genres.
+     *
+     * @param query the title text typed, or an empty string for any title
+     * @param genres the genres to match, or an empty collection for any genre
+     * @return the matching movies, best match first; in index order if the query is empty
+     */
+    public List<Movie> search(String query, Collection<String> genres) {
+        String normalizedQuery = normalize(query).trim();
+        String[] queryWords = words(normalizedQuery);
+        long wantedGenres = genreMask(genres, false);
+        if (wantedGenres == 0 && genres != null && !genres.isEmpty()) {
+            // None of the requested genres is known, so no movie can match
+            return Collections.emptyList();
+        }
+
+        int[] candidates = candidates(queryWords);
+        if (queryWords.length == 0) {
+            List<Movie> results = new ArrayList<>();
+            for (int movie : candidates) {
+                if (wantedGenres == 0 || (genreMasks[movie] & wantedGenres) != 0) {
+                    results.add(movies.get(movie));
+                }
+            }
+            return results;
+        }
+
+        List<int[]> scored = new ArrayList<>();
+        for (int movie : candidates) {
+            if (wantedGenres != 0 && (genreMasks[movie] & wantedGenres) == 0) {
+                continue;
+            }
+            int score = score(movie, normalizedQuery, queryWords);
+            if (score > 0) {
+                scored.add(new int[] {movie, score});
+            }
+        }
+        scored.sort(Comparator.<int[]>comparingInt(entry -> -entry[1])
+                .thenComparing(entry -> titles[entry[0]]));
+
+        List<Movie> results = new ArrayList<>(scored.size());
+        for (int[] entry : scored) {
+            results.add(movies.get(entry[0]));
+        }
+        return results;
+    }
+
+    /**
+     * Narrows the movies down to those that may match every query word. A title word within
+     * k edits of a query word, or starting with it, shares all but at most 4k of the query
+     * word's trigrams with it, and a title word containing it shares all its inner trigrams,
+     * so movies with fewer shared trigrams cannot match. Words too short or too error-tolerant
+     * for that bound to exclude anything do not narrow the candidates.
+     *
+     * @return the candidate movies in ascending order
+     */
+    private int[] candidates(String[] queryWords) {
+        int[] candidates = null;
+        for (String word : queryWords) {
+            int maxTypos = maxTypos(word);
+            int needed = maxTypos == 0 ? word.length() - 2 : word.length() - 4 * maxTypos;
+            if (needed <= 0) {
+                continue;
+            }
+
+            int[] counts = new int[movies.size()];
+            for (String trigram : trigrams(word, true)) {
+                for (int movie : postings.getOrDefault(trigram, NO_MOVIES)) {
+                    counts[movie]++;
+                }
+            }
+
+            int[] matches = new int[movies.size()];
+            int size = 0;
+            for (int movie = 0; movie < counts.length; movie++) {
+                if (counts[movie] >= needed && (candidates == null || Arrays.binarySearch(candidates, movie) >= 0)) {
+                    matches[size++] = movie;
+                }
+            }
+            candidates = Arrays.copyOf(matches, size);
+        }
+
+        if (candidates == null) {
+            candidates = new int[movies.size()];
+            Arrays.setAll(candidates, movie -> movie);
+        }
+        return candidates;
+    }
+
+    /**
+     * Scores how well a movie's title matches a query.
+     *
+     * @return the score, or 0 if the title does not match
+     */
+    private int score(int movie, String query, String[] queryWords) {
+        int total = 0;
+        boolean allWordsMatch = true;
+        for (String queryWord : queryWords) {
+            int best = 0;
+            for (String titleWord : titleWords[movie]) {
+                best = Math.max(best, wordScore(queryWord, titleWord));
+            }
+            total += best;
+            allWordsMatch &= best > 0;
+        }
+
+        if (titles[movie].startsWith(query)) {
+            total += 50;
+        } else if (titles[movie].contains(query)) {
+            total += 20;
+        } else if (!allWordsMatch) {
+            return 0;
+        }
+        return total;
+    }
+
+    private static int wordScore(String queryWord, String titleWord) {
+        if (titleWord.equals(queryWord)) {
+            return 100;
+        }
+        if (titleWord.startsWith(queryWord)) {
+            return 80;
+        }
+        if (titleWord.contains(queryWord)) {
+            return 60;
+        }
+
+        int maxTypos = maxTypos(queryWord);
+        if (maxTypos == 0 || titleWord.length() < queryWord.length() - maxTypos) {
+            return 0;
+        }
+        int[] distances = editDistances(queryWord, titleWord);
+        int wordDistance = distances[titleWord.length()];
+        if (wordDistance <= maxTypos) {
+            return 50 - 10 * wordDistance;
+        }
+        int prefixDistance = Integer.MAX_VALUE;
+        for (int distance : distances) {
+            prefixDistance = Math.min(prefixDistance, distance);
+        }
+        return prefixDistance <= maxTypos ? 40 - 10 * prefixDistance : 0;
+    }
+
+    /**
+     * Computes the edit distance, counting an adjacent transposition as one edit, between a
+     * query word and every prefix of a title word.
+     *
+     * @return the distances, indexed by prefix length
+     */
+    private static int[] editDistances(String queryWord, String titleWord) {
+        int columns = titleWord.length() + 1;
+        int[] beforePrevious = new int[columns];
+        int[] previous = new int[columns];
+        int[] current = new int[columns];
+        for (int j = 0; j < columns; j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= queryWord.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j < columns; j++) {
+                int cost = queryWord.charAt(i - 1) == titleWord.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && queryWord.charAt(i - 1) == titleWord.charAt(j - 2)
+                        && queryWord.charAt(i - 2) == titleWord.charAt(j - 1)) {
+                    distance = Math.min(distance, beforePrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous;
+    }
+
+    private static int maxTypos(String word) {
+        if (word.length() < 4) {
+            return 0;
+        }
+        return word.length() < 7 ? 1 : 2;
+    }
+
+    /**
+     * Computes the genre bitmask of a set of genres.
+     *
+     * @param register whether to assign bits to genres not seen before, when indexing
+     * @return the mask, with no bits for unknown genres when searching
+     */
+    private long genreMask(Collection<String> genres, boolean register) {
+        long mask = 0;
+        if (genres == null) {
+            return mask;
+        }
+        for (String genre : genres) {
+            Integer bit = genreBits.get(genre);
+            if (bit == null && register) {
+                if (genreBits.size() == Long.SIZE) {
+                    throw new IllegalArgumentException("Too many distinct genres for a genre bitmask");
+                }
+                bit = genreBits.size();
+                genreBits.put(genre, bit);
+            }
+            if (bit != null) {
+                mask |= 1L << bit;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Lists the trigrams of a word.
+     *
+     * @param padded whether to include the trigrams that start before the first letter
+     */
+    private static List<String> trigrams(String word, boolean padded) {
+        String text = padded ? "" + PAD + PAD + word : word;
+        List<String> trigrams = new ArrayList<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static String[] words(String text) {
+        return text.isBlank() ? new String[0] : text.trim().split("\\s+");
+    }
+
+    /**
+     * Normalizes text for matching: every form of i becomes 'i', accents are removed and the
+     * text is lower-cased, so "İnterstellar", "interstellar" and "ınterstellar" look the same.
+     *
+     * @param text the text to normalize
+     * @return the normalized text
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String dotless = text.replace('ı', 'i').replace('İ', 'i').replace('I', 'i');
+        String decomposed = Normalizer.normalize(dotless, Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}+", "").toLowerCase(Locale.ROOT)
+                .replace(PAD, ' ');
+    }
+}
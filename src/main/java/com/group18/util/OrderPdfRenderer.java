@@ -0,0 +1,395 @@
+package com.group18.util;
+
+import com.group18.dao.ProductDAO;
+import com.group18.dao.ScheduleDAO;
+import com.group18.dao.UserDAO;
+import com.group18.model.Order;
+import com.group18.model.OrderItem;
+import com.group18.model.Product;
+import com.group18.model.ScheduleOverview;
+import com.group18.model.User;
+import com.itextpdf.text.*;
+import com.itextpdf.text.pdf.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Renders the receipt and tickets PDFs of a stored order.
+ *
+ * Everything printed is read from the order itself and the database, never from the screens
+ * of the till, so an order can be rendered on a background thread after checkout, or again
+ * after a restart. The tax printed is the part of the order total not covered by its items,
+ * which is exactly the tax charged when the order was placed.
+ *
+ * Fonts and the letterhead come from {@link PdfResources}, and the session and product names
+ * are looked up once per order, so the work per ticket is limited to its own cells.
+ */
+public class OrderPdfRenderer {
+    private final UserDAO userDAO = new UserDAO();
+    private final ScheduleDAO scheduleDAO = new ScheduleDAO();
+    private final ProductDAO productDAO = new ProductDAO();
+
+    /**
+     * Generates a PDF receipt for the given order.
+     * The receipt includes details such as cashier information, transaction date, order items,
+     * and totals (subtotal, tax, and total). It is formatted using a font that supports Turkish characters.
+     *
+     * @param order the order, including its items
+     * @return a byte array representing the generated PDF receipt
+     * @throws DocumentException if the PDF cannot be built
+     * @throws IOException if the font cannot be loaded
+     */
+    public byte[] renderReceipt(Order order) throws DocumentException, IOException {
+        PdfResources.Fonts fonts = PdfResources.fonts();
+
+        Document document = new Document(PageSize.A4, 50, 50, 50, 50);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfWriter writer = PdfWriter.getInstance(document, baos);
+
+        document.open();
+
+        // Cinema Header, subtitle and horizontal line
+        PdfResources.addLetterhead(document, writer, fonts.documentTitle, "Ticket and Sales Receipt", fonts.receiptSubtitle);
+        PdfResources.addSeparator(document);
+
+        // Transaction Details
+        PdfPTable detailsTable = new PdfPTable(2);
+        detailsTable.setWidthPercentage(100);
+        detailsTable.setSpacingBefore(10f);
+
+        // Cashier Information
+        User cashier = userDAO.findById(order.getCashierId());
+        addTableRow(detailsTable, "Cashier:",
+                cashier != null ? cashier.getFirstName() + " " + cashier.getLastName() : "Unknown",
+                fonts);
+
+        // Order Date
+        addTableRow(detailsTable, "Date:",
+                order.getOrderDate().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss")),
+                fonts);
+
+        // Customer Details (from ticket)
+        OrderItem firstTicketItem = order.getOrderItems().stream()
+                .filter(item -> "ticket".equals(item.getItemType()))
+                .findFirst()
+                .orElse(null);
+
+        if (firstTicketItem != null) {
+            addTableRow(detailsTable, "Customer Name:",
+                    firstTicketItem.getOccupantFirstName() + " " +
+                            firstTicketItem.getOccupantLastName(),
+                    fonts);
+
+            addTableRow(detailsTable, "Discount:",
+                    firstTicketItem.getDiscountApplied() ? "Applied" : "Not Applicable",
+                    fonts);
+        }
+
+        document.add(detailsTable);
+        document.add(Chunk.NEWLINE);
+
+        // Order Items Table
+        PdfPTable itemsTable = new PdfPTable(4);
+        itemsTable.setWidthPercentage(100);
+        itemsTable.setWidths(new float[]{3, 1, 1, 1});
+
+        // Table Header
+        String[] headers = {"Item", "Quantity", "Price", "Total"};
+        NumberFormat currencyFormatter = NumberFormat.getCurrencyInstance(new Locale("tr", "TR"));
+
+        for (String header : headers) {
+            PdfPCell headerCell = new PdfPCell(new Phrase(header, fonts.tableHeader));
+            headerCell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            headerCell.setPadding(5);
+            headerCell.setBackgroundColor(BaseColor.LIGHT_GRAY);
+            itemsTable.addCell(headerCell);
+        }
+
+        // Populate table with order items
+        ScheduleOverview session = findSession(order);
+        Map<Integer, String> productNames = new HashMap<>();
+        double subtotal = 0;
+        for (OrderItem item : order.getOrderItems()) {
+            String itemName = getItemName(item, session, productNames);
+            int quantity = item.getQuantity();
+            double itemPrice = item.getItemPrice().doubleValue();
+            double total = itemPrice * quantity;
+
+            // Item Name
+            PdfPCell nameCell = new PdfPCell(new Phrase(itemName, fonts.value));
+            nameCell.setPadding(5);
+            itemsTable.addCell(nameCell);
+
+            // Quantity
+            PdfPCell quantityCell = new PdfPCell(new Phrase(String.valueOf(quantity), fonts.value));
+            quantityCell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            quantityCell.setPadding(5);
+            itemsTable.addCell(quantityCell);
+
+            // Price
+            PdfPCell priceCell = new PdfPCell(new Phrase(currencyFormatter.format(itemPrice), fonts.value));
+            priceCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+            priceCell.setPadding(5);
+            itemsTable.addCell(priceCell);
+
+            // Total
+            PdfPCell totalCell = new PdfPCell(new Phrase(currencyFormatter.format(total), fonts.value));
+            totalCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+            totalCell.setPadding(5);
+            itemsTable.addCell(totalCell);
+
+            subtotal += total;
+        }
+
+        document.add(itemsTable);
+        document.add(Chunk.NEWLINE);
+
+        // Totals Section
+        PdfPTable totalsTable = new PdfPTable(2);
+        totalsTable.setWidthPercentage(50);
+        totalsTable.setHorizontalAlignment(Element.ALIGN_RIGHT);
+
+        // Subtotal
+        addTotalRow(totalsTable, "Subtotal:", currencyFormatter.format(subtotal), fonts);
+
+        // Tax
+        double tax = getTax(order);
+        addTotalRow(totalsTable, "Tax:", currencyFormatter.format(tax), fonts);
+
+        // Total
+        double total = subtotal + tax;
+        addTotalRow(totalsTable, "Total:", currencyFormatter.format(total), fonts);
+
+        document.add(totalsTable);
+
+        // Footer
+        Paragraph footer = new Paragraph("\n\nThank you for your purchase!", fonts.receiptFooter);
+        footer.setAlignment(Element.ALIGN_CENTER);
+        document.add(footer);
+
+        document.close();
+
+        return baos.toByteArray();
+    }
+
+    /**
+     * Generates a PDF document for the tickets associated with the given order.
+     * The PDF includes details such as movie information, session details,
+     * seat numbers, pricing, and other relevant information in a format suitable
+     * for printing or digital distribution.
+     *
+     * @param order the order, including its items
+     * @return a byte array representing the generated PDF document,
+     *         or {@code null} if the order has no tickets or their session no longer exists
+     * @throws DocumentException if the PDF cannot be built
+     * @throws IOException if the font cannot be loaded
+     */
+    public byte[] renderTickets(Order order) throws DocumentException, IOException {
+        // Get ticket items only
+        List<OrderItem> ticketItems = order.getOrderItems().stream()
+                .filter(item -> "ticket".equals(item.getItemType()))
+                .toList();
+
+        // Get product items
+        List<OrderItem> productItems = order.getOrderItems().stream()
+                .filter(item -> "product".equals(item.getItemType()))
+                .toList();
+
+        // Get movie and session details
+        ScheduleOverview session = findSession(order);
+        if (session == null || session.getMovieTitle() == null) return null;
+
+        PdfResources.Fonts fonts = PdfResources.fonts();
+
+        Document document = new Document(PageSize.A4, 50, 50, 50, 50);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfWriter writer = PdfWriter.getInstance(document, baos);
+        document.open();
+
+        // Cinema Header
+        PdfResources.addLetterhead(document, writer, fonts.ticketTitle, null, null);
+
+        // Movie Title
+        Paragraph movieTitle = new Paragraph(session.getMovieTitle(), fonts.movieTitle);
+        movieTitle.setAlignment(Element.ALIGN_CENTER);
+        movieTitle.setSpacingBefore(20);
+        document.add(movieTitle);
+
+        // Horizontal Line
+        PdfResources.addSeparator(document);
+
+        // Create table for ticket details
+        PdfPTable detailsTable = new PdfPTable(2);
+        detailsTable.setWidthPercentage(100);
+        detailsTable.setSpacingBefore(20f);
+
+        // Add customer details
+        OrderItem firstTicketItem = ticketItems.get(0);
+        addTableRow(detailsTable, "Customer:",
+                firstTicketItem.getOccupantFirstName() + " " + firstTicketItem.getOccupantLastName(),
+                fonts);
+
+        // Add session details
+        addTableRow(detailsTable, "Date:",
+                session.getSessionDate().format(DateTimeFormatter.ofPattern("dd.MM.yyyy")),
+                fonts);
+        addTableRow(detailsTable, "Time:",
+                session.getSessionTime().format(DateTimeFormatter.ofPattern("HH:mm")),
+                fonts);
+        addTableRow(detailsTable, "Hall:", session.getHallName(), fonts);
+
+        // Collect and format seat numbers
+        String seats = ticketItems.stream()
+                .map(item -> convertNumberToSeatId(item.getSeatNumber(), session))
+                .sorted()
+                .collect(Collectors.joining(", "));
+        addTableRow(detailsTable, "Seats:", seats, fonts);
+
+        // Calculate prices
+        NumberFormat currencyFormatter = NumberFormat.getCurrencyInstance(new Locale("tr", "TR"));
+
+        // Ticket Price
+        double totalTicketPrice = ticketItems.stream()
+                .mapToDouble(item -> item.getItemPrice().doubleValue())
+                .sum();
+        addTableRow(detailsTable, "Ticket Price:",
+                currencyFormatter.format(totalTicketPrice),
+                fonts);
+
+        // Product Price
+        double totalProductPrice = productItems.stream()
+                .mapToDouble(item -> item.getItemPrice().doubleValue() * item.getQuantity())
+                .sum();
+        addTableRow(detailsTable, "Products Price:",
+                currencyFormatter.format(totalProductPrice),
+                fonts);
+
+        // Tax Calculation
+        double totalTax = getTax(order);
+        addTableRow(detailsTable, "Tax:",
+                currencyFormatter.format(totalTax),
+                fonts);
+
+        // Total Price (including tax)
+        double totalPrice = totalTicketPrice + totalProductPrice + totalTax;
+        addTableRow(detailsTable, "Total Price:",
+                currencyFormatter.format(totalPrice),
+                fonts);
+
+        // Check if any ticket has a discount
+        boolean hasDiscount = ticketItems.stream()
+                .anyMatch(OrderItem::getDiscountApplied);
+        if (hasDiscount) {
+            addTableRow(detailsTable, "Discount:", "Age-based discount applied", fonts);
+        }
+
+        document.add(detailsTable);
+
+        // Add footer with terms and conditions
+        Paragraph footer = new Paragraph(
+                "\n\nThis ticket is valid only for the specified date and time." +
+                        "\nFor cancellations please contact us from our website." +
+                        "\nPlease arrive at least 15 minutes before showtime.",
+                fonts.ticketFooter
+        );
+        footer.setAlignment(Element.ALIGN_CENTER);
+        document.add(footer);
+
+        document.close();
+        return baos.toByteArray();
+    }
+
+    /**
+     * Looks up the session the order's tickets are for. All tickets of an order belong to one session.
+     *
+     * @return the session, or null if the order has no tickets or the session no longer exists
+     */
+    private ScheduleOverview findSession(Order order) {
+        return order.getOrderItems().stream()
+                .filter(item -> "ticket".equals(item.getItemType()))
+                .findFirst()
+                .map(item -> scheduleDAO.getScheduleOverview(item.getScheduleId()))
+                .orElse(null);
+    }
+
+    /**
+     * Computes the tax charged on an order: its total minus the sum of its item prices.
+     */
+    private double getTax(Order order) {
+        BigDecimal subtotal = order.getOrderItems().stream()
+                .map(item -> item.getItemPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return order.getTotalPrice().subtract(subtotal).max(BigDecimal.ZERO).doubleValue();
+    }
+
+    /**
+     * Retrieves the name or description of an item based on its type and related details.
+     *
+     * @param item the order item
+     * @param session the session of the order's tickets, or null if it has none
+     * @param productNames the product names already looked up for this order, by product ID
+     * @return the name or description of the item, such as the movie ticket description or the product name;
+     *         returns "Unknown Item" if the type is unrecognized
+     */
+    private String getItemName(OrderItem item, ScheduleOverview session, Map<Integer, String> productNames) {
+        if ("ticket".equals(item.getItemType())) {
+            String seatId = convertNumberToSeatId(item.getSeatNumber(), session);
+            return session != null && session.getMovieTitle() != null
+                    ? "Ticket: " + session.getMovieTitle() + " (Seat: " + seatId + ")"
+                    : "Ticket: Unknown Movie (Seat: " + seatId + ")";
+        } else if ("product".equals(item.getItemType())) {
+            return productNames.computeIfAbsent(item.getProductId(), productId -> {
+                Product product = productDAO.findById(productId);
+                return product != null ? product.getProductName() : "Unknown Product";
+            });
+        }
+        return "Unknown Item";
+    }
+
+    /**
+     * Converts a numeric seat number into a seat ID such as "A1" or "B3", based on the
+     * number of columns of the session's hall.
+     */
+    private String convertNumberToSeatId(int seatNumber, ScheduleOverview session) {
+        int cols = session == null || "Hall_A".equals(session.getHallName()) ? 4 : 8;
+        int row = (seatNumber - 1) / cols;
+        int col = ((seatNumber - 1) % cols) + 1;
+        return String.format("%c%d", (char)('A' + row), col);
+    }
+
+    /**
+     * Adds a row with a label and a corresponding value to the provided PDF table.
+     *
+     * @param table the PdfPTable to which the row will be added
+     * @param label the text to display in the label cell
+     * @param value the text to display in the value cell
+     * @param fonts the shared document fonts
+     */
+    private void addTableRow(PdfPTable table, String label, String value, PdfResources.Fonts fonts) {
+        table.addCell(PdfResources.plainCell(label, fonts.label, Element.ALIGN_LEFT));
+        table.addCell(PdfResources.plainCell(value, fonts.value, Element.ALIGN_LEFT));
+    }
+
+    /**
+     * Adds a row to a PDF table displaying a total amount with a label and value,
+     * aligned to the right.
+     *
+     * @param table the PdfPTable to which the row will be added
+     * @param label the label describing the total (e.g., "Subtotal", "Tax", "Total")
+     * @param value the total value corresponding to the label
+     * @param fonts the shared document fonts
+     */
+    private void addTotalRow(PdfPTable table, String label, String value, PdfResources.Fonts fonts) {
+        table.addCell(PdfResources.plainCell(label, fonts.label, Element.ALIGN_RIGHT));
+        table.addCell(PdfResources.plainCell(value, fonts.value, Element.ALIGN_RIGHT));
+    }
+}
@@ -0,0 +1,151 @@
+package com.group18.util;
+
+import com.itextpdf.text.*;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.ColumnText;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfTemplate;
+import com.itextpdf.text.pdf.PdfWriter;
+import com.itextpdf.text.pdf.draw.LineSeparator;
+
+import java.io.IOException;
+
+/**
+ * Fonts, cell styles and static page content shared by every order document.
+ *
+ * The embedded font is parsed once per process and the fonts derived from it are created
+ * once, so rendering an order only lays out its own fields. The letterhead that opens each
+ * document is drawn straight into a form XObject rather than laid out as paragraphs.
+ *
+ * None of the shared objects are modified after they are built, so they can be used by
+ * several render threads at once.
+ */
+public final class PdfResources {
+    /** Font that supports Turkish characters. */
+    private static final String FONT_PATH = "src/main/resources/fonts/arial-unicode.ttf";
+    /** The name printed at the top of every document. */
+    private static final String CINEMA_NAME = "Group 18 Cinema Center";
+    /** Line height of the letterhead, relative to the font size. */
+    private static final float LEADING = 1.5f;
+    /** The horizontal line under the letterhead. */
+    private static final LineSeparator SEPARATOR = new LineSeparator(1f, 100f, null, Element.ALIGN_CENTER, 0f);
+
+    private static BaseFont baseFont;
+
+    private static Fonts fonts;
+
+    private PdfResources() {}
+
+    /**
+     * Retrieves the shared base font, loading it on first use.
+     *
+     * @return the base font
+     * @throws DocumentException if the font file is not a usable font
+     * @throws IOException if the font file cannot be read
+     */
+    public static synchronized BaseFont baseFont() throws DocumentException, IOException {
+        if (baseFont == null) {
+            baseFont = BaseFont.createFont(FONT_PATH, BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
+        }
+        return baseFont;
+    }
+
+    /**
+     * Retrieves the shared fonts, loading the base font on first use.
+     *
+     * @return the fonts
+     * @throws DocumentException if the font file is not a usable font
+     * @throws IOException if the font file cannot be read
+     */
+    public static synchronized Fonts fonts() throws DocumentException, IOException {
+        if (fonts == null) {
+            fonts = new Fonts(baseFont());
+        }
+        return fonts;
+    }
+
+    /**
+     * Adds the letterhead, the cinema name with an optional subtitle under it, to the top
+     * of a document. The letterhead is drawn once into a template owned by the document's
+     * writer and placed as an image, so it costs one XObject reference in the page content.
+     *
+     * @param document     the open document
+     * @param writer       the writer of the document
+     * @param titleFont    the font of the cinema name
+     * @param subtitle     the second line of the letterhead, or null for none
+     * @param subtitleFont the font of the second line
+     * @throws DocumentException if the letterhead cannot be added
+     */
+    public static void addLetterhead(Document document, PdfWriter writer, Font titleFont,
+                                     String subtitle, Font subtitleFont) throws DocumentException {
+        float width = document.right() - document.left();
+        float titleHeight = titleFont.getSize() * LEADING;
+        float subtitleHeight = subtitle != null ? subtitleFont.getSize() * LEADING : 0;
+        float height = titleHeight + subtitleHeight;
+
+        PdfTemplate letterhead = writer.getDirectContent().createTemplate(width, height);
+        ColumnText.showTextAligned(letterhead, Element.ALIGN_CENTER, new Phrase(CINEMA_NAME, titleFont),
+                width / 2, height - titleFont.getSize(), 0);
+        if (subtitle != null) {
+            ColumnText.showTextAligned(letterhead, Element.ALIGN_CENTER, new Phrase(subtitle, subtitleFont),
+                    width / 2, subtitleHeight - subtitleFont.getSize(), 0);
+        }
+
+        Image image = Image.getInstance(letterhead);
+        image.setAlignment(Element.ALIGN_CENTER);
+        document.add(image);
+    }
+
+    /**
+     * Adds a full-width separator line followed by an empty line.
+     *
+     * @param document the open document
+     * @throws DocumentException if the line cannot be added
+     */
+    public static void addSeparator(Document document) throws DocumentException {
+        document.add(new Chunk(SEPARATOR));
+        document.add(Chunk.NEWLINE);
+    }
+
+    /**
+     * Creates a table cell for a label or value of a details table, without borders.
+     *
+     * @param text      the text of the cell
+     * @param font      the font of the text
+     * @param alignment the horizontal alignment, one of the {@link Element} constants
+     * @return the cell
+     */
+    public static PdfPCell plainCell(String text, Font font, int alignment) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, font));
+        cell.setBorder(Rectangle.NO_BORDER);
+        cell.setHorizontalAlignment(alignment);
+        return cell;
+    }
+
+    /**
+     * The fonts used by the order documents, all derived from the shared base font.
+     */
+    public static final class Fonts {
+        public final Font documentTitle;
+        public final Font ticketTitle;
+        public final Font receiptSubtitle;
+        public final Font movieTitle;
+        public final Font tableHeader;
+        public final Font label;
+        public final Font value;
+        public final Font receiptFooter;
+        public final Font ticketFooter;
+
+        private Fonts(BaseFont baseFont) {
+            documentTitle = new Font(baseFont, 18, Font.BOLD);
+            ticketTitle = new Font(baseFont, 24, Font.BOLD);
+            receiptSubtitle = new Font(baseFont, 14, Font.BOLD);
+            movieTitle = new Font(baseFont, 16, Font.BOLD);
+            tableHeader = new Font(baseFont, 12, Font.BOLD);
+            label = new Font(baseFont, 10, Font.BOLD);
+            value = new Font(baseFont, 10, Font.NORMAL);
+            receiptFooter = new Font(baseFont, 10, Font.ITALIC);
+            ticketFooter = new Font(baseFont, 8, Font.ITALIC);
+        }
+    }
+}
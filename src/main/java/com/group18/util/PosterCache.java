@@ -0,0 +1,196 @@
+package com.group18.util;
+
+import com.group18.dao.MovieDAO;
+import com.group18.model.Movie;
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+import java.io.ByteArrayInputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loads movie posters off the JavaFX thread and keeps the decoded images in a size-bounded LRU cache.
+ * Images are keyed by movie id and poster content hash, so showing the same movie again costs
+ * neither a BLOB transfer nor a decode, and a replaced poster is never served stale.
+ * This class follows the Singleton design pattern so every screen shares one cache.
+ */
+public class PosterCache {
+    /** Upper bound on the decoded pixel memory held by the cache. */
+    private static final long MAX_CACHE_BYTES = 64L * 1024 * 1024;
+    /** Key under which an ImageView remembers the poster it is waiting for. */
+    private static final String PENDING_KEY = "posterCache.key";
+
+    private static PosterCache instance;
+
+    private final MovieDAO movieDAO = new MovieDAO();
+    /** Decoded images in access order, eldest first. Guarded by this. */
+    private final LinkedHashMap<String, Image> images = new LinkedHashMap<>(64, 0.75f, true);
+    /** Loads in progress, so concurrent requests for the same poster share one fetch. Guarded by this. */
+    private final Map<String, CompletableFuture<Image>> pending = new HashMap<>();
+    private long cachedBytes;
+
+    private final ExecutorService loader = Executors.newFixedThreadPool(2, r -> {
+        Thread thread = new Thread(r, "poster-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private PosterCache() {}
+
+    /**
+     * Provides the shared poster cache.
+     *
+     * @return the singleton instance of the PosterCache class
+     */
+    public static synchronized PosterCache getInstance() {
+        if (instance == null) {
+            instance = new PosterCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Shows the grid thumbnail of a movie's poster in the given view.
+     * A cached image is applied immediately; otherwise the thumbnail is fetched and decoded in
+     * the background and applied on the JavaFX thread, unless the view has been given another
+     * poster in the meantime.
+     *
+     * @param movie     the movie whose poster to show
+     * @param target    the view to show the poster in
+     * @param onMissing called on the JavaFX thread if the movie has no usable poster
+     */
+    public void loadThumbnail(Movie movie, ImageView target, Runnable onMissing) {
+        load("thumb", movie, target, onMissing, () -> movieDAO.getPosterThumbnail(movie.getMovieId()));
+    }
+
+    /**
+     * Shows the full-size poster of a movie in the given view, with the same caching and
+     * background loading as {@link #loadThumbnail}.
+     *
+     * @param movie     the movie whose poster to show
+     * @param target    the view to show the poster in
+     * @param onMissing called on the JavaFX thread if the movie has no usable poster
+     */
+    public void loadPoster(Movie movie, ImageView target, Runnable onMissing) {
+        load("full", movie, target, onMissing, () -> movie.getPosterData() != null
+                ? movie.getPosterData()
+                : movieDAO.getPosterData(movie.getMovieId()));
+    }
+
+    /**
+     * Drops every cached rendition of a movie's poster.
+     *
+     * @param movieId the movie whose images to drop
+     */
+    public synchronized void invalidate(int movieId) {
+        String marker = ":" + movieId + ":";
+        Iterator<Map.Entry<String, Image>> it = images.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Image> entry = it.next();
+            if (entry.getKey().contains(marker)) {
+                cachedBytes -= sizeOf(entry.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    private void load(String rendition, Movie movie, ImageView target, Runnable onMissing,
+                      ImageSource source) {
+        if (movie.getPosterHash() == null) {
+            target.getProperties().remove(PENDING_KEY);
+            onMissing.run();
+            return;
+        }
+
+        String key = rendition + ":" + movie.getMovieId() + ":" + movie.getPosterHash();
+        target.getProperties().put(PENDING_KEY, key);
+
+        Image cached = get(key);
+        if (cached != null) {
+            target.setImage(cached);
+            return;
+        }
+
+        // Clear any image left from a previous movie while this one loads
+        target.setImage(null);
+        fetch(key, source).whenComplete((image, error) -> Platform.runLater(() -> {
+            if (!key.equals(target.getProperties().get(PENDING_KEY))) {
+                return;
+            }
+            if (image != null) {
+                target.setImage(image);
+            } else {
+                onMissing.run();
+            }
+        }));
+    }
+
+    private synchronized Image get(String key) {
+        return images.get(key);
+    }
+
+    private synchronized CompletableFuture<Image> fetch(String key, ImageSource source) {
+        CompletableFuture<Image> inFlight = pending.get(key);
+        if (inFlight != null) {
+            return inFlight;
+        }
+
+        CompletableFuture<Image> future = CompletableFuture.supplyAsync(() -> decode(source.read()), loader);
+        pending.put(key, future);
+        future.whenComplete((image, error) -> {
+            synchronized (this) {
+                pending.remove(key);
+                if (image != null) {
+                    put(key, image);
+                }
+            }
+        });
+        return future;
+    }
+
+    private static Image decode(byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        Image image = new Image(new ByteArrayInputStream(data));
+        return image.isError() ? null : image;
+    }
+
+    private void put(String key, Image image) {
+        Image previous = images.put(key, image);
+        if (previous != null) {
+            cachedBytes -= sizeOf(previous);
+        }
+        cachedBytes += sizeOf(image);
+
+        // Evict least recently used images until the cache fits its budget again
+        Iterator<Image> it = images.values().iterator();
+        while (cachedBytes > MAX_CACHE_BYTES && images.size() > 1 && it.hasNext()) {
+            Image eldest = it.next();
+            if (eldest == image) {
+                break;
+            }
+            cachedBytes -= sizeOf(eldest);
+            it.remove();
+        }
+    }
+
+    private static long sizeOf(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+
+    /**
+     * Supplies the encoded bytes of a poster rendition; called on a loader thread.
+     */
+    @FunctionalInterface
+    private interface ImageSource {
+        byte[] read();
+    }
+}
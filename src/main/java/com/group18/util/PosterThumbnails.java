@@ -0,0 +1,96 @@
+package com.group18.util;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Helpers for producing the pre-scaled poster renditions stored next to the original poster.
+ * Thumbnails are sized for the movie grids (twice the on-screen card size, for HiDPI displays)
+ * and encoded as JPEG so they stay small on the wire.
+ */
+public final class PosterThumbnails {
+    /** Bounding box of a thumbnail, twice the 180x270 poster slot of a movie card. */
+    public static final int THUMB_WIDTH = 360;
+    public static final int THUMB_HEIGHT = 540;
+
+    private PosterThumbnails() {}
+
+    /**
+     * Scales a poster down to fit the thumbnail bounding box, preserving its aspect ratio.
+     * Images already smaller than the box are re-encoded but not enlarged.
+     *
+     * @param posterData the original poster image bytes
+     * @return the thumbnail as JPEG bytes, or null if the poster could not be decoded
+     */
+    public static byte[] createThumbnail(byte[] posterData) {
+        if (posterData == null || posterData.length == 0) {
+            return null;
+        }
+        try {
+            BufferedImage original = ImageIO.read(new ByteArrayInputStream(posterData));
+            if (original == null) {
+                return null;
+            }
+
+            double scale = Math.min(1.0, Math.min(
+                    (double) THUMB_WIDTH / original.getWidth(),
+                    (double) THUMB_HEIGHT / original.getHeight()));
+            int width = Math.max(1, (int) Math.round(original.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(original.getHeight() * scale));
+
+            // JPEG has no alpha channel, so flatten onto white
+            BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = thumbnail.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, width, height);
+                g.drawImage(original, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            if (!ImageIO.write(thumbnail, "jpg", out)) {
+                return null;
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Computes the content hash used to key cached poster images.
+     * Matches MySQL's {@code SHA2(poster_data, 256)} so existing rows can be backfilled in SQL.
+     *
+     * @param posterData the original poster image bytes
+     * @return the lowercase hex SHA-256 of the poster, or null if there is no poster
+     */
+    public static String hash(byte[] posterData) {
+        if (posterData == null || posterData.length == 0) {
+            return null;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(posterData);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to ship SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.group18.util;
+
+/**
+ * Implemented by controllers whose view may be kept by the {@link ViewCache} and shown again
+ * instead of being loaded from its FXML file anew. Only views whose controller implements
+ * this interface are cached; every other view is loaded fresh each time.
+ *
+ * A reused controller keeps its fields, listeners and DAOs from the previous time it was shown,
+ * so it must be able to put itself back into the state of a freshly loaded one. The data a
+ * caller passes to a fresh controller, such as the cashier controller or the selected movie,
+ * is passed again through the usual setters after the reset.
+ */
+public interface ReusableController {
+    /**
+     * Clears whatever the view was showing and the selections made in it, as if the FXML file
+     * had just been loaded. Called on the JavaFX thread before the view is handed out again,
+     * once it has been taken out of the layout it was last shown in.
+     */
+    void resetForReuse();
+}
@@ -0,0 +1,69 @@
+package com.group18.util;
+
+import com.group18.dao.ChangeEvent;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Applies the changes published on the {@link com.group18.dao.ChangeBus} to the rows a screen
+ * lists, one row at a time, so a change costs a single-row read instead of reloading the table.
+ * Changed rows are read again in the background with {@link #read}, then merged into the list
+ * on the JavaFX thread with {@link #apply}.
+ */
+public final class RowDeltas {
+
+    private RowDeltas() {
+    }
+
+    /**
+     * Reads the changed rows again. Blocks on the database, so call it in the background.
+     *
+     * @param changes the changes published
+     * @param finder reads a row by ID, returning null if it no longer exists
+     * @param <T> the row type
+     * @return the changed rows by ID, in the order of the changes, with null for removed rows
+     */
+    public static <T> Map<Integer, T> read(List<ChangeEvent> changes, IntFunction<T> finder) {
+        Map<Integer, T> rows = new LinkedHashMap<>();
+        for (ChangeEvent change : changes) {
+            int id = change.getEntityId();
+            rows.put(id, change.getType() == ChangeEvent.Type.DELETED ? null : finder.apply(id));
+        }
+        return rows;
+    }
+
+    /**
+     * Replaces the changed rows in a list, removes the ones that no longer exist and appends
+     * the ones it did not hold yet. Applying the same rows twice leaves the list the same.
+     *
+     * @param rows the rows listed
+     * @param changed the changed rows by ID, with null for removed rows
+     * @param idOf gives the ID of a row
+     * @param <T> the row type
+     */
+    public static <T> void apply(List<T> rows, Map<Integer, T> changed, ToIntFunction<T> idOf) {
+        Map<Integer, T> pending = new HashMap<>(changed);
+        for (ListIterator<T> iterator = rows.listIterator(); iterator.hasNext() && !pending.isEmpty(); ) {
+            int id = idOf.applyAsInt(iterator.next());
+            if (pending.containsKey(id)) {
+                T row = pending.remove(id);
+                if (row == null) {
+                    iterator.remove();
+                } else {
+                    iterator.set(row);
+                }
+            }
+        }
+        changed.forEach((id, row) -> {
+            if (row != null && pending.containsKey(id)) {
+                rows.add(row);
+            }
+        });
+    }
+}
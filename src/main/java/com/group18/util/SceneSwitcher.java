@@ -1,32 +1,30 @@
 package com.group18.util;
 
-import javafx.animation.ScaleTransition;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
-import javafx.scene.control.Button;
 import javafx.stage.Stage;
-import javafx.util.Duration;
 
 import java.io.IOException;
 
+/**
+ * Replaces the scene of a window with the view of an FXML file. Views are taken from the
+ * {@link ViewCache}, so a view whose controller can be reused, such as the login view, is
+ * shown again in the scene it was first shown in instead of being loaded again.
+ */
 public class SceneSwitcher {
     // Original method
     public static void switchToScene(String fxmlFile, Stage stage) throws IOException {
-        FXMLLoader loader = new FXMLLoader(SceneSwitcher.class.getResource(fxmlFile));
-        Parent root = loader.load();
-        Scene scene = new Scene(root);
-        stage.setScene(scene);
-        stage.show();
+        switchToSceneAndGetLoader(fxmlFile, stage);
     }
 
     // New method that returns the loader
     public static FXMLLoader switchToSceneAndGetLoader(String fxmlFile, Stage stage) throws IOException {
-        FXMLLoader loader = new FXMLLoader(SceneSwitcher.class.getResource(fxmlFile));
-        Parent root = loader.load();
-        Scene scene = new Scene(root);
+        FXMLLoader loader = ViewCache.getInstance().load(fxmlFile);
+        Parent root = loader.getRoot();
+        Scene scene = root.getScene() != null ? root.getScene() : new Scene(root);
         stage.setScene(scene);
         stage.show();
         return loader;
     }
-}
\ No newline at end of file
+}
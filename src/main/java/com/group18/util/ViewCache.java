@@ -0,0 +1,148 @@
+package com.group18.util;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.layout.Pane;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps views loaded from FXML files, with their controllers, so showing a view again costs
+ * neither parsing its FXML file nor building its scene graph. A view is kept only if its
+ * controller implements {@link ReusableController}; it is reset through that hook each time it
+ * is handed out again. Views of any other controller are loaded fresh on every request.
+ *
+ * A cached view is handed out to one place at a time: asking for it again takes it out of the
+ * layout it was shown in. The cache holds a bounded number of views, dropping the least
+ * recently used first, and holds them softly, so the garbage collector may drop any view that
+ * is not being shown when memory runs low.
+ *
+ * Views are loaded and handed out on the JavaFX thread. Views likely to be shown next can be
+ * loaded ahead of time with {@link #prewarm}, while the JavaFX thread has nothing else to do.
+ *
+ * This class follows the Singleton design pattern so every screen shares one cache.
+ */
+public class ViewCache {
+    /** The number of views kept at most. */
+    private static final int MAX_VIEWS = Integer.getInteger("cinema.ui.viewCacheSize", 12);
+
+    private static ViewCache instance;
+
+    /** Cached views by FXML path, least recently used first. Only used on the JavaFX thread. */
+    private final LinkedHashMap<String, CachedView> views = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedView> eldest) {
+            return size() > MAX_VIEWS;
+        }
+    };
+
+    private ViewCache() {}
+
+    /**
+     * Provides the shared view cache.
+     *
+     * @return the singleton instance of the ViewCache class
+     */
+    public static synchronized ViewCache getInstance() {
+        if (instance == null) {
+            instance = new ViewCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Hands out the view of an FXML file, reusing the cached one if there is one. Must be called
+     * on the JavaFX thread.
+     *
+     * @param fxmlPath the resource path of the FXML file
+     * @return the loader the view was loaded with, from which its root and controller can be read
+     * @throws IOException if the view is not cached and its FXML file cannot be loaded
+     */
+    public FXMLLoader load(String fxmlPath) throws IOException {
+        CachedView cached = views.get(fxmlPath);
+        FXMLLoader loader = cached != null ? cached.loader.get() : null;
+        if (loader == null) {
+            loader = loadAndKeep(fxmlPath);
+        } else if (cached.handedOut) {
+            detach(loader.getRoot());
+            ((ReusableController) loader.getController()).resetForReuse();
+        }
+
+        CachedView kept = views.get(fxmlPath);
+        if (kept != null) {
+            kept.handedOut = true;
+        }
+        return loader;
+    }
+
+    /**
+     * Loads views ahead of time, so the first request for them is answered from the cache. Each
+     * view is loaded by a separate task on the JavaFX thread, after the work already queued
+     * there, so a long list does not freeze the screen in one go. Views already cached, and
+     * views whose controller cannot be reused, are skipped or dropped.
+     *
+     * @param fxmlPaths the resource paths of the FXML files
+     */
+    public void prewarm(String... fxmlPaths) {
+        for (String fxmlPath : fxmlPaths) {
+            Platform.runLater(() -> {
+                CachedView cached = views.get(fxmlPath);
+                if (cached != null && cached.loader.get() != null) {
+                    return;
+                }
+                try {
+                    loadAndKeep(fxmlPath);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            });
+        }
+    }
+
+    /**
+     * Loads a view from its FXML file and keeps it if its controller can be reused.
+     */
+    private FXMLLoader loadAndKeep(String fxmlPath) throws IOException {
+        FXMLLoader loader = new FXMLLoader(ViewCache.class.getResource(fxmlPath));
+        loader.load();
+        if (loader.getController() instanceof ReusableController) {
+            views.put(fxmlPath, new CachedView(loader));
+        } else {
+            views.remove(fxmlPath);
+        }
+        return loader;
+    }
+
+    /**
+     * Takes a view out of the layout it was shown in, so resetting it cannot be undone by the
+     * view noticing its removal afterwards. The root of a scene stays in its scene, which is
+     * shown again along with it.
+     */
+    private static void detach(Node root) {
+        Parent parent = root.getParent();
+        if (parent instanceof Pane) {
+            ((Pane) parent).getChildren().remove(root);
+        } else if (parent instanceof Group) {
+            ((Group) parent).getChildren().remove(root);
+        }
+    }
+
+    /**
+     * A view loaded from an FXML file, held softly.
+     */
+    private static class CachedView {
+        private final SoftReference<FXMLLoader> loader;
+        /** Whether the view has been handed out since it was loaded, so it needs a reset before the next time. */
+        private boolean handedOut;
+
+        CachedView(FXMLLoader loader) {
+            this.loader = new SoftReference<>(loader);
+        }
+    }
+}